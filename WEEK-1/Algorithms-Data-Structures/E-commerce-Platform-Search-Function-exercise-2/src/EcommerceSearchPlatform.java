@@ -4,6 +4,9 @@ public class EcommerceSearchPlatform {
     private Product[] products;        // For linear search
     private Product[] sortedProducts;  // For binary search
     private int size;
+    private int[] sortedIds;           // Product ids in sortedProducts order, rebuilt lazily
+    private int[] eytzingerIds;        // Same ids in Eytzinger layout for hot lookups
+    private Product[] eytzingerProducts;
     
     public EcommerceSearchPlatform(int capacity) {
         this.products = new Product[capacity];
@@ -20,6 +23,27 @@ public class EcommerceSearchPlatform {
             
             // Keep sorted array sorted by productId
             Arrays.sort(sortedProducts, 0, size);
+            sortedIds = null;
+            eytzingerIds = null;
+        }
+    }
+
+    // Rebuilds the primitive search indexes after products were added
+    private void ensureIndexes() {
+        if (sortedIds == null) {
+            sortedIds = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = sortedProducts[i].getProductId();
+            }
+        }
+        if (eytzingerIds == null) {
+            int[] order = SearchAlgorithms.eytzingerOrder(size);
+            eytzingerIds = new int[size + 1];
+            eytzingerProducts = new Product[size + 1];
+            for (int slot = 1; slot <= size; slot++) {
+                eytzingerIds[slot] = sortedIds[order[slot]];
+                eytzingerProducts[slot] = sortedProducts[order[slot]];
+            }
         }
     }
     
@@ -33,27 +57,33 @@ public class EcommerceSearchPlatform {
         return null; // Not found
     }
     
-    // Binary Search Implementation
+    // Binary Search Implementation (branchless lower bound over the primitive id array)
     public Product binarySearch(int productId) {
-        int left = 0;
-        int right = size - 1;
-        
-        while (left <= right) {
-            int mid = left + (right - left) / 2;
-            int midId = sortedProducts[mid].getProductId();
-            
-            if (midId == productId) {
-                return sortedProducts[mid];
-            }
-            
-            if (midId < productId) {
-                left = mid + 1;
-            } else {
-                right = mid - 1;
-            }
+        ensureIndexes();
+        int index = SearchAlgorithms.lowerBound(sortedIds, size, productId);
+        if (index < size && sortedIds[index] == productId) {
+            return sortedProducts[index];
+        }
+        return null; // Not found
+    }
+
+    // Eytzinger-layout search, fastest for repeated lookups on a catalogue that rarely changes
+    public Product eytzingerSearch(int productId) {
+        ensureIndexes();
+        int slot = SearchAlgorithms.eytzingerLowerBound(eytzingerIds, productId);
+        if (slot != 0 && eytzingerIds[slot] == productId) {
+            return eytzingerProducts[slot];
         }
         return null; // Not found
     }
+
+    // All products with fromId <= productId <= toId, in id order
+    public Product[] searchByIdRange(int fromId, int toId) {
+        ensureIndexes();
+        int from = SearchAlgorithms.lowerBound(sortedIds, size, fromId);
+        int to = SearchAlgorithms.upperBound(sortedIds, size, toId);
+        return from < to ? Arrays.copyOfRange(sortedProducts, from, to) : new Product[0];
+    }
     
     // Performance comparison method
     public void compareSearchAlgorithms(int searchId) {
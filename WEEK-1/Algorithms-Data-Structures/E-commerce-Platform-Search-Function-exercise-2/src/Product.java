@@ -52,5 +52,11 @@ class Main {
         platform.compareSearchAlgorithms(112);  // Found case
         platform.compareSearchAlgorithms(999);  // Not found case
         platform.compareSearchAlgorithms(523);  // Last item case
+        
+        // Range query over product ids
+        System.out.println("=== Products with ID 100-300 ===");
+        for (Product product : platform.searchByIdRange(100, 300)) {
+            System.out.println(product);
+        }
     }
 }
\ No newline at end of file
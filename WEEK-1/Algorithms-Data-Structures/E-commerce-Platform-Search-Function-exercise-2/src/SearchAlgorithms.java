@@ -0,0 +1,73 @@
+/**
+ * Search routines over sorted primitive int arrays.
+ *
+ * The bounds are branchless, and the Eytzinger variants search a copy of the
+ * array laid out in breadth-first order for better cache use on repeated lookups.
+ */
+final class SearchAlgorithms {
+
+    private SearchAlgorithms() {
+    }
+
+    // Branchless lower bound over a sorted int[]: the loop runs exactly ceil(log2 n) times
+    // and the comparison compiles to a conditional move instead of a mispredicted jump
+    static int lowerBound(int[] sorted, int length, int key) {
+        if (length == 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = length;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = sorted[base + half - 1] < key ? base + half : base;
+            n -= half;
+        }
+        return sorted[base] < key ? base + 1 : base;
+    }
+
+    // First index whose value is greater than the key
+    static int upperBound(int[] sorted, int length, int key) {
+        if (length == 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = length;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = sorted[base + half - 1] <= key ? base + half : base;
+            n -= half;
+        }
+        return sorted[base] <= key ? base + 1 : base;
+    }
+
+    // Rearranges a sorted array into Eytzinger (BFS heap) order; slot 0 is unused so
+    // the children of slot k are 2k and 2k + 1. Returns the sorted index kept in each slot.
+    static int[] eytzingerOrder(int length) {
+        int[] order = new int[length + 1];
+        fillEytzinger(order, 0, 1);
+        return order;
+    }
+
+    private static int fillEytzinger(int[] order, int next, int slot) {
+        if (slot < order.length) {
+            next = fillEytzinger(order, next, 2 * slot);
+            order[slot] = next++;
+            next = fillEytzinger(order, next, 2 * slot + 1);
+        }
+        return next;
+    }
+
+    // Lower bound over an Eytzinger-ordered array produced with eytzingerOrder(); returns
+    // the slot of the first key not smaller than the search key, or 0 when there is none.
+    // The top of the implicit tree stays hot in cache, which is what pays off on large
+    // read-only arrays that are searched over and over.
+    static int eytzingerLowerBound(int[] layout, int key) {
+        int k = 1;
+        while (k < layout.length) {
+            k = 2 * k + (layout[k] < key ? 1 : 0);
+        }
+        // Undo the trailing right turns (and the final left turn) to land on the answer
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k;
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// Compares the search variants in SearchAlgorithms on a large read-only id array
+public class SearchBenchmark {
+
+    private static final int SIZE = 1 << 22;
+    private static final int SEARCHES = 2_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int[] sorted = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            sorted[i] = i * 3; // Gaps so that roughly two thirds of the lookups miss
+        }
+        int[] order = SearchAlgorithms.eytzingerOrder(SIZE);
+        int[] layout = new int[SIZE + 1];
+        for (int slot = 1; slot <= SIZE; slot++) {
+            layout[slot] = sorted[order[slot]];
+        }
+        int[] keys = new int[SEARCHES];
+        for (int i = 0; i < SEARCHES; i++) {
+            keys[i] = random.nextInt(SIZE * 3);
+        }
+
+        System.out.println("=== Search Benchmark (" + SIZE + " ids, " + SEARCHES + " lookups) ===");
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("\n--- Round " + round + " ---");
+
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int key : keys) {
+                if (classicBinarySearch(sorted, key) >= 0) hits++;
+            }
+            report("Classic binary search", start, hits);
+
+            start = System.nanoTime();
+            hits = 0;
+            for (int key : keys) {
+                if (Arrays.binarySearch(sorted, key) >= 0) hits++;
+            }
+            report("Arrays.binarySearch  ", start, hits);
+
+            start = System.nanoTime();
+            hits = 0;
+            for (int key : keys) {
+                int index = SearchAlgorithms.lowerBound(sorted, SIZE, key);
+                if (index < SIZE && sorted[index] == key) hits++;
+            }
+            report("Branchless lowerBound", start, hits);
+
+            start = System.nanoTime();
+            hits = 0;
+            for (int key : keys) {
+                int slot = SearchAlgorithms.eytzingerLowerBound(layout, key);
+                if (slot != 0 && layout[slot] == key) hits++;
+            }
+            report("Eytzinger lowerBound ", start, hits);
+        }
+    }
+
+    private static int classicBinarySearch(int[] sorted, int key) {
+        int left = 0;
+        int right = sorted.length - 1;
+        while (left <= right) {
+            int mid = left + (right - left) / 2;
+            if (sorted[mid] == key) {
+                return mid;
+            }
+            if (sorted[mid] < key) {
+                left = mid + 1;
+            } else {
+                right = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static void report(String label, long start, int hits) {
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%s: %,6d ns/lookup (hits %d)%n", label, elapsed / SEARCHES, hits);
+    }
+}
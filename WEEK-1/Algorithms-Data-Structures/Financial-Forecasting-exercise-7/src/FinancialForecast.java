@@ -2,6 +2,9 @@ import java.util.HashMap;
 
 public class FinancialForecast {
 
+    // Growth factors shared across calls, so repeated (rate, years) projections skip the computation
+    private static final GrowthFactorCache GROWTH_FACTORS = new GrowthFactorCache(4096);
+
     // Naive Recursive Approach
     public static double futureValueRecursive(double presentValue, double annualGrowthRate, int years) {
         if (years == 0) {
@@ -32,6 +35,79 @@ public class FinancialForecast {
         return result;
     }
 
+    // Variable-rate Approach: annualGrowthRates[i] applies to year i + 1
+    public static double futureValueVariableRate(double presentValue, double[] annualGrowthRates) {
+        double result = presentValue;
+        for (double rate : annualGrowthRates) {
+            result *= (1 + rate);
+        }
+        return result;
+    }
+
+    // Closed-form growth factor (1 + r)^n by exponentiation by squaring: O(log n) multiplies, no recursion
+    public static double growthFactor(double annualGrowthRate, int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("years must not be negative: " + years);
+        }
+        double base = 1 + annualGrowthRate;
+        double factor = 1.0;
+        while (years != 0) {
+            if ((years & 1) != 0) {
+                factor *= base;
+            }
+            base *= base;
+            years >>>= 1;
+        }
+        return factor;
+    }
+
+    // Closed-form Approach
+    public static double futureValueClosedForm(double presentValue, double annualGrowthRate, int years) {
+        return presentValue * growthFactor(annualGrowthRate, years);
+    }
+
+    // Cached Closed-form Approach
+    public static double futureValueCached(double presentValue, double annualGrowthRate, int years) {
+        return presentValue * GROWTH_FACTORS.growthFactor(annualGrowthRate, years);
+    }
+
+    public static GrowthFactorCache growthFactorCache() {
+        return GROWTH_FACTORS;
+    }
+
+    // Batch projection over primitive arrays using the Math.pow intrinsic; results are written into futureValues
+    public static void futureValues(double[] presentValues, double[] annualGrowthRates, int[] years, double[] futureValues) {
+        int n = presentValues.length;
+        if (annualGrowthRates.length != n || years.length != n) {
+            throw new IllegalArgumentException("Batch input arrays must have matching lengths");
+        }
+        if (futureValues.length < n) {
+            throw new IllegalArgumentException("futureValues output is too short: " + futureValues.length + " < " + n);
+        }
+        // Validate every row first, so a bad row leaves futureValues untouched
+        for (int i = 0; i < n; i++) {
+            if (years[i] < 0) {
+                throw new IllegalArgumentException("years must not be negative: " + years[i] + " at index " + i);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            futureValues[i] = presentValues[i] * Math.pow(1 + annualGrowthRates[i], years[i]);
+        }
+    }
+
+    // Batch projection when every portfolio shares the same rate and horizon: the factor is computed
+    // once and the remaining loop is a plain multiply that the JIT compiles to SIMD instructions
+    public static void futureValues(double[] presentValues, double annualGrowthRate, int years, double[] futureValues) {
+        int n = presentValues.length;
+        if (futureValues.length < n) {
+            throw new IllegalArgumentException("futureValues output is too short: " + futureValues.length + " < " + n);
+        }
+        double factor = growthFactor(annualGrowthRate, years);
+        for (int i = 0; i < n; i++) {
+            futureValues[i] = presentValues[i] * factor;
+        }
+    }
+
     public static void main(String[] args) {
         double presentValue = 1000.0;
         double growthRate = 0.08;
@@ -57,9 +133,25 @@ public class FinancialForecast {
         end = System.nanoTime();
         long timeIterative = end - start;
 
+        // Closed-form
+        start = System.nanoTime();
+        double resultClosedForm = futureValueClosedForm(presentValue, growthRate, years);
+        end = System.nanoTime();
+        long timeClosedForm = end - start;
+
+        // Cached closed-form (second call is served from the cache)
+        futureValueCached(presentValue, growthRate, years);
+        start = System.nanoTime();
+        double resultCached = futureValueCached(presentValue, growthRate, years);
+        end = System.nanoTime();
+        long timeCached = end - start;
+
         // Output
         System.out.printf("Naive Recursive Result: %.2f | Time: %d ns\n", resultRecursive, timeRecursive);
         System.out.printf("Memoized Recursive Result: %.2f | Time: %d ns\n", resultMemo, timeMemo);
         System.out.printf("Iterative Result: %.2f | Time: %d ns\n", resultIterative, timeIterative);
+        System.out.printf("Closed-form Result: %.2f | Time: %d ns\n", resultClosedForm, timeClosedForm);
+        System.out.printf("Cached Closed-form Result: %.2f | Time: %d ns\n", resultCached, timeCached);
+        System.out.println(growthFactorCache());
     }
 }
@@ -0,0 +1,153 @@
+import java.util.Arrays;
+
+/**
+ * Financial Forecast Test Suite
+ *
+ * Validates the closed-form and batch projections of FinancialForecast:
+ * - Closed Form: growthFactor and futureValueClosedForm match the recursive and iterative results
+ * - Batch Matches Scalar: both batch projections give the same values as one call per portfolio
+ * - Length Errors: mismatched input arrays and a short output array are rejected
+ * - Negative Years: rejected by every projection, without writing any output
+ */
+public class FinancialForecastTest {
+
+    private static final double[] RATES = {-0.05, 0.0, 0.03, 0.08, 0.25};
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Financial Forecast Test Suite ===\n");
+
+        testClosedForm();
+        testBatchMatchesScalar();
+        testLengthErrors();
+        testNegativeYears();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Relative difference, so large projections are held to the same precision as small ones
+    private static boolean close(double expected, double actual) {
+        return Math.abs(expected - actual) <= 1e-12 * Math.max(1.0, Math.abs(expected));
+    }
+
+    /**
+     * Test 1: Closed Form
+     *
+     * For several rates, including a negative one and zero, and 0 to 60 years,
+     * the closed form agrees with the recursive and iterative projections.
+     */
+    private static void testClosedForm() {
+        System.out.println("Test 1: Closed Form");
+        boolean matchesRecursive = true;
+        boolean matchesIterative = true;
+        for (double rate : RATES) {
+            for (int years = 0; years <= 60; years++) {
+                double closedForm = FinancialForecast.futureValueClosedForm(1000.0, rate, years);
+                matchesRecursive &= close(FinancialForecast.futureValueRecursive(1000.0, rate, years), closedForm);
+                matchesIterative &= close(FinancialForecast.futureValueIterative(1000.0, rate, years), closedForm);
+            }
+        }
+        check(matchesRecursive, "closed form matches the recursive result");
+        check(matchesIterative, "closed form matches the iterative result");
+        check(FinancialForecast.growthFactor(0.08, 0) == 1.0, "zero years gives a factor of 1");
+        System.out.println();
+    }
+
+    /**
+     * Test 2: Batch Matches Scalar
+     *
+     * The per-row batch matches futureValueClosedForm for every row. The
+     * shared-rate batch multiplies by the same factor, so it matches exactly.
+     */
+    private static void testBatchMatchesScalar() {
+        System.out.println("Test 2: Batch Matches Scalar");
+        int n = 1000;
+        double[] presentValues = new double[n];
+        double[] rates = new double[n];
+        int[] years = new int[n];
+        for (int i = 0; i < n; i++) {
+            presentValues[i] = 100.0 + i;
+            rates[i] = RATES[i % RATES.length];
+            years[i] = i % 50;
+        }
+        double[] perRow = new double[n];
+        FinancialForecast.futureValues(presentValues, rates, years, perRow);
+        boolean perRowMatches = true;
+        for (int i = 0; i < n; i++) {
+            perRowMatches &= close(FinancialForecast.futureValueClosedForm(presentValues[i], rates[i], years[i]), perRow[i]);
+        }
+        double[] shared = new double[n + 1];
+        FinancialForecast.futureValues(presentValues, 0.08, 35, shared);
+        boolean sharedMatches = shared[n] == 0.0;
+        for (int i = 0; i < n; i++) {
+            sharedMatches &= shared[i] == FinancialForecast.futureValueClosedForm(presentValues[i], 0.08, 35);
+        }
+        check(perRowMatches, "per-row batch matches one call per portfolio");
+        check(sharedMatches, "shared-rate batch matches exactly and leaves extra output slots alone");
+        System.out.println();
+    }
+
+    /**
+     * Test 3: Length Errors
+     */
+    private static void testLengthErrors() {
+        System.out.println("Test 3: Length Errors");
+        double[] three = {1, 2, 3};
+        check(throwsIllegalArgument(() -> FinancialForecast.futureValues(three, new double[2], new int[3], new double[3])),
+                "fewer rates than present values is rejected");
+        check(throwsIllegalArgument(() -> FinancialForecast.futureValues(three, new double[3], new int[4], new double[3])),
+                "more years than present values is rejected");
+        check(throwsIllegalArgument(() -> FinancialForecast.futureValues(three, new double[3], new int[3], new double[2])),
+                "a short output array is rejected by the per-row batch");
+        check(throwsIllegalArgument(() -> FinancialForecast.futureValues(three, 0.05, 10, new double[2])),
+                "a short output array is rejected by the shared-rate batch");
+        System.out.println();
+    }
+
+    /**
+     * Test 4: Negative Years
+     *
+     * A negative horizon in the third row is rejected before the first two
+     * rows are written, so the output keeps its previous contents.
+     */
+    private static void testNegativeYears() {
+        System.out.println("Test 4: Negative Years");
+        check(throwsIllegalArgument(() -> FinancialForecast.growthFactor(0.05, -1)), "growthFactor rejects -1 years");
+        double[] output = {-1, -1, -1, -1};
+        double[] presentValues = {100, 200, 300, 400};
+        double[] rates = {0.05, 0.05, 0.05, 0.05};
+        int[] years = {10, 10, -3, 10};
+        boolean rejected = throwsIllegalArgument(() -> FinancialForecast.futureValues(presentValues, rates, years, output));
+        check(rejected && Arrays.equals(output, new double[] {-1, -1, -1, -1}),
+                "per-row batch rejects a negative year without writing any output");
+        double[] sharedOutput = {-1, -1};
+        rejected = throwsIllegalArgument(() -> FinancialForecast.futureValues(new double[] {100, 200}, 0.05, -3, sharedOutput));
+        check(rejected && Arrays.equals(sharedOutput, new double[] {-1, -1}),
+                "shared-rate batch rejects negative years without writing any output");
+        System.out.println();
+    }
+
+    private static boolean throwsIllegalArgument(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        testCount++;
+        if (condition) {
+            passCount++;
+            System.out.println("  PASS: " + description);
+        } else {
+            System.out.println("  FAIL: " + description);
+        }
+    }
+}
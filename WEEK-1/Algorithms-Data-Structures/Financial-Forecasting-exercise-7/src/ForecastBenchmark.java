@@ -0,0 +1,85 @@
+import java.util.HashMap;
+import java.util.Random;
+
+// Projects a large book of portfolios with each FinancialForecast approach and compares throughput
+public class ForecastBenchmark {
+
+    private static final int PORTFOLIOS = 1_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        double[] presentValues = new double[PORTFOLIOS];
+        double[] rates = new double[PORTFOLIOS];
+        int[] years = new int[PORTFOLIOS];
+        for (int i = 0; i < PORTFOLIOS; i++) {
+            presentValues[i] = 1_000 + random.nextDouble() * 99_000;
+            rates[i] = 0.01 + random.nextDouble() * 0.11;
+            years[i] = 1 + random.nextInt(40);
+        }
+        double[] results = new double[PORTFOLIOS];
+
+        System.out.println("=== Forecast Benchmark (" + PORTFOLIOS + " portfolios) ===");
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("\n--- Round " + round + " ---");
+
+            long start = System.nanoTime();
+            for (int i = 0; i < PORTFOLIOS; i++) {
+                results[i] = FinancialForecast.futureValueRecursive(presentValues[i], rates[i], years[i]);
+            }
+            report("Naive Recursive     ", start, results);
+
+            start = System.nanoTime();
+            for (int i = 0; i < PORTFOLIOS; i++) {
+                results[i] = FinancialForecast.futureValueMemo(presentValues[i], rates[i], years[i], new HashMap<>());
+            }
+            report("Memoized Recursive  ", start, results);
+
+            start = System.nanoTime();
+            for (int i = 0; i < PORTFOLIOS; i++) {
+                results[i] = FinancialForecast.futureValueIterative(presentValues[i], rates[i], years[i]);
+            }
+            report("Iterative           ", start, results);
+
+            start = System.nanoTime();
+            FinancialForecast.futureValues(presentValues, rates, years, results);
+            report("Batch (per-row rate)", start, results);
+
+            start = System.nanoTime();
+            FinancialForecast.futureValues(presentValues, 0.08, 35, results);
+            report("Batch (shared rate) ", start, results);
+        }
+
+        // Service-style workload: many requests for a small set of quoted rates and horizons
+        double[] quotedRates = new double[PORTFOLIOS];
+        for (int i = 0; i < PORTFOLIOS; i++) {
+            quotedRates[i] = (1 + random.nextInt(48)) * 0.0025;
+        }
+        System.out.println("\n=== Repeated (rate, years) requests: 48 rates x 40 horizons ===");
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("\n--- Round " + round + " ---");
+
+            long start = System.nanoTime();
+            for (int i = 0; i < PORTFOLIOS; i++) {
+                results[i] = FinancialForecast.futureValueIterative(presentValues[i], quotedRates[i], years[i]);
+            }
+            report("Iterative           ", start, results);
+
+            start = System.nanoTime();
+            for (int i = 0; i < PORTFOLIOS; i++) {
+                results[i] = FinancialForecast.futureValueCached(presentValues[i], quotedRates[i], years[i]);
+            }
+            report("Cached Closed-form  ", start, results);
+        }
+        System.out.println(FinancialForecast.growthFactorCache());
+    }
+
+    private static void report(String label, long start, double[] results) {
+        long elapsed = System.nanoTime() - start;
+        double checksum = 0;
+        for (double result : results) {
+            checksum += result;
+        }
+        System.out.printf("%s: %,8d ns/portfolio | %,12.0f portfolios/s | checksum %.4e%n",
+                label, elapsed / PORTFOLIOS, PORTFOLIOS * 1e9 / elapsed, checksum);
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of growth factors (1 + rate)^years.
+ *
+ * Entries live in primitive arrays (no boxing, no per-entry objects) organised as a
+ * set-associative table: each (rate, years) key hashes to one set of WAYS slots,
+ * and a miss on a full set evicts that set's least recently used slot. Sets are
+ * guarded by striped locks so unrelated keys rarely contend.
+ */
+public class GrowthFactorCache {
+
+    private static final int WAYS = 8;
+    private static final int STRIPES = 64;
+    private static final int EMPTY = -1;
+
+    private final int setMask;
+    private final long[] rateBits;
+    private final int[] years;
+    private final double[] factors;
+    private final long[] lastUsed;
+    private final long[] setClocks;
+    private final Object[] locks = new Object[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries upper bound on cached factors; it is rounded down to WAYS times a
+     *                   power of two (4096 stays 4096, 5000 becomes 4096), see capacity()
+     */
+    public GrowthFactorCache(int maxEntries) {
+        if (maxEntries < WAYS) {
+            throw new IllegalArgumentException("maxEntries must be at least " + WAYS + ": " + maxEntries);
+        }
+        int sets = Integer.highestOneBit(maxEntries / WAYS);
+        this.setMask = sets - 1;
+        this.rateBits = new long[sets * WAYS];
+        this.years = new int[sets * WAYS];
+        this.factors = new double[sets * WAYS];
+        this.lastUsed = new long[sets * WAYS];
+        this.setClocks = new long[sets];
+        Arrays.fill(years, EMPTY);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public double growthFactor(double annualGrowthRate, int numberOfYears) {
+        // Checked before the lookup: empty slots hold years == EMPTY, which must never match
+        if (numberOfYears < 0) {
+            throw new IllegalArgumentException("years must not be negative: " + numberOfYears);
+        }
+        long bits = Double.doubleToLongBits(annualGrowthRate);
+        int set = setIndex(bits, numberOfYears);
+        int base = set * WAYS;
+        Object lock = locks[set & (STRIPES - 1)];
+
+        synchronized (lock) {
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (years[slot] == numberOfYears && rateBits[slot] == bits) {
+                    lastUsed[slot] = ++setClocks[set];
+                    hits.increment();
+                    return factors[slot];
+                }
+            }
+        }
+
+        // Compute outside the lock; a racing thread may insert the same key, which is harmless
+        misses.increment();
+        double factor = FinancialForecast.growthFactor(annualGrowthRate, numberOfYears);
+
+        synchronized (lock) {
+            int victim = base;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (years[slot] == numberOfYears && rateBits[slot] == bits) {
+                    return factors[slot];
+                }
+                if (years[slot] == EMPTY) {
+                    victim = slot;
+                    break;
+                }
+                if (lastUsed[slot] < lastUsed[victim]) {
+                    victim = slot;
+                }
+            }
+            if (years[victim] != EMPTY) {
+                evictions.increment();
+            }
+            rateBits[victim] = bits;
+            years[victim] = numberOfYears;
+            factors[victim] = factor;
+            lastUsed[victim] = ++setClocks[set];
+        }
+        return factor;
+    }
+
+    private int setIndex(long bits, int numberOfYears) {
+        long h = bits * 0x9E3779B97F4A7C15L + numberOfYears;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (int) h & setMask;
+    }
+
+    // Number of entries actually held, after rounding maxEntries down
+    public int capacity() {
+        return factors.length;
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GrowthFactorCache{capacity=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.2f%%}",
+                capacity(), getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Growth Factor Cache Test Suite
+ *
+ * Validates GrowthFactorCache:
+ * - Correctness: cached factors equal FinancialForecast.growthFactor
+ * - Hits and Misses: a repeated key is served from the cache
+ * - Negative Years: rejected before the lookup, including keys that look like empty slots
+ * - Bounded Capacity: capacity is rounded down to a power of two and evictions keep it bounded
+ * - Concurrency: many threads sharing the cache all get correct factors
+ */
+public class GrowthFactorCacheTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Growth Factor Cache Test Suite ===\n");
+
+        testCorrectness();
+        testHitsAndMisses();
+        testNegativeYearsRejected();
+        testBoundedCapacity();
+        testConcurrentAccess();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    /**
+     * Test 1: Correctness
+     *
+     * Factors from the cache, on a miss and on a hit, are exactly the ones
+     * FinancialForecast.growthFactor computes.
+     */
+    private static void testCorrectness() {
+        System.out.println("Test 1: Correctness");
+        GrowthFactorCache cache = new GrowthFactorCache(64);
+        boolean allEqual = true;
+        for (int round = 0; round < 2; round++) {
+            for (int years = 0; years <= 40; years += 5) {
+                double rate = 0.01 * years;
+                allEqual &= cache.growthFactor(rate, years) == FinancialForecast.growthFactor(rate, years);
+            }
+        }
+        check(allEqual, "cached factors equal the computed ones");
+        check(cache.growthFactor(0.0, 0) == 1.0, "zero years gives a factor of 1");
+        System.out.println();
+    }
+
+    /**
+     * Test 2: Hits and Misses
+     *
+     * The first lookup of a key is a miss and later ones are hits.
+     */
+    private static void testHitsAndMisses() {
+        System.out.println("Test 2: Hits and Misses");
+        GrowthFactorCache cache = new GrowthFactorCache(64);
+        cache.growthFactor(0.08, 35);
+        cache.growthFactor(0.08, 35);
+        cache.growthFactor(0.08, 35);
+        cache.growthFactor(0.07, 35);
+        check(cache.getMisses() == 2, "two distinct keys miss once each (" + cache.getMisses() + ")");
+        check(cache.getHits() == 2, "repeated key hits (" + cache.getHits() + ")");
+        check(Math.abs(cache.getHitRate() - 0.5) < 1e-9, "hit rate is 50%");
+        System.out.println();
+    }
+
+    /**
+     * Test 3: Negative Years Rejected
+     *
+     * Negative years throw, like FinancialForecast.growthFactor. Empty slots hold
+     * years -1 and rate bits 0, so growthFactor(0.0, -1) must throw too rather
+     * than match an empty slot and return 0.0.
+     */
+    private static void testNegativeYearsRejected() {
+        System.out.println("Test 3: Negative Years Rejected");
+        GrowthFactorCache cache = new GrowthFactorCache(64);
+        check(throwsIllegalArgument(() -> cache.growthFactor(0.0, -1)), "growthFactor(0.0, -1) throws");
+        check(throwsIllegalArgument(() -> cache.growthFactor(0.05, -10)), "growthFactor(0.05, -10) throws");
+        check(cache.getHits() == 0 && cache.getMisses() == 0, "rejected lookups are not counted");
+        System.out.println();
+    }
+
+    /**
+     * Test 4: Bounded Capacity
+     *
+     * maxEntries is rounded down to a power-of-two number of sets, and filling
+     * the cache with many more keys evicts instead of growing.
+     */
+    private static void testBoundedCapacity() {
+        System.out.println("Test 4: Bounded Capacity");
+        check(new GrowthFactorCache(4096).capacity() == 4096, "4096 entries stay 4096");
+        check(new GrowthFactorCache(5000).capacity() == 4096, "5000 entries round down to 4096");
+        check(throwsIllegalArgument(() -> new GrowthFactorCache(4)), "fewer entries than one set are rejected");
+
+        GrowthFactorCache cache = new GrowthFactorCache(64);
+        for (int years = 0; years < 1000; years++) {
+            cache.growthFactor(0.05, years);
+        }
+        check(cache.getEvictions() >= 1000 - cache.capacity(),
+                "1000 keys in " + cache.capacity() + " slots evict (" + cache.getEvictions() + ")");
+        check(cache.growthFactor(0.05, 999) == FinancialForecast.growthFactor(0.05, 999),
+                "factors stay correct after evictions");
+        System.out.println();
+    }
+
+    /**
+     * Test 5: Concurrent Access
+     *
+     * Eight threads looking up overlapping keys all get the correct factors.
+     */
+    private static void testConcurrentAccess() throws Exception {
+        System.out.println("Test 5: Concurrent Access");
+        GrowthFactorCache cache = new GrowthFactorCache(256);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                boolean correct = true;
+                for (int i = 0; i < 100_000; i++) {
+                    int years = i % 50;
+                    double rate = (i % 7) * 0.01;
+                    correct &= cache.growthFactor(rate, years) == FinancialForecast.growthFactor(rate, years);
+                }
+                return correct;
+            }));
+        }
+        boolean allCorrect = true;
+        for (Future<Boolean> result : results) {
+            allCorrect &= result.get();
+        }
+        executor.shutdown();
+        check(allCorrect, "every thread got correct factors");
+        check(cache.getHits() + cache.getMisses() == 800_000, "every lookup was counted");
+        System.out.println();
+    }
+
+    private static boolean throwsIllegalArgument(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        testCount++;
+        if (condition) {
+            passCount++;
+            System.out.println("  PASS: " + description);
+        } else {
+            System.out.println("  FAIL: " + description);
+        }
+    }
+}
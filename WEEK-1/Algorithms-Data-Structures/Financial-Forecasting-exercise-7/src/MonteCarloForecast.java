@@ -0,0 +1,203 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo projection of a portfolio over random yearly growth-rate paths.
+ *
+ * Each year's rate is drawn from a normal distribution around the expected rate
+ * for that year. A rate of -100% or worse wipes the portfolio out: the value is
+ * floored at zero and the rest of that path is skipped, so a second bad year can
+ * never turn a negative balance positive again. Paths are split into a fixed
+ * number of chunks that run in parallel, each with its own SplittableRandom split
+ * off the seeded root, so the result only depends on the seed and never on the
+ * number of cores. Terminal values are aggregated into a fixed-size log-scale
+ * histogram, so memory does not grow with the number of paths.
+ */
+public class MonteCarloForecast {
+
+    private static final int CHUNKS = 64;
+
+    private final double[] expectedRates;
+    private final double volatility;
+    private final long seed;
+
+    public MonteCarloForecast(double[] expectedRates, double volatility, long seed) {
+        if (expectedRates.length == 0) {
+            throw new IllegalArgumentException("At least one year of rates is required");
+        }
+        if (volatility < 0) {
+            throw new IllegalArgumentException("volatility must not be negative: " + volatility);
+        }
+        this.expectedRates = expectedRates.clone();
+        this.volatility = volatility;
+        this.seed = seed;
+    }
+
+    // Same expected rate every year
+    public MonteCarloForecast(double annualGrowthRate, int years, double volatility, long seed) {
+        this(constantRates(annualGrowthRate, years), volatility, seed);
+    }
+
+    private static double[] constantRates(double annualGrowthRate, int years) {
+        if (years <= 0) {
+            throw new IllegalArgumentException("years must be positive: " + years);
+        }
+        double[] rates = new double[years];
+        Arrays.fill(rates, annualGrowthRate);
+        return rates;
+    }
+
+    public Summary simulate(double presentValue, long paths) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("paths must be positive: " + paths);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] generators = new SplittableRandom[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) {
+            generators[i] = root.split();
+        }
+
+        Histogram[] partials = IntStream.range(0, CHUNKS)
+                .parallel()
+                .mapToObj(chunk -> runChunk(generators[chunk], pathsInChunk(paths, chunk)))
+                .toArray(Histogram[]::new);
+
+        // Merge in chunk order so that the floating-point sums are reproducible
+        Histogram total = new Histogram();
+        for (Histogram partial : partials) {
+            total.merge(partial);
+        }
+        return new Summary(presentValue, total);
+    }
+
+    private static long pathsInChunk(long paths, int chunk) {
+        return paths / CHUNKS + (chunk < paths % CHUNKS ? 1 : 0);
+    }
+
+    private Histogram runChunk(SplittableRandom random, long paths) {
+        Histogram histogram = new Histogram();
+        for (long p = 0; p < paths; p++) {
+            double factor = 1.0;
+            for (double expected : expectedRates) {
+                factor *= 1 + expected + volatility * random.nextGaussian();
+                if (factor <= 0) {
+                    factor = 0.0;
+                    break;
+                }
+            }
+            histogram.record(factor);
+        }
+        return histogram;
+    }
+
+    // Log-scale histogram of growth factors; bucket width gives about 0.5% relative error
+    static final class Histogram {
+        private static final double MIN_LOG = -12.0;
+        private static final double MAX_LOG = 12.0;
+        private static final int BUCKETS = 4800;
+        private static final double BUCKETS_PER_LOG = BUCKETS / (MAX_LOG - MIN_LOG);
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long wipedOut;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void record(double factor) {
+            count++;
+            sum += factor;
+            min = Math.min(min, factor);
+            max = Math.max(max, factor);
+            if (factor <= 0) {
+                wipedOut++; // Sorts below every bucket
+                return;
+            }
+            int bucket = (int) ((Math.log(factor) - MIN_LOG) * BUCKETS_PER_LOG);
+            counts[Math.max(0, Math.min(BUCKETS - 1, bucket))]++;
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            wipedOut += other.wipedOut;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        double percentile(double percentile) {
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            if (rank == 0) {
+                return min;
+            }
+            if (rank <= wipedOut) {
+                return 0.0;
+            }
+            long seen = wipedOut;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    double midpoint = Math.exp(MIN_LOG + (i + 0.5) / BUCKETS_PER_LOG);
+                    return Math.max(min, Math.min(max, midpoint));
+                }
+            }
+            return max;
+        }
+    }
+
+    public static final class Summary {
+        private final double presentValue;
+        private final Histogram histogram;
+
+        Summary(double presentValue, Histogram histogram) {
+            this.presentValue = presentValue;
+            this.histogram = histogram;
+        }
+
+        public long getPaths() { return histogram.count; }
+        public double getMean() { return presentValue * histogram.sum / histogram.count; }
+        public double getMin() { return presentValue * histogram.min; }
+        public double getMax() { return presentValue * histogram.max; }
+        // Paths that lost the whole portfolio
+        public long getWipedOut() { return histogram.wipedOut; }
+
+        // Approximate future value at the given percentile (0-100)
+        public double getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+            }
+            return presentValue * histogram.percentile(percentile);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("paths=%d, mean=%.2f, p5=%.2f, p50=%.2f, p95=%.2f, min=%.2f, max=%.2f",
+                    getPaths(), getMean(), getPercentile(5), getPercentile(50), getPercentile(95), getMin(), getMax());
+        }
+    }
+
+    public static void main(String[] args) {
+        double presentValue = 1000.0;
+        double[] rates = {0.08, 0.07, 0.06, 0.09, 0.05, 0.08, 0.10, 0.04, 0.06, 0.07};
+
+        System.out.printf("Variable-rate Result: %.2f%n", FinancialForecast.futureValueVariableRate(presentValue, rates));
+
+        MonteCarloForecast forecast = new MonteCarloForecast(0.08, 35, 0.15, 2024L);
+        for (long paths : new long[] {10_000, 1_000_000, 10_000_000}) {
+            long start = System.nanoTime();
+            Summary summary = forecast.simulate(presentValue, paths);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Monte Carlo (%,d paths): %s | Time: %d ms%n", paths, summary, elapsed / 1_000_000);
+        }
+
+        // Same seed, same answer, regardless of how the chunks were scheduled
+        Summary first = forecast.simulate(presentValue, 100_000);
+        Summary second = forecast.simulate(presentValue, 100_000);
+        System.out.println("Reproducible: " + (first.getMean() == second.getMean()
+                && first.getPercentile(50) == second.getPercentile(50)));
+    }
+}
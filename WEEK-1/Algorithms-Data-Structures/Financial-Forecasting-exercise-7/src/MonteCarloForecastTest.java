@@ -0,0 +1,141 @@
+/**
+ * Monte Carlo Forecast Test Suite
+ *
+ * Validates MonteCarloForecast and its percentile histogram:
+ * - Zero Volatility: every path equals the closed-form projection
+ * - Wiped-out Portfolios: values are floored at zero and never turn negative
+ * - Percentile Bounds: p0 is the minimum and p100 the maximum
+ * - Percentiles With Wipe-outs: ranks inside the wiped-out share report zero
+ * - Reproducibility: the same seed gives the same summary
+ */
+public class MonteCarloForecastTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Monte Carlo Forecast Test Suite ===\n");
+
+        testZeroVolatility();
+        testWipedOutPortfoliosStayAtZero();
+        testPercentileBounds();
+        testPercentilesWithWipeOuts();
+        testReproducibility();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    private static boolean close(double expected, double actual, double relativeError) {
+        return Math.abs(expected - actual) <= Math.abs(expected) * relativeError;
+    }
+
+    /**
+     * Test 1: Zero Volatility
+     *
+     * With no randomness every path follows the expected rates, so mean, min and
+     * max all equal the closed-form future value.
+     */
+    private static void testZeroVolatility() {
+        System.out.println("Test 1: Zero Volatility");
+        MonteCarloForecast forecast = new MonteCarloForecast(0.08, 10, 0.0, 1L);
+        MonteCarloForecast.Summary summary = forecast.simulate(1000.0, 1_000);
+        double expected = FinancialForecast.futureValueClosedForm(1000.0, 0.08, 10);
+        check(summary.getPaths() == 1_000
+                        && close(expected, summary.getMean(), 1e-9)
+                        && close(expected, summary.getMin(), 1e-9)
+                        && close(expected, summary.getMax(), 1e-9),
+                "every path equals the closed-form value " + String.format("%.2f", expected));
+        System.out.println();
+    }
+
+    /**
+     * Test 2: Wiped-out Portfolios Stay at Zero
+     *
+     * At 80% volatility over 30 years many paths draw a rate below -100%. Those
+     * portfolios end at zero: nothing goes negative, and a later bad year cannot
+     * flip a lost portfolio back to a positive value.
+     */
+    private static void testWipedOutPortfoliosStayAtZero() {
+        System.out.println("Test 2: Wiped-out Portfolios Stay at Zero");
+        MonteCarloForecast forecast = new MonteCarloForecast(0.07, 30, 0.8, 2024L);
+        MonteCarloForecast.Summary summary = forecast.simulate(1_000_000.0, 200_000);
+        check(summary.getWipedOut() > 0, "some paths were wiped out (" + summary.getWipedOut() + ")");
+        check(summary.getMin() == 0.0, "minimum is zero, not negative (" + summary.getMin() + ")");
+        check(summary.getPercentile(5) >= 0.0, "p5 is not negative (" + summary.getPercentile(5) + ")");
+        System.out.println();
+    }
+
+    /**
+     * Test 3: Percentile Bounds
+     *
+     * p0 reports the smallest recorded value even when no path was wiped out,
+     * and p100 reports the largest.
+     */
+    private static void testPercentileBounds() {
+        System.out.println("Test 3: Percentile Bounds");
+        MonteCarloForecast forecast = new MonteCarloForecast(0.08, 35, 0.15, 2024L);
+        MonteCarloForecast.Summary summary = forecast.simulate(1000.0, 100_000);
+        check(summary.getWipedOut() == 0, "no path was wiped out");
+        check(summary.getPercentile(0) == summary.getMin(),
+                "p0 equals min (" + summary.getPercentile(0) + " vs " + summary.getMin() + ")");
+        check(summary.getPercentile(100) == summary.getMax(),
+                "p100 equals max (" + summary.getPercentile(100) + " vs " + summary.getMax() + ")");
+        check(summary.getMin() <= summary.getPercentile(50) && summary.getPercentile(50) <= summary.getMax(),
+                "p50 lies between min and max");
+        System.out.println();
+    }
+
+    /**
+     * Test 4: Percentiles With Wipe-outs
+     *
+     * With 3 of 10 factors at zero, p10 to p30 fall on the wiped-out paths and
+     * report zero, while p40 lands on the smallest surviving value.
+     */
+    private static void testPercentilesWithWipeOuts() {
+        System.out.println("Test 4: Percentiles With Wipe-outs");
+        MonteCarloForecast.Histogram histogram = new MonteCarloForecast.Histogram();
+        for (int i = 0; i < 3; i++) {
+            histogram.record(0.0);
+        }
+        for (int i = 1; i <= 7; i++) {
+            histogram.record(i);
+        }
+        check(histogram.percentile(0) == 0.0, "p0 is the wiped-out minimum");
+        check(histogram.percentile(10) == 0.0 && histogram.percentile(30) == 0.0, "p10 and p30 are zero");
+        check(close(1.0, histogram.percentile(40), 0.01), "p40 is the smallest survivor (" + histogram.percentile(40) + ")");
+        check(close(7.0, histogram.percentile(100), 0.01), "p100 is the largest value (" + histogram.percentile(100) + ")");
+        System.out.println();
+    }
+
+    /**
+     * Test 5: Reproducibility
+     *
+     * Two simulations with the same seed give identical summaries; a different
+     * seed gives a different one.
+     */
+    private static void testReproducibility() {
+        System.out.println("Test 5: Reproducibility");
+        MonteCarloForecast first = new MonteCarloForecast(0.06, 20, 0.2, 7L);
+        MonteCarloForecast second = new MonteCarloForecast(0.06, 20, 0.2, 7L);
+        MonteCarloForecast other = new MonteCarloForecast(0.06, 20, 0.2, 8L);
+        String a = first.simulate(1000.0, 50_000).toString();
+        String b = second.simulate(1000.0, 50_000).toString();
+        String c = other.simulate(1000.0, 50_000).toString();
+        check(a.equals(b), "same seed, same summary");
+        check(!a.equals(c), "different seed, different summary");
+        System.out.println();
+    }
+
+    private static void check(boolean condition, String description) {
+        testCount++;
+        if (condition) {
+            passCount++;
+            System.out.println("  PASS: " + description);
+        } else {
+            System.out.println("  FAIL: " + description);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class LibraryManagementSystem {
 
+    private static final int WARMUP_SEARCHES = 20_000;
+    private static final int TIMED_SEARCHES = 10_000;
+    private static volatile Book lastFound; // Keeps the JIT from discarding timed searches
+
     public static Book linearSearchByTitle(List<Book> books, String title) {
         for (Book book : books) {
             if (book.title.equalsIgnoreCase(title)) {
@@ -14,19 +19,23 @@ public class LibraryManagementSystem {
     }
 
     public static Book binarySearchByTitle(List<Book> books, String title) {
-        int low = 0, high = books.size() - 1;
-        while (low <= high) {
-            int mid = (low + high) / 2;
-            int cmp = books.get(mid).title.compareToIgnoreCase(title);
-            if (cmp == 0) {
-                return books.get(mid);
-            } else if (cmp < 0) {
-                low = mid + 1;
-            } else {
-                high = mid - 1;
-            }
+        return SearchAlgorithms.find(books, book -> book.title.compareToIgnoreCase(title));
+    }
+
+    // All books whose title falls in [fromTitle, toTitle], ignoring case; books must be sorted by title
+    public static List<Book> searchByTitleRange(List<Book> books, String fromTitle, String toTitle) {
+        int from = SearchAlgorithms.lowerBound(books, book -> book.title.compareToIgnoreCase(fromTitle));
+        int to = SearchAlgorithms.upperBound(books, book -> book.title.compareToIgnoreCase(toTitle));
+        return from < to ? books.subList(from, to) : List.of();
+    }
+
+    // Average time of one search over TIMED_SEARCHES runs
+    private static long averageNanos(Supplier<Book> search) {
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_SEARCHES; i++) {
+            lastFound = search.get();
         }
-        return null;
+        return (System.nanoTime() - start) / TIMED_SEARCHES;
     }
 
     public static void main(String[] args) {
@@ -61,24 +70,32 @@ public class LibraryManagementSystem {
 
         String searchTitle = "A Storm of Swords";
 
+        // Run both searches until the JIT has compiled them, so the timings below
+        // measure the searches rather than class loading and lambda linkage
+        for (int i = 0; i < WARMUP_SEARCHES; i++) {
+            linearSearchByTitle(books, searchTitle);
+            binarySearchByTitle(books, searchTitle);
+        }
+
         System.out.println("--- Linear Search ---");
-        long startLinear = System.nanoTime();
         Book result1 = linearSearchByTitle(books, searchTitle);
-        long endLinear = System.nanoTime();
+        long linearDuration = averageNanos(() -> linearSearchByTitle(books, searchTitle));
         System.out.println(result1 != null ? result1 : "Book not found");
-        System.out.println("Time taken (nanoseconds): " + (endLinear - startLinear));
+        System.out.println("Time taken (nanoseconds): " + linearDuration);
 
         System.out.println("\n--- Binary Search ---");
-        long startBinary = System.nanoTime();
         Book result2 = binarySearchByTitle(books, searchTitle);
-        long endBinary = System.nanoTime();
+        long binaryDuration = averageNanos(() -> binarySearchByTitle(books, searchTitle));
         System.out.println(result2 != null ? result2 : "Book not found");
-        System.out.println("Time taken (nanoseconds): " + (endBinary - startBinary));
+        System.out.println("Time taken (nanoseconds): " + binaryDuration);
+
+        System.out.println("\n--- Range Search (\"A\" to \"B\") ---");
+        for (Book book : searchByTitleRange(books, "A", "B")) {
+            System.out.println(book);
+        }
 
         System.out.println("\n--- Additional Statistics ---");
         System.out.println("Total books in library: " + books.size());
-        long linearDuration = endLinear - startLinear;
-        long binaryDuration = endBinary - startBinary;
         if (binaryDuration != 0) {
             System.out.printf("Binary search was %.2f times faster than linear search.\n",
                 (double)linearDuration / binaryDuration);
@@ -0,0 +1,104 @@
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reusable search routines over sorted data.
+ *
+ * Every routine takes a "probe" that compares an element against the key
+ * being searched for and returns a negative number, zero or a positive number
+ * when the element is smaller than, equal to or greater than the key.
+ * Lists that do not implement RandomAccess (e.g. LinkedList) are walked with
+ * a single ListIterator instead of calling get(mid) repeatedly.
+ */
+final class SearchAlgorithms {
+
+    private SearchAlgorithms() {
+    }
+
+    // Overflow-safe midpoint: (low + high) / 2 goes negative once low + high > Integer.MAX_VALUE
+    static int midpoint(int low, int high) {
+        return (low + high) >>> 1;
+    }
+
+    // The first matching element, or null when there is none
+    static <T> T find(List<? extends T> list, ToIntFunction<? super T> probe) {
+        ListIterator<? extends T> it = list instanceof RandomAccess ? null : list.listIterator();
+        int index = it == null ? indexedBound(list, probe, false) : iteratorBound(it, list.size(), probe, false);
+        if (index < list.size()) {
+            T element = elementAt(list, it, index);
+            if (probe.applyAsInt(element) == 0) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    // First index whose element is not smaller than the key
+    static <T> int lowerBound(List<? extends T> list, ToIntFunction<? super T> probe) {
+        return bound(list, probe, false);
+    }
+
+    // First index whose element is greater than the key
+    static <T> int upperBound(List<? extends T> list, ToIntFunction<? super T> probe) {
+        return bound(list, probe, true);
+    }
+
+    private static <T> int bound(List<? extends T> list, ToIntFunction<? super T> probe, boolean upper) {
+        if (list instanceof RandomAccess) {
+            return indexedBound(list, probe, upper);
+        }
+        return iteratorBound(list.listIterator(), list.size(), probe, upper);
+    }
+
+    private static <T> int indexedBound(List<? extends T> list, ToIntFunction<? super T> probe, boolean upper) {
+        int low = 0, high = list.size();
+        while (low < high) {
+            int mid = midpoint(low, high);
+            int cmp = probe.applyAsInt(list.get(mid));
+            if (cmp < 0 || (upper && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Moves one iterator back and forth, so the total walk is O(n) instead of O(n log n)
+    private static <T> int iteratorBound(ListIterator<? extends T> it, int size, ToIntFunction<? super T> probe,
+                                         boolean upper) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = midpoint(low, high);
+            int cmp = probe.applyAsInt(elementAt(it, mid));
+            if (cmp < 0 || (upper && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // The bisection leaves the iterator next to the bound, so reading the element there is a step, not a walk
+    private static <T> T elementAt(List<? extends T> list, ListIterator<? extends T> it, int index) {
+        return it == null ? list.get(index) : elementAt(it, index);
+    }
+
+    private static <T> T elementAt(ListIterator<? extends T> it, int index) {
+        T element;
+        int pos = it.nextIndex();
+        if (pos <= index) {
+            do {
+                element = it.next();
+            } while (pos++ < index);
+        } else {
+            do {
+                element = it.previous();
+            } while (--pos > index);
+        }
+        return element;
+    }
+}
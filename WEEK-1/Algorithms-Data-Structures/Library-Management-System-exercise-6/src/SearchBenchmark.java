@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+// Compares the original get(mid) binary search with SearchAlgorithms on ArrayList and LinkedList
+public class SearchBenchmark {
+
+    private static final int BOOKS = 100_000;
+    private static final int SEARCHES = 500;
+
+    // The pre-SearchAlgorithms implementation, kept here as the baseline
+    static Book legacyBinarySearchByTitle(List<Book> books, String title) {
+        int low = 0, high = books.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) / 2;
+            int cmp = books.get(mid).title.compareToIgnoreCase(title);
+            if (cmp == 0) {
+                return books.get(mid);
+            } else if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) {
+        List<Book> arrayList = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            arrayList.add(new Book(i, String.format("Title %08d", i), "Author " + (i % 100)));
+        }
+        List<Book> linkedList = new LinkedList<>(arrayList);
+
+        String[] targets = new String[SEARCHES];
+        Random random = new Random(42);
+        for (int i = 0; i < SEARCHES; i++) {
+            targets[i] = String.format("Title %08d", random.nextInt(BOOKS));
+        }
+
+        System.out.println("=== Binary Search Benchmark (" + BOOKS + " books, " + SEARCHES + " searches) ===");
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("\n--- Round " + round + " ---");
+            run("ArrayList  legacy          ", arrayList, targets, true);
+            run("ArrayList  SearchAlgorithms", arrayList, targets, false);
+            run("LinkedList legacy          ", linkedList, targets, true);
+            run("LinkedList SearchAlgorithms", linkedList, targets, false);
+        }
+    }
+
+    private static void run(String label, List<Book> books, String[] targets, boolean legacy) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (String target : targets) {
+            Book book = legacy
+                    ? legacyBinarySearchByTitle(books, target)
+                    : LibraryManagementSystem.binarySearchByTitle(books, target);
+            if (book != null) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%s: %,12d ns total, %,10d ns/search (found %d)%n",
+                label, elapsed, elapsed / targets.length, found);
+    }
+}
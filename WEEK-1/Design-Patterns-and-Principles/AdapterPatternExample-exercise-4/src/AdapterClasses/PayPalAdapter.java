@@ -2,6 +2,10 @@ package AdapterClasses;
 
 import AdapteeClasses.PayPalGateway;
 import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class PayPalAdapter implements PaymentProcessor {
     private PayPalGateway payPalGateway;
@@ -12,20 +16,41 @@ public class PayPalAdapter implements PaymentProcessor {
     
     @Override
     public boolean processPayment(double amount, String currency) {
-        if (payPalGateway == null) {
-            System.out.println("PayPal Gateway is null - cannot process payment");
+        String error = validate(amount, currency);
+        if (error != null) {
+            System.out.println(error);
             return false;
         }
+        payPalGateway.makePayment(amount, currency);
+        return true;
+    }
+    
+    @Override
+    public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+        String error = validate(amount, currency);
+        if (error != null) {
+            // Rejected before reaching the gateway, so no thread is needed
+            return CompletableFuture.completedFuture(PaymentResult.failed("PayPal", amount, currency, error, 0));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            payPalGateway.makePayment(amount, currency);
+            return PaymentResult.succeeded("PayPal", amount, currency,
+                    payPalGateway.checkTransactionStatus(), System.nanoTime() - start);
+        }, executor);
+    }
+    
+    private String validate(double amount, String currency) {
+        if (payPalGateway == null) {
+            return "PayPal Gateway is null - cannot process payment";
+        }
         if (amount <= 0) {
-            System.out.println("PayPal: Invalid amount - must be greater than 0");
-            return false;
+            return "PayPal: Invalid amount - must be greater than 0";
         }
         if (currency == null || currency.trim().isEmpty()) {
-            System.out.println("PayPal: Invalid currency - cannot be null or empty");
-            return false;
+            return "PayPal: Invalid currency - cannot be null or empty";
         }
-        payPalGateway.makePayment(amount, currency);
-        return true;
+        return null;
     }
     
     @Override
@@ -2,6 +2,10 @@ package AdapterClasses;
 
 import AdapteeClasses.RazorpayGateway;
 import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class RazorpayAdapter implements PaymentProcessor {
     private RazorpayGateway razorpayGateway;
@@ -12,20 +16,41 @@ public class RazorpayAdapter implements PaymentProcessor {
     
     @Override
     public boolean processPayment(double amount, String currency) {
-        if (razorpayGateway == null) {
-            System.out.println("Razorpay Gateway is null - cannot process payment");
+        String error = validate(amount, currency);
+        if (error != null) {
+            System.out.println(error);
             return false;
         }
+        razorpayGateway.initiatePayment(amount, currency);
+        return true;
+    }
+    
+    @Override
+    public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+        String error = validate(amount, currency);
+        if (error != null) {
+            // Rejected before reaching the gateway, so no thread is needed
+            return CompletableFuture.completedFuture(PaymentResult.failed("Razorpay", amount, currency, error, 0));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            razorpayGateway.initiatePayment(amount, currency);
+            return PaymentResult.succeeded("Razorpay", amount, currency,
+                    razorpayGateway.fetchPaymentStatus(), System.nanoTime() - start);
+        }, executor);
+    }
+    
+    private String validate(double amount, String currency) {
+        if (razorpayGateway == null) {
+            return "Razorpay Gateway is null - cannot process payment";
+        }
         if (amount <= 0) {
-            System.out.println("Razorpay: Invalid amount - must be greater than 0");
-            return false;
+            return "Razorpay: Invalid amount - must be greater than 0";
         }
         if (currency == null || currency.trim().isEmpty()) {
-            System.out.println("Razorpay: Invalid currency - cannot be null or empty");
-            return false;
+            return "Razorpay: Invalid currency - cannot be null or empty";
         }
-        razorpayGateway.initiatePayment(amount, currency);
-        return true;
+        return null;
     }
     
     @Override
@@ -35,4 +60,4 @@ public class RazorpayAdapter implements PaymentProcessor {
         }
         return razorpayGateway.fetchPaymentStatus();
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,10 @@ package AdapterClasses;
 
 import AdapteeClasses.StripeGateway;
 import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class StripeAdapter implements PaymentProcessor {
     private StripeGateway stripeGateway;
@@ -12,19 +16,42 @@ public class StripeAdapter implements PaymentProcessor {
     
     @Override
     public boolean processPayment(double amount, String currency) {
-        if (stripeGateway == null) {
-            System.out.println("Stripe Gateway is null - cannot process payment");
+        String error = validate(amount, currency);
+        if (error != null) {
+            System.out.println(error);
             return false;
         }
+        return stripeGateway.chargeCard(amount, currency);
+    }
+    
+    @Override
+    public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+        String error = validate(amount, currency);
+        if (error != null) {
+            // Rejected before reaching the gateway, so no thread is needed
+            return CompletableFuture.completedFuture(PaymentResult.failed("Stripe", amount, currency, error, 0));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            boolean charged = stripeGateway.chargeCard(amount, currency);
+            long elapsed = System.nanoTime() - start;
+            return charged
+                    ? PaymentResult.succeeded("Stripe", amount, currency, stripeGateway.getChargeStatus(), elapsed)
+                    : PaymentResult.failed("Stripe", amount, currency, "Stripe: Card charge was declined", elapsed);
+        }, executor);
+    }
+    
+    private String validate(double amount, String currency) {
+        if (stripeGateway == null) {
+            return "Stripe Gateway is null - cannot process payment";
+        }
         if (amount <= 0) {
-            System.out.println("Stripe: Invalid amount - must be greater than 0");
-            return false;
+            return "Stripe: Invalid amount - must be greater than 0";
         }
         if (currency == null || currency.trim().isEmpty()) {
-            System.out.println("Stripe: Invalid currency - cannot be null or empty");
-            return false;
+            return "Stripe: Invalid currency - cannot be null or empty";
         }
-        return stripeGateway.chargeCard(amount, currency);
+        return null;
     }
     
     @Override
@@ -0,0 +1,96 @@
+import AdapteeClasses.PayPalGateway;
+import AdapteeClasses.RazorpayGateway;
+import AdapteeClasses.StripeGateway;
+import AdapterClasses.PayPalAdapter;
+import AdapterClasses.RazorpayAdapter;
+import AdapterClasses.StripeAdapter;
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures payment throughput with the simulated gateways (800 ms to 1.2 s per call)
+ *
+ * The baseline runs the blocking processPayment on a pool of 100 platform threads,
+ * which is what a typical servlet-style service would do. The asynchronous run submits
+ * 10,000 payments at once through processPaymentAsync, each on its own virtual thread.
+ */
+public class AsyncPaymentBenchmark {
+
+    private static final int PLATFORM_THREADS = 100;
+    private static final int BLOCKING_PAYMENTS = 500;
+    private static final int ASYNC_PAYMENTS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        PaymentProcessor[] processors = {
+                new StripeAdapter(new StripeGateway()),
+                new PayPalAdapter(new PayPalGateway()),
+                new RazorpayAdapter(new RazorpayGateway())
+        };
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Gateways print every payment
+        try {
+            console.println("=== Async Payment Benchmark ===\n");
+
+            long start = System.nanoTime();
+            int blockingSucceeded = runBlocking(processors);
+            double blockingSeconds = (System.nanoTime() - start) / 1e9;
+            console.printf("Blocking, %d platform threads: %,d payments in %.2f s -> %,.0f payments/s (%d succeeded)%n",
+                    PLATFORM_THREADS, BLOCKING_PAYMENTS, blockingSeconds, BLOCKING_PAYMENTS / blockingSeconds,
+                    blockingSucceeded);
+
+            start = System.nanoTime();
+            int asyncSucceeded = runAsync(processors);
+            double asyncSeconds = (System.nanoTime() - start) / 1e9;
+            console.printf("Async, virtual threads:       %,d payments in %.2f s -> %,.0f payments/s (%d succeeded)%n",
+                    ASYNC_PAYMENTS, asyncSeconds, ASYNC_PAYMENTS / asyncSeconds, asyncSucceeded);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static int runBlocking(PaymentProcessor[] processors) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(BLOCKING_PAYMENTS);
+            for (int i = 0; i < BLOCKING_PAYMENTS; i++) {
+                PaymentProcessor processor = processors[i % processors.length];
+                double amount = 10.0 + i;
+                results.add(pool.submit(() -> processor.processPayment(amount, "USD")));
+            }
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int runAsync(PaymentProcessor[] processors) {
+        List<CompletableFuture<PaymentResult>> results = new ArrayList<>(ASYNC_PAYMENTS);
+        for (int i = 0; i < ASYNC_PAYMENTS; i++) {
+            results.add(processors[i % processors.length].processPaymentAsync(10.0 + i, "USD"));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        int succeeded = 0;
+        for (CompletableFuture<PaymentResult> result : results) {
+            if (result.join().isSuccess()) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+}
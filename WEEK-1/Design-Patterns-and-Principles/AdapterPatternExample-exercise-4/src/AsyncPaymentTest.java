@@ -0,0 +1,180 @@
+import AdapteeClasses.PayPalGateway;
+import AdapteeClasses.RazorpayGateway;
+import AdapteeClasses.StripeGateway;
+import AdapterClasses.PayPalAdapter;
+import AdapterClasses.RazorpayAdapter;
+import AdapterClasses.StripeAdapter;
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous Payment Test Suite
+ *
+ * Validates processPaymentAsync on the adapters:
+ * - Non-Blocking: the call returns before the gateway has responded
+ * - Results: each adapter reports its gateway, status and elapsed time
+ * - Validation: invalid payments fail immediately without calling the gateway
+ * - Concurrency: 1,000 payments across all gateways take about one gateway latency
+ * - Default Method: other PaymentProcessor implementations get an async path too
+ */
+public class AsyncPaymentTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Asynchronous Payment Test Suite ===\n");
+
+        testCallDoesNotBlock();
+        testResultsPerAdapter();
+        testValidationFailsImmediately();
+        testConcurrentPayments();
+        testDefaultAsyncForOtherProcessors();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    /**
+     * Test 1: Call Does Not Block
+     *
+     * PayPal takes 1 second per payment; processPaymentAsync should return well before that.
+     */
+    private static void testCallDoesNotBlock() {
+        System.out.println("Test 1: Call Does Not Block");
+        PaymentProcessor payPal = new PayPalAdapter(new PayPalGateway());
+        long start = System.nanoTime();
+        CompletableFuture<PaymentResult> future = payPal.processPaymentAsync(100.0, "USD");
+        long returnedMillis = (System.nanoTime() - start) / 1_000_000;
+        boolean pending = !future.isDone();
+        PaymentResult result = future.join();
+        System.out.println("  - Returned after " + returnedMillis + " ms, pending: " + pending);
+        System.out.println("  - " + result);
+        check(returnedMillis < 200 && pending && result.isSuccess(), "processPaymentAsync returns before the gateway responds");
+    }
+
+    /**
+     * Test 2: Results Per Adapter
+     *
+     * Each adapter names its gateway and carries the gateway's own status message.
+     */
+    private static void testResultsPerAdapter() {
+        System.out.println("Test 2: Results Per Adapter");
+        PaymentResult stripe = new StripeAdapter(new StripeGateway()).processPaymentAsync(200.0, "EUR").join();
+        PaymentResult payPal = new PayPalAdapter(new PayPalGateway()).processPaymentAsync(100.0, "USD").join();
+        PaymentResult razorpay = new RazorpayAdapter(new RazorpayGateway()).processPaymentAsync(300.0, "INR").join();
+        System.out.println("  - " + stripe);
+        System.out.println("  - " + payPal);
+        System.out.println("  - " + razorpay);
+        boolean ok = stripe.isSuccess() && stripe.getGateway().equals("Stripe")
+                && stripe.getMessage().equals("Stripe Charge Processed Successfully")
+                && payPal.isSuccess() && payPal.getGateway().equals("PayPal")
+                && razorpay.isSuccess() && razorpay.getGateway().equals("Razorpay")
+                && razorpay.getCurrency().equals("INR") && razorpay.getAmount() == 300.0
+                && stripe.getElapsedMillis() >= 800 && razorpay.getElapsedMillis() >= 1200;
+        check(ok, "Results report gateway, status and gateway latency");
+    }
+
+    /**
+     * Test 3: Validation Fails Immediately
+     *
+     * A null gateway, a non-positive amount or an empty currency produce an already
+     * completed, failed result with the same message the synchronous path prints.
+     */
+    private static void testValidationFailsImmediately() {
+        System.out.println("Test 3: Validation Fails Immediately");
+        CompletableFuture<PaymentResult> nullGateway = new StripeAdapter(null).processPaymentAsync(50.0, "USD");
+        CompletableFuture<PaymentResult> badAmount = new PayPalAdapter(new PayPalGateway()).processPaymentAsync(-5.0, "USD");
+        CompletableFuture<PaymentResult> badCurrency = new RazorpayAdapter(new RazorpayGateway()).processPaymentAsync(50.0, " ");
+        boolean done = nullGateway.isDone() && badAmount.isDone() && badCurrency.isDone();
+        System.out.println("  - " + nullGateway.join().getMessage());
+        System.out.println("  - " + badAmount.join().getMessage());
+        System.out.println("  - " + badCurrency.join().getMessage());
+        boolean failed = !nullGateway.join().isSuccess() && !badAmount.join().isSuccess() && !badCurrency.join().isSuccess();
+        check(done && failed && badAmount.join().getMessage().equals("PayPal: Invalid amount - must be greater than 0"),
+                "Invalid payments are rejected without reaching the gateway");
+    }
+
+    /**
+     * Test 4: Concurrent Payments
+     *
+     * 1,000 payments round-robin over the three gateways. Run one at a time they would
+     * take about 1,000 seconds; on virtual threads they take about the slowest gateway's 1.2 s.
+     */
+    private static void testConcurrentPayments() {
+        System.out.println("Test 4: Concurrent Payments");
+        PaymentProcessor[] processors = {
+                new StripeAdapter(new StripeGateway()),
+                new PayPalAdapter(new PayPalGateway()),
+                new RazorpayAdapter(new RazorpayGateway())
+        };
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Gateways print every payment
+        long start = System.nanoTime();
+        int succeeded = 0;
+        try {
+            List<CompletableFuture<PaymentResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(processors[i % processors.length].processPaymentAsync(1.0 + i, "USD"));
+            }
+            for (CompletableFuture<PaymentResult> future : futures) {
+                if (future.join().isSuccess()) {
+                    succeeded++;
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("  - " + succeeded + " of 1000 payments succeeded in " + elapsedMillis + " ms");
+        check(succeeded == 1000 && elapsedMillis < 5000, "Concurrent payments overlap instead of running one after another");
+    }
+
+    /**
+     * Test 5: Default Async For Other Processors
+     *
+     * A processor that only implements processPayment still gets processPaymentAsync,
+     * and PaymentService.processTransactionAsync reports a missing processor as a failure.
+     */
+    private static void testDefaultAsyncForOtherProcessors() {
+        System.out.println("Test 5: Default Async For Other Processors");
+        PaymentResult wrapped = new PaymentService(new BlockingOnlyProcessor()).processTransactionAsync(75.0, "USD").join();
+        PaymentResult missing = new PaymentService(null).processTransactionAsync(75.0, "USD").join();
+        System.out.println("  - " + wrapped);
+        System.out.println("  - " + missing);
+        check(wrapped.isSuccess() && wrapped.getGateway().equals("BlockingOnlyProcessor")
+                && wrapped.getMessage().equals("Blocking payment completed") && !missing.isSuccess(),
+                "Default processPaymentAsync wraps the blocking call");
+    }
+
+    // Processor written before the async API existed; it only implements the blocking methods
+    private static class BlockingOnlyProcessor implements PaymentProcessor {
+        @Override
+        public boolean processPayment(double amount, String currency) {
+            return amount > 0;
+        }
+
+        @Override
+        public String getPaymentStatus() {
+            return "Blocking payment completed";
+        }
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
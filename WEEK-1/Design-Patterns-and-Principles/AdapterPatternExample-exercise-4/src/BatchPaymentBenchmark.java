@@ -0,0 +1,67 @@
+import AdapteeClasses.PayPalGateway;
+import AdapteeClasses.RazorpayGateway;
+import AdapteeClasses.StripeGateway;
+import AdapterClasses.PayPalAdapter;
+import AdapterClasses.RazorpayAdapter;
+import AdapterClasses.StripeAdapter;
+import TargetInterface.PaymentProcessor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a 100,000-payment settlement batch through BatchPaymentProcessor
+ *
+ * The payments are spread over the three simulated gateways (800 ms to 1.2 s per
+ * call) and four currencies. At most 10,000 payments are in flight, and the gateways
+ * are limited to 5,000, 4,000 and 3,000 payments/s. Submitted one at a time through
+ * PaymentService.processTransaction, the same batch would take over a day.
+ */
+public class BatchPaymentBenchmark {
+
+    private static final int PAYMENTS = 100_000;
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    public static void main(String[] args) {
+        Map<String, PaymentProcessor> gateways = new LinkedHashMap<>();
+        gateways.put("Stripe", new StripeAdapter(new StripeGateway()));
+        gateways.put("PayPal", new PayPalAdapter(new PayPalGateway()));
+        gateways.put("Razorpay", new RazorpayAdapter(new RazorpayGateway()));
+        Map<String, Double> limits = new LinkedHashMap<>();
+        limits.put("Stripe", 5000.0);
+        limits.put("PayPal", 4000.0);
+        limits.put("Razorpay", 3000.0);
+
+        String[] names = {"Stripe", "PayPal", "Razorpay"};
+        String[] currencies = {"USD", "EUR", "INR", "GBP"};
+        List<PaymentTransaction> batch = new ArrayList<>(PAYMENTS);
+        double sequentialSeconds = 0;
+        double[] gatewaySeconds = {0.8, 1.0, 1.2};
+        for (int i = 0; i < PAYMENTS; i++) {
+            batch.add(new PaymentTransaction(names[i % 3], 10.0 + i % 500, currencies[(i / 3) % 4]));
+            sequentialSeconds += gatewaySeconds[i % 3];
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Gateways print every payment
+        try {
+            console.println("=== Batch Payment Benchmark ===\n");
+            console.printf("%,d payments, at most %,d in flight, limits Stripe 5,000/s, PayPal 4,000/s, Razorpay 3,000/s%n",
+                    PAYMENTS, MAX_IN_FLIGHT);
+            BatchResult result = new BatchPaymentProcessor(gateways, MAX_IN_FLIGHT, limits).process(batch);
+            console.println(result);
+            for (BatchResult.GroupSummary group : result.getGroups()) {
+                console.println("  " + group);
+            }
+            console.printf("%nOne at a time: about %.1f hours; batched: %.1f s (%.0fx faster)%n",
+                    sequentialSeconds / 3600, result.getElapsedMillis() / 1000.0,
+                    sequentialSeconds * 1000 / result.getElapsedMillis());
+        } finally {
+            System.setOut(console);
+        }
+    }
+}
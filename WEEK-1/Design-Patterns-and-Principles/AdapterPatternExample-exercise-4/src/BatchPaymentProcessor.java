@@ -0,0 +1,276 @@
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Submits large batches of payments, such as a settlement run, to the gateways concurrently
+ *
+ * A batch is split into groups by gateway and currency, and every group is submitted
+ * by its own virtual thread, so a rate-limited gateway does not hold up the others.
+ * Before each payment the submitter takes a token from the gateway's rate limiter,
+ * then one of the gateway's maxInFlightPerGateway slots, then one of maxInFlight
+ * slots shared by every batch this processor runs. When the slots are taken, because
+ * the gateways are slower than the rate at which payments are submitted, submission
+ * waits until a payment completes. That wait is the back-pressure: the number of
+ * payments waiting on gateways stays bounded however large the batch is. The
+ * per-gateway limit applies it per gateway, so a slow gateway can fill only its own
+ * slots and fast gateways are not queued behind it.
+ */
+public class BatchPaymentProcessor {
+
+    private final Map<String, PaymentProcessor> gateways;
+    private final Map<String, RateLimiter> rateLimiters = new HashMap<>();
+    private final Map<String, Semaphore> gatewayInFlight = new HashMap<>();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int maxInFlightPerGateway;
+
+    /**
+     * Gives every gateway an equal share of maxInFlight
+     * @param gateways the processors to submit to, by gateway name
+     * @param maxInFlight the most payments waiting on gateways at once
+     * @param paymentsPerSecond rate limit per gateway name; gateways without one are not limited
+     */
+    public BatchPaymentProcessor(Map<String, PaymentProcessor> gateways, int maxInFlight,
+                                 Map<String, Double> paymentsPerSecond) {
+        this(gateways, maxInFlight, gateways == null || gateways.isEmpty() ? maxInFlight
+                : Math.max(1, maxInFlight / gateways.size()), paymentsPerSecond);
+    }
+
+    /**
+     * @param gateways the processors to submit to, by gateway name
+     * @param maxInFlight the most payments waiting on gateways at once
+     * @param maxInFlightPerGateway the most payments waiting on any one gateway at once
+     * @param paymentsPerSecond rate limit per gateway name; gateways without one are not limited
+     */
+    public BatchPaymentProcessor(Map<String, PaymentProcessor> gateways, int maxInFlight,
+                                 int maxInFlightPerGateway, Map<String, Double> paymentsPerSecond) {
+        if (gateways == null || gateways.isEmpty()) {
+            throw new IllegalArgumentException("At least one gateway is required");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        if (maxInFlightPerGateway < 1) {
+            throw new IllegalArgumentException("maxInFlightPerGateway must be positive: " + maxInFlightPerGateway);
+        }
+        this.gateways = new LinkedHashMap<>(gateways);
+        for (String gateway : gateways.keySet()) {
+            gatewayInFlight.put(gateway, new Semaphore(maxInFlightPerGateway));
+        }
+        for (Map.Entry<String, Double> limit : paymentsPerSecond.entrySet()) {
+            if (!gateways.containsKey(limit.getKey())) {
+                throw new IllegalArgumentException("Rate limit for unknown gateway: " + limit.getKey());
+            }
+            rateLimiters.put(limit.getKey(), new RateLimiter(limit.getValue()));
+        }
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.maxInFlightPerGateway = maxInFlightPerGateway;
+    }
+
+    /**
+     * Spaces payments evenly at the configured rate. Time left unused is saved up to
+     * one second, so after a quiet spell one second's worth of payments goes through
+     * at once. Each caller reserves the next free time under the lock and sleeps
+     * outside it, so waiting callers do not block each other.
+     */
+    static final class RateLimiter {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private long nextFree = System.nanoTime();
+
+        RateLimiter(double perSecond) {
+            if (!(perSecond > 0)) {
+                throw new IllegalArgumentException("Rate must be positive: " + perSecond);
+            }
+            this.intervalNanos = Math.max(1, (long) (1e9 / perSecond));
+            this.burstNanos = 1_000_000_000L;
+        }
+
+        /**
+         * Blocks until the caller may proceed
+         * @return how long the caller waited, in nanoseconds
+         */
+        long acquire() {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(nextFree, now - burstNanos);
+                nextFree = slot + intervalNanos;
+                wait = slot - now;
+            }
+            if (wait <= 0) {
+                return 0;
+            }
+            long deadline = System.nanoTime() + wait;
+            for (long left = wait; left > 0; left = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(left);
+            }
+            return wait;
+        }
+    }
+
+    // State shared by the submitters and completions of one batch
+    private static final class BatchState {
+        final PaymentResult[] results;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final LongAdder backPressureNanos = new LongAdder();
+        final LongAdder rateLimitNanos = new LongAdder();
+
+        BatchState(int size) {
+            results = new PaymentResult[size];
+        }
+    }
+
+    // Indexes of the transactions for one gateway and currency
+    private static final class Group {
+        final String gateway;
+        final String currency;
+        final List<Integer> indexes = new ArrayList<>();
+        final List<CompletableFuture<Void>> completions = new ArrayList<>();
+        volatile long startNanos;
+        final AtomicLong endNanos = new AtomicLong();
+
+        Group(String gateway, String currency) {
+            this.gateway = gateway;
+            this.currency = currency;
+        }
+    }
+
+    /**
+     * Submits every transaction and waits for all of them to complete
+     */
+    public BatchResult process(List<PaymentTransaction> transactions) {
+        long start = System.nanoTime();
+        BatchState state = new BatchState(transactions.size());
+        Map<List<String>, Group> groups = new LinkedHashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            PaymentTransaction transaction = transactions.get(i);
+            List<String> key = Arrays.asList(transaction.getGateway(), transaction.getCurrency());
+            groups.computeIfAbsent(key, k -> new Group(transaction.getGateway(), transaction.getCurrency()))
+                    .indexes.add(i);
+        }
+
+        List<Thread> submitters = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            submitters.add(Thread.ofVirtual().name("batch-" + group.gateway + "-" + group.currency)
+                    .start(() -> submit(group, transactions, state)));
+        }
+        for (Thread submitter : submitters) {
+            try {
+                submitter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while submitting the batch", e);
+            }
+        }
+
+        List<BatchResult.GroupSummary> summaries = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            CompletableFuture.allOf(group.completions.toArray(new CompletableFuture<?>[0])).join();
+            int succeeded = 0;
+            double amount = 0;
+            for (int index : group.indexes) {
+                PaymentResult result = state.results[index];
+                if (result.isSuccess()) {
+                    succeeded++;
+                    amount += result.getAmount();
+                }
+            }
+            summaries.add(new BatchResult.GroupSummary(group.gateway, group.currency, group.indexes.size(),
+                    succeeded, amount, group.endNanos.get() - group.startNanos));
+        }
+        return new BatchResult(state.results, summaries, System.nanoTime() - start,
+                state.backPressureNanos.sum(), state.rateLimitNanos.sum(), state.peak.get());
+    }
+
+    /**
+     * Runs process on a virtual thread, so the caller can carry on while the batch is submitted
+     */
+    public CompletableFuture<BatchResult> processAsync(List<PaymentTransaction> transactions) {
+        return CompletableFuture.supplyAsync(() -> process(transactions),
+                task -> Thread.ofVirtual().name("batch").start(task));
+    }
+
+    private void submit(Group group, List<PaymentTransaction> transactions, BatchState state) {
+        PaymentProcessor processor = group.gateway == null ? null : gateways.get(group.gateway);
+        RateLimiter limiter = group.gateway == null ? null : rateLimiters.get(group.gateway);
+        Semaphore gatewaySlots = processor == null ? null : gatewayInFlight.get(group.gateway);
+        group.startNanos = System.nanoTime();
+        for (int index : group.indexes) {
+            PaymentTransaction transaction = transactions.get(index);
+            if (processor == null) {
+                state.results[index] = PaymentResult.failed(String.valueOf(group.gateway), transaction.getAmount(),
+                        transaction.getCurrency(), "Unknown gateway: " + group.gateway, 0);
+                continue;
+            }
+            if (limiter != null) {
+                state.rateLimitNanos.add(limiter.acquire());
+            }
+            // The gateway's own slot first, so waiting for it never holds one of the shared slots
+            acquire(gatewaySlots, state);
+            acquire(inFlight, state);
+            state.peak.accumulateAndGet(state.running.incrementAndGet(), Math::max);
+
+            CompletableFuture<PaymentResult> call;
+            try {
+                call = processor.processPaymentAsync(transaction.getAmount(), transaction.getCurrency());
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            group.completions.add(call.handle((result, error) -> {
+                if (error != null) {
+                    result = PaymentResult.failed(group.gateway, transaction.getAmount(), transaction.getCurrency(),
+                            "Gateway error: " + error, 0);
+                }
+                state.results[index] = result;
+                state.running.decrementAndGet();
+                inFlight.release();
+                gatewaySlots.release();
+                group.endNanos.accumulateAndGet(System.nanoTime(), Math::max);
+                return null;
+            }));
+        }
+        if (group.completions.isEmpty()) {
+            group.endNanos.set(System.nanoTime());
+        }
+    }
+
+    // Takes a slot, adding any wait to the batch's back-pressure time
+    private static void acquire(Semaphore slots, BatchState state) {
+        if (!slots.tryAcquire()) {
+            long waitStart = System.nanoTime();
+            slots.acquireUninterruptibly();
+            state.backPressureNanos.add(System.nanoTime() - waitStart);
+        }
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getMaxInFlightPerGateway() {
+        return maxInFlightPerGateway;
+    }
+
+    /**
+     * Payments currently waiting on gateways, across all running batches
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+}
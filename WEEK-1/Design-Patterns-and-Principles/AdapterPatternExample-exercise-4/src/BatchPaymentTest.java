@@ -0,0 +1,254 @@
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch Payment Test Suite
+ *
+ * Validates BatchPaymentProcessor with fast stub gateways:
+ * - Per-Item Results: one result per transaction, in submission order, with group summaries
+ * - Bounded Concurrency: no more than maxInFlight payments wait on gateways at once
+ * - Rate Limits: a limited gateway is held to its rate without slowing the others
+ * - Back-Pressure: submission waits for free slots when the gateways are saturated
+ * - Failures: unknown gateways and declined payments are reported per item
+ * - Slow and Fast Gateway: a slow gateway fills only its own slots, so a fast one is not held up
+ */
+public class BatchPaymentTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Batch Payment Test Suite ===\n");
+
+        testPerItemResults();
+        testBoundedConcurrency();
+        testRateLimits();
+        testBackPressure();
+        testFailuresPerItem();
+        testSlowAndFastGateway();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Gateway that takes latencyMillis per payment, declines 13.00, and tracks concurrency,
+    // optionally in counters shared with other stubs
+    private static class StubGateway implements PaymentProcessor {
+        private final long latencyMillis;
+        final AtomicInteger running;
+        final AtomicInteger maxRunning;
+
+        StubGateway(long latencyMillis) {
+            this(latencyMillis, new AtomicInteger(), new AtomicInteger());
+        }
+
+        StubGateway(long latencyMillis, AtomicInteger running, AtomicInteger maxRunning) {
+            this.latencyMillis = latencyMillis;
+            this.running = running;
+            this.maxRunning = maxRunning;
+        }
+
+        @Override
+        public boolean processPayment(double amount, String currency) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return amount != 13.0; // Unlucky amount is declined
+        }
+
+        @Override
+        public String getPaymentStatus() {
+            return "Stub OK";
+        }
+    }
+
+    private static Map<String, PaymentProcessor> gateways(StubGateway stripe, StubGateway payPal) {
+        Map<String, PaymentProcessor> gateways = new LinkedHashMap<>();
+        gateways.put("Stripe", stripe);
+        gateways.put("PayPal", payPal);
+        return gateways;
+    }
+
+    /**
+     * Test 1: Per-Item Results
+     *
+     * 60 transactions across two gateways and three currencies come back as 60 results
+     * in the order they were given, summarised in six groups.
+     */
+    private static void testPerItemResults() {
+        System.out.println("Test 1: Per-Item Results");
+        String[] currencies = {"USD", "EUR", "INR"};
+        List<PaymentTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            batch.add(new PaymentTransaction(i % 2 == 0 ? "Stripe" : "PayPal", 100 + i, currencies[i % 3]));
+        }
+        BatchPaymentProcessor processor = new BatchPaymentProcessor(
+                gateways(new StubGateway(20), new StubGateway(20)), 100, Map.of());
+        BatchResult result = processor.process(batch);
+        boolean ordered = true;
+        for (int i = 0; i < 60; i++) {
+            PaymentResult item = result.getResults().get(i);
+            ordered &= item.getAmount() == 100 + i && item.getCurrency().equals(currencies[i % 3]);
+        }
+        System.out.println("  - " + result);
+        for (BatchResult.GroupSummary group : result.getGroups()) {
+            System.out.println("    " + group);
+        }
+        check(result.size() == 60 && result.getSucceeded() == 60 && ordered && result.getGroups().size() == 6,
+                "Every transaction has a result, in submission order, grouped by gateway and currency");
+    }
+
+    /**
+     * Test 2: Bounded Concurrency
+     *
+     * 200 payments with maxInFlight 16 never have more than 16 calls running, and
+     * take at least 200 / 16 rounds of the 20 ms latency.
+     */
+    private static void testBoundedConcurrency() {
+        System.out.println("Test 2: Bounded Concurrency");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        StubGateway stripe = new StubGateway(20, running, maxRunning);
+        StubGateway payPal = new StubGateway(20, running, maxRunning);
+        List<PaymentTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(new PaymentTransaction(i % 2 == 0 ? "Stripe" : "PayPal", 10, "USD"));
+        }
+        BatchResult result = new BatchPaymentProcessor(gateways(stripe, payPal), 16, Map.of()).process(batch);
+        System.out.println("  - " + result);
+        System.out.println("  - Most calls running at once: " + maxRunning.get());
+        check(result.getPeakInFlight() <= 16 && maxRunning.get() <= 16 && result.getElapsedMillis() >= 13 * 20
+                && result.getSucceeded() == 200, "In-flight payments stay within maxInFlight");
+    }
+
+    /**
+     * Test 3: Rate Limits
+     *
+     * Stripe is limited to 100 payments/s, PayPal is not. 150 Stripe payments need
+     * about half a second; the 150 PayPal payments in the same batch finish in a
+     * fraction of that.
+     */
+    private static void testRateLimits() {
+        System.out.println("Test 3: Rate Limits");
+        List<PaymentTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            batch.add(new PaymentTransaction("Stripe", 10, "USD"));
+            batch.add(new PaymentTransaction("PayPal", 10, "USD"));
+        }
+        BatchResult result = new BatchPaymentProcessor(gateways(new StubGateway(5), new StubGateway(5)), 1000,
+                Map.of("Stripe", 100.0)).process(batch);
+        long stripeMillis = result.getGroups().get(0).getElapsedMillis();
+        long payPalMillis = result.getGroups().get(1).getElapsedMillis();
+        System.out.println("  - " + result);
+        System.out.println("  - Stripe (100/s): " + stripeMillis + " ms, PayPal (unlimited): " + payPalMillis + " ms");
+        check(stripeMillis >= 1400 && payPalMillis < 500 && result.getRateLimitWaitMillis() > 0,
+                "A rate-limited gateway does not slow the others");
+    }
+
+    /**
+     * Test 4: Back-Pressure
+     *
+     * With gateways taking 50 ms and only 4 slots, submission of 40 payments has to
+     * wait for completions; the batch result reports how long.
+     */
+    private static void testBackPressure() {
+        System.out.println("Test 4: Back-Pressure");
+        List<PaymentTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            batch.add(new PaymentTransaction("Stripe", 10, "USD"));
+        }
+        BatchPaymentProcessor processor = new BatchPaymentProcessor(
+                gateways(new StubGateway(50), new StubGateway(50)), 4, 4, Map.of());
+        BatchResult result = processor.process(batch);
+        System.out.println("  - " + result);
+        check(result.getBackPressureMillis() >= 300 && result.getPeakInFlight() == 4 && processor.getInFlight() == 0,
+                "Submission waits while the gateways are saturated");
+    }
+
+    /**
+     * Test 5: Failures Per Item
+     *
+     * A transaction for an unknown gateway and a declined payment fail on their own;
+     * the rest of the batch succeeds.
+     */
+    private static void testFailuresPerItem() {
+        System.out.println("Test 5: Failures Per Item");
+        List<PaymentTransaction> batch = new ArrayList<>();
+        batch.add(new PaymentTransaction("Stripe", 10, "USD"));
+        batch.add(new PaymentTransaction("Square", 10, "USD"));
+        batch.add(new PaymentTransaction("PayPal", 13.0, "USD"));
+        batch.add(new PaymentTransaction("PayPal", 20, "USD"));
+        BatchResult result = new BatchPaymentProcessor(gateways(new StubGateway(5), new StubGateway(5)), 10, Map.of())
+                .process(batch);
+        for (PaymentResult item : result.getResults()) {
+            System.out.println("  - " + item);
+        }
+        List<PaymentResult> items = result.getResults();
+        boolean empty = new BatchPaymentProcessor(gateways(new StubGateway(5), new StubGateway(5)), 10, Map.of())
+                .process(new ArrayList<>()).size() == 0;
+        check(items.get(0).isSuccess() && !items.get(1).isSuccess()
+                        && items.get(1).getMessage().equals("Unknown gateway: Square")
+                        && !items.get(2).isSuccess() && items.get(3).isSuccess() && result.getFailed() == 2 && empty,
+                "Failures are reported per item without failing the batch");
+    }
+
+    /**
+     * Test 6: Slow and Fast Gateway
+     *
+     * 8 slots over two gateways gives each 4. PayPal takes 200 ms per payment and
+     * Stripe 5 ms, and the slow payments come first. PayPal never has more than 4
+     * calls running, and Stripe's 40 payments finish well before one PayPal
+     * payment would, instead of waiting for PayPal to free shared slots.
+     */
+    private static void testSlowAndFastGateway() {
+        System.out.println("Test 6: Slow and Fast Gateway");
+        List<PaymentTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(new PaymentTransaction("PayPal", 10, "USD"));
+        }
+        for (int i = 0; i < 40; i++) {
+            batch.add(new PaymentTransaction("Stripe", 10, "USD"));
+        }
+        StubGateway stripe = new StubGateway(5);
+        StubGateway payPal = new StubGateway(200);
+        BatchPaymentProcessor processor = new BatchPaymentProcessor(gateways(stripe, payPal), 8, Map.of());
+        BatchResult result = processor.process(batch);
+        long stripeMillis = -1;
+        long payPalMillis = -1;
+        for (BatchResult.GroupSummary group : result.getGroups()) {
+            System.out.println("  - " + group);
+            if (group.getGateway().equals("Stripe")) {
+                stripeMillis = group.getElapsedMillis();
+            } else {
+                payPalMillis = group.getElapsedMillis();
+            }
+        }
+        System.out.println("  - Most PayPal calls at once: " + payPal.maxRunning.get());
+        check(processor.getMaxInFlightPerGateway() == 4 && payPal.maxRunning.get() <= 4 && stripeMillis < 200
+                        && payPalMillis >= 1000 && result.getSucceeded() == 60,
+                "A slow gateway does not hold up a fast one");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import TargetInterface.PaymentResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batch submitted to BatchPaymentProcessor
+ *
+ * Holds one PaymentResult per transaction, in the order the transactions were
+ * given, a summary per gateway and currency group, and timing for the whole batch:
+ * elapsed time, how long submission waited for a free slot (back-pressure) and for
+ * the gateways' rate limits, and the most payments that were in flight at once.
+ */
+public final class BatchResult {
+
+    /**
+     * Counts, total amount and elapsed time of one gateway and currency group
+     */
+    public static final class GroupSummary {
+        private final String gateway;
+        private final String currency;
+        private final int count;
+        private final int succeeded;
+        private final double succeededAmount;
+        private final long elapsedNanos;
+
+        GroupSummary(String gateway, String currency, int count, int succeeded,
+                     double succeededAmount, long elapsedNanos) {
+            this.gateway = gateway;
+            this.currency = currency;
+            this.count = count;
+            this.succeeded = succeeded;
+            this.succeededAmount = succeededAmount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getGateway() { return gateway; }
+        public String getCurrency() { return currency; }
+        public int getCount() { return count; }
+        public int getSucceeded() { return succeeded; }
+        public double getSucceededAmount() { return succeededAmount; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        @Override
+        public String toString() {
+            return String.format("%s/%s: %d of %d succeeded, %.2f %s, %d ms",
+                    gateway, currency, succeeded, count, succeededAmount, currency, getElapsedMillis());
+        }
+    }
+
+    private final List<PaymentResult> results;
+    private final List<GroupSummary> groups;
+    private final int succeeded;
+    private final long elapsedNanos;
+    private final long backPressureNanos;
+    private final long rateLimitNanos;
+    private final int peakInFlight;
+
+    BatchResult(PaymentResult[] results, List<GroupSummary> groups, long elapsedNanos,
+                long backPressureNanos, long rateLimitNanos, int peakInFlight) {
+        this.results = Collections.unmodifiableList(Arrays.asList(results));
+        this.groups = Collections.unmodifiableList(groups);
+        int ok = 0;
+        for (PaymentResult result : results) {
+            if (result.isSuccess()) {
+                ok++;
+            }
+        }
+        this.succeeded = ok;
+        this.elapsedNanos = elapsedNanos;
+        this.backPressureNanos = backPressureNanos;
+        this.rateLimitNanos = rateLimitNanos;
+        this.peakInFlight = peakInFlight;
+    }
+
+    /**
+     * One result per transaction, in submission order
+     */
+    public List<PaymentResult> getResults() {
+        return results;
+    }
+
+    public List<GroupSummary> getGroups() {
+        return groups;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return results.size() - succeeded;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : results.size() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Total time submission waited for an in-flight slot, summed over all groups
+     */
+    public long getBackPressureMillis() {
+        return backPressureNanos / 1_000_000;
+    }
+
+    /**
+     * Total time submission waited for gateway rate limits, summed over all groups
+     */
+    public long getRateLimitWaitMillis() {
+        return rateLimitNanos / 1_000_000;
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult{payments=%d, succeeded=%d, failed=%d, elapsed=%d ms, throughput=%.0f/s, "
+                        + "backPressure=%d ms, rateLimitWait=%d ms, peakInFlight=%d, groups=%d}",
+                size(), succeeded, getFailed(), getElapsedMillis(), getThroughputPerSecond(),
+                getBackPressureMillis(), getRateLimitWaitMillis(), peakInFlight, groups.size());
+    }
+}
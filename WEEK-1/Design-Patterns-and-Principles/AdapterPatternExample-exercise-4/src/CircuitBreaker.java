@@ -0,0 +1,243 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker that stops calls to a gateway that keeps failing
+ *
+ * CLOSED: calls go through, and the outcomes of the last windowSize calls are kept.
+ * Once at least minimumCalls have been recorded and the share of failures reaches
+ * failureRateThreshold, the breaker opens.
+ *
+ * OPEN: calls are rejected without reaching the gateway. After openDurationMillis
+ * the next call moves the breaker to HALF_OPEN.
+ *
+ * HALF_OPEN: up to halfOpenProbes calls are let through as probes. If they all
+ * succeed the breaker closes with an empty window; the first failure opens it again.
+ *
+ * Every state change starts a new generation. A permission carries the generation it
+ * was granted in, and an outcome only counts if the breaker is still in that
+ * generation: a slow call started while CLOSED cannot decide a HALF_OPEN probe, and a
+ * call started before the breaker last closed does not land in the new window.
+ *
+ * Every state change is counted and reported to the registered listeners.
+ */
+public class CircuitBreaker {
+
+    /** Returned by tryAcquirePermission when the call must not be made */
+    public static final long NO_PERMISSION = -1;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Notified after every state change, on the thread whose call caused it
+     */
+    public interface StateListener {
+        void onStateChange(String name, State from, State to);
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesLeft;
+    private int probeSuccesses;
+    private final long[] transitions = new long[State.values().length];
+
+    public CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+                          long openDurationMillis, int halfOpenProbes) {
+        this(name, failureRateThreshold, windowSize, minimumCalls, openDurationMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    /**
+     * @param clock source of nanoTime, replaceable in tests
+     */
+    public CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+                          long openDurationMillis, int halfOpenProbes, LongSupplier clock) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Need 1 <= minimumCalls <= windowSize: " + minimumCalls + ", " + windowSize);
+        }
+        if (openDurationMillis < 0 || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("openDurationMillis must not be negative and halfOpenProbes must be positive");
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = openDurationMillis * 1_000_000L;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+    }
+
+    public void addListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Asks to make a call. A caller that gets a permission must pass it to onSuccess or
+     * onFailure with the outcome, or hand it back with releasePermission.
+     * @return the permission, or NO_PERMISSION if the call must not be made
+     */
+    public long tryAcquirePermission() {
+        State from;
+        long permission;
+        synchronized (this) {
+            from = state;
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.OPEN) {
+                if (clock.getAsLong() - openedAt < openDurationNanos) {
+                    return NO_PERMISSION;
+                }
+                moveTo(State.HALF_OPEN);
+            }
+            if (probesLeft == 0) {
+                return NO_PERMISSION;
+            }
+            probesLeft--;
+            permission = generation;
+        }
+        notifyIfChanged(from, State.HALF_OPEN);
+        return permission;
+    }
+
+    /**
+     * Returns a permission that was not used, for example because a bulkhead rejected the call
+     */
+    public synchronized void releasePermission(long permission) {
+        if (permission == generation && state == State.HALF_OPEN && probesLeft < halfOpenProbes) {
+            probesLeft++;
+        }
+    }
+
+    public void onSuccess(long permission) {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (permission != generation) {
+                return; // Started in an earlier state; see the class comment
+            }
+            if (state == State.HALF_OPEN) {
+                if (++probeSuccesses == halfOpenProbes) {
+                    moveTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+            to = state;
+        }
+        notifyIfChanged(from, to);
+    }
+
+    public void onFailure(long permission) {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (permission != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                moveTo(State.OPEN);
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                    moveTo(State.OPEN);
+                }
+            }
+            to = state;
+        }
+        notifyIfChanged(from, to);
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void moveTo(State next) {
+        state = next;
+        generation++;
+        transitions[next.ordinal()]++;
+        switch (next) {
+            case OPEN:
+                openedAt = clock.getAsLong();
+                break;
+            case HALF_OPEN:
+                probesLeft = halfOpenProbes;
+                probeSuccesses = 0;
+                break;
+            case CLOSED:
+                windowNext = 0;
+                windowCount = 0;
+                windowFailures = 0;
+                break;
+        }
+    }
+
+    private void notifyIfChanged(State from, State to) {
+        if (from != to) {
+            for (StateListener listener : listeners) {
+                listener.onStateChange(name, from, to);
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Share of failures among the recorded calls of the current CLOSED period
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    /**
+     * Number of times the breaker has moved into the given state
+     */
+    public synchronized long getTransitionCount(State to) {
+        return transitions[to.ordinal()];
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("CircuitBreaker{%s: %s, failureRate=%.0f%%, opened=%d, halfOpened=%d, closed=%d}",
+                name, state, getFailureRate() * 100, transitions[State.OPEN.ordinal()],
+                transitions[State.HALF_OPEN.ordinal()], transitions[State.CLOSED.ordinal()]);
+    }
+}
@@ -1,6 +1,9 @@
 
 
 import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.concurrent.CompletableFuture;
 
 public class PaymentService {
     private PaymentProcessor paymentProcessor;
@@ -34,4 +37,17 @@ public class PaymentService {
         }
         System.out.println("================================\n");
     }
+    
+    /**
+     * Submits the transaction without waiting for the gateway. Nothing is printed;
+     * the caller inspects the PaymentResult when the future completes.
+     */
+    public CompletableFuture<PaymentResult> processTransactionAsync(double amount, String currency) {
+        PaymentProcessor processor = paymentProcessor;
+        if (processor == null) {
+            return CompletableFuture.completedFuture(
+                    PaymentResult.failed("none", amount, currency, "No payment processor configured", 0));
+        }
+        return processor.processPaymentAsync(amount, currency);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+/**
+ * One payment in a batch: the gateway to charge through, the amount and the currency
+ */
+public final class PaymentTransaction {
+    private final String gateway;
+    private final double amount;
+    private final String currency;
+
+    public PaymentTransaction(String gateway, double amount, String currency) {
+        this.gateway = gateway;
+        this.amount = amount;
+        this.currency = currency;
+    }
+
+    public String getGateway() {
+        return gateway;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    @Override
+    public String toString() {
+        return gateway + " " + amount + " " + currency;
+    }
+}
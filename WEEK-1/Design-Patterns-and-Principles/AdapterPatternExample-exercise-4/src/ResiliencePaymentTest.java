@@ -0,0 +1,273 @@
+import AdapteeClasses.RazorpayGateway;
+import AdapterClasses.RazorpayAdapter;
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resilience Test Suite
+ *
+ * Validates ResilientPaymentProcessor and CircuitBreaker:
+ * - Timeout: a slow simulated gateway fails after the call timeout instead of its full duration
+ * - Bulkhead: calls beyond the limit are rejected, and timed-out calls keep their slot
+ * - Circuit Opening: repeated failures open the breaker and later payments fail fast
+ * - Half-Open Probing: after the open duration, probes close or reopen the breaker
+ * - State-Change Metrics: listeners and counters see every transition
+ * - Stale Outcomes: results of calls started in an earlier state are ignored
+ */
+public class ResiliencePaymentTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Resilience Test Suite ===\n");
+
+        testTimeoutWithSimulatedGateway();
+        testBulkheadLimitsConcurrency();
+        testCircuitOpensOnFailures();
+        testHalfOpenProbing();
+        testStateChangeMetrics();
+        testStaleOutcomesIgnored();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Gateway whose latency and outcome can be changed between calls
+    private static class StubGateway implements PaymentProcessor {
+        volatile long latencyMillis;
+        volatile boolean failing;
+
+        StubGateway(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public boolean processPayment(double amount, String currency) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return !failing;
+        }
+
+        @Override
+        public String getPaymentStatus() {
+            return "Stub OK";
+        }
+    }
+
+    // Clock the tests move by hand
+    private static class ManualClock {
+        final AtomicLong nanos = new AtomicLong();
+
+        void advanceMillis(long millis) {
+            nanos.addAndGet(millis * 1_000_000L);
+        }
+    }
+
+    /**
+     * Test 1: Timeout With Simulated Gateway
+     *
+     * RazorpayGateway takes 1.2 s. With a 300 ms timeout the payment fails after
+     * about 300 ms, and the gateway keeps its bulkhead slot until it returns.
+     */
+    private static void testTimeoutWithSimulatedGateway() {
+        System.out.println("Test 1: Timeout With Simulated Gateway");
+        ResilientPaymentProcessor razorpay = new ResilientPaymentProcessor("Razorpay",
+                new RazorpayAdapter(new RazorpayGateway()), 4, 300,
+                new CircuitBreaker("Razorpay", 0.5, 10, 5, 1000, 1));
+        long start = System.nanoTime();
+        PaymentResult result = razorpay.processPaymentAsync(500.0, "INR").join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        int activeAfterTimeout = razorpay.getActiveCalls();
+        System.out.println("  - " + result);
+        System.out.println("  - Returned after " + elapsedMillis + " ms; gateway calls still running: " + activeAfterTimeout);
+        check(!result.isSuccess() && result.getMessage().contains("Timed out") && elapsedMillis < 800
+                        && activeAfterTimeout == 1 && razorpay.getTimedOut() == 1,
+                "A slow gateway fails at the timeout instead of blocking for its full duration");
+    }
+
+    /**
+     * Test 2: Bulkhead Limits Concurrency
+     *
+     * A gateway that hangs for 500 ms with a 50 ms timeout and a bulkhead of 3: the
+     * first 3 payments time out, and the next ones are rejected at once because the
+     * hung calls still hold their slots. Once the calls return, payments go through again.
+     */
+    private static void testBulkheadLimitsConcurrency() {
+        System.out.println("Test 2: Bulkhead Limits Concurrency");
+        StubGateway stub = new StubGateway(500);
+        ResilientPaymentProcessor processor = new ResilientPaymentProcessor("Stub", stub, 3, 50,
+                new CircuitBreaker("Stub", 1.0, 100, 100, 1000, 1));
+        List<CompletableFuture<PaymentResult>> first = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            first.add(processor.processPaymentAsync(10.0, "USD"));
+        }
+        first.forEach(CompletableFuture::join);
+        PaymentResult rejected = processor.processPaymentAsync(10.0, "USD").join();
+        System.out.println("  - While the gateway hangs: " + rejected.getMessage());
+
+        sleep(600);
+        stub.latencyMillis = 5;
+        PaymentResult afterwards = processor.processPaymentAsync(10.0, "USD").join();
+        System.out.println("  - After the hung calls return: " + afterwards.getMessage());
+        System.out.println("  - " + processor);
+        check(!rejected.isSuccess() && processor.getBulkheadRejections() == 1 && afterwards.isSuccess()
+                && processor.getActiveCalls() == 0, "Bulkhead rejects calls beyond the limit");
+    }
+
+    /**
+     * Test 3: Circuit Opens On Failures
+     *
+     * With a 50% threshold over at least 4 calls, four declines open the breaker;
+     * the next payment fails immediately without calling the gateway.
+     */
+    private static void testCircuitOpensOnFailures() {
+        System.out.println("Test 3: Circuit Opens On Failures");
+        StubGateway stub = new StubGateway(20);
+        stub.failing = true;
+        ResilientPaymentProcessor processor = new ResilientPaymentProcessor("Stub", stub, 10, 1000,
+                new CircuitBreaker("Stub", 0.5, 10, 4, 60_000, 1));
+        for (int i = 0; i < 4; i++) {
+            processor.processPayment(10.0, "USD");
+        }
+        long start = System.nanoTime();
+        PaymentResult result = processor.processPaymentAsync(10.0, "USD").join();
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        System.out.println("  - " + result.getMessage() + " (" + elapsedMicros + " us)");
+        System.out.println("  - " + processor.getCircuitBreaker());
+        check(processor.getCircuitBreaker().getState() == CircuitBreaker.State.OPEN
+                        && processor.getCircuitRejections() == 1 && elapsedMicros < 10_000,
+                "An open circuit fails payments without calling the gateway");
+    }
+
+    /**
+     * Test 4: Half-Open Probing
+     *
+     * After the open duration (moved on with a manual clock), two probes are let
+     * through. A failing probe reopens the breaker; once the gateway recovers, two
+     * successful probes close it.
+     */
+    private static void testHalfOpenProbing() {
+        System.out.println("Test 4: Half-Open Probing");
+        ManualClock clock = new ManualClock();
+        CircuitBreaker breaker = new CircuitBreaker("Stub", 0.5, 10, 4, 5000, 2, clock.nanos::get);
+        StubGateway stub = new StubGateway(5);
+        stub.failing = true;
+        ResilientPaymentProcessor processor = new ResilientPaymentProcessor("Stub", stub, 10, 1000, breaker);
+        for (int i = 0; i < 4; i++) {
+            processor.processPayment(10.0, "USD");
+        }
+        boolean openedAfterFailures = breaker.getState() == CircuitBreaker.State.OPEN;
+
+        clock.advanceMillis(4999);
+        boolean stillOpen = breaker.tryAcquirePermission() == CircuitBreaker.NO_PERMISSION;
+        clock.advanceMillis(1);
+        processor.processPayment(10.0, "USD"); // Failing probe
+        boolean reopened = breaker.getState() == CircuitBreaker.State.OPEN;
+
+        stub.failing = false;
+        clock.advanceMillis(5000);
+        processor.processPayment(10.0, "USD");
+        boolean halfOpenAfterOneProbe = breaker.getState() == CircuitBreaker.State.HALF_OPEN;
+        processor.processPayment(10.0, "USD");
+        boolean closed = breaker.getState() == CircuitBreaker.State.CLOSED;
+
+        System.out.println("  - Opened: " + openedAfterFailures + ", still open before 5 s: " + stillOpen
+                + ", failed probe reopened: " + reopened);
+        System.out.println("  - Half-open after one good probe: " + halfOpenAfterOneProbe + ", closed after two: " + closed);
+        check(openedAfterFailures && stillOpen && reopened && halfOpenAfterOneProbe && closed,
+                "Half-open probes decide whether the breaker closes");
+    }
+
+    /**
+     * Test 5: State-Change Metrics
+     *
+     * A listener records each transition as the breaker opens, probes, reopens,
+     * probes again and closes, and the transition counters agree with it.
+     */
+    private static void testStateChangeMetrics() {
+        System.out.println("Test 5: State-Change Metrics");
+        ManualClock clock = new ManualClock();
+        CircuitBreaker breaker = new CircuitBreaker("Metrics", 0.5, 4, 2, 1000, 1, clock.nanos::get);
+        List<String> changes = new ArrayList<>();
+        breaker.addListener((name, from, to) -> changes.add(name + ": " + from + " -> " + to));
+
+        breaker.onFailure(breaker.tryAcquirePermission());
+        breaker.onFailure(breaker.tryAcquirePermission());    // CLOSED -> OPEN
+        clock.advanceMillis(1000);
+        long probe = breaker.tryAcquirePermission();           // OPEN -> HALF_OPEN
+        breaker.onFailure(probe);                              // HALF_OPEN -> OPEN
+        clock.advanceMillis(1000);
+        probe = breaker.tryAcquirePermission();                // OPEN -> HALF_OPEN
+        breaker.onSuccess(probe);                              // HALF_OPEN -> CLOSED
+
+        System.out.println("  - Changes: " + changes);
+        System.out.println("  - " + breaker);
+        check(changes.size() == 5 && changes.get(4).equals("Metrics: HALF_OPEN -> CLOSED")
+                        && breaker.getTransitionCount(CircuitBreaker.State.OPEN) == 2
+                        && breaker.getTransitionCount(CircuitBreaker.State.HALF_OPEN) == 2
+                        && breaker.getTransitionCount(CircuitBreaker.State.CLOSED) == 1,
+                "Every state change is published and counted");
+    }
+
+    /**
+     * Test 6: Stale Outcomes Ignored
+     *
+     * A slow call starts while the breaker is CLOSED, then other failures open it and
+     * it moves to HALF_OPEN with one probe. The slow call's success must not close the
+     * breaker in place of the probe, and its failure must not reopen it. Once the
+     * probe closes the breaker, the slow call's outcome does not enter the new window.
+     */
+    private static void testStaleOutcomesIgnored() {
+        System.out.println("Test 6: Stale Outcomes Ignored");
+        ManualClock clock = new ManualClock();
+        CircuitBreaker breaker = new CircuitBreaker("Stale", 0.5, 4, 2, 1000, 1, clock.nanos::get);
+        long slowCall = breaker.tryAcquirePermission();
+        breaker.onFailure(breaker.tryAcquirePermission());
+        breaker.onFailure(breaker.tryAcquirePermission());    // CLOSED -> OPEN
+        clock.advanceMillis(1000);
+        long probe = breaker.tryAcquirePermission();           // OPEN -> HALF_OPEN
+
+        breaker.onSuccess(slowCall);
+        boolean successIgnored = breaker.getState() == CircuitBreaker.State.HALF_OPEN;
+        breaker.onFailure(slowCall);
+        boolean failureIgnored = breaker.getState() == CircuitBreaker.State.HALF_OPEN;
+        breaker.onSuccess(probe);
+        boolean closedByProbe = breaker.getState() == CircuitBreaker.State.CLOSED;
+        breaker.onFailure(slowCall);
+        boolean windowUntouched = breaker.getFailureRate() == 0.0;
+
+        System.out.println("  - Stale success ignored: " + successIgnored + ", stale failure ignored: " + failureIgnored
+                + ", closed by the probe: " + closedByProbe + ", new window untouched: " + windowUntouched);
+        check(successIgnored && failureIgnored && closedByProbe && windowUntouched,
+                "Only outcomes of the current state's permissions count");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps one gateway's PaymentProcessor with a bulkhead, a call timeout and a circuit breaker
+ *
+ * Bulkhead: at most maxConcurrentCalls calls to the gateway run at once; further
+ * payments fail immediately instead of queueing behind a slow gateway. A call that
+ * times out keeps its slot until the gateway actually returns, so a gateway that
+ * hangs cannot pile up unbounded work.
+ *
+ * Timeout: a payment that has not completed after timeoutMillis fails with a timeout.
+ * The gateway call is not cancelled; its late result is discarded.
+ *
+ * Circuit breaker: failures and timeouts count against the gateway. While the
+ * breaker is open, payments fail immediately without reaching the gateway.
+ */
+public class ResilientPaymentProcessor implements PaymentProcessor {
+
+    private final String gateway;
+    private final PaymentProcessor delegate;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long timeoutMillis;
+    private final CircuitBreaker circuitBreaker;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder circuitRejections = new LongAdder();
+    private volatile String lastStatus = "No payments processed yet";
+
+    public ResilientPaymentProcessor(String gateway, PaymentProcessor delegate, int maxConcurrentCalls,
+                                     long timeoutMillis, CircuitBreaker circuitBreaker) {
+        if (delegate == null || circuitBreaker == null) {
+            throw new IllegalArgumentException("delegate and circuitBreaker are required");
+        }
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive: " + maxConcurrentCalls);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be positive: " + timeoutMillis);
+        }
+        this.gateway = gateway;
+        this.delegate = delegate;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.timeoutMillis = timeoutMillis;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public boolean processPayment(double amount, String currency) {
+        return processPaymentAsync(amount, currency).join().isSuccess();
+    }
+
+    @Override
+    public String getPaymentStatus() {
+        return lastStatus;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            return rejected(amount, currency, gateway + ": Too many concurrent payments ("
+                    + maxConcurrentCalls + ")");
+        }
+        long permission = circuitBreaker.tryAcquirePermission();
+        if (permission == CircuitBreaker.NO_PERMISSION) {
+            bulkhead.release();
+            circuitRejections.increment();
+            return rejected(amount, currency, gateway + ": Circuit breaker is open");
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<PaymentResult> call;
+        try {
+            call = delegate.processPaymentAsync(amount, currency, executor);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        // The slot is released when the gateway returns, even after a timeout, and before
+        // the caller sees the result
+        CompletableFuture<PaymentResult> released = call.whenComplete((result, error) -> bulkhead.release());
+
+        return released.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).handle((result, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                String reason;
+                if (cause instanceof TimeoutException) {
+                    timedOut.increment();
+                    reason = gateway + ": Timed out after " + timeoutMillis + " ms";
+                } else {
+                    reason = gateway + ": Gateway error: " + cause;
+                }
+                result = PaymentResult.failed(gateway, amount, currency, reason, elapsed);
+            }
+            if (result.isSuccess()) {
+                succeeded.increment();
+                circuitBreaker.onSuccess(permission);
+            } else {
+                failed.increment();
+                circuitBreaker.onFailure(permission);
+            }
+            lastStatus = result.getMessage();
+            return result;
+        });
+    }
+
+    private CompletableFuture<PaymentResult> rejected(double amount, String currency, String reason) {
+        lastStatus = reason;
+        return CompletableFuture.completedFuture(PaymentResult.failed(gateway, amount, currency, reason, 0));
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Gateway calls currently running, including ones that already timed out
+     */
+    public int getActiveCalls() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    public long getSucceeded() { return succeeded.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getTimedOut() { return timedOut.sum(); }
+    public long getBulkheadRejections() { return bulkheadRejections.sum(); }
+    public long getCircuitRejections() { return circuitRejections.sum(); }
+
+    @Override
+    public String toString() {
+        return String.format("ResilientPaymentProcessor{%s: succeeded=%d, failed=%d (timedOut=%d), "
+                        + "bulkheadRejections=%d, circuitRejections=%d, activeCalls=%d, circuit=%s}",
+                gateway, getSucceeded(), getFailed(), getTimedOut(), getBulkheadRejections(),
+                getCircuitRejections(), getActiveCalls(), circuitBreaker.getState());
+    }
+}
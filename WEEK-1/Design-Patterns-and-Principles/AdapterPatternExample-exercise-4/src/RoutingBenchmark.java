@@ -0,0 +1,140 @@
+import AdapteeClasses.PayPalGateway;
+import AdapteeClasses.RazorpayGateway;
+import AdapteeClasses.StripeGateway;
+import AdapterClasses.PayPalAdapter;
+import AdapterClasses.RazorpayAdapter;
+import AdapterClasses.StripeAdapter;
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates steady payment traffic over the three sleep-based gateways
+ *
+ * Payments arrive at a fixed rate (open loop, so a slow gateway cannot slow down
+ * the arrivals) and are sent by round-robin, by latency-aware routing, and by
+ * routing with hedging. Stripe is the fastest gateway at 800 ms, but here 2% of its
+ * charges stall for an extra 2 seconds. Latency is measured per payment from
+ * submission to result, after 200 warm-up payments that give the router its first
+ * averages and p95.
+ */
+public class RoutingBenchmark {
+
+    private static final int WARMUP_PAYMENTS = 200;
+    private static final int PAYMENTS = 600;
+    private static final long ARRIVAL_INTERVAL_NANOS = 10_000_000L; // 100 payments/s
+    private static final double STALL_PROBABILITY = 0.02;
+    private static final long STALL_MILLIS = 2000;
+
+    // Stripe gateway that occasionally stalls, as real gateways do under load
+    private static class StallingStripeGateway extends StripeGateway {
+        @Override
+        public boolean chargeCard(double amount, String currency) {
+            if (ThreadLocalRandom.current().nextDouble() < STALL_PROBABILITY) {
+                try {
+                    Thread.sleep(STALL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.chargeCard(amount, currency);
+        }
+    }
+
+    // Sends each payment to the next gateway in turn
+    private static class RoundRobinProcessor implements PaymentProcessor {
+        private final PaymentProcessor[] processors;
+        private final AtomicInteger next = new AtomicInteger();
+
+        RoundRobinProcessor(PaymentProcessor... processors) {
+            this.processors = processors;
+        }
+
+        private PaymentProcessor nextProcessor() {
+            return processors[Math.floorMod(next.getAndIncrement(), processors.length)];
+        }
+
+        @Override
+        public boolean processPayment(double amount, String currency) {
+            return nextProcessor().processPayment(amount, currency);
+        }
+
+        @Override
+        public String getPaymentStatus() {
+            return "Round robin";
+        }
+
+        @Override
+        public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency,
+                                                                    Executor executor) {
+            return nextProcessor().processPaymentAsync(amount, currency, executor);
+        }
+    }
+
+    private static Map<String, PaymentProcessor> gateways() {
+        Map<String, PaymentProcessor> gateways = new LinkedHashMap<>();
+        gateways.put("Stripe", new StripeAdapter(new StallingStripeGateway()));
+        gateways.put("PayPal", new PayPalAdapter(new PayPalGateway()));
+        gateways.put("Razorpay", new RazorpayAdapter(new RazorpayGateway()));
+        return gateways;
+    }
+
+    public static void main(String[] args) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Gateways print every payment
+        try {
+            console.println("=== Payment Routing Benchmark ===");
+            console.printf("%d payments at 100/s; Stripe 800 ms (2%% stall +2 s), PayPal 1000 ms, Razorpay 1200 ms%n%n",
+                    PAYMENTS);
+            console.printf("%-18s %8s %8s %8s %8s %8s%n", "Strategy", "mean", "p50", "p95", "p99", "max");
+
+            run(console, "Round robin", new RoundRobinProcessor(gateways().values().toArray(new PaymentProcessor[0])));
+
+            RoutingPaymentProcessor routed = new RoutingPaymentProcessor(gateways(), false);
+            run(console, "Routed", routed);
+
+            RoutingPaymentProcessor hedged = new RoutingPaymentProcessor(gateways(), true);
+            run(console, "Routed + hedging", hedged);
+
+            console.println();
+            console.println(routed);
+            console.println(hedged);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void run(PrintStream console, String label, PaymentProcessor processor) {
+        List<CompletableFuture<Long>> latencies = new ArrayList<>(WARMUP_PAYMENTS + PAYMENTS);
+        long next = System.nanoTime();
+        for (int i = 0; i < WARMUP_PAYMENTS + PAYMENTS; i++) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += ARRIVAL_INTERVAL_NANOS;
+            long submitted = System.nanoTime();
+            latencies.add(processor.processPaymentAsync(10.0 + i, "USD")
+                    .thenApply(result -> (System.nanoTime() - submitted) / 1_000_000));
+        }
+        long[] millis = new long[PAYMENTS];
+        long total = 0;
+        for (int i = 0; i < PAYMENTS; i++) {
+            millis[i] = latencies.get(WARMUP_PAYMENTS + i).join();
+            total += millis[i];
+        }
+        Arrays.sort(millis);
+        console.printf("%-18s %6d ms %5d ms %5d ms %5d ms %5d ms%n", label, total / PAYMENTS,
+                millis[PAYMENTS / 2], millis[(int) (PAYMENTS * 0.95)], millis[(int) (PAYMENTS * 0.99)],
+                millis[PAYMENTS - 1]);
+    }
+}
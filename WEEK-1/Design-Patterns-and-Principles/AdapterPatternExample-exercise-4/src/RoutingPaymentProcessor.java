@@ -0,0 +1,304 @@
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Payment processor that routes each payment to the fastest healthy gateway
+ *
+ * Every gateway keeps an exponentially weighted moving average (EWMA) of its latency
+ * and of its success rate, updated as each payment completes. Latency samples above
+ * the gateway's recent p95 count as the p95, so occasional stalls do not move the
+ * average. A gateway is healthy while its success rate stays at or above
+ * minSuccessRate. Each payment goes to the healthy gateway with the lowest average
+ * latency. A gateway with no samples yet counts as the fastest, so every gateway is
+ * tried once. A small share of payments (explorationRate) goes to a random gateway
+ * instead, so a gateway that slowed down or failed earlier is noticed when it
+ * recovers. The averages only move as payments complete, so a gateway that suddenly
+ * slows down keeps receiving payments for about one of its old latencies.
+ *
+ * With hedging enabled, a payment still running after the gateway's recent p95
+ * latency is also sent to the next best gateway, and the first successful result
+ * wins. A real deployment may only hedge with gateways that deduplicate charges by
+ * an idempotency key; otherwise the customer is charged twice.
+ */
+public class RoutingPaymentProcessor implements PaymentProcessor {
+
+    private static final int LATENCY_WINDOW = 128;   // Recent latencies kept for the p95 estimate
+    private static final int MIN_HEDGE_SAMPLES = 20; // No hedging until the p95 means something
+
+    private final Route[] routes;
+    private final double smoothing;
+    private final double minSuccessRate;
+    private final double explorationRate;
+    private final boolean hedging;
+
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private volatile String lastStatus = "No payments routed yet";
+
+    /**
+     * Routes with smoothing 0.2, a minimum success rate of 80% and 5% exploration
+     * @param gateways the processors to route between, by gateway name
+     */
+    public RoutingPaymentProcessor(Map<String, PaymentProcessor> gateways, boolean hedging) {
+        this(gateways, 0.2, 0.8, 0.05, hedging);
+    }
+
+    /**
+     * @param smoothing weight of the newest sample in the moving averages, between 0 and 1
+     * @param minSuccessRate success rate below which a gateway is skipped
+     * @param explorationRate share of payments sent to a random gateway
+     */
+    public RoutingPaymentProcessor(Map<String, PaymentProcessor> gateways, double smoothing,
+                                   double minSuccessRate, double explorationRate, boolean hedging) {
+        if (gateways == null || gateways.isEmpty()) {
+            throw new IllegalArgumentException("At least one gateway is required");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("smoothing must be in (0, 1]: " + smoothing);
+        }
+        if (minSuccessRate < 0 || minSuccessRate > 1) {
+            throw new IllegalArgumentException("minSuccessRate must be in [0, 1]: " + minSuccessRate);
+        }
+        if (explorationRate < 0 || explorationRate >= 1) {
+            throw new IllegalArgumentException("explorationRate must be in [0, 1): " + explorationRate);
+        }
+        this.routes = new Route[gateways.size()];
+        int i = 0;
+        for (Map.Entry<String, PaymentProcessor> gateway : new LinkedHashMap<>(gateways).entrySet()) {
+            if (gateway.getValue() == null) {
+                throw new IllegalArgumentException("Gateway " + gateway.getKey() + " has no processor");
+            }
+            routes[i++] = new Route(gateway.getKey(), gateway.getValue());
+        }
+        this.smoothing = smoothing;
+        this.minSuccessRate = minSuccessRate;
+        this.explorationRate = explorationRate;
+        this.hedging = hedging;
+    }
+
+    // Moving averages and recent latencies of one gateway
+    private final class Route {
+        final String name;
+        final PaymentProcessor processor;
+        final LongAdder routed = new LongAdder();
+
+        private volatile double latencyNanos;
+        private volatile double successRate = 1.0;
+        private volatile long p95Nanos;
+        private long samples;
+        private final long[] recent = new long[LATENCY_WINDOW];
+
+        Route(String name, PaymentProcessor processor) {
+            this.name = name;
+            this.processor = processor;
+        }
+
+        synchronized void record(long elapsedNanos, boolean success) {
+            if (samples == 0) {
+                latencyNanos = elapsedNanos;
+            } else {
+                // Stalls beyond the p95 are for hedging to absorb; capping them keeps one
+                // outlier from pushing a gateway out of rotation, while a real slowdown
+                // raises the p95 itself within a few samples
+                long capped = p95Nanos > 0 ? Math.min(elapsedNanos, p95Nanos) : elapsedNanos;
+                latencyNanos += smoothing * (capped - latencyNanos);
+            }
+            successRate += smoothing * ((success ? 1.0 : 0.0) - successRate);
+            recent[(int) (samples % LATENCY_WINDOW)] = elapsedNanos;
+            samples++;
+            // Re-sorting 128 longs every 8th sample keeps the p95 current at negligible cost
+            if (samples >= MIN_HEDGE_SAMPLES && (samples & 7) == 0) {
+                int count = (int) Math.min(samples, LATENCY_WINDOW);
+                long[] sorted = Arrays.copyOf(recent, count);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+            }
+        }
+
+        boolean isHealthy() {
+            return successRate >= minSuccessRate;
+        }
+
+        synchronized long getSamples() {
+            return samples;
+        }
+    }
+
+    @Override
+    public boolean processPayment(double amount, String currency) {
+        return processPaymentAsync(amount, currency).join().isSuccess();
+    }
+
+    @Override
+    public String getPaymentStatus() {
+        return lastStatus;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+        Route primary = choose(null);
+        CompletableFuture<PaymentResult> primaryCall = call(primary, amount, currency, executor);
+        long hedgeAfter = primary.p95Nanos;
+        Route backup = hedging && hedgeAfter > 0 ? choose(primary) : null;
+        if (backup == null || backup == primary) {
+            return primaryCall.thenApply(this::remember);
+        }
+
+        HedgedPayment payment = new HedgedPayment();
+        primaryCall.thenAccept(result -> payment.offer(result, false));
+        CompletableFuture.delayedExecutor(hedgeAfter, TimeUnit.NANOSECONDS, executor).execute(() -> {
+            if (payment.startHedge()) {
+                hedged.increment();
+                call(backup, amount, currency, executor).thenAccept(result -> payment.offer(result, true));
+            }
+        });
+        return payment.result.thenApply(this::remember);
+    }
+
+    // Completes with the first successful result, or with a failure once no call is left running
+    private final class HedgedPayment {
+        final CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        private int running = 1;
+
+        synchronized boolean startHedge() {
+            if (result.isDone() || running == 0) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        synchronized void offer(PaymentResult outcome, boolean fromHedge) {
+            running--;
+            if (result.isDone()) {
+                return;
+            }
+            if (outcome.isSuccess() || running == 0) {
+                if (fromHedge && outcome.isSuccess()) {
+                    hedgeWins.increment();
+                }
+                result.complete(outcome);
+            }
+        }
+    }
+
+    private PaymentResult remember(PaymentResult result) {
+        lastStatus = "Routed to " + result.getGateway() + ": " + result.getMessage();
+        return result;
+    }
+
+    // Calls one gateway and feeds its latency and outcome back into the route's averages
+    private CompletableFuture<PaymentResult> call(Route route, double amount, String currency, Executor executor) {
+        route.routed.increment();
+        long start = System.nanoTime();
+        return route.processor.processPaymentAsync(amount, currency, executor).handle((result, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error != null) {
+                result = PaymentResult.failed(route.name, amount, currency, "Gateway error: " + error, elapsed);
+            }
+            route.record(elapsed, result.isSuccess());
+            return result;
+        });
+    }
+
+    /**
+     * Picks the healthy route with the lowest average latency, skipping the excluded one.
+     * Falls back to the route with the best success rate when none is healthy.
+     */
+    private Route choose(Route excluded) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (excluded == null && routes.length > 1 && random.nextDouble() < explorationRate) {
+            return routes[random.nextInt(routes.length)];
+        }
+        Route fastest = null;
+        Route mostReliable = null;
+        for (Route route : routes) {
+            if (route == excluded) {
+                continue;
+            }
+            if (route.isHealthy() && (fastest == null || route.latencyNanos < fastest.latencyNanos)) {
+                fastest = route;
+            }
+            if (mostReliable == null || route.successRate > mostReliable.successRate) {
+                mostReliable = route;
+            }
+        }
+        if (excluded != null) {
+            return fastest; // Only hedge to a healthy gateway
+        }
+        return fastest != null ? fastest : mostReliable;
+    }
+
+    private Route route(String gateway) {
+        for (Route route : routes) {
+            if (route.name.equals(gateway)) {
+                return route;
+            }
+        }
+        throw new IllegalArgumentException("Unknown gateway: " + gateway);
+    }
+
+    public List<String> getGatewayNames() {
+        List<String> names = new ArrayList<>(routes.length);
+        for (Route route : routes) {
+            names.add(route.name);
+        }
+        return names;
+    }
+
+    public double getAverageLatencyMillis(String gateway) {
+        return route(gateway).latencyNanos / 1e6;
+    }
+
+    public double getSuccessRate(String gateway) {
+        return route(gateway).successRate;
+    }
+
+    /**
+     * p95 of the gateway's last 128 latencies, or 0 until 20 payments have completed
+     */
+    public double getP95LatencyMillis(String gateway) {
+        return route(gateway).p95Nanos / 1e6;
+    }
+
+    public boolean isHealthy(String gateway) {
+        return route(gateway).isHealthy();
+    }
+
+    /**
+     * Number of calls sent to the gateway, including hedges
+     */
+    public long getRoutedCount(String gateway) {
+        return route(gateway).routed.sum();
+    }
+
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RoutingPaymentProcessor{");
+        for (Route route : routes) {
+            sb.append(String.format("%s: routed=%d, samples=%d, avg=%.0f ms, p95=%.0f ms, success=%.1f%%%s; ",
+                    route.name, route.routed.sum(), route.getSamples(), route.latencyNanos / 1e6,
+                    route.p95Nanos / 1e6, route.successRate * 100, route.isHealthy() ? "" : " (unhealthy)"));
+        }
+        return sb.append("hedged=").append(hedged.sum()).append(", hedgeWins=").append(hedgeWins.sum()).append('}').toString();
+    }
+}
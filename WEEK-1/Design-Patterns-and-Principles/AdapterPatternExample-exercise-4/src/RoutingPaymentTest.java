@@ -0,0 +1,255 @@
+import TargetInterface.PaymentProcessor;
+import TargetInterface.PaymentResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routing Payment Test Suite
+ *
+ * Validates RoutingPaymentProcessor with fast stub gateways instead of the
+ * 1-second simulated ones:
+ * - Fastest Gateway: most payments go to the gateway with the lowest latency
+ * - Health: a gateway that keeps failing stops receiving payments
+ * - Adaptation: traffic moves away from a gateway that slows down and back once it recovers
+ * - Hedging: a stalled payment is also sent to the next gateway after the p95 latency
+ * - Target Interface: the router is a PaymentProcessor like any adapter
+ */
+public class RoutingPaymentTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Routing Payment Test Suite ===\n");
+
+        // Load the routing and CompletableFuture classes first, so class loading does not
+        // inflate the first latency samples of the tests
+        sendWaves(new RoutingPaymentProcessor(gateways(new StubGateway("Warmup", 1)), true), 5, 5);
+
+        testRoutesToFastestGateway();
+        testSkipsFailingGateway();
+        testAdaptsToSlowdownAndRecovery();
+        testHedgingCutsTailLatency();
+        testRouterIsAPaymentProcessor();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Gateway with an adjustable latency that can be told to fail or to stall every nth call
+    private static class StubGateway implements PaymentProcessor {
+        private final String name;
+        private final AtomicInteger calls = new AtomicInteger();
+        volatile long latencyMillis;
+        volatile boolean failing;
+        volatile int stallEvery;
+        volatile long stallMillis;
+
+        StubGateway(String name, long latencyMillis) {
+            this.name = name;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public boolean processPayment(double amount, String currency) {
+            int call = calls.incrementAndGet();
+            long delay = stallEvery > 0 && call % stallEvery == 0 ? stallMillis : latencyMillis;
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return !failing;
+        }
+
+        @Override
+        public String getPaymentStatus() {
+            return name + " OK";
+        }
+
+        @Override
+        public CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                boolean success = processPayment(amount, currency);
+                long elapsed = System.nanoTime() - start;
+                return success
+                        ? PaymentResult.succeeded(name, amount, currency, getPaymentStatus(), elapsed)
+                        : PaymentResult.failed(name, amount, currency, name + " declined", elapsed);
+            }, executor);
+        }
+    }
+
+    private static Map<String, PaymentProcessor> gateways(StubGateway... stubs) {
+        Map<String, PaymentProcessor> gateways = new LinkedHashMap<>();
+        for (StubGateway stub : stubs) {
+            gateways.put(stub.name, stub);
+        }
+        return gateways;
+    }
+
+    // Sends payments in waves of `concurrency`, waiting for each wave before the next
+    private static List<PaymentResult> sendWaves(PaymentProcessor router, int waves, int concurrency) {
+        List<PaymentResult> results = new ArrayList<>();
+        for (int wave = 0; wave < waves; wave++) {
+            List<CompletableFuture<PaymentResult>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(router.processPaymentAsync(10.0, "USD"));
+            }
+            for (CompletableFuture<PaymentResult> future : futures) {
+                results.add(future.join());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Test 1: Routes To Fastest Gateway
+     *
+     * Gateways take 10, 30 and 60 ms. Once each has been tried, nearly every payment
+     * should go to the 10 ms gateway.
+     */
+    private static void testRoutesToFastestGateway() {
+        System.out.println("Test 1: Routes To Fastest Gateway");
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(gateways(
+                new StubGateway("Fast", 10), new StubGateway("Medium", 30), new StubGateway("Slow", 60)),
+                0.2, 0.8, 0.0, false);
+        sendWaves(router, 20, 5);
+        long fast = router.getRoutedCount("Fast");
+        System.out.println("  - " + router);
+        check(fast >= 85 && router.getAverageLatencyMillis("Fast") < router.getAverageLatencyMillis("Medium"),
+                "Payments are routed to the fastest gateway");
+    }
+
+    /**
+     * Test 2: Skips Failing Gateway
+     *
+     * The fastest gateway declines every payment. Its success rate drops below 80%
+     * after a few payments and the router moves to the next fastest gateway.
+     */
+    private static void testSkipsFailingGateway() {
+        System.out.println("Test 2: Skips Failing Gateway");
+        StubGateway broken = new StubGateway("Broken", 5);
+        broken.failing = true;
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(gateways(
+                broken, new StubGateway("Healthy", 20)), 0.2, 0.8, 0.0, false);
+        List<PaymentResult> results = sendWaves(router, 40, 1);
+        int lateFailures = 0;
+        for (PaymentResult result : results.subList(10, results.size())) {
+            if (!result.isSuccess()) {
+                lateFailures++;
+            }
+        }
+        System.out.println("  - " + router);
+        System.out.println("  - Failures after the first 10 payments: " + lateFailures);
+        check(!router.isHealthy("Broken") && lateFailures == 0, "A failing gateway is taken out of rotation");
+    }
+
+    /**
+     * Test 3: Adapts To Slowdown And Recovery
+     *
+     * The fastest gateway slows from 10 ms to 100 ms, so traffic moves to the 30 ms one.
+     * When it speeds up again, exploration notices and traffic moves back.
+     */
+    private static void testAdaptsToSlowdownAndRecovery() {
+        System.out.println("Test 3: Adapts To Slowdown And Recovery");
+        StubGateway primary = new StubGateway("Primary", 10);
+        StubGateway secondary = new StubGateway("Secondary", 30);
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(gateways(primary, secondary),
+                0.5, 0.8, 0.2, false);
+        sendWaves(router, 10, 10);
+
+        primary.latencyMillis = 100;
+        sendWaves(router, 10, 10);
+        long secondaryBefore = router.getRoutedCount("Secondary");
+        sendWaves(router, 10, 10);
+        long movedAway = router.getRoutedCount("Secondary") - secondaryBefore;
+        System.out.println("  - While slow, Secondary handled " + movedAway + " of 100 payments");
+
+        primary.latencyMillis = 10;
+        sendWaves(router, 30, 10);
+        long primaryBefore = router.getRoutedCount("Primary");
+        sendWaves(router, 10, 10);
+        long movedBack = router.getRoutedCount("Primary") - primaryBefore;
+        System.out.println("  - After recovery, Primary handled " + movedBack + " of 100 payments");
+        System.out.println("  - " + router);
+        check(movedAway >= 70 && movedBack >= 70, "Routing follows latency changes in both directions");
+    }
+
+    /**
+     * Test 4: Hedging Cuts Tail Latency
+     *
+     * Every 25th payment on the 10 ms gateway stalls for 300 ms. Without hedging the
+     * stalled payment takes 300 ms; with hedging it is also sent to the 40 ms gateway
+     * once it passes the p95, and completes in well under 150 ms.
+     */
+    private static void testHedgingCutsTailLatency() {
+        System.out.println("Test 4: Hedging Cuts Tail Latency");
+        long withoutHedging = worstLatencyMillis(false, null);
+        RoutingPaymentProcessor[] hedgingRouter = new RoutingPaymentProcessor[1];
+        long withHedging = worstLatencyMillis(true, hedgingRouter);
+        System.out.println("  - Worst latency without hedging: " + withoutHedging + " ms, with hedging: " + withHedging + " ms");
+        System.out.println("  - " + hedgingRouter[0]);
+        check(withoutHedging >= 300 && withHedging < 150 && hedgingRouter[0].getHedgeWins() > 0,
+                "Hedged requests bound the latency of a stalled gateway");
+    }
+
+    private static long worstLatencyMillis(boolean hedging, RoutingPaymentProcessor[] routerOut) {
+        StubGateway stalling = new StubGateway("Stalling", 10);
+        stalling.stallEvery = 25;
+        stalling.stallMillis = 300;
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(gateways(stalling, new StubGateway("Backup", 40)),
+                0.2, 0.8, 0.0, hedging);
+        if (routerOut != null) {
+            routerOut[0] = router;
+        }
+        long worst = 0;
+        for (int i = 0; i < 60; i++) {
+            long start = System.nanoTime();
+            router.processPaymentAsync(10.0, "USD").join();
+            worst = Math.max(worst, (System.nanoTime() - start) / 1_000_000);
+        }
+        return worst;
+    }
+
+    /**
+     * Test 5: Router Is A PaymentProcessor
+     *
+     * The router plugs into PaymentService like any adapter, reports the status of
+     * the gateway it last used and rejects an empty gateway map.
+     */
+    private static void testRouterIsAPaymentProcessor() {
+        System.out.println("Test 5: Router Is A PaymentProcessor");
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(gateways(new StubGateway("Only", 5)), false);
+        boolean success = router.processPayment(42.0, "EUR");
+        PaymentResult viaService = new PaymentService(router).processTransactionAsync(43.0, "EUR").join();
+        String status = router.getPaymentStatus();
+        System.out.println("  - Status: " + status);
+        boolean rejected = false;
+        try {
+            new RoutingPaymentProcessor(new LinkedHashMap<>(), false);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        check(success && viaService.isSuccess() && status.equals("Routed to Only: Only OK") && rejected,
+                "Router works through the PaymentProcessor interface");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
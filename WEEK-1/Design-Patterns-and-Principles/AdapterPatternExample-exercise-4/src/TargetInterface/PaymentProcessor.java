@@ -1,6 +1,36 @@
 package TargetInterface;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 public interface PaymentProcessor {
     boolean processPayment(double amount, String currency);
     String getPaymentStatus();
-}
\ No newline at end of file
+
+    /**
+     * Processes the payment without blocking the caller, on a new virtual thread, so a
+     * payment waiting on a slow gateway does not hold a platform thread. Like every
+     * asynchronous path in this module, it starts the thread directly instead of going
+     * through an ExecutorService, so there is no pool to shut down.
+     * @return a future completed with the result once the gateway has responded
+     */
+    default CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency) {
+        return processPaymentAsync(amount, currency, task -> Thread.ofVirtual().name("payment").start(task));
+    }
+
+    /**
+     * Processes the payment on the given executor. The default runs the blocking
+     * processPayment call there; adapters override it to report their gateway and status.
+     */
+    default CompletableFuture<PaymentResult> processPaymentAsync(double amount, String currency, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            boolean success = processPayment(amount, currency);
+            long elapsed = System.nanoTime() - start;
+            String gateway = getClass().getSimpleName();
+            return success
+                    ? PaymentResult.succeeded(gateway, amount, currency, getPaymentStatus(), elapsed)
+                    : PaymentResult.failed(gateway, amount, currency, "Payment was not processed", elapsed);
+        }, executor);
+    }
+}
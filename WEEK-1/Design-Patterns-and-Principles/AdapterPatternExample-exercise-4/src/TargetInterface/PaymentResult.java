@@ -0,0 +1,73 @@
+package TargetInterface;
+
+/**
+ * Outcome of one asynchronous payment
+ *
+ * Records which gateway handled the payment, whether it succeeded, the gateway's
+ * status message (or the reason it failed) and how long the call took.
+ */
+public final class PaymentResult {
+    private final String gateway;
+    private final double amount;
+    private final String currency;
+    private final boolean success;
+    private final String message;
+    private final long elapsedNanos;
+
+    private PaymentResult(String gateway, double amount, String currency,
+                          boolean success, String message, long elapsedNanos) {
+        this.gateway = gateway;
+        this.amount = amount;
+        this.currency = currency;
+        this.success = success;
+        this.message = message;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public static PaymentResult succeeded(String gateway, double amount, String currency,
+                                          String status, long elapsedNanos) {
+        return new PaymentResult(gateway, amount, currency, true, status, elapsedNanos);
+    }
+
+    public static PaymentResult failed(String gateway, double amount, String currency,
+                                       String reason, long elapsedNanos) {
+        return new PaymentResult(gateway, amount, currency, false, reason, elapsedNanos);
+    }
+
+    public String getGateway() {
+        return gateway;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * The gateway status for a successful payment, or the reason it failed
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PaymentResult{gateway=%s, amount=%.2f %s, success=%b, message=%s, elapsed=%d ms}",
+                gateway, amount, currency, success, message, getElapsedMillis());
+    }
+}
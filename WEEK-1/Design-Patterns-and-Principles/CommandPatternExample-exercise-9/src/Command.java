@@ -1,4 +1,20 @@
 public interface Command {
     void execute();
 
+    /**
+     * The receiver whose whole state this command sets. A CommandBus keeps only the
+     * latest queued command for each target. null means the command is never coalesced.
+     */
+    default Object getTarget() {
+        return null;
+    }
+
+    /**
+     * Returns a command that puts the receiver back the way it is now. It is called
+     * just before execute, so the result undoes that execution. null means the
+     * command cannot be undone.
+     */
+    default Command undoCommand() {
+        return null;
+    }
 }
@@ -0,0 +1,302 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.io.UncheckedIOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue that accepts commands from many threads and executes them in batches on an Executor
+ *
+ * Coalescing: a command with a target replaces the command already queued for that
+ * target, so on, off, on for one light executes a single on. The command keeps the
+ * queue position of the first one it replaced. Commands without a target are never
+ * coalesced.
+ *
+ * Execution: one task at a time drains up to batchSize commands and executes them in
+ * queue order, then hands the executor back and schedules the next batch. Commands
+ * therefore never run concurrently with each other, and receivers such as Light need
+ * no locking. A command that throws is counted and the batch carries on.
+ *
+ * Undo/redo: every executed command that supplies an undoCommand is journaled. The
+ * journal keeps the last journalCapacity entries; older ones are dropped. Executing
+ * a new command clears the redo history.
+ *
+ * Durability: a bus created with a CommandJournal appends every command it executes,
+ * including those executed by undo and redo, just before executing it and under the
+ * same lock, so the journal's order is the execution order. Coalesced commands never
+ * execute and are not journaled. A command the journal refuses is not executed and
+ * counts as failed. Each batch, undo and redo waits for its records to reach the disk
+ * before it counts as done, so flush() returns only once they are durable.
+ */
+public class CommandBus {
+
+    private final Executor executor;
+    private final int batchSize;
+    private final int journalCapacity;
+    private final CommandJournal commandJournal;
+
+    // A key is queued while the map holds a command for it; see submit and drain
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Object, Command> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Guarded by journalLock, which is also held while a batch executes
+    private final Object journalLock = new Object();
+    private final Deque<JournalEntry> undoStack = new ArrayDeque<>();
+    private final Deque<JournalEntry> redoStack = new ArrayDeque<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    // A command and the command that reverses it
+    private static final class JournalEntry {
+        final Command command;
+        final Command undo;
+
+        JournalEntry(Command command, Command undo) {
+            this.command = command;
+            this.undo = undo;
+        }
+    }
+
+    /**
+     * A bus on the common pool with batches of 256 and an undo history of 1,000 commands
+     */
+    public CommandBus() {
+        this(ForkJoinPool.commonPool(), 256, 1000);
+    }
+
+    /**
+     * @param batchSize the most commands one task executes before rescheduling
+     * @param journalCapacity the most commands that can be undone
+     */
+    public CommandBus(Executor executor, int batchSize, int journalCapacity) {
+        this(executor, batchSize, journalCapacity, null);
+    }
+
+    /**
+     * @param commandJournal records every executed command durably, or null
+     */
+    public CommandBus(Executor executor, int batchSize, int journalCapacity, CommandJournal commandJournal) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is required");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (journalCapacity < 0) {
+            throw new IllegalArgumentException("journalCapacity must not be negative: " + journalCapacity);
+        }
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.journalCapacity = journalCapacity;
+        this.commandJournal = commandJournal;
+    }
+
+    /**
+     * Queues the command and returns at once. Safe to call from any thread.
+     */
+    public void submit(Command command) {
+        if (command == null) {
+            throw new IllegalArgumentException("command is required");
+        }
+        submitted.increment();
+        Object target = command.getTarget();
+        Object key = target != null ? target : new Object();
+        pendingCount.incrementAndGet();
+        // If the put replaces a command, its key is still queued and the drain will pick
+        // up this one instead. If the drain removed the old command first, put returns
+        // null and the key is queued again.
+        if (pending.put(key, command) != null) {
+            coalesced.increment();
+            pendingCount.decrementAndGet();
+        } else {
+            queue.add(key);
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException | Error e) {
+                // Not scheduled, e.g. a shut-down executor; let the next submit try again
+                draining.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        int count = 0;
+        long lastRecord = 0;
+        try {
+            synchronized (journalLock) {
+                Object key;
+                while (count < batchSize && (key = queue.poll()) != null) {
+                    Command command = pending.remove(key);
+                    if (command == null) {
+                        continue;
+                    }
+                    count++;
+                    lastRecord = Math.max(lastRecord, run(command));
+                }
+            }
+            // One fsync for the whole batch, outside the lock so undo and redo are not held up
+            awaitDurable(lastRecord);
+        } finally {
+            // Also after an Error, so the bus keeps draining and flush() does not wait forever
+            if (count > 0) {
+                batches.increment();
+                pendingCount.addAndGet(-count);
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+            draining.set(false);
+            schedule();
+        }
+    }
+
+    // Called with journalLock held; returns the command's journal sequence, or 0 if not journaled
+    private long run(Command command) {
+        long record = 0;
+        try {
+            record = record(command);
+            Command undo = command.undoCommand();
+            command.execute();
+            executed.increment();
+            if (undo != null && journalCapacity > 0) {
+                if (undoStack.size() == journalCapacity) {
+                    undoStack.removeFirst();
+                }
+                undoStack.addLast(new JournalEntry(command, undo));
+                redoStack.clear();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+        return record;
+    }
+
+    // Called with journalLock held, just before the command executes
+    private long record(Command command) {
+        return commandJournal == null ? 0 : commandJournal.append(command);
+    }
+
+    private void awaitDurable(long record) {
+        if (record == 0) {
+            return;
+        }
+        try {
+            commandJournal.awaitDurable(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (UncheckedIOException e) {
+            // The journal refuses every later append, so those commands fail instead
+        }
+    }
+
+    /**
+     * Blocks until every command submitted before the call has been executed or coalesced
+     */
+    public void flush() throws InterruptedException {
+        synchronized (this) {
+            while (pendingCount.get() > 0) {
+                wait(10);
+            }
+        }
+    }
+
+    /**
+     * Reverses the most recently executed command. Queued commands are not affected.
+     * @return false if there is nothing to undo
+     */
+    public boolean undo() {
+        long record;
+        synchronized (journalLock) {
+            JournalEntry entry = undoStack.peekLast();
+            if (entry == null) {
+                return false;
+            }
+            record = record(entry.undo);
+            undoStack.removeLast();
+            entry.undo.execute();
+            redoStack.addLast(entry);
+        }
+        awaitDurable(record);
+        return true;
+    }
+
+    /**
+     * Executes the most recently undone command again
+     * @return false if there is nothing to redo
+     */
+    public boolean redo() {
+        long record;
+        synchronized (journalLock) {
+            JournalEntry entry = redoStack.peekLast();
+            if (entry == null) {
+                return false;
+            }
+            record = record(entry.command);
+            redoStack.removeLast();
+            Command undo = entry.command.undoCommand();
+            entry.command.execute();
+            undoStack.addLast(new JournalEntry(entry.command, undo));
+        }
+        awaitDurable(record);
+        return true;
+    }
+
+    /**
+     * The journal that records executed commands, or null
+     */
+    public CommandJournal getCommandJournal() {
+        return commandJournal;
+    }
+
+    public int getUndoDepth() {
+        synchronized (journalLock) {
+            return undoStack.size();
+        }
+    }
+
+    public int getRedoDepth() {
+        synchronized (journalLock) {
+            return redoStack.size();
+        }
+    }
+
+    /**
+     * Commands queued and not yet executed
+     */
+    public int getPending() {
+        return pendingCount.get();
+    }
+
+    public long getSubmitted() { return submitted.sum(); }
+    public long getCoalesced() { return coalesced.sum(); }
+    public long getExecuted() { return executed.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getBatches() { return batches.sum(); }
+
+    @Override
+    public String toString() {
+        return String.format("CommandBus{submitted=%d, coalesced=%d, executed=%d, failed=%d, batches=%d, "
+                        + "pending=%d, undoDepth=%d, redoDepth=%d}",
+                getSubmitted(), getCoalesced(), getExecuted(), getFailed(), getBatches(),
+                getPending(), getUndoDepth(), getRedoDepth());
+    }
+}
@@ -0,0 +1,92 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures CommandBus throughput with 1, 8 and 64 producers
+ *
+ * Each run submits 2,000,000 random on/off commands for 10,000 lights, split evenly
+ * between the producers, and waits until the bus has applied them all. The baseline
+ * executes the same number of commands one at a time through a RemoteControl.
+ * Commands per second counts submitted commands, including those coalesced away.
+ */
+public class CommandBusBenchmark {
+
+    private static final int COMMANDS = 2_000_000;
+    private static final int LIGHTS = 10_000;
+    private static final int[] PRODUCERS = {1, 8, 64};
+
+    public static void main(String[] args) throws Exception {
+        Light[] lights = new Light[LIGHTS];
+        for (int i = 0; i < LIGHTS; i++) {
+            lights[i] = new Light("Light " + i);
+        }
+        Command[] on = new Command[LIGHTS];
+        Command[] off = new Command[LIGHTS];
+        for (int i = 0; i < LIGHTS; i++) {
+            on[i] = new LightOnCommand(lights[i]);
+            off[i] = new LightOffCommand(lights[i]);
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Lights print every change
+        try {
+            console.println("=== Command Bus Benchmark ===");
+            console.println(COMMANDS + " commands for " + LIGHTS + " lights, "
+                    + Runtime.getRuntime().availableProcessors() + " CPU(s)\n");
+            for (int round = 1; round <= 2; round++) {
+                console.println("Round " + round + ":");
+                long start = System.nanoTime();
+                RemoteControl remote = new RemoteControl();
+                SplittableRandom random = new SplittableRandom(round);
+                for (int i = 0; i < COMMANDS; i++) {
+                    int light = random.nextInt(LIGHTS);
+                    remote.setCommand(random.nextBoolean() ? on[light] : off[light]);
+                    remote.pressButton();
+                }
+                report(console, "RemoteControl, 1 thread", System.nanoTime() - start, null);
+
+                for (int producers : PRODUCERS) {
+                    ExecutorService pool = Executors.newSingleThreadExecutor();
+                    CommandBus bus = new CommandBus(pool, 256, 1000);
+                    start = System.nanoTime();
+                    runProducers(bus, producers, on, off, round);
+                    bus.flush();
+                    report(console, String.format("CommandBus, %2d producers", producers), System.nanoTime() - start, bus);
+                    pool.shutdown();
+                }
+                console.println();
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void runProducers(CommandBus bus, int producers, Command[] on, Command[] off, int seed)
+            throws InterruptedException {
+        List<Thread> threads = new ArrayList<>(producers);
+        for (int p = 0; p < producers; p++) {
+            SplittableRandom random = new SplittableRandom(seed * 1000L + p);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < COMMANDS / producers; i++) {
+                    int light = random.nextInt(LIGHTS);
+                    bus.submit(random.nextBoolean() ? on[light] : off[light]);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void report(PrintStream console, String label, long nanos, CommandBus bus) {
+        double seconds = nanos / 1e9;
+        String detail = bus == null ? "" : String.format(" (executed %,d, coalesced %.1f%%, %,d batches)",
+                bus.getExecuted(), 100.0 * bus.getCoalesced() / bus.getSubmitted(), bus.getBatches());
+        console.printf("  %-26s %,7.0f ms -> %,11.0f commands/s%s%n", label, nanos / 1e6, COMMANDS / seconds, detail);
+    }
+}
@@ -0,0 +1,295 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Command Bus Test Suite
+ *
+ * Validates CommandBus:
+ * - Coalescing: redundant queued commands for one target collapse into the latest
+ * - Batching: queued commands are executed in batches of at most batchSize
+ * - Many Producers: commands from concurrent producers are all applied, in order per target
+ * - Undo/Redo: the bounded journal reverses and replays executed commands
+ * - Remote Control: a remote bound to the bus submits instead of executing, and failures are counted
+ * - Executor Failures: a rejected task or an Error in a command does not stop the bus
+ */
+public class CommandBusTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Command Bus Test Suite ===\n");
+
+        testCoalescing();
+        testBatching();
+        testManyProducers();
+        testUndoRedo();
+        testRemoteControlWithBus();
+        testExecutorFailures();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Executor that holds tasks until the test runs them
+    private static class ManualExecutor implements java.util.concurrent.Executor {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        boolean rejecting;
+
+        @Override
+        public void execute(Runnable task) {
+            if (rejecting) {
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            tasks.add(task);
+        }
+
+        int runAll() {
+            int ran = 0;
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+                ran++;
+            }
+            return ran;
+        }
+    }
+
+    private static void quietly(Runnable action) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Test 1: Coalescing
+     *
+     * On, off, on for one light while the executor is held back executes a single on.
+     * A command for another light is not affected.
+     */
+    private static void testCoalescing() {
+        System.out.println("Test 1: Coalescing");
+        ManualExecutor executor = new ManualExecutor();
+        CommandBus bus = new CommandBus(executor, 100, 10);
+        Light kitchen = new Light("Kitchen");
+        Light hall = new Light("Hall");
+        bus.submit(new LightOnCommand(kitchen));
+        bus.submit(new LightOffCommand(kitchen));
+        bus.submit(new LightOffCommand(hall));
+        bus.submit(new LightOnCommand(kitchen));
+        int pendingBefore = bus.getPending();
+        executor.runAll();
+        System.out.println("  - " + bus);
+        check(pendingBefore == 2 && bus.getExecuted() == 2 && bus.getCoalesced() == 2
+                        && kitchen.isOn() && !hall.isOn() && bus.getPending() == 0,
+                "on/off/on for one target executes a single on");
+    }
+
+    /**
+     * Test 2: Batching
+     *
+     * 1,000 commands for 1,000 lights with a batch size of 100 run as 10 executor
+     * tasks of 100 commands each.
+     */
+    private static void testBatching() {
+        System.out.println("Test 2: Batching");
+        ManualExecutor executor = new ManualExecutor();
+        CommandBus bus = new CommandBus(executor, 100, 0);
+        Light[] lights = new Light[1000];
+        for (int i = 0; i < lights.length; i++) {
+            lights[i] = new Light("Light " + i);
+            bus.submit(new LightOnCommand(lights[i]));
+        }
+        int[] tasks = new int[1];
+        quietly(() -> tasks[0] = executor.runAll());
+        int on = 0;
+        for (Light light : lights) {
+            on += light.isOn() ? 1 : 0;
+        }
+        System.out.println("  - Tasks run: " + tasks[0] + ", lights on: " + on);
+        System.out.println("  - " + bus);
+        check(tasks[0] == 10 && bus.getBatches() == 10 && on == 1000 && bus.getUndoDepth() == 0,
+                "Commands execute in batches of at most batchSize");
+    }
+
+    /**
+     * Test 3: Many Producers
+     *
+     * 8 producers each toggle their own 50 lights 1,000 times on a real thread pool.
+     * Every command is executed or coalesced, and each light ends in the state of the
+     * last command its producer submitted.
+     */
+    private static void testManyProducers() throws Exception {
+        System.out.println("Test 3: Many Producers");
+        int producers = 8;
+        int lightsPerProducer = 50;
+        int rounds = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CommandBus bus = new CommandBus(pool, 64, 100);
+        Light[][] lights = new Light[producers][lightsPerProducer];
+        boolean[] expectedOn = new boolean[producers];
+        Exception[] failure = new Exception[1];
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                for (int i = 0; i < lightsPerProducer; i++) {
+                    lights[p][i] = new Light("P" + p + "-" + i);
+                }
+                expectedOn[p] = (rounds - 1 + p) % 2 == 0;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int r = 0; r < rounds; r++) {
+                        for (Light light : lights[producer]) {
+                            bus.submit((r + producer) % 2 == 0 ? new LightOnCommand(light) : new LightOffCommand(light));
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            bus.flush();
+        } catch (Exception e) {
+            failure[0] = e;
+        } finally {
+            System.setOut(console);
+            pool.shutdown();
+        }
+        int wrong = 0;
+        for (int p = 0; p < producers; p++) {
+            for (Light light : lights[p]) {
+                wrong += light.isOn() == expectedOn[p] ? 0 : 1;
+            }
+        }
+        System.out.println("  - " + bus);
+        System.out.println("  - Lights in the wrong state: " + wrong);
+        check(failure[0] == null && bus.getSubmitted() == 400_000
+                        && bus.getExecuted() + bus.getCoalesced() == bus.getSubmitted()
+                        && wrong == 0 && bus.getPending() == 0,
+                "Every command from concurrent producers is executed or coalesced");
+    }
+
+    /**
+     * Test 4: Undo/Redo
+     *
+     * On then off for one light, undone step by step back to the start and
+     * redone. A new command clears the redo history, and a journal of 3 keeps only the
+     * last 3 commands.
+     */
+    private static void testUndoRedo() throws Exception {
+        System.out.println("Test 4: Undo/Redo");
+        CommandBus bus = new CommandBus(Runnable::run, 10, 3);
+        Light porch = new Light("Porch");
+        bus.submit(new LightOnCommand(porch));
+        bus.submit(new LightOffCommand(porch));
+        bus.flush();
+        boolean undoOff = bus.undo() && porch.isOn();
+        boolean undoOn = bus.undo() && !porch.isOn();
+        boolean nothingLeft = !bus.undo();
+        boolean redoOn = bus.redo() && porch.isOn() && bus.getRedoDepth() == 1;
+        bus.submit(new LightOffCommand(porch));
+        boolean redoCleared = bus.getRedoDepth() == 0 && !bus.redo();
+        for (int i = 0; i < 5; i++) {
+            bus.submit(i % 2 == 0 ? new LightOnCommand(porch) : new LightOffCommand(porch));
+        }
+        boolean bounded = bus.getUndoDepth() == 3;
+        System.out.println("  - " + bus);
+        check(undoOff && undoOn && nothingLeft && redoOn && redoCleared && bounded,
+                "The journal undoes and redoes commands and stays bounded");
+    }
+
+    /**
+     * Test 5: Remote Control With Bus
+     *
+     * A remote bound to the bus queues its command instead of executing it. A command
+     * that throws is counted as failed and the commands after it still run.
+     */
+    private static void testRemoteControlWithBus() {
+        System.out.println("Test 5: Remote Control With Bus");
+        ManualExecutor executor = new ManualExecutor();
+        CommandBus bus = new CommandBus(executor, 10, 10);
+        Light garage = new Light("Garage");
+        RemoteControl remote = new RemoteControl(bus);
+        remote.setCommand(new LightOnCommand(garage));
+        remote.pressButton();
+        boolean queuedNotRun = !garage.isOn() && bus.getPending() == 1;
+        bus.submit(() -> {
+            throw new IllegalStateException("Device unreachable");
+        });
+        Light attic = new Light("Attic");
+        bus.submit(new LightOnCommand(attic));
+        executor.runAll();
+        System.out.println("  - " + bus);
+        check(queuedNotRun && garage.isOn() && attic.isOn() && bus.getFailed() == 1 && bus.getExecuted() == 2,
+                "Remote submits to the bus and failures do not stop a batch");
+    }
+
+    /**
+     * Test 6: Executor Failures
+     *
+     * A submit whose task the executor rejects throws, but the next submit
+     * schedules a drain that runs both commands. A command that throws an Error
+     * ends its task, yet the bus schedules the rest of the queue and
+     * getPending() drops back to zero, so flush() would return.
+     */
+    private static void testExecutorFailures() {
+        System.out.println("Test 6: Executor Failures");
+        ManualExecutor executor = new ManualExecutor();
+        CommandBus bus = new CommandBus(executor, 10, 10);
+        Light porch = new Light("Porch");
+        Light hall = new Light("Hall");
+        executor.rejecting = true;
+        boolean rejected = false;
+        try {
+            bus.submit(new LightOnCommand(porch));
+        } catch (RejectedExecutionException e) {
+            rejected = true;
+        }
+        executor.rejecting = false;
+        bus.submit(new LightOnCommand(hall));
+        quietly(executor::runAll);
+        boolean recovered = rejected && porch.isOn() && hall.isOn() && bus.getPending() == 0;
+
+        Light cellar = new Light("Cellar");
+        bus.submit(() -> {
+            throw new AssertionError("Broken command");
+        });
+        bus.submit(new LightOnCommand(cellar));
+        boolean errorEscaped = false;
+        try {
+            quietly(executor::runAll);
+        } catch (AssertionError e) {
+            errorEscaped = true;
+        }
+        quietly(executor::runAll);
+        System.out.println("  - Rejected then recovered: " + recovered + ", Error escaped: " + errorEscaped
+                + ", " + bus);
+        check(recovered && errorEscaped && cellar.isOn() && bus.getPending() == 0,
+                "The bus keeps draining after a rejected task or an Error");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,527 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of light commands, with group commit, snapshots and replay
+ *
+ * Every LightOnCommand and LightOffCommand appended gets the next sequence number and
+ * is encoded as 5 bytes: the operation and the light's index in the devices array.
+ * A writer thread collects whatever has been appended since its last write and writes
+ * it as one block with a CRC32C checksum, then forces it to disk once. While one
+ * fsync runs, new commands pile up for the next block, so many threads appending at
+ * once share each fsync (group commit).
+ *
+ * Every snapshotInterval commands the writer also saves the state of all lights as a
+ * snapshot, starts a new segment file and deletes the older segments and snapshots.
+ * Rebuilding state then reads the latest snapshot and replays only the segment after
+ * it. A block cut short by a crash fails its checksum; replay stops there, and
+ * reopening the journal truncates it. A crash while a new segment's header is written
+ * leaves a last segment that is too short or has no magic number. It holds no
+ * commands, since the snapshot before it covers everything, so replay skips it and
+ * reopening the journal deletes it.
+ *
+ * Files in the directory:
+ * - journal-&lt;sequence&gt;.log: header (magic, first sequence), then blocks of
+ *   (payload length, CRC32C, records)
+ * - snapshot-&lt;sequence&gt;.bin: magic, sequence, light count, one byte per light, CRC32C
+ */
+public class CommandJournal implements AutoCloseable {
+
+    private static final int SEGMENT_MAGIC = 0x434A4E4C;  // "CJNL"
+    private static final int SNAPSHOT_MAGIC = 0x43534E50; // "CSNP"
+    private static final int SEGMENT_HEADER = 12;
+    private static final int BLOCK_HEADER = 8;
+    private static final int RECORD_SIZE = 5;
+    private static final int MAX_BLOCK = 1 << 20;         // Appenders wait while this much is unwritten
+    private static final byte OFF = 0;
+    private static final byte ON = 1;
+
+    private final Path directory;
+    private final Map<Light, Integer> ids = new IdentityHashMap<>();
+    private final long snapshotInterval;
+    private final Thread writer;
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(MAX_BLOCK);
+    private ByteBuffer spare = ByteBuffer.allocate(MAX_BLOCK);
+    private final byte[] state;
+    private long sequence;
+    private long durable;
+    private boolean closed;
+    private IOException failure;
+
+    // Used by the writer thread only
+    private FileChannel segment;
+    private long segmentStart;
+    private long lastSnapshot;
+    private final CRC32C crc = new CRC32C();
+    private volatile long syncs;
+    private volatile long snapshots;
+    private volatile long bytesWritten;
+
+    /**
+     * Result of rebuilding state from a journal directory
+     */
+    public static final class ReplayResult {
+        private final long sequence;
+        private final long snapshotSequence;
+        private final long replayedCommands;
+        private final byte[] state;
+        private final Path lastSegment;
+        private final long lastSegmentEnd;
+        private final Path tornSegment;
+
+        ReplayResult(long sequence, long snapshotSequence, long replayedCommands, byte[] state,
+                     Path lastSegment, long lastSegmentEnd, Path tornSegment) {
+            this.sequence = sequence;
+            this.snapshotSequence = snapshotSequence;
+            this.replayedCommands = replayedCommands;
+            this.state = state;
+            this.lastSegment = lastSegment;
+            this.lastSegmentEnd = lastSegmentEnd;
+            this.tornSegment = tornSegment;
+        }
+
+        /** Sequence number of the last command recovered */
+        public long getSequence() { return sequence; }
+        /** Sequence number the snapshot covers, or 0 without a snapshot */
+        public long getSnapshotSequence() { return snapshotSequence; }
+        /** Commands replayed from segments after the snapshot */
+        public long getReplayedCommands() { return replayedCommands; }
+
+        public boolean isOn(int light) {
+            return state[light] == ON;
+        }
+
+        /** A last segment with an incomplete header that replay skipped, or null */
+        public Path getTornSegment() { return tornSegment; }
+    }
+
+    /**
+     * Opens the journal in the directory, creating it if needed. Existing state is
+     * recovered and applied to the lights, and a torn block or segment at the end is removed.
+     * @param lights the devices commands may target; a light's index is its id in the journal
+     * @param snapshotInterval commands between snapshots
+     */
+    public CommandJournal(Path directory, Light[] lights, long snapshotInterval) throws IOException {
+        if (lights == null || lights.length == 0) {
+            throw new IllegalArgumentException("At least one light is required");
+        }
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("snapshotInterval must be positive: " + snapshotInterval);
+        }
+        for (int i = 0; i < lights.length; i++) {
+            if (ids.put(lights[i], i) != null) {
+                throw new IllegalArgumentException("Light registered twice: " + lights[i].getLocation());
+            }
+        }
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        Files.createDirectories(directory);
+
+        ReplayResult recovered = replay(directory, lights);
+        if (recovered.tornSegment != null) {
+            Files.delete(recovered.tornSegment);
+        }
+        this.state = recovered.state;
+        this.sequence = recovered.sequence;
+        this.durable = recovered.sequence;
+        this.lastSnapshot = recovered.snapshotSequence;
+        if (recovered.lastSegment != null) {
+            segment = FileChannel.open(recovered.lastSegment, StandardOpenOption.WRITE);
+            segment.truncate(recovered.lastSegmentEnd);
+            segment.position(recovered.lastSegmentEnd);
+            segmentStart = startOf(recovered.lastSegment);
+        } else {
+            openSegment(sequence);
+        }
+
+        writer = new Thread(this::writeLoop, "command-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records the command and returns its sequence number without waiting for the disk.
+     * Waits only while a full block is already waiting to be written.
+     */
+    public long append(Command command) {
+        byte operation;
+        if (command instanceof LightOnCommand) {
+            operation = ON;
+        } else if (command instanceof LightOffCommand) {
+            operation = OFF;
+        } else {
+            throw new IllegalArgumentException("Cannot journal " + command);
+        }
+        Integer id = ids.get(command.getTarget());
+        if (id == null) {
+            throw new IllegalArgumentException("Light is not registered with the journal");
+        }
+        synchronized (lock) {
+            while (pending.remaining() < RECORD_SIZE) {
+                checkOpen();
+                waitOn(lock);
+            }
+            checkOpen();
+            if (pending.position() == 0) {
+                lock.notifyAll(); // Wake the writer
+            }
+            pending.put(operation).putInt(id);
+            state[id] = operation;
+            return ++sequence;
+        }
+    }
+
+    /**
+     * Blocks until every command up to the sequence number is on disk
+     */
+    public void awaitDurable(long sequence) throws InterruptedException {
+        synchronized (lock) {
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed", failure);
+                }
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Records the command and waits until it is on disk
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    public void appendAndSync(Command command) {
+        long appended = append(command);
+        try {
+            awaitDurable(appended);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal", e);
+        }
+    }
+
+    private void checkOpen() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private static void waitOn(Object monitor) {
+        try {
+            monitor.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the journal", e);
+        }
+    }
+
+    // Any failure is recorded before the thread exits, so appenders and awaitDurable callers see it
+    private void writeLoop() {
+        try {
+            writeBlocks();
+        } catch (Throwable e) {
+            synchronized (lock) {
+                failure = e instanceof IOException io ? io : new IOException("Journal writer stopped", e);
+                lock.notifyAll();
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void writeBlocks() throws IOException {
+        while (true) {
+            ByteBuffer block;
+            long end;
+            byte[] snapshot = null;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException("Journal writer interrupted");
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                block = pending;
+                pending = spare;
+                spare = block;
+                end = sequence;
+                if (end - lastSnapshot >= snapshotInterval) {
+                    snapshot = state.clone();
+                }
+                lock.notifyAll(); // Appenders waiting for room
+            }
+            writeBlock(block.flip());
+            block.clear();
+            if (snapshot != null) {
+                writeSnapshot(end, snapshot);
+            }
+            synchronized (lock) {
+                durable = end;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void writeBlock(ByteBuffer payload) throws IOException {
+        crc.reset();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER).putInt(payload.remaining()).putInt((int) crc.getValue()).flip();
+        long written = payload.remaining() + BLOCK_HEADER;
+        ByteBuffer[] buffers = {header, payload};
+        while (header.hasRemaining() || payload.hasRemaining()) {
+            segment.write(buffers);
+        }
+        segment.force(false);
+        syncs++;
+        bytesWritten += written;
+    }
+
+    // Saves the state, then rolls to a new segment and deletes what the snapshot replaces
+    private void writeSnapshot(long at, byte[] snapshot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + snapshot.length + 4);
+        buffer.putInt(SNAPSHOT_MAGIC).putLong(at).putInt(snapshot.length).put(snapshot);
+        crc.reset();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue()).flip();
+
+        Path target = directory.resolve(String.format("snapshot-%020d.bin", at));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        snapshots++;
+        lastSnapshot = at;
+
+        long previousStart = segmentStart;
+        segment.close();
+        openSegment(at);
+        for (Path file : list(directory)) {
+            String name = file.getFileName().toString();
+            if ((name.startsWith("journal-") && startOf(file) <= previousStart)
+                    || (name.startsWith("snapshot-") && startOf(file) < at)) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void openSegment(long start) throws IOException {
+        Path path = directory.resolve(String.format("journal-%020d.log", start));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER).putInt(SEGMENT_MAGIC).putLong(start).flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+        segment.force(true);
+        segmentStart = start;
+    }
+
+    /**
+     * Rebuilds device state from the latest snapshot and the segments after it, and
+     * applies it to the lights without printing. Replay stops at the first damaged
+     * block of the last segment, and skips a last segment whose header is incomplete;
+     * damage anywhere else is an error.
+     */
+    public static ReplayResult replay(Path directory, Light[] lights) throws IOException {
+        byte[] state = new byte[lights.length];
+        long snapshotSequence = 0;
+        List<Path> segments = new ArrayList<>();
+        List<Path> snapshotFiles = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            for (Path file : list(directory)) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("journal-") && name.endsWith(".log")) {
+                    segments.add(file);
+                } else if (name.startsWith("snapshot-") && name.endsWith(".bin")) {
+                    snapshotFiles.add(file);
+                }
+            }
+        }
+        for (int i = snapshotFiles.size() - 1; i >= 0 && snapshotSequence == 0; i--) {
+            snapshotSequence = readSnapshot(snapshotFiles.get(i), state);
+        }
+        Path tornSegment = null;
+        if (!segments.isEmpty() && !hasHeader(segments.get(segments.size() - 1))) {
+            tornSegment = segments.remove(segments.size() - 1);
+        }
+
+        long sequence = snapshotSequence;
+        long replayed = 0;
+        Path lastSegment = null;
+        long lastSegmentEnd = 0;
+        CRC32C crc = new CRC32C();
+        for (int s = 0; s < segments.size(); s++) {
+            Path path = segments.get(s);
+            boolean last = s == segments.size() - 1;
+            // Read rather than mapped: the constructor truncates the last segment, which a live mapping would block
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (data.remaining() < SEGMENT_HEADER || data.getInt() != SEGMENT_MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            long recordSequence = data.getLong();
+            if (recordSequence > sequence) {
+                throw new IOException("Commands " + (sequence + 1) + " to " + recordSequence + " are missing");
+            }
+            while (data.remaining() >= BLOCK_HEADER) {
+                int blockStart = data.position();
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length <= 0 || length % RECORD_SIZE != 0 || length > data.remaining()) {
+                    data.position(blockStart);
+                    break;
+                }
+                ByteBuffer payload = data.slice(data.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    data.position(blockStart);
+                    break;
+                }
+                data.position(data.position() + length);
+                long blockEnd = recordSequence + length / RECORD_SIZE;
+                if (blockEnd > sequence) {
+                    // Skip the records the snapshot already covers
+                    payload.position((int) (Math.max(0, sequence - recordSequence) * RECORD_SIZE));
+                    while (payload.hasRemaining()) {
+                        byte operation = payload.get();
+                        int id = payload.getInt();
+                        if (id < 0 || id >= state.length) {
+                            throw new IOException("Unknown light " + id + " in " + path);
+                        }
+                        state[id] = operation;
+                    }
+                    replayed += blockEnd - sequence;
+                    sequence = blockEnd;
+                }
+                recordSequence = blockEnd;
+            }
+            if (data.hasRemaining() && !last) {
+                throw new IOException("Damaged block in " + path + " at byte " + data.position());
+            }
+            if (last) {
+                lastSegment = path;
+                lastSegmentEnd = data.position();
+            }
+        }
+        for (int i = 0; i < lights.length; i++) {
+            lights[i].restoreState(state[i] == ON);
+        }
+        return new ReplayResult(sequence, snapshotSequence, replayed, state, lastSegment, lastSegmentEnd,
+                tornSegment);
+    }
+
+    private static boolean hasHeader(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read until the header is full or the file ends
+            }
+            return !header.hasRemaining() && header.getInt(0) == SEGMENT_MAGIC;
+        }
+    }
+
+    // Returns the snapshot's sequence number, or 0 if the file is damaged
+    private static long readSnapshot(Path path, byte[] state) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() != 16 + state.length + 4 || buffer.getInt() != SNAPSHOT_MAGIC) {
+            return 0;
+        }
+        long at = buffer.getLong();
+        if (buffer.getInt() != state.length) {
+            throw new IOException("Snapshot " + path + " has a different number of lights");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, 16 + state.length);
+        if ((int) crc.getValue() != buffer.getInt(16 + state.length)) {
+            return 0;
+        }
+        buffer.get(state);
+        return at;
+    }
+
+    // Sorted, so segments and snapshots come in sequence order
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static long startOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+
+    /**
+     * Writes everything appended so far and stops the writer thread
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    public long getSequence() {
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    public long getDurableSequence() {
+        synchronized (lock) {
+            return durable;
+        }
+    }
+
+    /**
+     * Number of journal blocks forced to disk
+     */
+    public long getSyncs() { return syncs; }
+    public long getSnapshots() { return snapshots; }
+    public long getBytesWritten() { return bytesWritten; }
+
+    @Override
+    public String toString() {
+        return String.format("CommandJournal{sequence=%d, durable=%d, syncs=%d, snapshots=%d, bytes=%d}",
+                getSequence(), getDurableSequence(), syncs, snapshots, bytesWritten);
+    }
+}
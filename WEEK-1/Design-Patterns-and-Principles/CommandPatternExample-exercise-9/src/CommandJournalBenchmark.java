@@ -0,0 +1,105 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Measures CommandJournal appends and replay for 10,000 lights
+ *
+ * Appends: 20,000 commands appended and synced one at a time by 1 thread, then by
+ * 64 threads at once, where group commit shares each fsync between the threads.
+ *
+ * Replay: 10,000,000 commands are journaled twice, once without snapshots and once
+ * with a snapshot every 1,000,000 commands, and each directory is replayed into a
+ * fresh set of lights.
+ */
+public class CommandJournalBenchmark {
+
+    private static final int LIGHTS = 10_000;
+    private static final int SYNCED_COMMANDS = 20_000;
+    private static final int REPLAY_COMMANDS = 10_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Light[] lights = lights();
+        Command[] on = new Command[LIGHTS];
+        Command[] off = new Command[LIGHTS];
+        for (int i = 0; i < LIGHTS; i++) {
+            on[i] = new LightOnCommand(lights[i]);
+            off[i] = new LightOffCommand(lights[i]);
+        }
+        System.out.println("=== Command Journal Benchmark ===\n");
+
+        for (int producers : new int[] {1, 64}) {
+            Path directory = Files.createTempDirectory("journal-bench");
+            try (CommandJournal journal = new CommandJournal(directory, lights, Long.MAX_VALUE)) {
+                long start = System.nanoTime();
+                List<Thread> threads = new ArrayList<>();
+                for (int p = 0; p < producers; p++) {
+                    SplittableRandom random = new SplittableRandom(p);
+                    threads.add(Thread.ofPlatform().start(() -> {
+                        for (int i = 0; i < SYNCED_COMMANDS / producers; i++) {
+                            int light = random.nextInt(LIGHTS);
+                            journal.appendAndSync(random.nextBoolean() ? on[light] : off[light]);
+                        }
+                    }));
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Synced appends, %2d threads: %,9.0f commands/s, %,6d fsyncs (%.1f commands each)%n",
+                        producers, SYNCED_COMMANDS / seconds, journal.getSyncs(),
+                        (double) SYNCED_COMMANDS / journal.getSyncs());
+            }
+            delete(directory);
+        }
+        System.out.println();
+
+        for (long snapshotInterval : new long[] {Long.MAX_VALUE, 1_000_000}) {
+            Path directory = Files.createTempDirectory("journal-bench");
+            long start = System.nanoTime();
+            try (CommandJournal journal = new CommandJournal(directory, lights, snapshotInterval)) {
+                SplittableRandom random = new SplittableRandom(42);
+                long last = 0;
+                for (int i = 0; i < REPLAY_COMMANDS; i++) {
+                    int light = random.nextInt(LIGHTS);
+                    last = journal.append(random.nextBoolean() ? on[light] : off[light]);
+                }
+                journal.awaitDurable(last);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Journaled %,d commands in %.2f s (%,.0f commands/s, %,d fsyncs, %,d snapshots)%n",
+                        REPLAY_COMMANDS, seconds, REPLAY_COMMANDS / seconds, journal.getSyncs(), journal.getSnapshots());
+            }
+
+            for (int run = 1; run <= 3; run++) {
+                start = System.nanoTime();
+                CommandJournal.ReplayResult replay = CommandJournal.replay(directory, lights());
+                double millis = (System.nanoTime() - start) / 1e6;
+                System.out.printf("  Replay %d, %s: %,8.0f ms, snapshot at %,d + %,d commands replayed%n", run,
+                        snapshotInterval == Long.MAX_VALUE ? "no snapshots" : "snapshots", millis,
+                        replay.getSnapshotSequence(), replay.getReplayedCommands());
+            }
+            delete(directory);
+        }
+    }
+
+    private static Light[] lights() {
+        Light[] lights = new Light[LIGHTS];
+        for (int i = 0; i < LIGHTS; i++) {
+            lights[i] = new Light("Light " + i);
+        }
+        return lights;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,386 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Command Journal Test Suite
+ *
+ * Validates CommandJournal:
+ * - Round Trip: commands pressed on a journaled remote are rebuilt after reopening
+ * - Group Commit: concurrent synchronous appends share fsyncs
+ * - Snapshots: replay starts from the latest snapshot and old files are deleted
+ * - Torn Tail: a block cut short by a crash is dropped and the journal stays usable
+ * - Rejected Commands: unsupported commands, unknown lights and a closed journal are refused
+ * - Torn Segment Header: a last segment with an incomplete header is deleted; a damaged earlier one is an error
+ * - Bus Order: a bus journals what it executes, undo and redo included, in execution order
+ */
+public class CommandJournalTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Command Journal Test Suite ===\n");
+
+        testRoundTrip();
+        testGroupCommit();
+        testSnapshots();
+        testTornTail();
+        testRejectedCommands();
+        testTornSegmentHeader();
+        testBusOrder();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    private static Light[] lights(int count) {
+        Light[] lights = new Light[count];
+        for (int i = 0; i < count; i++) {
+            lights[i] = new Light("Light " + i);
+        }
+        return lights;
+    }
+
+    private static Path newDirectory() throws IOException {
+        return Files.createTempDirectory("command-journal");
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static List<String> fileNames(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    /**
+     * Test 1: Round Trip
+     *
+     * A remote bound to a journal turns three of four lights on and one back off. A
+     * fresh set of lights opened on the same directory ends up in the same state, and
+     * new commands continue the sequence.
+     */
+    private static void testRoundTrip() throws Exception {
+        System.out.println("Test 1: Round Trip");
+        Path directory = newDirectory();
+        Light[] before = lights(4);
+        try (CommandJournal journal = new CommandJournal(directory, before, 1000)) {
+            RemoteControl remote = new RemoteControl(null, journal);
+            for (int i : new int[] {0, 1, 3}) {
+                remote.setCommand(new LightOnCommand(before[i]));
+                remote.pressButton();
+            }
+            remote.setCommand(new LightOffCommand(before[1]));
+            remote.pressButton();
+        }
+
+        Light[] after = lights(4);
+        long sequence;
+        long continued;
+        try (CommandJournal journal = new CommandJournal(directory, after, 1000)) {
+            sequence = journal.getSequence();
+            continued = journal.append(new LightOnCommand(after[2]));
+        }
+        boolean same = true;
+        for (int i = 0; i < 4; i++) {
+            same &= before[i].isOn() == after[i].isOn();
+        }
+        System.out.println("  - Recovered sequence: " + sequence + ", next command: " + continued);
+        check(same && after[0].isOn() && !after[1].isOn() && sequence == 4 && continued == 5,
+                "Commands pressed on a journaled remote are rebuilt after reopening");
+        delete(directory);
+    }
+
+    /**
+     * Test 2: Group Commit
+     *
+     * 16 threads each append 200 commands and wait for every one to be on disk. All
+     * 3,200 are durable and replayed, using fewer fsyncs than commands.
+     */
+    private static void testGroupCommit() throws Exception {
+        System.out.println("Test 2: Group Commit");
+        Path directory = newDirectory();
+        Light[] lights = lights(64);
+        CommandJournal journal = new CommandJournal(directory, lights, 1_000_000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int first = t * 4;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200; i++) {
+                    Light light = lights[first + i % 4];
+                    journal.appendAndSync(i % 2 == 0 ? new LightOnCommand(light) : new LightOffCommand(light));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long durable = journal.getDurableSequence();
+        journal.close();
+        CommandJournal.ReplayResult replay = CommandJournal.replay(directory, lights(64));
+        System.out.println("  - " + journal);
+        check(durable == 3200 && replay.getReplayedCommands() == 3200 && journal.getSyncs() < 3200,
+                "Concurrent synchronous appends share fsyncs");
+        delete(directory);
+    }
+
+    /**
+     * Test 3: Snapshots
+     *
+     * 5,500 random commands with a snapshot every 1,000. Replay starts from the last
+     * snapshot, replays only the commands after it, and matches the lights' state.
+     * Only one segment and one snapshot remain on disk.
+     */
+    private static void testSnapshots() throws Exception {
+        System.out.println("Test 3: Snapshots");
+        Path directory = newDirectory();
+        Light[] lights = lights(100);
+        boolean[] expected = new boolean[lights.length];
+        SplittableRandom random = new SplittableRandom(7);
+        CommandJournal journal = new CommandJournal(directory, lights, 1000);
+        for (int i = 0; i < 5500; i++) {
+            int light = random.nextInt(lights.length);
+            expected[light] = random.nextBoolean();
+            journal.appendAndSync(expected[light] ? new LightOnCommand(lights[light]) : new LightOffCommand(lights[light]));
+        }
+        journal.close();
+
+        CommandJournal.ReplayResult replay = CommandJournal.replay(directory, lights(100));
+        int wrong = 0;
+        for (int i = 0; i < lights.length; i++) {
+            wrong += replay.isOn(i) == expected[i] ? 0 : 1;
+        }
+        List<String> files = fileNames(directory);
+        System.out.println("  - " + journal);
+        System.out.println("  - Snapshot at " + replay.getSnapshotSequence() + ", replayed "
+                + replay.getReplayedCommands() + ", files: " + files);
+        check(journal.getSnapshots() == 5 && replay.getSnapshotSequence() >= 5000
+                        && replay.getSnapshotSequence() + replay.getReplayedCommands() == 5500
+                        && replay.getReplayedCommands() < 1000 && wrong == 0 && files.size() == 2,
+                "Replay starts from the latest snapshot");
+        delete(directory);
+    }
+
+    /**
+     * Test 4: Torn Tail
+     *
+     * The last block is cut in half, as if the machine crashed during the write.
+     * Replay drops that block, reopening truncates it, and new commands are journaled
+     * after the last complete block.
+     */
+    private static void testTornTail() throws Exception {
+        System.out.println("Test 4: Torn Tail");
+        Path directory = newDirectory();
+        Light[] lights = lights(2);
+        try (CommandJournal journal = new CommandJournal(directory, lights, 1000)) {
+            journal.appendAndSync(new LightOnCommand(lights[0]));
+            journal.appendAndSync(new LightOnCommand(lights[1]));
+        }
+        Path segment = directory.resolve(fileNames(directory).get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        Light[] recovered = lights(2);
+        long sequence;
+        try (CommandJournal journal = new CommandJournal(directory, recovered, 1000)) {
+            sequence = journal.getSequence();
+            journal.appendAndSync(new LightOffCommand(recovered[0]));
+        }
+        CommandJournal.ReplayResult replay = CommandJournal.replay(directory, lights(2));
+        System.out.println("  - After the torn block: sequence " + sequence + ", light 1 on: " + recovered[1].isOn());
+        System.out.println("  - After appending again: sequence " + replay.getSequence());
+        check(sequence == 1 && !recovered[1].isOn() && replay.getSequence() == 2 && !replay.isOn(0),
+                "A torn block is dropped and the journal stays usable");
+        delete(directory);
+    }
+
+    /**
+     * Test 5: Rejected Commands
+     *
+     * Commands the journal cannot encode, lights it does not know and appends after
+     * close are refused, and nothing is written for them.
+     */
+    private static void testRejectedCommands() throws Exception {
+        System.out.println("Test 5: Rejected Commands");
+        Path directory = newDirectory();
+        Light[] lights = lights(1);
+        CommandJournal journal = new CommandJournal(directory, lights, 1000);
+        int refused = 0;
+        try {
+            journal.append(() -> System.out.println("Not a light command"));
+        } catch (IllegalArgumentException e) {
+            refused++;
+        }
+        try {
+            journal.append(new LightOnCommand(new Light("Unregistered")));
+        } catch (IllegalArgumentException e) {
+            refused++;
+        }
+        journal.close();
+        try {
+            journal.append(new LightOnCommand(lights[0]));
+        } catch (IllegalStateException e) {
+            refused++;
+        }
+        long replayed = CommandJournal.replay(directory, lights(1)).getReplayedCommands();
+        System.out.println("  - Refused: " + refused + ", replayed: " + replayed);
+        check(refused == 3 && replayed == 0, "Unsupported commands are refused");
+        delete(directory);
+    }
+
+    /**
+     * Test 6: Torn Segment Header
+     *
+     * A crash while a new segment is created can leave it shorter than its header,
+     * or with its header still zero. Either way it is the last segment, so reopening
+     * deletes it and keeps every command. The same damage in a segment followed by
+     * another one is still an error.
+     */
+    private static void testTornSegmentHeader() throws Exception {
+        System.out.println("Test 6: Torn Segment Header");
+        boolean recovered = true;
+        for (byte[] torn : new byte[][] {new byte[5], new byte[12]}) {
+            Path directory = newDirectory();
+            Light[] lights = lights(2);
+            try (CommandJournal journal = new CommandJournal(directory, lights, 1000)) {
+                journal.appendAndSync(new LightOnCommand(lights[1]));
+            }
+            Path tornSegment = directory.resolve(String.format("journal-%020d.log", 1));
+            Files.write(tornSegment, torn);
+
+            Light[] reopened = lights(2);
+            long next;
+            try (CommandJournal journal = new CommandJournal(directory, reopened, 1000)) {
+                next = journal.append(new LightOnCommand(reopened[0]));
+            }
+            CommandJournal.ReplayResult replay = CommandJournal.replay(directory, lights(2));
+            System.out.println("  - " + torn.length + "-byte segment: deleted " + !Files.exists(tornSegment)
+                    + ", next sequence " + next + ", replayed " + replay.getSequence());
+            recovered &= !Files.exists(tornSegment) && reopened[1].isOn() && next == 2
+                    && replay.getSequence() == 2 && replay.isOn(0) && replay.isOn(1);
+            delete(directory);
+        }
+        check(recovered, "A torn last segment is deleted and the journal reopens");
+
+        Path directory = newDirectory();
+        Light[] lights = lights(1);
+        try (CommandJournal journal = new CommandJournal(directory, lights, 1000)) {
+            journal.appendAndSync(new LightOnCommand(lights[0]));
+        }
+        Files.write(directory.resolve(String.format("journal-%020d.log", 1)), new byte[5]);
+        ByteBuffer header = ByteBuffer.allocate(12).putInt(0x434A4E4C).putLong(1);
+        Files.write(directory.resolve(String.format("journal-%020d.log", 2)), header.array());
+        boolean refused = false;
+        try {
+            new CommandJournal(directory, lights(1), 1000).close();
+        } catch (IOException e) {
+            refused = true;
+            System.out.println("  - Damaged middle segment: " + e.getMessage().replace(directory.toString(), "<dir>"));
+        }
+        check(refused, "A damaged segment before the last one is still an error");
+        delete(directory);
+    }
+
+    /**
+     * Test 7: Bus Order
+     *
+     * Eight threads submit random on/off commands for 16 lights through a bus that
+     * journals. Replaying the journal gives exactly the lights' live state, because
+     * the journal records commands in the order the bus executed them. Undo and redo
+     * on the bus are journaled too.
+     */
+    private static void testBusOrder() throws Exception {
+        System.out.println("Test 7: Bus Order");
+        Path directory = newDirectory();
+        Light[] lights = lights(16);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        boolean sameState = true;
+        long sequenceBeforeUndo;
+        long sequenceAfterRedo;
+        try (CommandJournal journal = new CommandJournal(directory, lights, 1000);
+             ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            CommandBus bus = new CommandBus(pool, 64, 100, journal);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long seed = t;
+                producers.add(Thread.ofPlatform().start(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    RemoteControl remote = new RemoteControl(bus, journal);
+                    for (int i = 0; i < 2000; i++) {
+                        Light light = lights[random.nextInt(lights.length)];
+                        remote.setCommand(random.nextBoolean() ? new LightOnCommand(light) : new LightOffCommand(light));
+                        remote.pressButton();
+                    }
+                }));
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            bus.flush();
+            CommandJournal.ReplayResult replay = CommandJournal.replay(directory, lights(16));
+            for (int i = 0; i < lights.length; i++) {
+                sameState &= replay.isOn(i) == lights[i].isOn();
+            }
+
+            sequenceBeforeUndo = journal.getDurableSequence();
+            bus.undo();
+            bus.undo();
+            bus.redo();
+            sequenceAfterRedo = journal.getDurableSequence();
+        } finally {
+            System.setOut(console);
+        }
+        CommandJournal.ReplayResult afterUndo = CommandJournal.replay(directory, lights(16));
+        boolean undoJournaled = true;
+        for (int i = 0; i < lights.length; i++) {
+            undoJournaled &= afterUndo.isOn(i) == lights[i].isOn();
+        }
+        boolean mismatchRefused = false;
+        Path otherDirectory = newDirectory();
+        try (CommandJournal other = new CommandJournal(otherDirectory, lights(1), 1000)) {
+            new RemoteControl(new CommandBus(), other);
+        } catch (IllegalArgumentException e) {
+            mismatchRefused = true;
+        }
+        delete(otherDirectory);
+        System.out.println("  - Replayed state matches the lights: " + sameState + ", undo/undo/redo added "
+                + (sequenceAfterRedo - sequenceBeforeUndo) + " records, replay after undo matches: " + undoJournaled);
+        check(sameState, "The journal records commands in the order the bus executed them");
+        check(sequenceAfterRedo - sequenceBeforeUndo == 3 && undoJournaled, "Undo and redo are journaled and durable");
+        check(mismatchRefused, "A remote cannot pair a bus with a different journal");
+        delete(directory);
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -1,15 +1,33 @@
 public class Light {
     private String location;
+    private volatile boolean on;
     
     public Light(String location) {
         this.location = location;
     }
     
     public void turnOn() {
+        on = true;
         System.out.println(location + " light is ON");
     }
     
     public void turnOff() {
+        on = false;
         System.out.println(location + " light is OFF");
     }
+    
+    /**
+     * Sets the state without printing, for rebuilding state from a CommandJournal
+     */
+    public void restoreState(boolean on) {
+        this.on = on;
+    }
+    
+    public boolean isOn() {
+        return on;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
 }
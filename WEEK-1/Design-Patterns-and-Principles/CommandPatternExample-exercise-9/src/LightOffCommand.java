@@ -9,4 +9,14 @@ public class LightOffCommand implements Command {
     public void execute() {
         light.turnOff();
     }
+    
+    @Override
+    public Object getTarget() {
+        return light;
+    }
+    
+    @Override
+    public Command undoCommand() {
+        return light.isOn() ? new LightOnCommand(light) : new LightOffCommand(light);
+    }
 }
@@ -9,4 +9,14 @@ public class LightOnCommand implements Command {
     public void execute() {
         light.turnOn();
     }
+    
+    @Override
+    public Object getTarget() {
+        return light;
+    }
+    
+    @Override
+    public Command undoCommand() {
+        return light.isOn() ? new LightOnCommand(light) : new LightOffCommand(light);
+    }
 }
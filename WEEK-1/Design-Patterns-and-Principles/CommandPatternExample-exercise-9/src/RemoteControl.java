@@ -1,15 +1,60 @@
 public class RemoteControl {
     private Command command;
+    private final CommandBus bus;
+    private final CommandJournal journal;
+    
+    public RemoteControl() {
+        this(null, null);
+    }
+    
+    /**
+     * Creates a remote whose button submits the command to the bus instead of
+     * executing it on the caller's thread
+     */
+    public RemoteControl(CommandBus bus) {
+        this(bus, null);
+    }
+    
+    /**
+     * Creates a remote whose commands are recorded in the journal. Either argument may
+     * be null. With a bus, the bus records the commands as it executes them, so it
+     * must have been created with the same journal.
+     */
+    public RemoteControl(CommandBus bus, CommandJournal journal) {
+        if (bus != null && journal != null && bus.getCommandJournal() != journal) {
+            throw new IllegalArgumentException("The bus must be created with the journal, so it records "
+                    + "commands in the order it executes them");
+        }
+        this.bus = bus;
+        this.journal = journal;
+    }
     
     public void setCommand(Command command) {
         this.command = command;
     }
     
     public void pressButton() {
-        if (command != null) {
-            command.execute();
-        } else {
+        if (command == null) {
             System.out.println("No command set!");
+            return;
+        }
+        if (bus != null) {
+            bus.submit(command);
+        } else if (journal != null) {
+            // Record and execute together, so remotes sharing the journal record the execution order
+            long sequence;
+            synchronized (journal) {
+                sequence = journal.append(command);
+                command.execute();
+            }
+            try {
+                journal.awaitDurable(sequence);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the journal", e);
+            }
+        } else {
+            command.execute();
         }
     }
 }
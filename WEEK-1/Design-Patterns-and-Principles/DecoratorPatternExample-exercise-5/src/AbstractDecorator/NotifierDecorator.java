@@ -2,6 +2,9 @@ package AbstractDecorator;
 
 import TargetInterface.Notifier;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public abstract class NotifierDecorator implements Notifier {
     protected Notifier notifier;
     
@@ -13,4 +16,25 @@ public abstract class NotifierDecorator implements Notifier {
     public void send(String message) {
         notifier.send(message);
     }
-}
\ No newline at end of file
+    
+    /**
+     * The wrapped notifier's channels, followed by this decorator's own channel if it adds one
+     */
+    @Override
+    public List<Notifier> getChannels() {
+        List<Notifier> channels = new ArrayList<>(notifier.getChannels());
+        Notifier own = getOwnChannel();
+        if (own != null) {
+            channels.add(own);
+        }
+        return channels;
+    }
+    
+    /**
+     * A notifier that sends through this decorator's channel only, without the wrapped
+     * notifier; null for decorators that add no channel
+     */
+    protected Notifier getOwnChannel() {
+        return null;
+    }
+}
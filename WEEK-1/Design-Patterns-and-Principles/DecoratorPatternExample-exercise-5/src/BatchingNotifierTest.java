@@ -0,0 +1,320 @@
+import AbstractDecorator.NotifierDecorator;
+import ConcreteComponent.EmailNotifier;
+import ConcreteDecorators.BatchingNotifierDecorator;
+import ConcreteDecorators.FanOutNotifierDecorator;
+import ConcreteDecorators.SMSNotifierDecorator;
+import ConcreteDecorators.SlackNotifierDecorator;
+import TargetInterface.Notifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Batching Notifier Test Suite
+ *
+ * Validates BatchingNotifierDecorator:
+ * - Size Flush: a channel delivers as soon as its buffer holds maxBatchSize distinct messages
+ * - Time Window: a buffer that never fills is delivered after the window
+ * - Rate Limit: each channel delivers no faster than its token bucket allows
+ * - Drop-In Use: an existing chain batches and deduplicates with no change for callers
+ * - Fan-Out And Failures: a fan-out over the decorator still batches, and failures are counted
+ * - Bounded Buffer: a throttled channel buffers at most maxBatchSize messages and summarises the rest
+ * - Close: close() delivers what is buffered, stops the timer thread and rejects later sends
+ */
+public class BatchingNotifierTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Batching Notifier Test Suite ===\n");
+
+        testSizeFlush();
+        testTimeWindow();
+        testRateLimit();
+        testDropInUse();
+        testFanOutAndFailures();
+        testBoundedBuffer();
+        testClose();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Channel that records what it is asked to deliver
+    private static class RecordingNotifier implements Notifier {
+        final List<String> delivered = new CopyOnWriteArrayList<>();
+        final List<Long> deliveredAt = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(String message) {
+            delivered.add(message);
+            deliveredAt.add(System.nanoTime());
+        }
+
+        @Override
+        public String getChannel() {
+            return "Recorder";
+        }
+    }
+
+    // Adds a channel that always fails
+    private static class PagerNotifierDecorator extends NotifierDecorator {
+        PagerNotifierDecorator(Notifier notifier) {
+            super(notifier);
+        }
+
+        @Override
+        protected Notifier getOwnChannel() {
+            return new Notifier() {
+                @Override
+                public void send(String message) {
+                    throw new IllegalStateException("Pager provider unavailable");
+                }
+
+                @Override
+                public String getChannel() {
+                    return "Pager";
+                }
+            };
+        }
+    }
+
+    /**
+     * Test 1: Size Flush
+     *
+     * With a batch size of 3 distinct messages and a 10 s window, A, A, B, C is
+     * delivered at once as one message listing A twice.
+     */
+    private static void testSizeFlush() throws Exception {
+        System.out.println("Test 1: Size Flush");
+        RecordingNotifier recorder = new RecordingNotifier();
+        BatchingNotifierDecorator batching = new BatchingNotifierDecorator(recorder, 3, 10_000, 100, 10);
+        for (String message : new String[] {"A", "A", "B", "C"}) {
+            batching.send(message);
+        }
+        Thread.sleep(200);
+        System.out.println("  - Delivered: " + recorder.delivered);
+        System.out.println("  - " + batching);
+        check(recorder.delivered.equals(List.of("A (x2)\nB\nC")) && batching.getMerged() == 1
+                        && batching.getPending() == 0,
+                "A full buffer is delivered at once with duplicates merged");
+    }
+
+    /**
+     * Test 2: Time Window
+     *
+     * With a 200 ms window, two messages are still buffered after 50 ms and have been
+     * delivered together, about 200 ms after the first, by 500 ms.
+     */
+    private static void testTimeWindow() throws Exception {
+        System.out.println("Test 2: Time Window");
+        RecordingNotifier recorder = new RecordingNotifier();
+        BatchingNotifierDecorator batching = new BatchingNotifierDecorator(recorder, 100, 200, 100, 10);
+        long start = System.nanoTime();
+        batching.send("CPU high");
+        batching.send("Memory high");
+        Thread.sleep(50);
+        boolean heldBack = recorder.delivered.isEmpty();
+        Thread.sleep(450);
+        long afterMillis = recorder.deliveredAt.isEmpty() ? -1 : (recorder.deliveredAt.get(0) - start) / 1_000_000;
+        System.out.println("  - Held back at 50 ms: " + heldBack + ", delivered after " + afterMillis + " ms: "
+                + recorder.delivered);
+        check(heldBack && recorder.delivered.equals(List.of("CPU high\nMemory high"))
+                        && afterMillis >= 200 && afterMillis < 400,
+                "A buffer that never fills is delivered after the window");
+    }
+
+    /**
+     * Test 3: Rate Limit
+     *
+     * 5 deliveries per second with a burst of 1, a batch size of 1 and 40 distinct
+     * messages sent over about 1 s. Deliveries are at least 200 ms apart, the messages
+     * that queue up meanwhile are counted in a "+N more" line, and none are lost.
+     */
+    private static void testRateLimit() throws Exception {
+        System.out.println("Test 3: Rate Limit");
+        RecordingNotifier recorder = new RecordingNotifier();
+        BatchingNotifierDecorator batching = new BatchingNotifierDecorator(recorder, 1, 1000, 5, 1);
+        for (int i = 0; i < 40; i++) {
+            batching.send("Alert " + i);
+            Thread.sleep(25);
+        }
+        batching.flush();
+        long minGapMillis = Long.MAX_VALUE;
+        for (int i = 1; i < recorder.deliveredAt.size(); i++) {
+            minGapMillis = Math.min(minGapMillis, (recorder.deliveredAt.get(i) - recorder.deliveredAt.get(i - 1)) / 1_000_000);
+        }
+        int messages = 0;
+        int largestBatch = 0;
+        for (String delivery : recorder.delivered) {
+            messages += countMessages(delivery);
+            largestBatch = Math.max(largestBatch, listedMessages(delivery));
+        }
+        System.out.println("  - Deliveries: " + recorder.delivered.size() + ", smallest gap: " + minGapMillis
+                + " ms, messages accounted for: " + messages);
+        System.out.println("  - " + batching);
+        check(recorder.delivered.size() <= 8 && minGapMillis >= 190 && messages == 40 && largestBatch == 1
+                        && batching.getThrottled() > 0,
+                "Each channel delivers no faster than its rate limit");
+    }
+
+    /**
+     * Test 4: Drop-In Use
+     *
+     * Slack(SMS(Email)) wrapped in the decorator receives 100 copies of one alert
+     * through the plain Notifier interface. After flush, each channel has printed a
+     * single line with the count.
+     */
+    private static void testDropInUse() {
+        System.out.println("Test 4: Drop-In Use");
+        Notifier notifier = new BatchingNotifierDecorator(
+                new SlackNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier())), 50, 60_000, 10, 1);
+        PrintStream console = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            for (int i = 0; i < 100; i++) {
+                notifier.send("Disk full on db-1");
+            }
+            ((BatchingNotifierDecorator) notifier).flush();
+        } finally {
+            System.setOut(console);
+        }
+        String output = out.toString();
+        System.out.print(output.replaceAll("(?m)^", "    "));
+        check(output.lines().count() == 3 && output.contains("Email Notification: Disk full on db-1 (x100)")
+                        && output.contains("SMS Notification: Disk full on db-1 (x100)")
+                        && output.contains("Slack Notification: Disk full on db-1 (x100)"),
+                "An existing chain batches with no change for callers");
+    }
+
+    /**
+     * Test 5: Fan-Out And Failures
+     *
+     * A fan-out around the decorator sees its buffered channels, so sending returns
+     * at once even though Email takes 300 ms. After flush, Email has delivered, and
+     * the failing pager channel is counted as a failure.
+     */
+    private static void testFanOutAndFailures() {
+        System.out.println("Test 5: Fan-Out And Failures");
+        BatchingNotifierDecorator batching = new BatchingNotifierDecorator(
+                new PagerNotifierDecorator(new EmailNotifier(300)), 10, 60_000, 10, 1);
+        FanOutNotifierDecorator fanOut = new FanOutNotifierDecorator(batching, 1000);
+        long start = System.nanoTime();
+        fanOut.send("Backup failed");
+        long sendMillis = (System.nanoTime() - start) / 1_000_000;
+        PrintStream console = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            batching.flush();
+        } finally {
+            System.setOut(console);
+        }
+        System.out.println("  - Fan-out returned after " + sendMillis + " ms: " + fanOut.getLastResult());
+        System.out.println("  - " + batching);
+        check(sendMillis < 100 && fanOut.getLastResult().isAllDelivered()
+                        && out.toString().contains("Email Notification: Backup failed")
+                        && batching.getDeliveries() == 1 && batching.getFailures() == 1,
+                "A fan-out over the decorator still batches, and failures are counted");
+    }
+
+    /**
+     * Test 6: Bounded Buffer
+     *
+     * One delivery per second, a batch size of 5 and 1,000 distinct alerts. Alert 0
+     * uses up the token; after that the buffer holds 5 alerts and only counts the rest.
+     * close() delivers the 5 and a "+994 more" line, so every alert is accounted for.
+     */
+    private static void testBoundedBuffer() {
+        System.out.println("Test 6: Bounded Buffer");
+        RecordingNotifier recorder = new RecordingNotifier();
+        BatchingNotifierDecorator batching = new BatchingNotifierDecorator(recorder, 5, 60_000, 1, 1);
+        batching.send("Alert 0");
+        batching.flush();
+        for (int i = 1; i < 1000; i++) {
+            batching.send("Alert " + i);
+        }
+        int pendingWhileThrottled = batching.getPending();
+        long overflowed = batching.getOverflowed();
+        batching.close();
+        String last = recorder.delivered.get(recorder.delivered.size() - 1);
+        System.out.println("  - Buffered while throttled: " + pendingWhileThrottled + ", counted only: " + overflowed);
+        System.out.println("  - Delivered on close: " + last.replace("\n", " | "));
+        System.out.println("  - " + batching);
+        check(pendingWhileThrottled == 5 && overflowed == 994 && recorder.delivered.size() == 2
+                        && listedMessages(last) == 5 && countMessages(last) == 999,
+                "A throttled buffer stays bounded and summarises the overflow");
+    }
+
+    /**
+     * Test 7: Close
+     *
+     * Messages waiting for a 60 s window are delivered by close(). The timer thread
+     * stops, and send() afterwards throws.
+     */
+    private static void testClose() throws Exception {
+        System.out.println("Test 7: Close");
+        RecordingNotifier recorder = new RecordingNotifier();
+        BatchingNotifierDecorator batching = new BatchingNotifierDecorator(recorder, 100, 60_000, 100, 10);
+        batching.send("Shutting down");
+        batching.send("Draining queue");
+        int timersBefore = timerThreads();
+        batching.close();
+        Thread.sleep(100);
+        int timersAfter = timerThreads();
+        boolean rejected = false;
+        try {
+            batching.send("Too late");
+        } catch (IllegalStateException e) {
+            rejected = true;
+        }
+        System.out.println("  - Delivered on close: " + recorder.delivered + ", timer threads: " + timersBefore
+                + " -> " + timersAfter + ", later send rejected: " + rejected);
+        check(recorder.delivered.equals(List.of("Shutting down\nDraining queue")) && timersAfter == timersBefore - 1
+                        && rejected && batching.getPending() == 0,
+                "close() delivers the buffer and stops the timer");
+    }
+
+    private static int timerThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("notifier-batching-timer") && thread.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Messages a delivery lists by name, not counting a "+N more" line
+    private static int listedMessages(String delivery) {
+        int lines = delivery.isEmpty() ? 0 : delivery.split("\n").length;
+        return delivery.matches("(?s).*\n\\+\\d+ more") ? lines - 1 : lines;
+    }
+
+    // Distinct messages a delivery accounts for, including those summarised as "+N more"
+    private static int countMessages(String delivery) {
+        int more = 0;
+        int line = delivery.lastIndexOf('\n');
+        String tail = delivery.substring(line + 1);
+        if (line >= 0 && tail.matches("\\+\\d+ more")) {
+            more = Integer.parseInt(tail.substring(1, tail.indexOf(' ')));
+        }
+        return listedMessages(delivery) + more;
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -3,8 +3,37 @@ package ConcreteComponent;
 import TargetInterface.Notifier;
 
 public class EmailNotifier implements Notifier {
+    private final long latencyMillis;
+    
+    public EmailNotifier() {
+        this(0);
+    }
+    
+    /**
+     * @param latencyMillis simulated time the email provider takes per message
+     */
+    public EmailNotifier(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+    
     @Override
     public void send(String message) {
+        simulateLatency();
         System.out.println("Email Notification: " + message);
     }
-}
\ No newline at end of file
+    
+    @Override
+    public String getChannel() {
+        return "Email";
+    }
+    
+    private void simulateLatency() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package ConcreteDecorators;
+
+import AbstractDecorator.NotifierDecorator;
+import TargetInterface.Notifier;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers messages per channel and delivers them in batches, no faster than a set rate
+ *
+ * send() only adds the message to the buffer of every channel of the wrapped notifier
+ * and returns. A channel's buffer is delivered as one message when it holds
+ * maxBatchSize distinct messages, or windowMillis after its first message arrived.
+ * Identical messages in a buffer are merged and delivered once with their count, such
+ * as "Disk full (x40)"; a buffer holding a single message delivers it unchanged.
+ *
+ * Each channel has a token bucket: deliveries refill at deliveriesPerSecond and up to
+ * burst can go out back to back. A buffer that is due while the bucket is empty waits
+ * for the next token and keeps collecting messages meanwhile, so during an incident
+ * storm a provider sees at most deliveriesPerSecond messages from us, each summarising
+ * many alerts. Deliveries run on virtual threads, one at a time per channel.
+ *
+ * A buffer holds at most maxBatchSize distinct messages, which is also the most one
+ * delivery carries. While a full buffer waits for a token, further identical messages
+ * still raise their count; new distinct ones are only counted and delivered as a
+ * "+N more" line, so memory stays bounded however long the throttling lasts.
+ * close() delivers what is buffered and stops the timer thread.
+ */
+public class BatchingNotifierDecorator extends NotifierDecorator implements AutoCloseable {
+
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final List<ChannelBuffer> buffers = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notifier-batching-timer").daemon().factory());
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param maxBatchSize distinct messages that make a channel deliver at once, and the most it buffers
+     * @param windowMillis longest a message waits for more to batch with
+     * @param deliveriesPerSecond rate at which each channel's tokens refill
+     * @param burst most deliveries one channel can make back to back
+     */
+    public BatchingNotifierDecorator(Notifier notifier, int maxBatchSize, long windowMillis,
+                                     double deliveriesPerSecond, int burst) {
+        super(notifier);
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        if (windowMillis < 1) {
+            throw new IllegalArgumentException("windowMillis must be positive: " + windowMillis);
+        }
+        if (!(deliveriesPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("deliveriesPerSecond and burst must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = windowMillis;
+        for (Notifier channel : notifier.getChannels()) {
+            buffers.add(new ChannelBuffer(channel, new TokenBucket(deliveriesPerSecond, burst)));
+        }
+    }
+
+    /**
+     * Tokens refilled continuously at a fixed rate, up to a capacity
+     */
+    static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(double perSecond, int capacity) {
+            this.tokensPerNano = perSecond / 1e9;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        /**
+         * Takes a token if one is available
+         * @return 0 if a token was taken, otherwise the nanoseconds until the next one
+         */
+        synchronized long tryTake() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+    }
+
+    // Pending messages and delivery state of one channel
+    private final class ChannelBuffer {
+        final Notifier channel;
+        final TokenBucket bucket;
+        final Object deliveryLock = new Object(); // Held while taking and delivering a batch
+
+        // Guarded by this
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        int overflow; // Distinct messages that arrived while pending was full
+        ScheduledFuture<?> due;
+        boolean waitingForToken; // due is the retry after a throttled delivery, not the window
+        boolean deliveryQueued;
+        boolean closed;
+
+        // Accepts messages for this channel only, so a fan-out over this decorator still batches
+        final Notifier input = new Notifier() {
+            @Override
+            public void send(String message) {
+                add(message);
+            }
+
+            @Override
+            public String getChannel() {
+                return channel.getChannel();
+            }
+        };
+
+        ChannelBuffer(Notifier channel, TokenBucket bucket) {
+            this.channel = channel;
+            this.bucket = bucket;
+        }
+
+        synchronized void add(String message) {
+            if (closed) {
+                throw new IllegalStateException("Notifier is closed");
+            }
+            received.increment();
+            Integer count = pending.get(message);
+            if (count != null) {
+                pending.put(message, count + 1);
+                merged.increment();
+            } else if (pending.size() < maxBatchSize) {
+                pending.put(message, 1);
+            } else {
+                overflow++;
+                overflowed.increment();
+            }
+            if (pending.size() >= maxBatchSize) {
+                if (!waitingForToken) {
+                    deliverSoon();
+                }
+            } else if (due == null && !deliveryQueued) {
+                due = timer.schedule(this::deliverSoon, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void deliverSoon() {
+            if (due != null) {
+                due.cancel(false);
+                due = null;
+            }
+            if (!deliveryQueued) {
+                deliveryQueued = true;
+                VirtualThreads.EXECUTOR.execute(() -> deliver(false));
+            }
+        }
+
+        /**
+         * Delivers the buffer if a token is available, otherwise schedules another try.
+         * @param wait take the next token even if that means sleeping for it
+         */
+        void deliver(boolean wait) {
+            synchronized (deliveryLock) {
+                Map<String, Integer> batch;
+                int more;
+                while (true) {
+                    synchronized (this) {
+                        deliveryQueued = false;
+                        if (pending.isEmpty()) {
+                            return;
+                        }
+                        long waitNanos = bucket.tryTake();
+                        if (waitNanos == 0) {
+                            batch = pending;
+                            more = overflow;
+                            pending = new LinkedHashMap<>();
+                            overflow = 0;
+                            if (due != null) {
+                                due.cancel(false);
+                                due = null;
+                            }
+                            waitingForToken = false;
+                            break;
+                        }
+                        if (!wait) {
+                            throttled.increment();
+                            if (due == null && !closed) { // close() flushes instead
+                                due = timer.schedule(this::deliverSoon, waitNanos, TimeUnit.NANOSECONDS);
+                                waitingForToken = true;
+                            }
+                            return;
+                        }
+                    }
+                    sleepForToken();
+                }
+                try {
+                    channel.send(format(batch, more));
+                    deliveries.increment();
+                } catch (RuntimeException e) {
+                    failures.increment();
+                }
+            }
+        }
+    }
+
+    private static void sleepForToken() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to deliver", e);
+        }
+    }
+
+    private static String format(Map<String, Integer> batch, int more) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : batch.entrySet()) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(entry.getKey());
+            if (entry.getValue() > 1) {
+                text.append(" (x").append(entry.getValue()).append(')');
+            }
+        }
+        if (more > 0) {
+            text.append("\n+").append(more).append(" more");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Buffers the message for every channel and returns without delivering it
+     */
+    @Override
+    public void send(String message) {
+        for (ChannelBuffer buffer : buffers) {
+            buffer.add(message);
+        }
+    }
+
+    /**
+     * Channels that buffer into this decorator, so a FanOutNotifierDecorator wrapped
+     * around it still batches and rate-limits
+     */
+    @Override
+    public List<Notifier> getChannels() {
+        List<Notifier> channels = new ArrayList<>(buffers.size());
+        for (ChannelBuffer buffer : buffers) {
+            channels.add(buffer.input);
+        }
+        return channels;
+    }
+
+    /**
+     * Delivers every buffered message now, waiting for rate-limit tokens where needed
+     */
+    public void flush() {
+        for (ChannelBuffer buffer : buffers) {
+            buffer.deliver(true);
+        }
+    }
+
+    /**
+     * Delivers everything buffered, waiting for tokens where needed, and stops the
+     * timer thread. send() throws IllegalStateException afterwards.
+     */
+    @Override
+    public void close() {
+        for (ChannelBuffer buffer : buffers) {
+            synchronized (buffer) {
+                buffer.closed = true;
+            }
+        }
+        flush();
+        timer.shutdownNow();
+    }
+
+    /**
+     * Messages buffered and not yet delivered, counting duplicates once per channel
+     */
+    public int getPending() {
+        int pending = 0;
+        for (ChannelBuffer buffer : buffers) {
+            synchronized (buffer) {
+                pending += buffer.pending.size();
+            }
+        }
+        return pending;
+    }
+
+    /** Messages accepted, counted once per channel */
+    public long getReceived() { return received.sum(); }
+    /** Messages merged into an identical buffered message */
+    public long getMerged() { return merged.sum(); }
+    /** Distinct messages that arrived while their buffer was full, delivered only as "+N more" */
+    public long getOverflowed() { return overflowed.sum(); }
+    public long getDeliveries() { return deliveries.sum(); }
+    /** Times a due buffer had to wait for a token */
+    public long getThrottled() { return throttled.sum(); }
+    public long getFailures() { return failures.sum(); }
+
+    @Override
+    public String toString() {
+        return String.format("BatchingNotifierDecorator{received=%d, merged=%d, overflowed=%d, deliveries=%d, "
+                + "throttled=%d, failures=%d, pending=%d}", getReceived(), getMerged(), getOverflowed(),
+                getDeliveries(), getThrottled(), getFailures(), getPending());
+    }
+}
@@ -0,0 +1,121 @@
+package ConcreteDecorators;
+
+import AbstractDecorator.NotifierDecorator;
+import TargetInterface.NotificationResult;
+import TargetInterface.NotificationResult.ChannelResult;
+import TargetInterface.NotificationResult.Status;
+import TargetInterface.Notifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends a message through every channel of the wrapped notifier at the same time
+ *
+ * A chain such as Slack(SMS(Email)) sends through each channel in turn, so a message
+ * takes as long as all channels together. This decorator takes the chain's channels
+ * (see Notifier.getChannels) and sends through each one on its own virtual thread, so
+ * a message takes about as long as the slowest channel.
+ *
+ * Each channel has a timeout. A channel that has not finished in time is reported as
+ * TIMED_OUT; it is not interrupted and its late delivery is ignored. send() waits for
+ * every channel to finish or time out and keeps the result for getLastResult();
+ * sendAsync() returns it instead.
+ */
+public class FanOutNotifierDecorator extends NotifierDecorator {
+
+    private final long defaultTimeoutMillis;
+    private final Map<String, Long> timeoutsMillis;
+    private final Executor executor;
+    private volatile NotificationResult lastResult;
+
+    /**
+     * Fans out with the same timeout for every channel
+     */
+    public FanOutNotifierDecorator(Notifier notifier, long timeoutMillis) {
+        this(notifier, timeoutMillis, Map.of(), VirtualThreads.EXECUTOR);
+    }
+
+    /**
+     * @param timeoutsMillis timeout per channel name; other channels use defaultTimeoutMillis
+     * @param executor runs each channel's send
+     */
+    public FanOutNotifierDecorator(Notifier notifier, long defaultTimeoutMillis, Map<String, Long> timeoutsMillis,
+                                   Executor executor) {
+        super(notifier);
+        if (defaultTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Timeout must be positive: " + defaultTimeoutMillis);
+        }
+        for (Map.Entry<String, Long> timeout : timeoutsMillis.entrySet()) {
+            if (timeout.getValue() < 1) {
+                throw new IllegalArgumentException("Timeout for " + timeout.getKey() + " must be positive: "
+                        + timeout.getValue());
+            }
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is required");
+        }
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.timeoutsMillis = new HashMap<>(timeoutsMillis);
+        this.executor = executor;
+    }
+
+    /**
+     * Sends through all channels at once and waits until each has finished or timed out.
+     * A failing channel does not stop the others; see getLastResult for the outcome.
+     */
+    @Override
+    public void send(String message) {
+        sendAsync(message).join();
+    }
+
+    public CompletableFuture<NotificationResult> sendAsync(String message) {
+        long start = System.nanoTime();
+        List<Notifier> channels = notifier.getChannels();
+        List<CompletableFuture<ChannelResult>> sends = new ArrayList<>(channels.size());
+        for (Notifier channel : channels) {
+            sends.add(send(channel, message));
+        }
+        return CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<ChannelResult> results = new ArrayList<>(sends.size());
+            for (CompletableFuture<ChannelResult> send : sends) {
+                results.add(send.join());
+            }
+            NotificationResult result = new NotificationResult(message, results, System.nanoTime() - start);
+            lastResult = result;
+            return result;
+        });
+    }
+
+    private CompletableFuture<ChannelResult> send(Notifier channel, String message) {
+        String name = channel.getChannel();
+        long timeout = timeoutsMillis.getOrDefault(name, defaultTimeoutMillis);
+        long start = System.nanoTime();
+        return CompletableFuture.runAsync(() -> channel.send(message), executor)
+                .orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (error == null) {
+                        return new ChannelResult(name, Status.DELIVERED, elapsed, null);
+                    }
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        return new ChannelResult(name, Status.TIMED_OUT, elapsed, "No delivery after " + timeout + " ms");
+                    }
+                    return new ChannelResult(name, Status.FAILED, elapsed, cause.toString());
+                });
+    }
+
+    /**
+     * Outcome of the most recent send, or null before the first one completes
+     */
+    public NotificationResult getLastResult() {
+        return lastResult;
+    }
+}
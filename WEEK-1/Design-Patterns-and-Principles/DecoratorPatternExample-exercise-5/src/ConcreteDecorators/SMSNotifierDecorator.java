@@ -4,9 +4,29 @@ import AbstractDecorator.NotifierDecorator;
 import TargetInterface.Notifier;
 
 public class SMSNotifierDecorator extends NotifierDecorator {
+    private final long latencyMillis;
+    private final Notifier smsChannel = new Notifier() {
+        @Override
+        public void send(String message) {
+            sendSMS(message);
+        }
+        
+        @Override
+        public String getChannel() {
+            return "SMS";
+        }
+    };
     
     public SMSNotifierDecorator(Notifier notifier) {
+        this(notifier, 0);
+    }
+    
+    /**
+     * @param latencyMillis simulated time the SMS provider takes per message
+     */
+    public SMSNotifierDecorator(Notifier notifier, long latencyMillis) {
         super(notifier);
+        this.latencyMillis = latencyMillis;
     }
     
     @Override
@@ -15,7 +35,19 @@ public class SMSNotifierDecorator extends NotifierDecorator {
         sendSMS(message);
     }
     
+    @Override
+    protected Notifier getOwnChannel() {
+        return smsChannel;
+    }
+    
     private void sendSMS(String message) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         System.out.println("SMS Notification: " + message);
     }
-}
\ No newline at end of file
+}
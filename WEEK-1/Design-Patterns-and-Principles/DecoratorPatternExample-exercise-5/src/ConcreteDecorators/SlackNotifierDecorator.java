@@ -4,9 +4,29 @@ import AbstractDecorator.NotifierDecorator;
 import TargetInterface.Notifier;
 
 public class SlackNotifierDecorator extends NotifierDecorator {
+    private final long latencyMillis;
+    private final Notifier slackChannel = new Notifier() {
+        @Override
+        public void send(String message) {
+            sendSlack(message);
+        }
+        
+        @Override
+        public String getChannel() {
+            return "Slack";
+        }
+    };
     
     public SlackNotifierDecorator(Notifier notifier) {
+        this(notifier, 0);
+    }
+    
+    /**
+     * @param latencyMillis simulated time the Slack provider takes per message
+     */
+    public SlackNotifierDecorator(Notifier notifier, long latencyMillis) {
         super(notifier);
+        this.latencyMillis = latencyMillis;
     }
     
     @Override
@@ -15,7 +35,19 @@ public class SlackNotifierDecorator extends NotifierDecorator {
         sendSlack(message);
     }
     
+    @Override
+    protected Notifier getOwnChannel() {
+        return slackChannel;
+    }
+    
     private void sendSlack(String message) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         System.out.println("Slack Notification: " + message);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package ConcreteDecorators;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Default executor of the concurrent decorators: runs every task on a new virtual thread
+ *
+ * Unlike Executors.newVirtualThreadPerTaskExecutor() this is not an ExecutorService,
+ * so there is nothing to shut down.
+ */
+final class VirtualThreads {
+
+    static final Executor EXECUTOR = task -> Thread.ofVirtual().name("notifier").start(task);
+
+    private VirtualThreads() {
+    }
+}
@@ -0,0 +1,51 @@
+import ConcreteComponent.EmailNotifier;
+import ConcreteDecorators.FanOutNotifierDecorator;
+import ConcreteDecorators.SMSNotifierDecorator;
+import ConcreteDecorators.SlackNotifierDecorator;
+import TargetInterface.Notifier;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Compares per-message latency of the sequential decorator chain and the fan-out
+ *
+ * Channels simulate provider latency: Email 120 ms, SMS 250 ms and Slack 400 ms. The
+ * chain Slack(SMS(Email)) sends through them one after another; the fan-out sends the
+ * same messages through all three at once.
+ */
+public class FanOutBenchmark {
+
+    private static final int MESSAGES = 10;
+
+    public static void main(String[] args) {
+        Notifier chain = new SlackNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier(120), 250), 400);
+        FanOutNotifierDecorator fanOut = new FanOutNotifierDecorator(chain, 2000);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Channels print every message
+        try {
+            console.println("=== Fan-Out Benchmark ===");
+            console.println("Channels: Email 120 ms, SMS 250 ms, Slack 400 ms (sum 770 ms, slowest 400 ms)\n");
+            report(console, "Sequential chain", chain);
+            report(console, "Fan-out         ", fanOut);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void report(PrintStream console, String label, Notifier notifier) {
+        notifier.send("Warm-up");
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < MESSAGES; i++) {
+            long start = System.nanoTime();
+            notifier.send("Incident " + i);
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            max = Math.max(max, elapsed);
+        }
+        console.printf("%s: mean %.0f ms, max %.0f ms per message over %d messages%n",
+                label, total / 1e6 / MESSAGES, max / 1e6, MESSAGES);
+    }
+}
@@ -0,0 +1,218 @@
+import AbstractDecorator.NotifierDecorator;
+import ConcreteComponent.EmailNotifier;
+import ConcreteDecorators.FanOutNotifierDecorator;
+import ConcreteDecorators.SMSNotifierDecorator;
+import ConcreteDecorators.SlackNotifierDecorator;
+import TargetInterface.NotificationResult;
+import TargetInterface.Notifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fan-Out Notifier Test Suite
+ *
+ * Validates FanOutNotifierDecorator:
+ * - Channel Discovery: a decorator chain exposes each of its channels separately
+ * - Concurrent Delivery: a fanned-out message takes about as long as the slowest channel
+ * - Per-Channel Timeout: a slow channel times out without holding up the others
+ * - Failure Isolation: a failing channel is reported and the rest still deliver
+ * - Async Sends: many messages can be in flight at once
+ */
+public class FanOutNotifierTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Fan-Out Notifier Test Suite ===\n");
+
+        testChannelDiscovery();
+        testConcurrentDelivery();
+        testPerChannelTimeout();
+        testFailureIsolation();
+        testAsyncSends();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Adds a channel that always fails
+    private static class PagerNotifierDecorator extends NotifierDecorator {
+        PagerNotifierDecorator(Notifier notifier) {
+            super(notifier);
+        }
+
+        @Override
+        protected Notifier getOwnChannel() {
+            return new Notifier() {
+                @Override
+                public void send(String message) {
+                    throw new IllegalStateException("Pager provider unavailable");
+                }
+
+                @Override
+                public String getChannel() {
+                    return "Pager";
+                }
+            };
+        }
+    }
+
+    private static String capture(Runnable action) {
+        PrintStream console = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            action.run();
+        } finally {
+            System.setOut(console);
+        }
+        return out.toString();
+    }
+
+    private static long millis(Runnable action) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            System.setOut(console);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Test 1: Channel Discovery
+     *
+     * Slack(SMS(Email)) exposes Email, SMS and Slack as separate channels, and each
+     * one sends through its own channel only.
+     */
+    private static void testChannelDiscovery() {
+        System.out.println("Test 1: Channel Discovery");
+        Notifier chain = new SlackNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier()));
+        List<String> names = new ArrayList<>();
+        boolean separate = true;
+        for (Notifier channel : chain.getChannels()) {
+            names.add(channel.getChannel());
+            String output = capture(() -> channel.send("Disk almost full"));
+            separate &= output.trim().equals(channel.getChannel() + " Notification: Disk almost full");
+        }
+        System.out.println("  - Channels: " + names);
+        check(names.equals(List.of("Email", "SMS", "Slack")) && separate,
+                "A decorator chain exposes each channel separately");
+    }
+
+    /**
+     * Test 2: Concurrent Delivery
+     *
+     * With channels taking 100, 200 and 300 ms, the chain takes about 600 ms per
+     * message and the fan-out about 300 ms.
+     */
+    private static void testConcurrentDelivery() {
+        System.out.println("Test 2: Concurrent Delivery");
+        Notifier chain = new SlackNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier(100), 200), 300);
+        FanOutNotifierDecorator fanOut = new FanOutNotifierDecorator(chain, 1000);
+        long sequential = millis(() -> chain.send("Deploy finished"));
+        long concurrent = millis(() -> fanOut.send("Deploy finished"));
+        NotificationResult result = fanOut.getLastResult();
+        System.out.println("  - Chain: " + sequential + " ms, fan-out: " + concurrent + " ms");
+        System.out.println("  - " + result);
+        check(result.isAllDelivered() && sequential >= 600 && concurrent >= 300 && concurrent < 450,
+                "A fanned-out message takes about as long as the slowest channel");
+    }
+
+    /**
+     * Test 3: Per-Channel Timeout
+     *
+     * Slack takes 500 ms but has a 100 ms timeout; Email and SMS use the default of
+     * 1 s. Slack is reported as timed out and send returns after about 100 ms.
+     */
+    private static void testPerChannelTimeout() {
+        System.out.println("Test 3: Per-Channel Timeout");
+        Notifier chain = new SlackNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier(20), 20), 500);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            FanOutNotifierDecorator fanOut = new FanOutNotifierDecorator(chain, 1000, Map.of("Slack", 100L), executor);
+            long elapsed = millis(() -> fanOut.send("Database failover"));
+            NotificationResult result = fanOut.getLastResult();
+            System.out.println("  - Returned after " + elapsed + " ms");
+            System.out.println("  - " + result);
+            check(result.getUndeliveredChannels().equals(List.of("Slack"))
+                            && result.count(NotificationResult.Status.TIMED_OUT) == 1 && elapsed < 400,
+                    "A slow channel times out without holding up the others");
+        }
+    }
+
+    /**
+     * Test 4: Failure Isolation
+     *
+     * A pager channel that throws is reported as failed with its error, and Email and
+     * SMS still deliver. send does not throw.
+     */
+    private static void testFailureIsolation() {
+        System.out.println("Test 4: Failure Isolation");
+        FanOutNotifierDecorator fanOut = new FanOutNotifierDecorator(
+                new PagerNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier())), 1000);
+        boolean threw = false;
+        String output = "";
+        try {
+            output = capture(() -> fanOut.send("Certificate expires tomorrow"));
+        } catch (RuntimeException e) {
+            threw = true;
+        }
+        NotificationResult result = fanOut.getLastResult();
+        System.out.print(output.replaceAll("(?m)^", "    "));
+        System.out.println("  - " + result);
+        NotificationResult.ChannelResult pager = result.getChannelResults().get(2);
+        check(!threw && result.count(NotificationResult.Status.DELIVERED) == 2
+                        && pager.getStatus() == NotificationResult.Status.FAILED
+                        && pager.getError().contains("Pager provider unavailable"),
+                "A failing channel is reported and the rest still deliver");
+    }
+
+    /**
+     * Test 5: Async Sends
+     *
+     * 200 messages are sent through sendAsync at once over channels taking 50 ms.
+     * Every message is delivered on all three channels in well under the 30 s that
+     * sending them one by one through the chain would take.
+     */
+    private static void testAsyncSends() {
+        System.out.println("Test 5: Async Sends");
+        Notifier chain = new SlackNotifierDecorator(new SMSNotifierDecorator(new EmailNotifier(50), 50), 50);
+        FanOutNotifierDecorator fanOut = new FanOutNotifierDecorator(chain, 5000);
+        List<CompletableFuture<NotificationResult>> sends = new ArrayList<>();
+        long elapsed = millis(() -> {
+            for (int i = 0; i < 200; i++) {
+                sends.add(fanOut.sendAsync("Alert " + i));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
+        });
+        int delivered = 0;
+        for (CompletableFuture<NotificationResult> send : sends) {
+            delivered += send.join().count(NotificationResult.Status.DELIVERED);
+        }
+        System.out.println("  - Deliveries: " + delivered + " in " + elapsed + " ms");
+        check(delivered == 600 && elapsed < 2000, "Many messages can be in flight at once");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
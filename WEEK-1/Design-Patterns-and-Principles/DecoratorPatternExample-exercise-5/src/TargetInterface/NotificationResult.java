@@ -0,0 +1,100 @@
+package TargetInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of sending one message through several channels
+ *
+ * Holds one ChannelResult per channel, in channel order, and the time until the
+ * last channel delivered, failed or timed out.
+ */
+public final class NotificationResult {
+
+    public enum Status {
+        DELIVERED, FAILED, TIMED_OUT
+    }
+
+    /**
+     * Outcome of one channel: its status, how long it took, and the error for a failure
+     */
+    public static final class ChannelResult {
+        private final String channel;
+        private final Status status;
+        private final long elapsedNanos;
+        private final String error;
+
+        public ChannelResult(String channel, Status status, long elapsedNanos, String error) {
+            this.channel = channel;
+            this.status = status;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public String getChannel() { return channel; }
+        public Status getStatus() { return status; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public String getError() { return error; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s in %.0f ms%s", channel, status, elapsedNanos / 1e6,
+                    error == null ? "" : " (" + error + ")");
+        }
+    }
+
+    private final String message;
+    private final List<ChannelResult> channels;
+    private final long elapsedNanos;
+
+    public NotificationResult(String message, List<ChannelResult> channels, long elapsedNanos) {
+        this.message = message;
+        this.channels = List.copyOf(channels);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public List<ChannelResult> getChannelResults() {
+        return channels;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int count(Status status) {
+        int count = 0;
+        for (ChannelResult channel : channels) {
+            if (channel.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isAllDelivered() {
+        return count(Status.DELIVERED) == channels.size();
+    }
+
+    /**
+     * Channels that failed or timed out
+     */
+    public List<String> getUndeliveredChannels() {
+        List<String> undelivered = new ArrayList<>();
+        for (ChannelResult channel : channels) {
+            if (channel.getStatus() != Status.DELIVERED) {
+                undelivered.add(channel.getChannel());
+            }
+        }
+        return undelivered;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NotificationResult{delivered %d of %d in %.0f ms: %s}",
+                count(Status.DELIVERED), channels.size(), elapsedNanos / 1e6, channels);
+    }
+}
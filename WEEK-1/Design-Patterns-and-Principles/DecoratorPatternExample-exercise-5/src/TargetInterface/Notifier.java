@@ -1,5 +1,22 @@
 package TargetInterface;
 
+import java.util.List;
+
 public interface Notifier {
     void send(String message);
+
+    /**
+     * Name of the channel this notifier delivers through, such as "Email"
+     */
+    default String getChannel() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * The single-channel notifiers that send() delivers through, in the order send()
+     * uses them. Each one sends through its own channel only.
+     */
+    default List<Notifier> getChannels() {
+        return List.of(this);
+    }
 }
@@ -1,6 +1,11 @@
 package AbstractDocumentFactory;
 
-public abstract class DocumentFactory {
-    public abstract Object createDocument();
+import DocumentInterfaces.Document;
+
+/**
+ * @param <T> the document type this factory creates, so callers need no casts
+ */
+public abstract class DocumentFactory<T extends Document> {
+    public abstract T createDocument();
 
 }
@@ -4,7 +4,7 @@ import AbstractDocumentFactory.DocumentFactory;
 import ConcreteDocumentClasses.ExcelDocumentImpl;
 import DocumentInterfaces.ExcelDocument;
 
-public class ExcelDocumentFactory extends DocumentFactory {
+public class ExcelDocumentFactory extends DocumentFactory<ExcelDocument> {
     @Override
     public ExcelDocument createDocument() {
         return new ExcelDocumentImpl();
@@ -4,7 +4,7 @@ import AbstractDocumentFactory.DocumentFactory;
 import ConcreteDocumentClasses.PdfDocumentImpl;
 import DocumentInterfaces.PdfDocument;
 
-public class PdfDocumentFactory extends DocumentFactory {
+public class PdfDocumentFactory extends DocumentFactory<PdfDocument> {
     @Override
     public PdfDocument createDocument() {
         return new PdfDocumentImpl();
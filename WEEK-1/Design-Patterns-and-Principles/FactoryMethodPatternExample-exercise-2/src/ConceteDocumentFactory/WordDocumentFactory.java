@@ -4,7 +4,7 @@ import AbstractDocumentFactory.DocumentFactory;
 import DocumentInterfaces.WordDocument;
 import ConcreteDocumentClasses.WordDocumentImpl;
 
-public class WordDocumentFactory extends DocumentFactory {
+public class WordDocumentFactory extends DocumentFactory<WordDocument> {
     @Override
     public WordDocument createDocument() {
         return new WordDocumentImpl();
@@ -0,0 +1,48 @@
+package ConcreteDocumentClasses;
+
+import DocumentInterfaces.Document;
+
+/**
+ * Content buffer shared by the document implementations
+ *
+ * The buffer is allocated by the first write, sized to that text, so a document
+ * that is never written costs no more than one without a buffer. reset() keeps the
+ * buffer for reuse, which is what makes pooled documents cheap, unless it has grown
+ * past 64 KB; then it is dropped so a pooled document does not hold on to a large one.
+ */
+public abstract class AbstractDocument implements Document {
+    private static final int MIN_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private StringBuilder content; // null until the first write
+
+    @Override
+    public void write(String text) {
+        if (content == null) {
+            content = new StringBuilder(Math.max(MIN_CAPACITY, String.valueOf(text).length()));
+        }
+        content.append(text);
+    }
+
+    @Override
+    public String getContent() {
+        return content == null ? "" : content.toString();
+    }
+
+    @Override
+    public int getLength() {
+        return content == null ? 0 : content.length();
+    }
+
+    @Override
+    public void reset() {
+        if (content == null) {
+            return;
+        }
+        if (content.capacity() > MAX_RETAINED_CAPACITY) {
+            content = null;
+        } else {
+            content.setLength(0);
+        }
+    }
+}
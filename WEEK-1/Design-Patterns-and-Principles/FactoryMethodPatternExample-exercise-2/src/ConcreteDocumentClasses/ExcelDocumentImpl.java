@@ -2,7 +2,7 @@ package ConcreteDocumentClasses;
 
 import DocumentInterfaces.ExcelDocument;
 
-public class ExcelDocumentImpl implements ExcelDocument {
+public class ExcelDocumentImpl extends AbstractDocument implements ExcelDocument {
     @Override
     public void open() {
         System.out.println("Opening Excel document...");
@@ -2,7 +2,7 @@ package ConcreteDocumentClasses;
 
 import DocumentInterfaces.PdfDocument;
 
-public class PdfDocumentImpl implements PdfDocument {
+public class PdfDocumentImpl extends AbstractDocument implements PdfDocument {
     @Override
     public void open() {
         System.out.println("Opening PDF document...");
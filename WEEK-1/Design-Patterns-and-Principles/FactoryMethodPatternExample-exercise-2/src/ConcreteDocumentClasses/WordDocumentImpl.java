@@ -2,7 +2,7 @@ package ConcreteDocumentClasses;
 
 import DocumentInterfaces.WordDocument;
 
-public class WordDocumentImpl implements WordDocument {
+public class WordDocumentImpl extends AbstractDocument implements WordDocument {
     @Override
     public void open() {
         System.out.println("Opening Word document...");
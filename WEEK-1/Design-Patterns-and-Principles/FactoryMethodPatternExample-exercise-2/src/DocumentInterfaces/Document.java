@@ -0,0 +1,22 @@
+package DocumentInterfaces;
+
+/**
+ * Operations shared by every document type
+ */
+public interface Document {
+    void open();
+    void save();
+    void close();
+
+    /**
+     * Adds text to the end of the document's content
+     */
+    void write(String text);
+    String getContent();
+    int getLength();
+
+    /**
+     * Clears the content and any other state, so a pool can hand the document out again
+     */
+    void reset();
+}
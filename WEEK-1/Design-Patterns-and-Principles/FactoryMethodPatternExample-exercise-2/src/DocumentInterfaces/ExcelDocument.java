@@ -1,9 +1,6 @@
 package DocumentInterfaces;
 
-public interface ExcelDocument {
-    void open();
-    void save();
-    void close();
+public interface ExcelDocument extends Document {
     void addFormula();
     String getExcelVersion();
 }
@@ -1,9 +1,6 @@
 package DocumentInterfaces;
 
-public interface PdfDocument {
-    void open();
-    void save();
-    void close();
+public interface PdfDocument extends Document {
     void addWatermark();
     String getPdfVersion();
 }
@@ -1,9 +1,6 @@
 package DocumentInterfaces;
 
-public interface WordDocument {
-    void open();
-    void save();
-    void close();
+public interface WordDocument extends Document {
     void formatText();
     String getWordVersion();
 }
@@ -0,0 +1,100 @@
+import AbstractDocumentFactory.DocumentFactory;
+import ConceteDocumentFactory.WordDocumentFactory;
+import DocumentInterfaces.WordDocument;
+import FactoryRegistry.DocumentFactoryRegistry;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares allocation and garbage collection for plain and pooled document creation
+ *
+ * Each run renders 2,000,000 Word documents on one thread: create, write about 1 KB
+ * of content, read its length, and discard it (plain new) or release it (pooled).
+ * "Create only" makes documents that are never written, the cost plain new had
+ * before documents held content.
+ * Bytes allocated are measured for the rendering thread; collections and GC time
+ * are summed over all collectors.
+ */
+public class DocumentPoolBenchmark {
+
+    private static final int DOCUMENTS = 2_000_000;
+    private static final String[] LINES = {
+            "Invoice line: 3 x Widget @ 19.99 ".repeat(8),
+            "Shipping to: 221B Baker Street, London ".repeat(8),
+            "Payment terms: net 30 days from issue ".repeat(8)
+    };
+
+    private static long checksum;
+    private static WordDocument lastCreated; // Keeps "Create only" documents from being optimized away
+
+    public static void main(String[] args) {
+        DocumentFactory<WordDocument> factory = new WordDocumentFactory();
+        DocumentFactoryRegistry registry = DocumentFactoryRegistry.withDefaultFactories();
+        System.out.println("=== Document Pool Benchmark ===");
+        System.out.printf("%,d documents per run, max heap %d MB%n%n", DOCUMENTS,
+                Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("Round " + round + ":");
+            measure("Create only", () -> {
+                for (int i = 0; i < DOCUMENTS; i++) {
+                    lastCreated = factory.createDocument();
+                }
+            });
+            measure("Plain new  ", () -> {
+                for (int i = 0; i < DOCUMENTS; i++) {
+                    WordDocument document = factory.createDocument();
+                    render(document, i);
+                }
+            });
+            measure("Pooled     ", () -> {
+                for (int i = 0; i < DOCUMENTS; i++) {
+                    WordDocument document = registry.create(WordDocument.class);
+                    render(document, i);
+                    registry.release(WordDocument.class, document);
+                }
+            });
+            System.out.println();
+        }
+        System.out.println(registry.pool(WordDocument.class) + " (checksum " + (checksum + lastCreated.getLength()) + ")");
+    }
+
+    private static void render(WordDocument document, int i) {
+        document.write(LINES[i % LINES.length]);
+        document.write(LINES[(i + 1) % LINES.length]);
+        document.write(LINES[(i + 2) % LINES.length]);
+        checksum += document.getLength();
+    }
+
+    private static void measure(String label, Runnable run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long collectionsBefore = collections();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        run.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("  %s %,7.0f ms, %,10.0f documents/s, %,7.0f bytes/document, %,6.0f MB/s allocated, "
+                        + "%,4d GCs, %,5d ms in GC%n", label, seconds * 1000, DOCUMENTS / seconds,
+                (double) allocated / DOCUMENTS, allocated / seconds / (1024 * 1024),
+                collections() - collectionsBefore, gcMillis() - gcMillisBefore);
+    }
+
+    private static long collections() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
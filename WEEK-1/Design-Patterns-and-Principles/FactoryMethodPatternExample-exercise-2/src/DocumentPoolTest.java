@@ -0,0 +1,185 @@
+import ConceteDocumentFactory.PdfDocumentFactory;
+import ConceteDocumentFactory.WordDocumentFactory;
+import DocumentInterfaces.ExcelDocument;
+import DocumentInterfaces.PdfDocument;
+import DocumentInterfaces.WordDocument;
+import FactoryRegistry.DocumentFactoryRegistry;
+import FactoryRegistry.DocumentPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Document Pool Test Suite
+ *
+ * Validates DocumentFactoryRegistry and DocumentPool:
+ * - Typed Creation: documents come back as their own type, with no casts
+ * - Reset On Release: a reused document starts empty
+ * - Thread-Local Fast Path: a thread gets back its own released documents first
+ * - Bounded Pool: documents beyond the pool's capacity are dropped
+ * - Concurrent Use: a pooled document is never handed to two threads at once
+ */
+public class DocumentPoolTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Document Pool Test Suite ===\n");
+
+        testTypedCreation();
+        testResetOnRelease();
+        testThreadLocalFastPath();
+        testBoundedPool();
+        testConcurrentUse();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    /**
+     * Test 1: Typed Creation
+     *
+     * Factories and the registry return WordDocument, PdfDocument and ExcelDocument
+     * directly. A type without a factory is rejected.
+     */
+    private static void testTypedCreation() {
+        System.out.println("Test 1: Typed Creation");
+        DocumentFactoryRegistry registry = DocumentFactoryRegistry.withDefaultFactories();
+        WordDocument fromFactory = new WordDocumentFactory().createDocument();
+        WordDocument word = registry.create(WordDocument.class);
+        PdfDocument pdf = registry.create(PdfDocument.class);
+        ExcelDocument excel = registry.create(ExcelDocument.class);
+        boolean rejected = false;
+        try {
+            new DocumentFactoryRegistry().create(WordDocument.class);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        System.out.println("  - " + word.getWordVersion() + ", " + pdf.getPdfVersion() + ", " + excel.getExcelVersion());
+        check(fromFactory.getWordVersion().equals(word.getWordVersion()) && pdf.getPdfVersion().equals("Adobe PDF (.pdf)")
+                        && excel.getExcelVersion().startsWith("Microsoft Excel") && rejected,
+                "Documents are created as their own type");
+    }
+
+    /**
+     * Test 2: Reset On Release
+     *
+     * A document written to and released comes back as the same instance with no
+     * content. One that grew past 64 KB is also emptied.
+     */
+    private static void testResetOnRelease() {
+        System.out.println("Test 2: Reset On Release");
+        DocumentFactoryRegistry registry = DocumentFactoryRegistry.withDefaultFactories();
+        WordDocument first = registry.create(WordDocument.class);
+        first.write("Quarterly report");
+        registry.release(WordDocument.class, first);
+        WordDocument second = registry.create(WordDocument.class);
+        boolean sameAndEmpty = first == second && second.getLength() == 0;
+
+        second.write("x".repeat(100_000));
+        registry.release(WordDocument.class, second);
+        WordDocument third = registry.create(WordDocument.class);
+        third.write("Fresh");
+        System.out.println("  - Same instance reused: " + (first == second) + ", content after reuse: \"" + third.getContent() + "\"");
+        check(sameAndEmpty && third.getContent().equals("Fresh"), "Released documents are reset before reuse");
+    }
+
+    /**
+     * Test 3: Thread-Local Fast Path
+     *
+     * With 2 documents per thread, a thread that releases 3 keeps 2 for itself and
+     * shares the third. Its next 2 acquires hit its own cache; another thread gets
+     * the shared one, and a virtual thread bypasses the cache.
+     */
+    private static void testThreadLocalFastPath() throws Exception {
+        System.out.println("Test 3: Thread-Local Fast Path");
+        DocumentPool<PdfDocument> pool = new DocumentPool<>(new PdfDocumentFactory(), 10, 2);
+        List<PdfDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            documents.add(pool.acquire());
+        }
+        documents.forEach(pool::release);
+        pool.acquire();
+        pool.acquire();
+        long localAfterOwner = pool.getLocalHits();
+
+        Thread other = Thread.ofPlatform().start(pool::acquire);
+        other.join();
+        long sharedAfterOther = pool.getSharedHits();
+
+        Thread virtual = Thread.ofVirtual().start(() -> pool.release(pool.acquire()));
+        virtual.join();
+        System.out.println("  - " + pool);
+        check(localAfterOwner == 2 && sharedAfterOther == 1 && pool.getCreated() == 4 && pool.getLocalHits() == 2
+                        && pool.getSharedIdle() == 1,
+                "A thread reuses its own documents first");
+    }
+
+    /**
+     * Test 4: Bounded Pool
+     *
+     * A pool of 3 idle documents with no thread-local cache keeps 3 of 5 released
+     * documents and drops the other 2.
+     */
+    private static void testBoundedPool() {
+        System.out.println("Test 4: Bounded Pool");
+        DocumentPool<WordDocument> pool = new DocumentPool<>(new WordDocumentFactory(), 3, 0);
+        List<WordDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            documents.add(pool.acquire());
+        }
+        documents.forEach(pool::release);
+        System.out.println("  - " + pool);
+        check(pool.getSharedIdle() == 3 && pool.getDropped() == 2 && pool.getCreated() == 5,
+                "Documents beyond the pool's capacity are dropped");
+    }
+
+    /**
+     * Test 5: Concurrent Use
+     *
+     * 8 threads each create, write, check and release 20,000 Excel documents. Every
+     * document holds only what its current owner wrote, and the factory creates far
+     * fewer documents than were used.
+     */
+    private static void testConcurrentUse() throws Exception {
+        System.out.println("Test 5: Concurrent Use");
+        DocumentFactoryRegistry registry = DocumentFactoryRegistry.withDefaultFactories();
+        AtomicInteger corrupted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String owner = "thread-" + t + ";";
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ExcelDocument document = registry.create(ExcelDocument.class);
+                    document.write(owner);
+                    if (!document.getContent().equals(owner)) {
+                        corrupted.incrementAndGet();
+                    }
+                    registry.release(ExcelDocument.class, document);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        DocumentPool<ExcelDocument> pool = registry.pool(ExcelDocument.class);
+        System.out.println("  - " + pool);
+        check(corrupted.get() == 0 && pool.getCreated() <= 8 * 4 && pool.getLocalHits() + pool.getSharedHits()
+                        + pool.getCreated() == 160_000,
+                "A pooled document is never shared between threads");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -65,7 +65,7 @@ public class FactoryMethodPatternTest {
     private static void testWordDocumentCreation() {
         System.out.println("Test 1: Word Document Creation");
         try {
-            DocumentFactory factory = new WordDocumentFactory();
+            DocumentFactory<?> factory = new WordDocumentFactory();
             Object doc = factory.createDocument();
             
             boolean isWordDoc = doc instanceof WordDocument;
@@ -112,7 +112,7 @@ public class FactoryMethodPatternTest {
     private static void testPdfDocumentCreation() {
         System.out.println("Test 2: PDF Document Creation");
         try {
-            DocumentFactory factory = new PdfDocumentFactory();
+            DocumentFactory<?> factory = new PdfDocumentFactory();
             Object doc = factory.createDocument();
             
             boolean isPdfDoc = doc instanceof PdfDocument;
@@ -159,7 +159,7 @@ public class FactoryMethodPatternTest {
     private static void testExcelDocumentCreation() {
         System.out.println("Test 3: Excel Document Creation");
         try {
-            DocumentFactory factory = new ExcelDocumentFactory();
+            DocumentFactory<?> factory = new ExcelDocumentFactory();
             Object doc = factory.createDocument();
             
             boolean isExcelDoc = doc instanceof ExcelDocument;
@@ -207,7 +207,7 @@ public class FactoryMethodPatternTest {
     private static void testPolymorphicBehavior() {
         System.out.println("Test 4: Polymorphic Behavior");
         try {
-            DocumentFactory[] factories = {
+            DocumentFactory<?>[] factories = {
                 new WordDocumentFactory(),
                 new PdfDocumentFactory(),
                 new ExcelDocumentFactory()
@@ -273,7 +273,7 @@ public class FactoryMethodPatternTest {
     private static void testFactoryReturnsCorrectType() {
         System.out.println("Test 5: Factory Returns Document Interface");
         try {
-            DocumentFactory factory = new WordDocumentFactory();
+            DocumentFactory<?> factory = new WordDocumentFactory();
             Object doc = factory.createDocument();
             
             boolean implementsWordDocument = doc instanceof WordDocument;
@@ -321,7 +321,7 @@ public class FactoryMethodPatternTest {
     private static void testDocumentOperations() {
         System.out.println("Test 6: Document Operations");
         try {
-            DocumentFactory factory = new PdfDocumentFactory();
+            DocumentFactory<?> factory = new PdfDocumentFactory();
             Object doc = factory.createDocument();
             
             if (doc instanceof PdfDocument) {
@@ -365,8 +365,8 @@ public class FactoryMethodPatternTest {
     private static void testMultipleFactoryInstances() {
         System.out.println("Test 7: Multiple Factory Instances");
         try {
-            DocumentFactory factory1 = new WordDocumentFactory();
-            DocumentFactory factory2 = new WordDocumentFactory();
+            DocumentFactory<?> factory1 = new WordDocumentFactory();
+            DocumentFactory<?> factory2 = new WordDocumentFactory();
             
             Object doc1 = factory1.createDocument();
             Object doc2 = factory2.createDocument();
@@ -410,8 +410,8 @@ public class FactoryMethodPatternTest {
     private static void testFactoryInheritance() {
         System.out.println("Test 8: Factory Inheritance Structure");
         try {
-            DocumentFactory wordFactory = new WordDocumentFactory();
-            DocumentFactory pdfFactory = new PdfDocumentFactory();
+            DocumentFactory<?> wordFactory = new WordDocumentFactory();
+            DocumentFactory<?> pdfFactory = new PdfDocumentFactory();
             
             boolean wordExtendsFactory = wordFactory instanceof DocumentFactory;
             boolean pdfExtendsFactory = pdfFactory instanceof DocumentFactory;
@@ -454,7 +454,7 @@ public class FactoryMethodPatternTest {
     private static void testNullSafety() {
         System.out.println("Test 9: Null Safety");
         try {
-            DocumentFactory factory = new ExcelDocumentFactory();
+            DocumentFactory<?> factory = new ExcelDocumentFactory();
             Object doc = factory.createDocument();
             
             boolean docNotNull = doc != null;
@@ -0,0 +1,78 @@
+package FactoryRegistry;
+
+import AbstractDocumentFactory.DocumentFactory;
+import ConceteDocumentFactory.ExcelDocumentFactory;
+import ConceteDocumentFactory.PdfDocumentFactory;
+import ConceteDocumentFactory.WordDocumentFactory;
+import DocumentInterfaces.Document;
+import DocumentInterfaces.ExcelDocument;
+import DocumentInterfaces.PdfDocument;
+import DocumentInterfaces.WordDocument;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Factories keyed by document type, each behind its own DocumentPool
+ *
+ * create(WordDocument.class) returns a WordDocument, without casts, taken from the
+ * Word pool. Documents handed back with release(type, document) are reset and
+ * reused, so a service that creates documents at a high rate allocates new ones
+ * only while the pools warm up.
+ */
+public class DocumentFactoryRegistry {
+
+    private final Map<Class<?>, DocumentPool<?>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * A registry with pooled Word, PDF and Excel factories, each keeping up to 256
+     * idle documents plus 4 per thread
+     */
+    public static DocumentFactoryRegistry withDefaultFactories() {
+        DocumentFactoryRegistry registry = new DocumentFactoryRegistry();
+        registry.register(WordDocument.class, new WordDocumentFactory(), 256, 4);
+        registry.register(PdfDocument.class, new PdfDocumentFactory(), 256, 4);
+        registry.register(ExcelDocument.class, new ExcelDocumentFactory(), 256, 4);
+        return registry;
+    }
+
+    /**
+     * Registers or replaces the factory for a document type
+     */
+    public <T extends Document> void register(Class<T> type, DocumentFactory<? extends T> factory,
+                                              int maxIdle, int threadLocalCapacity) {
+        if (type == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        pools.put(type, new DocumentPool<T>(factory, maxIdle, threadLocalCapacity));
+    }
+
+    public boolean isRegistered(Class<?> type) {
+        return pools.containsKey(type);
+    }
+
+    /**
+     * Takes a document of the type from its pool, creating one if the pool is empty
+     */
+    public <T extends Document> T create(Class<T> type) {
+        return pool(type).acquire();
+    }
+
+    /**
+     * Resets the document and returns it to the pool for its type. The caller must
+     * not use it afterwards.
+     */
+    public <T extends Document> void release(Class<T> type, T document) {
+        pool(type).release(document);
+    }
+
+    // The pool was registered with a factory for T, so the cast is safe
+    @SuppressWarnings("unchecked")
+    public <T extends Document> DocumentPool<T> pool(Class<T> type) {
+        DocumentPool<T> pool = (DocumentPool<T>) pools.get(type);
+        if (pool == null) {
+            throw new IllegalArgumentException("No factory registered for " + (type == null ? null : type.getSimpleName()));
+        }
+        return pool;
+    }
+}
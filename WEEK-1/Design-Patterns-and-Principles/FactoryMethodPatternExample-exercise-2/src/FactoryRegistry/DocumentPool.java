@@ -0,0 +1,119 @@
+package FactoryRegistry;
+
+import AbstractDocumentFactory.DocumentFactory;
+import DocumentInterfaces.Document;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of idle documents of one type, created by a DocumentFactory when empty
+ *
+ * acquire() first looks in a small cache owned by the calling thread, which needs no
+ * synchronization, then in a shared queue of at most maxIdle documents, and only
+ * then asks the factory for a new one. release() resets the document and returns it
+ * to the thread's cache, or to the shared queue when the cache is full. When the
+ * shared queue is full as well, the document is left to the garbage collector.
+ *
+ * Virtual threads skip the thread-local cache: there can be millions of them, and
+ * each would keep its own idle documents.
+ *
+ * A released document must not be used again by the caller, and must not be
+ * released twice.
+ */
+public class DocumentPool<T extends Document> {
+
+    private final DocumentFactory<? extends T> factory;
+    private final ArrayBlockingQueue<T> shared;
+    private final int threadLocalCapacity;
+    private final ThreadLocal<ArrayDeque<T>> local;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param maxIdle most idle documents kept in the shared queue
+     * @param threadLocalCapacity most idle documents each platform thread keeps for itself; 0 disables the cache
+     */
+    public DocumentPool(DocumentFactory<? extends T> factory, int maxIdle, int threadLocalCapacity) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is required");
+        }
+        if (maxIdle < 1) {
+            throw new IllegalArgumentException("maxIdle must be positive: " + maxIdle);
+        }
+        if (threadLocalCapacity < 0) {
+            throw new IllegalArgumentException("threadLocalCapacity must not be negative: " + threadLocalCapacity);
+        }
+        this.factory = factory;
+        this.shared = new ArrayBlockingQueue<>(maxIdle);
+        this.threadLocalCapacity = threadLocalCapacity;
+        this.local = ThreadLocal.withInitial(() -> new ArrayDeque<>(threadLocalCapacity));
+    }
+
+    public T acquire() {
+        ArrayDeque<T> cache = localCache();
+        if (cache != null) {
+            T document = cache.pollLast();
+            if (document != null) {
+                localHits.increment();
+                return document;
+            }
+        }
+        T document = shared.poll();
+        if (document != null) {
+            sharedHits.increment();
+            return document;
+        }
+        created.increment();
+        return factory.createDocument();
+    }
+
+    /**
+     * Resets the document and keeps it for reuse if there is room
+     */
+    public void release(T document) {
+        if (document == null) {
+            return;
+        }
+        document.reset();
+        ArrayDeque<T> cache = localCache();
+        if (cache != null && cache.size() < threadLocalCapacity) {
+            cache.addLast(document);
+        } else if (!shared.offer(document)) {
+            dropped.increment();
+        }
+    }
+
+    private ArrayDeque<T> localCache() {
+        if (threadLocalCapacity == 0 || Thread.currentThread().isVirtual()) {
+            return null;
+        }
+        return local.get();
+    }
+
+    /** Documents the factory had to create */
+    public long getCreated() { return created.sum(); }
+    /** Acquires served from the calling thread's cache */
+    public long getLocalHits() { return localHits.sum(); }
+    /** Acquires served from the shared queue */
+    public long getSharedHits() { return sharedHits.sum(); }
+    /** Released documents discarded because the pool was full */
+    public long getDropped() { return dropped.sum(); }
+
+    /**
+     * Idle documents in the shared queue; thread-local caches are not counted
+     */
+    public int getSharedIdle() {
+        return shared.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DocumentPool{created=%d, localHits=%d, sharedHits=%d, dropped=%d, sharedIdle=%d}",
+                getCreated(), getLocalHits(), getSharedHits(), getDropped(), getSharedIdle());
+    }
+}
@@ -0,0 +1,274 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous Dispatch Test Suite
+ *
+ * Validates StockMarket in asynchronous mode, where every observer has its own
+ * bounded mailbox drained by a virtual thread:
+ * - Tick Latency: a slow observer does not delay setStockPrice
+ * - Delivery Order: each observer receives its updates in publication order
+ * - Overflow Policies: DROP_NEWEST and DROP_OLDEST bound the backlog of a stalled observer
+ * - Registry Safety: deregistering from inside update() does not throw ConcurrentModificationException
+ * - Registered and Subscribed: an observer that is both gets one mailbox, so its calls never overlap
+ */
+public class AsyncObserverDispatchTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Asynchronous Observer Dispatch Test Suite ===\n");
+
+        testSlowObserverDoesNotDelayTicks();
+        testDeliveryOrder();
+        testDropNewestPolicy();
+        testDropOldestPolicy();
+        testDeregisterDuringNotification();
+        testRegisteredAndSubscribed();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Observer that takes a fixed time per update and counts what it received
+    private static class SlowObserver implements Observer {
+        private final long delayMillis;
+        private final CountDownLatch received;
+        final List<Double> prices = new ArrayList<>();
+
+        SlowObserver(long delayMillis, int expected) {
+            this.delayMillis = delayMillis;
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void update(String stockSymbol, double price) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (prices) {
+                prices.add(price);
+            }
+            received.countDown();
+        }
+
+        boolean await(long millis) throws InterruptedException {
+            return received.await(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Test 1: Slow Observer Does Not Delay Ticks
+     *
+     * A 200 ms observer and a fast observer are registered. Ten ticks are published
+     * and timed; synchronous dispatch would take at least 2 seconds, asynchronous
+     * dispatch should return almost immediately while the fast observer still
+     * receives every tick.
+     */
+    private static void testSlowObserverDoesNotDelayTicks() throws InterruptedException {
+        System.out.println("Test 1: Slow Observer Does Not Delay Ticks");
+        StockMarket stockMarket = new StockMarket(64, ObserverMailbox.OverflowPolicy.BLOCK);
+        SlowObserver slow = new SlowObserver(200, 10);
+        SlowObserver fast = new SlowObserver(0, 10);
+        stockMarket.registerObserver(slow);
+        stockMarket.registerObserver(fast);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            stockMarket.setStockPrice("AAPL", 150.0 + i);
+        }
+        long publishMillis = (System.nanoTime() - start) / 1_000_000;
+        boolean fastReceivedAll = fast.await(1000);
+
+        System.out.println("  - 10 ticks published in " + publishMillis + " ms (synchronous would need >= 2000 ms)");
+        System.out.println("  - Fast observer received all ticks: " + fastReceivedAll);
+        check(publishMillis < 500 && fastReceivedAll, "Ticks are not delayed by a slow subscriber");
+        stockMarket.close();
+    }
+
+    /**
+     * Test 2: Delivery Order
+     *
+     * Each observer's mailbox is a FIFO queue, so prices arrive in the order published.
+     */
+    private static void testDeliveryOrder() throws InterruptedException {
+        System.out.println("Test 2: Delivery Order");
+        StockMarket stockMarket = new StockMarket(1024, ObserverMailbox.OverflowPolicy.BLOCK);
+        SlowObserver observer = new SlowObserver(0, 500);
+        stockMarket.registerObserver(observer);
+        for (int i = 0; i < 500; i++) {
+            stockMarket.setStockPrice("MSFT", i);
+        }
+        boolean all = observer.await(2000);
+        boolean ordered = true;
+        synchronized (observer.prices) {
+            for (int i = 0; i < observer.prices.size(); i++) {
+                ordered &= observer.prices.get(i) == i;
+            }
+        }
+        System.out.println("  - All 500 updates received: " + all + ", in order: " + ordered);
+        check(all && ordered, "Updates are delivered in publication order");
+        stockMarket.close();
+    }
+
+    /**
+     * Test 3: DROP_NEWEST Policy
+     *
+     * A stalled observer with a 5-slot mailbox keeps the first updates and drops the rest.
+     */
+    private static void testDropNewestPolicy() throws InterruptedException {
+        System.out.println("Test 3: DROP_NEWEST Policy");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Double> received = new ArrayList<>();
+        Observer stalled = (symbol, price) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (received) {
+                received.add(price);
+            }
+        };
+        StockMarket stockMarket = new StockMarket(5, ObserverMailbox.OverflowPolicy.DROP_NEWEST);
+        stockMarket.registerObserver(stalled);
+        stockMarket.setStockPrice("TSLA", 0);
+        Thread.sleep(100); // Let the observer pick up the first update and stall on it
+        for (int i = 1; i <= 20; i++) {
+            stockMarket.setStockPrice("TSLA", i);
+        }
+        release.countDown();
+        Thread.sleep(200);
+        synchronized (received) {
+            System.out.println("  - Received: " + received);
+            check(received.size() == 6 && received.get(5) == 5.0, "Newest updates dropped once the mailbox is full");
+        }
+        stockMarket.close();
+    }
+
+    /**
+     * Test 4: DROP_OLDEST Policy
+     *
+     * The same stalled observer now keeps the most recent updates.
+     */
+    private static void testDropOldestPolicy() throws InterruptedException {
+        System.out.println("Test 4: DROP_OLDEST Policy");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Double> received = new ArrayList<>();
+        Observer stalled = (symbol, price) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (received) {
+                received.add(price);
+            }
+        };
+        StockMarket stockMarket = new StockMarket(5, ObserverMailbox.OverflowPolicy.DROP_OLDEST);
+        stockMarket.registerObserver(stalled);
+        stockMarket.setStockPrice("TSLA", 0);
+        Thread.sleep(100);
+        for (int i = 1; i <= 20; i++) {
+            stockMarket.setStockPrice("TSLA", i);
+        }
+        release.countDown();
+        Thread.sleep(200);
+        synchronized (received) {
+            System.out.println("  - Received: " + received);
+            check(received.size() == 6 && received.get(5) == 20.0, "Oldest updates dropped once the mailbox is full");
+        }
+        stockMarket.close();
+    }
+
+    /**
+     * Test 5: Deregister During Notification
+     *
+     * An observer that deregisters itself from inside update() used to throw
+     * ConcurrentModificationException from the ArrayList iterator.
+     */
+    private static void testDeregisterDuringNotification() {
+        System.out.println("Test 5: Deregister During Notification");
+        StockMarket stockMarket = new StockMarket();
+        AtomicInteger calls = new AtomicInteger();
+        Observer[] self = new Observer[1];
+        self[0] = (symbol, price) -> {
+            calls.incrementAndGet();
+            stockMarket.deregisterObserver(self[0]);
+        };
+        stockMarket.registerObserver(self[0]);
+        stockMarket.registerObserver(new WebApp("Still Registered"));
+        try {
+            stockMarket.setStockPrice("AMZN", 180.25);
+            stockMarket.setStockPrice("AMZN", 181.00);
+            check(calls.get() == 1, "Deregistration during notification is safe");
+        } catch (RuntimeException e) {
+            System.out.println("  - Exception: " + e);
+            check(false, "Deregistration during notification is safe");
+        }
+    }
+
+    /**
+     * Test 6: Registered and Subscribed
+     *
+     * A non-thread-safe observer is registered and also subscribed to AAPL, so
+     * every AAPL tick reaches it twice. With one mailbox the two deliveries run
+     * one after the other on the same thread: update() never overlaps itself and
+     * the prices never go backwards. Deregistering closes the mailbox.
+     */
+    private static void testRegisteredAndSubscribed() throws InterruptedException {
+        System.out.println("Test 6: Registered and Subscribed");
+        StockMarket stockMarket = new StockMarket(1024, ObserverMailbox.OverflowPolicy.BLOCK);
+        CountDownLatch received = new CountDownLatch(400);
+        List<Double> prices = new ArrayList<>(); // Not synchronized on purpose
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        Observer unsafe = (symbol, price) -> {
+            if (inside.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            Thread.yield();
+            prices.add(price);
+            inside.decrementAndGet();
+            received.countDown();
+        };
+        stockMarket.registerObserver(unsafe);
+        stockMarket.subscribe(unsafe, "AAPL");
+        for (int i = 0; i < 200; i++) {
+            stockMarket.setStockPrice("AAPL", i);
+        }
+        boolean all = received.await(2, TimeUnit.SECONDS);
+        boolean ordered = true;
+        for (int i = 1; i < prices.size(); i++) {
+            ordered &= prices.get(i) >= prices.get(i - 1);
+        }
+        stockMarket.deregisterObserver(unsafe);
+        stockMarket.setStockPrice("AAPL", 1_000);
+        Thread.sleep(100);
+
+        System.out.println("  - Received " + prices.size() + " of 400 updates, overlapping calls: " + overlaps.get()
+                + ", in order: " + ordered);
+        check(all && overlaps.get() == 0 && ordered && prices.size() == 400,
+                "An observer that is registered and subscribed is called serially");
+        stockMarket.close();
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
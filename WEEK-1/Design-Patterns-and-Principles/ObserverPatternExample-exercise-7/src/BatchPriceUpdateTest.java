@@ -0,0 +1,186 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batch Price Update Test Suite
+ *
+ * Validates StockMarket.setStockPrices:
+ * - Single Notification: each observer is called once per batch with every entry
+ * - Subscriber View: symbol subscribers only see their own entries
+ * - Atomic Apply: readers never see half of a batch
+ * - Asynchronous Mode: a batch takes one mailbox slot and arrives as one updateBatch call
+ */
+public class BatchPriceUpdateTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Batch Price Update Test Suite ===\n");
+
+        testObserverNotifiedOncePerBatch();
+        testSubscriberSeesOnlyItsEntries();
+        testBatchAppliedAtomically();
+        testAsynchronousBatch();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Records each batch it receives as a list of "SYMBOL=price" strings
+    private static class BatchRecorder implements Observer {
+        final List<List<String>> batches = new ArrayList<>();
+        int singleUpdates;
+
+        @Override
+        public synchronized void update(String stockSymbol, double price) {
+            singleUpdates++;
+        }
+
+        @Override
+        public synchronized void updateBatch(PriceBatch batch) {
+            List<String> entries = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                entries.add(batch.getSymbol(i) + "=" + batch.getPrice(i));
+            }
+            batches.add(entries);
+        }
+
+        synchronized List<List<String>> snapshot() {
+            return new ArrayList<>(batches);
+        }
+    }
+
+    /**
+     * Test 1: Observer Notified Once Per Batch
+     *
+     * A three-symbol batch reaches a registered observer as one updateBatch call,
+     * and an observer without updateBatch still gets every entry through update.
+     */
+    private static void testObserverNotifiedOncePerBatch() {
+        System.out.println("Test 1: Observer Notified Once Per Batch");
+        StockMarket stockMarket = new StockMarket();
+        BatchRecorder recorder = new BatchRecorder();
+        List<String> plain = new ArrayList<>();
+        stockMarket.registerObserver(recorder);
+        stockMarket.registerObserver((symbol, price) -> plain.add(symbol + "=" + price));
+
+        Map<String, Double> prices = new LinkedHashMap<>();
+        prices.put("AAPL", 150.0);
+        prices.put("MSFT", 310.0);
+        prices.put("GOOGL", 2800.0);
+        stockMarket.setStockPrices(prices);
+
+        System.out.println("  - Batches received: " + recorder.snapshot());
+        System.out.println("  - Plain observer received: " + plain);
+        check(recorder.snapshot().equals(List.of(List.of("AAPL=150.0", "MSFT=310.0", "GOOGL=2800.0")))
+                && recorder.singleUpdates == 0 && plain.size() == 3,
+                "Each observer is notified once with the whole batch");
+    }
+
+    /**
+     * Test 2: Subscriber Sees Only Its Entries
+     */
+    private static void testSubscriberSeesOnlyItsEntries() {
+        System.out.println("Test 2: Subscriber Sees Only Its Entries");
+        StockMarket stockMarket = new StockMarket();
+        BatchRecorder subscriber = new BatchRecorder();
+        BatchRecorder uninterested = new BatchRecorder();
+        stockMarket.subscribe(subscriber, "MSFT", "TSLA");
+        stockMarket.subscribe(uninterested, "AMZN");
+
+        stockMarket.setStockPrices(new String[] {"AAPL", "MSFT", "GOOGL", "TSLA"},
+                new double[] {150.0, 310.0, 2800.0, 250.0});
+
+        System.out.println("  - Subscriber received: " + subscriber.snapshot());
+        check(subscriber.snapshot().equals(List.of(List.of("MSFT=310.0", "TSLA=250.0")))
+                && uninterested.snapshot().isEmpty() && stockMarket.getStockPrice("GOOGL") == 2800.0,
+                "Subscribers receive one view restricted to their symbols");
+    }
+
+    /**
+     * Test 3: Batch Applied Atomically
+     *
+     * Batches set AAPL and MSFT to the same, increasing value. A reader that reads
+     * AAPL and then MSFT must never see MSFT behind AAPL, which would mean it saw
+     * part of a batch.
+     */
+    private static void testBatchAppliedAtomically() throws InterruptedException {
+        System.out.println("Test 3: Batch Applied Atomically");
+        StockMarket stockMarket = new StockMarket();
+        String[] symbols = {"AAPL", "MSFT"};
+        stockMarket.setStockPrices(symbols, new double[] {0, 0});
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                double aapl = stockMarket.getStockPrice("AAPL");
+                double msft = stockMarket.getStockPrice("MSFT");
+                if (msft < aapl) {
+                    torn.set(true);
+                }
+            }
+        });
+        reader.start();
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 1; i <= 200_000; i++) {
+                stockMarket.setStockPrices(symbols, new double[] {i, i});
+            }
+        } finally {
+            System.setOut(console);
+        }
+        running.set(false);
+        reader.join();
+
+        System.out.println("  - Partially applied batch observed: " + torn.get());
+        check(!torn.get(), "Readers never see a partially applied batch");
+    }
+
+    /**
+     * Test 4: Asynchronous Batch
+     *
+     * With a one-slot mailbox, a whole batch still fits and is delivered as one call.
+     */
+    private static void testAsynchronousBatch() throws InterruptedException {
+        System.out.println("Test 4: Asynchronous Batch");
+        CountDownLatch received = new CountDownLatch(1);
+        BatchRecorder recorder = new BatchRecorder() {
+            @Override
+            public void updateBatch(PriceBatch batch) {
+                super.updateBatch(batch);
+                received.countDown();
+            }
+        };
+        StockMarket stockMarket = new StockMarket(1, ObserverMailbox.OverflowPolicy.DROP_NEWEST);
+        stockMarket.registerObserver(recorder);
+        stockMarket.setStockPrices(new String[] {"AAPL", "MSFT", "TSLA"}, new double[] {150.0, 310.0, 250.0});
+        boolean delivered = received.await(1, TimeUnit.SECONDS);
+
+        System.out.println("  - Batches received: " + recorder.snapshot());
+        check(delivered && recorder.snapshot().size() == 1 && recorder.snapshot().get(0).size() == 3,
+                "A batch is queued and delivered as a single item");
+        stockMarket.close();
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Compares one setStockPrice call per symbol with one setStockPrices call per batch
+ *
+ * Console output is redirected to a discarding stream while measuring, so the
+ * numbers show dispatch cost rather than terminal speed. Throughput is reported
+ * in price updates per second.
+ */
+public class BatchUpdateBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    // Largest first: after a long single-observer run the JIT specialises the dispatch loop
+    // for one observer, and the 1000-observer numbers would mostly measure that deoptimisation
+    private static final int[] OBSERVER_COUNTS = {1000, 10, 1};
+
+    // Reads every price it receives and keeps the highest, like a simple dashboard widget
+    private static class HighWaterObserver implements Observer {
+        double high;
+
+        @Override
+        public void update(String stockSymbol, double price) {
+            if (price > high) {
+                high = price;
+            }
+        }
+
+        @Override
+        public void updateBatch(PriceBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                double price = batch.getPrice(i);
+                if (price > high) {
+                    high = price;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        String[] symbols = new String[BATCH_SIZE];
+        double[] prices = new double[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            symbols[i] = "SYM" + i;
+            prices[i] = 100.0 + i;
+        }
+
+        PrintStream console = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        console.println("=== Batch Update Throughput (" + BATCH_SIZE + " symbols per batch) ===");
+        for (int observerCount : OBSERVER_COUNTS) {
+            console.println("\n--- " + observerCount + " observer(s) ---");
+            // Several rounds per configuration, so each one is measured after the JIT has adapted to it
+            for (int round = 1; round <= 5; round++) {
+                StockMarket stockMarket = new StockMarket();
+                HighWaterObserver[] observers = new HighWaterObserver[observerCount];
+                System.setOut(discard);
+                for (int i = 0; i < observerCount; i++) {
+                    observers[i] = new HighWaterObserver();
+                    stockMarket.registerObserver(observers[i]);
+                }
+                // Keep the number of observer calls roughly constant across configurations
+                int batches = Math.max(200, 20_000 / observerCount);
+
+                long start = System.nanoTime();
+                for (int b = 0; b < batches; b++) {
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        stockMarket.setStockPrice(symbols[i], prices[i] + b);
+                    }
+                }
+                long perSymbol = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int b = 0; b < batches; b++) {
+                    prices[0] = 100.0 + b;
+                    stockMarket.setStockPrices(symbols, prices);
+                }
+                long batched = System.nanoTime() - start;
+                System.setOut(console);
+
+                long updates = (long) batches * BATCH_SIZE;
+                console.printf("Round %d: setStockPrice %,14.0f updates/s | setStockPrices %,14.0f updates/s (%.1fx)%n",
+                        round, updates * 1e9 / perSymbol, updates * 1e9 / batched,
+                        (double) perSymbol / batched);
+                if (observers[0].high == 0) {
+                    console.println("unexpected zero price");
+                }
+            }
+        }
+    }
+}
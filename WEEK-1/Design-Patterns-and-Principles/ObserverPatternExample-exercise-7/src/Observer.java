@@ -1,3 +1,13 @@
 public interface Observer {
     void update(String stockSymbol, double price);
+
+    /**
+     * Receives every update of one StockMarket.setStockPrices call at once.
+     * The default delivers the entries one by one through update.
+     */
+    default void updateBatch(PriceBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            update(batch.getSymbol(i), batch.getPrice(i));
+        }
+    }
 }
@@ -0,0 +1,237 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps an Observer so that updates are queued and delivered on the observer's own virtual thread
+ *
+ * StockMarket registers a mailbox instead of the observer itself when it runs in
+ * asynchronous mode, so a slow observer only delays its own updates. The queue is
+ * bounded; the OverflowPolicy decides what happens when the observer falls behind.
+ * With CONFLATE the mailbox keeps only the latest price per symbol, so a slow
+ * observer skips stale prices instead of working through a backlog.
+ */
+public class ObserverMailbox implements Observer {
+
+    /**
+     * What happens to a new update when the mailbox is full
+     */
+    public enum OverflowPolicy {
+        BLOCK,       // The publishing thread waits for space (back-pressure)
+        DROP_NEWEST, // The new update is discarded
+        DROP_OLDEST, // The oldest queued update is discarded to make room
+        CONFLATE     // A newer price replaces the queued price of the same symbol
+    }
+
+    // Stands in for a null symbol, which ConcurrentHashMap cannot store
+    private static final String NO_SYMBOL = new String("<none>");
+
+    // One queued item: a single price, or a whole batch when batch is set
+    private static final class PriceUpdate {
+        final String stockSymbol;
+        final double price;
+        final PriceBatch batch;
+
+        PriceUpdate(String stockSymbol, double price) {
+            this.stockSymbol = stockSymbol;
+            this.price = price;
+            this.batch = null;
+        }
+
+        PriceUpdate(PriceBatch batch) {
+            this.stockSymbol = null;
+            this.price = Double.NaN;
+            this.batch = batch;
+        }
+    }
+
+    private final Observer observer;
+    private final ArrayBlockingQueue<PriceUpdate> queue;
+    // CONFLATE only: latest undelivered price per symbol, and symbols in the order they became pending
+    private final ConcurrentHashMap<String, Double> latestPrices;
+    private final BlockingQueue<String> pendingSymbols;
+    private final OverflowPolicy policy;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * @param capacity queued updates before the overflow policy applies; with CONFLATE
+     *                 the backlog is bounded by the number of symbols instead
+     */
+    public ObserverMailbox(Observer observer, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive: " + capacity);
+        }
+        this.observer = observer;
+        this.policy = policy;
+        if (policy == OverflowPolicy.CONFLATE) {
+            this.queue = null;
+            this.latestPrices = new ConcurrentHashMap<>();
+            this.pendingSymbols = new LinkedBlockingQueue<>();
+        } else {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.latestPrices = null;
+            this.pendingSymbols = null;
+        }
+        this.worker = Thread.ofVirtual().name("observer-mailbox").start(this::drain);
+    }
+
+    /**
+     * Queues the update; never calls the wrapped observer on the caller's thread
+     */
+    @Override
+    public void update(String stockSymbol, double price) {
+        if (closed) {
+            return;
+        }
+        if (policy == OverflowPolicy.CONFLATE) {
+            String key = stockSymbol == null ? NO_SYMBOL : stockSymbol;
+            // Only the first pending price queues the symbol; later ones just overwrite it
+            if (latestPrices.put(key, price) == null) {
+                pendingSymbols.add(key);
+            } else {
+                dropped.increment();
+            }
+            return;
+        }
+        enqueue(new PriceUpdate(stockSymbol, price));
+    }
+
+    /**
+     * Queues the whole batch as one item, so it takes a single slot and a single
+     * updateBatch call; with CONFLATE each entry is conflated separately
+     */
+    @Override
+    public void updateBatch(PriceBatch batch) {
+        if (closed) {
+            return;
+        }
+        if (policy == OverflowPolicy.CONFLATE) {
+            for (int i = 0; i < batch.size(); i++) {
+                update(batch.getSymbol(i), batch.getPrice(i));
+            }
+            return;
+        }
+        enqueue(new PriceUpdate(batch));
+    }
+
+    private void enqueue(PriceUpdate update) {
+        switch (policy) {
+            case BLOCK:
+                try {
+                    queue.put(update);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(update)) {
+                    dropped.increment();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(update)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                break;
+        }
+    }
+
+    private void drain() {
+        if (policy == OverflowPolicy.CONFLATE) {
+            drainConflated();
+            return;
+        }
+        while (!closed) {
+            PriceUpdate update;
+            try {
+                update = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (update == null) {
+                continue;
+            }
+            try {
+                if (update.batch != null) {
+                    observer.updateBatch(update.batch);
+                } else {
+                    observer.update(update.stockSymbol, update.price);
+                }
+                delivered.increment();
+            } catch (RuntimeException e) {
+                // One failing update must not stop delivery of the next ones
+                failed.increment();
+            }
+        }
+    }
+
+    private void drainConflated() {
+        while (!closed) {
+            String key;
+            try {
+                key = pendingSymbols.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (key == null) {
+                continue;
+            }
+            // Removing after taking the symbol means a price published in between is still delivered
+            Double price = latestPrices.remove(key);
+            if (price == null) {
+                continue;
+            }
+            try {
+                observer.update(key == NO_SYMBOL ? null : key, price);
+                delivered.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+            }
+        }
+    }
+
+    /**
+     * Stops delivery; updates still queued are discarded
+     */
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        if (queue != null) {
+            queue.clear();
+        } else {
+            pendingSymbols.clear();
+            latestPrices.clear();
+        }
+    }
+
+    public Observer getObserver() {
+        return observer;
+    }
+
+    public int getQueuedCount() {
+        return queue != null ? queue.size() : pendingSymbols.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,78 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Compares the synchronous observer loop with the PriceEventPipeline
+ *
+ * Three consumers handle every tick. The synchronous numbers use the existing
+ * setStockPrice path with console output discarded; the pipeline numbers use
+ * StockMarket.publishTick and stop the clock once the slowest consumer has
+ * handled the last tick. Busy-spin needs a free core per consumer and degrades
+ * badly on machines with fewer cores than threads.
+ */
+public class PipelineBenchmark {
+
+    private static final int TICKS = 5_000_000;
+    private static final int CONSUMERS = 3;
+
+    // Keeps the highest price it has seen so the work cannot be optimised away
+    private static class HighWaterObserver implements Observer {
+        double high;
+
+        @Override
+        public void update(String stockSymbol, double price) {
+            if (price > high) {
+                high = price;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        PrintStream console = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        console.println("=== Tick Throughput (" + CONSUMERS + " consumers, " + TICKS + " ticks, "
+                + Runtime.getRuntime().availableProcessors() + " CPUs) ===");
+
+        for (int round = 1; round <= 3; round++) {
+            console.println("\n--- Round " + round + " ---");
+
+            StockMarket stockMarket = new StockMarket();
+            System.setOut(discard);
+            for (int i = 0; i < CONSUMERS; i++) {
+                stockMarket.registerObserver(new HighWaterObserver());
+            }
+            long start = System.nanoTime();
+            for (int tick = 0; tick < TICKS; tick++) {
+                stockMarket.setStockPrice("AAPL", tick);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.setOut(console);
+            report(console, "Synchronous setStockPrice", elapsed);
+
+            report(console, "Pipeline busySpin        ", runPipeline(WaitStrategy.busySpin()));
+            report(console, "Pipeline yielding        ", runPipeline(WaitStrategy.yielding()));
+            report(console, "Pipeline blocking        ", runPipeline(WaitStrategy.blocking()));
+        }
+    }
+
+    private static long runPipeline(WaitStrategy waitStrategy) {
+        PriceEventPipeline pipeline = new PriceEventPipeline(1 << 16, waitStrategy);
+        for (int i = 0; i < CONSUMERS; i++) {
+            pipeline.addObserver(new HighWaterObserver());
+        }
+        pipeline.start();
+        StockMarket stockMarket = new StockMarket();
+        stockMarket.attachPipeline(pipeline);
+
+        long start = System.nanoTime();
+        for (int tick = 0; tick < TICKS; tick++) {
+            stockMarket.publishTick("AAPL", tick);
+        }
+        pipeline.shutdown();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(PrintStream console, String label, long elapsedNanos) {
+        console.printf("%s: %,6d ms, %,14.0f ticks/s%n", label, elapsedNanos / 1_000_000, TICKS * 1e9 / elapsedNanos);
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Read-only view of a batch of price updates, backed by primitive arrays
+ *
+ * StockMarket.setStockPrices hands one batch to each observer instead of calling
+ * update once per symbol. A subscriber that only follows some of the symbols gets
+ * a view restricted to those entries; the arrays themselves are shared, never copied.
+ */
+public final class PriceBatch {
+
+    private final String[] symbols;
+    private final double[] prices;
+    private final int[] indices; // Entries visible through this view, or null for all of them
+    private final int size;
+
+    PriceBatch(String[] symbols, double[] prices) {
+        this(symbols, prices, null, symbols.length);
+    }
+
+    PriceBatch(String[] symbols, double[] prices, int[] indices, int size) {
+        this.symbols = symbols;
+        this.prices = prices;
+        this.indices = indices;
+        this.size = size;
+    }
+
+    // View of the given entries of the whole batch
+    PriceBatch restrict(int[] entries, int count) {
+        return new PriceBatch(symbols, prices, entries, count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getSymbol(int i) {
+        return symbols[index(i)];
+    }
+
+    public double getPrice(int i) {
+        return prices[index(i)];
+    }
+
+    private int index(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for batch of " + size);
+        }
+        return indices == null ? i : indices[i];
+    }
+}
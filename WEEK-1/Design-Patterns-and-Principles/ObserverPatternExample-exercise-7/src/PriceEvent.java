@@ -0,0 +1,31 @@
+/**
+ * Mutable price tick stored in a PriceEventPipeline slot
+ *
+ * Events are allocated once when the pipeline is created and overwritten for
+ * every tick, so publishing allocates nothing. A handler must not keep a
+ * reference to an event after onEvent returns.
+ */
+public final class PriceEvent {
+    private String stockSymbol;
+    private double price;
+    private long timestamp;
+
+    void set(String stockSymbol, double price, long timestamp) {
+        this.stockSymbol = stockSymbol;
+        this.price = price;
+        this.timestamp = timestamp;
+    }
+
+    public String getStockSymbol() {
+        return stockSymbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    // System.nanoTime() when the tick was published
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
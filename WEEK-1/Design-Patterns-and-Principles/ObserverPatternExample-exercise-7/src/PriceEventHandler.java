@@ -0,0 +1,11 @@
+/**
+ * Consumer callback of a PriceEventPipeline
+ */
+public interface PriceEventHandler {
+    /**
+     * @param event the tick; only valid until this method returns
+     * @param sequence position of the tick in the pipeline
+     * @param endOfBatch true for the last tick currently available, a good point to flush
+     */
+    void onEvent(PriceEvent event, long sequence, boolean endOfBatch);
+}
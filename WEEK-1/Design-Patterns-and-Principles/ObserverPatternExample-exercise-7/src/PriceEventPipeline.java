@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer ring buffer of price ticks with sequence-tracking consumers
+ *
+ * All PriceEvent slots are allocated up front. The publisher claims the next
+ * sequence, fills in the slot and advances its cursor; consumers read the slots
+ * behind the cursor on their own threads. A consumer can be declared to run
+ * after other consumers, and then sees each tick only once they have handled it.
+ * The publisher never overtakes the slowest last-stage consumer by more than
+ * the ring size, so nothing is lost and publishing waits when the ring is full.
+ *
+ * Only one thread may publish.
+ */
+public class PriceEventPipeline {
+
+    private final PriceEvent[] events;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence(-1L);
+    private final List<PriceEventProcessor> processors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    // Publisher-thread state
+    private long nextSequence = 0;
+    private long cachedGatingSequence = -1L;
+    private Sequence[] gatingSequences = new Sequence[0];
+    private volatile boolean started;
+
+    public PriceEventPipeline(int ringSize, WaitStrategy waitStrategy) {
+        if (ringSize < 2 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + ringSize);
+        }
+        this.events = new PriceEvent[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            events[i] = new PriceEvent();
+        }
+        this.mask = ringSize - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Adds a consumer
+     * @param handler called for every tick, in sequence order
+     * @param after consumers that must handle a tick before this one sees it
+     * @return the consumer, to be passed as a dependency of later consumers
+     */
+    public synchronized PriceEventProcessor addHandler(PriceEventHandler handler, PriceEventProcessor... after) {
+        if (started) {
+            throw new IllegalStateException("Consumers must be added before the pipeline is started");
+        }
+        Sequence[] dependencies;
+        if (after.length == 0) {
+            dependencies = new Sequence[] {cursor};
+        } else {
+            dependencies = new Sequence[after.length];
+            for (int i = 0; i < after.length; i++) {
+                if (!processors.contains(after[i])) {
+                    throw new IllegalArgumentException("Dependency is not part of this pipeline: " + after[i].getName());
+                }
+                dependencies[i] = after[i].getSequence();
+            }
+        }
+        PriceEventProcessor processor = new PriceEventProcessor("price-event-" + processors.size(),
+                events, handler, dependencies, waitStrategy);
+        processors.add(processor);
+        return processor;
+    }
+
+    /**
+     * Adds an existing observer as a consumer
+     */
+    public PriceEventProcessor addObserver(Observer observer, PriceEventProcessor... after) {
+        return addHandler((event, sequence, endOfBatch) -> observer.update(event.getStockSymbol(), event.getPrice()),
+                after);
+    }
+
+    /**
+     * Starts one thread per consumer
+     */
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        // The publisher only has to wait for consumers that nothing else depends on
+        Set<PriceEventProcessor> upstream = new HashSet<>();
+        for (PriceEventProcessor processor : processors) {
+            for (PriceEventProcessor other : processors) {
+                if (processor != other && dependsOn(other, processor)) {
+                    upstream.add(processor);
+                }
+            }
+        }
+        List<Sequence> gating = new ArrayList<>();
+        for (PriceEventProcessor processor : processors) {
+            if (!upstream.contains(processor)) {
+                gating.add(processor.getSequence());
+            }
+        }
+        gatingSequences = gating.toArray(new Sequence[0]);
+        for (PriceEventProcessor processor : processors) {
+            Thread thread = new Thread(processor, processor.getName());
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        started = true;
+        threads.forEach(Thread::start);
+    }
+
+    private static boolean dependsOn(PriceEventProcessor consumer, PriceEventProcessor dependency) {
+        for (Sequence sequence : consumer.dependencies()) {
+            if (sequence == dependency.getSequence()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publishes one tick; waits while the ring is full
+     */
+    public void publish(String stockSymbol, double price) {
+        long sequence = next();
+        events[(int) (sequence & mask)].set(stockSymbol, price, System.nanoTime());
+        cursor.set(sequence);
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    // Claims the next slot, waiting until the slowest last-stage consumer has freed it
+    private long next() {
+        if (!started) {
+            throw new IllegalStateException("Pipeline is not started");
+        }
+        long sequence = nextSequence;
+        long wrapPoint = sequence - events.length;
+        if (wrapPoint > cachedGatingSequence) {
+            long minimum;
+            int waits = 0;
+            while (wrapPoint > (minimum = Sequence.minimum(gatingSequences, sequence - 1))) {
+                if (waits++ < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(1L);
+                }
+            }
+            cachedGatingSequence = minimum;
+        }
+        nextSequence = sequence + 1;
+        return sequence;
+    }
+
+    /**
+     * Waits until every consumer has handled everything published so far, then stops them
+     */
+    public synchronized void shutdown() {
+        if (!started) {
+            return;
+        }
+        long last = cursor.get();
+        for (PriceEventProcessor processor : processors) {
+            while (processor.getProcessedSequence() < last) {
+                LockSupport.parkNanos(100_000L);
+            }
+        }
+        for (PriceEventProcessor processor : processors) {
+            processor.halt();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Highest sequence published so far
+    public long getPublishedSequence() {
+        return cursor.get();
+    }
+
+    public int getRingSize() {
+        return events.length;
+    }
+}
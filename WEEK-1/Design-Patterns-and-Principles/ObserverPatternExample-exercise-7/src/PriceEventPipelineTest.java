@@ -0,0 +1,166 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Price Event Pipeline Test Suite
+ *
+ * Validates the single-writer ring buffer pipeline:
+ * - Delivery: every consumer sees every tick, in order, with each wait strategy
+ * - Dependency Ordering: a downstream consumer never sees a tick before its upstream consumer
+ * - Wrap-Around: a small ring with a slow consumer blocks the publisher instead of losing ticks
+ * - StockMarket Integration: price changes and publishTick reach pipeline consumers
+ */
+public class PriceEventPipelineTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Price Event Pipeline Test Suite ===\n");
+
+        testDeliveryWithEachWaitStrategy();
+        testDependencyOrdering();
+        testWrapAroundWithSlowConsumer();
+        testStockMarketPublishesIntoPipeline();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Checks that prices arrive as 0, 1, 2, ... and counts them
+    private static class SequenceCheckingObserver implements Observer {
+        long received;
+        boolean ordered = true;
+
+        @Override
+        public void update(String stockSymbol, double price) {
+            ordered &= price == received;
+            received++;
+        }
+    }
+
+    /**
+     * Test 1: Delivery With Each Wait Strategy
+     *
+     * Two independent consumers receive 100,000 ticks through a 1024-slot ring.
+     */
+    private static void testDeliveryWithEachWaitStrategy() {
+        System.out.println("Test 1: Delivery With Each Wait Strategy");
+        String[] names = {"busySpin", "yielding", "blocking"};
+        WaitStrategy[] strategies = {WaitStrategy.busySpin(), WaitStrategy.yielding(), WaitStrategy.blocking()};
+        boolean allPassed = true;
+        for (int i = 0; i < strategies.length; i++) {
+            PriceEventPipeline pipeline = new PriceEventPipeline(1024, strategies[i]);
+            SequenceCheckingObserver first = new SequenceCheckingObserver();
+            SequenceCheckingObserver second = new SequenceCheckingObserver();
+            pipeline.addObserver(first);
+            pipeline.addObserver(second);
+            pipeline.start();
+            for (int tick = 0; tick < 100_000; tick++) {
+                pipeline.publish("AAPL", tick);
+            }
+            pipeline.shutdown();
+            boolean passed = first.received == 100_000 && second.received == 100_000 && first.ordered && second.ordered;
+            System.out.println("  - " + names[i] + ": received " + first.received + " / " + second.received
+                    + ", in order: " + (first.ordered && second.ordered));
+            allPassed &= passed;
+        }
+        check(allPassed, "Every consumer receives every tick in order");
+    }
+
+    /**
+     * Test 2: Dependency Ordering
+     *
+     * The second stage records a violation whenever it sees a tick the first stage has not handled yet.
+     */
+    private static void testDependencyOrdering() {
+        System.out.println("Test 2: Dependency Ordering");
+        PriceEventPipeline pipeline = new PriceEventPipeline(256, WaitStrategy.yielding());
+        AtomicLong firstStageSeen = new AtomicLong(-1);
+        AtomicInteger violations = new AtomicInteger();
+        AtomicLong secondStageSeen = new AtomicLong(-1);
+        PriceEventProcessor risk = pipeline.addHandler((event, sequence, endOfBatch) -> firstStageSeen.set(sequence));
+        pipeline.addHandler((event, sequence, endOfBatch) -> {
+            if (firstStageSeen.get() < sequence) {
+                violations.incrementAndGet();
+            }
+            secondStageSeen.set(sequence);
+        }, risk);
+        pipeline.start();
+        for (int tick = 0; tick < 200_000; tick++) {
+            pipeline.publish("MSFT", tick);
+        }
+        pipeline.shutdown();
+
+        System.out.println("  - Second stage handled up to " + secondStageSeen.get() + ", violations: " + violations.get());
+        check(violations.get() == 0 && secondStageSeen.get() == 199_999, "Downstream consumers run after their dependencies");
+    }
+
+    /**
+     * Test 3: Wrap-Around With Slow Consumer
+     *
+     * An 8-slot ring and a consumer that sleeps every 100 ticks: the publisher must
+     * wait for free slots rather than overwrite unread ticks.
+     */
+    private static void testWrapAroundWithSlowConsumer() {
+        System.out.println("Test 3: Wrap-Around With Slow Consumer");
+        PriceEventPipeline pipeline = new PriceEventPipeline(8, WaitStrategy.blocking());
+        SequenceCheckingObserver slow = new SequenceCheckingObserver() {
+            @Override
+            public void update(String stockSymbol, double price) {
+                if (received % 100 == 0) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.update(stockSymbol, price);
+            }
+        };
+        pipeline.addObserver(slow);
+        pipeline.start();
+        for (int tick = 0; tick < 2_000; tick++) {
+            pipeline.publish("TSLA", tick);
+        }
+        pipeline.shutdown();
+
+        System.out.println("  - Received " + slow.received + " ticks, in order: " + slow.ordered);
+        check(slow.received == 2_000 && slow.ordered, "No tick is overwritten before it is read");
+    }
+
+    /**
+     * Test 4: StockMarket Publishes Into Pipeline
+     */
+    private static void testStockMarketPublishesIntoPipeline() {
+        System.out.println("Test 4: StockMarket Publishes Into Pipeline");
+        StockMarket stockMarket = new StockMarket();
+        PriceEventPipeline pipeline = new PriceEventPipeline(64, WaitStrategy.yielding());
+        SequenceCheckingObserver consumer = new SequenceCheckingObserver();
+        pipeline.addObserver(consumer);
+        pipeline.start();
+        stockMarket.attachPipeline(pipeline);
+
+        stockMarket.setStockPrice("AAPL", 0);
+        stockMarket.setStockPrices(new String[] {"AAPL", "MSFT"}, new double[] {1, 2});
+        for (int tick = 3; tick < 1_000; tick++) {
+            stockMarket.publishTick("AAPL", tick);
+        }
+        pipeline.shutdown();
+
+        System.out.println("  - Pipeline consumer received " + consumer.received + " ticks, in order: " + consumer.ordered);
+        check(consumer.received == 1_000 && consumer.ordered, "Price changes and ticks reach pipeline consumers");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One consumer of a PriceEventPipeline, running on its own thread
+ *
+ * The processor tracks its own Sequence: every tick up to and including it has
+ * been handled. It only reads ticks that all of its dependencies have passed,
+ * which is the publisher for a first-stage consumer and the upstream consumers
+ * otherwise. All ticks available at once are handled as one batch.
+ */
+public final class PriceEventProcessor implements Runnable {
+
+    private final String name;
+    private final PriceEvent[] events;
+    private final int mask;
+    private final PriceEventHandler handler;
+    private final Sequence[] dependencies;
+    private final WaitStrategy waitStrategy;
+    private final Sequence sequence = new Sequence(-1L);
+    private volatile boolean running = true;
+    private final LongAdder failed = new LongAdder();
+
+    PriceEventProcessor(String name, PriceEvent[] events, PriceEventHandler handler,
+                        Sequence[] dependencies, WaitStrategy waitStrategy) {
+        this.name = name;
+        this.events = events;
+        this.mask = events.length - 1;
+        this.handler = handler;
+        this.dependencies = dependencies;
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (true) {
+            long available = waitStrategy.waitFor(next, dependencies, this::isRunning);
+            if (available < next) {
+                // Halted; everything published before the halt has already been handled
+                return;
+            }
+            for (long s = next; s <= available; s++) {
+                try {
+                    handler.onEvent(events[(int) (s & mask)], s, s == available);
+                } catch (RuntimeException e) {
+                    // One failing tick must not stop the consumer, or the publisher would stall
+                    failed.increment();
+                }
+            }
+            sequence.set(available);
+            waitStrategy.signalAllWhenBlocking();
+            next = available + 1;
+        }
+    }
+
+    void halt() {
+        running = false;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    private boolean isRunning() {
+        return running;
+    }
+
+    Sequence[] dependencies() {
+        return dependencies;
+    }
+
+    Sequence getSequence() {
+        return sequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Highest sequence this consumer has handled
+    public long getProcessedSequence() {
+        return sequence.get();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
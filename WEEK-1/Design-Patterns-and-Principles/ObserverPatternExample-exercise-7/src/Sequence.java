@@ -0,0 +1,58 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Position of the publisher or of one consumer in a PriceEventPipeline
+ *
+ * The value is padded on both sides so that sequences written by different
+ * threads never share a cache line.
+ */
+public final class Sequence {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Sequence.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+    private volatile long value;
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    public Sequence(long initialValue) {
+        this.value = initialValue;
+    }
+
+    public long get() {
+        return value;
+    }
+
+    /**
+     * Ordered write: everything written before it is visible to a thread that reads the new value
+     */
+    public void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    /**
+     * @return the smallest value among the sequences, or defaultValue when there are none
+     */
+    static long minimum(Sequence[] sequences, long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
@@ -1,39 +1,278 @@
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
 
 public class StockMarket implements Stock {
-    private List<Observer> observers;
+    // Copy-on-write, so observers can (de)register while a notification is in progress
+    // These observers receive every symbol's updates
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
     private String stockSymbol;
     private double stockPrice;
     
+    // Price table and per-symbol subscribers, one entry per symbol ever seen
+    private final Map<String, SymbolState> symbols = new ConcurrentHashMap<>();
+    // Held for writing while prices change, so a batch becomes visible all at once
+    private final StampedLock priceLock = new StampedLock();
+    
+    // One mailbox per observer, shared by its registration and all its symbol subscriptions,
+    // so its update() calls never overlap (asynchronous mode only)
+    private final Map<Observer, ObserverMailbox> mailboxes = new ConcurrentHashMap<>();
+    
+    // Optional tick pipeline that every price change is also published into
+    private volatile PriceEventPipeline pipeline;
+    
+    // Asynchronous mode: each observer is wrapped in its own bounded mailbox
+    private final boolean asynchronous;
+    private final int mailboxCapacity;
+    private final ObserverMailbox.OverflowPolicy overflowPolicy;
+    
+    private static final class SymbolState {
+        volatile double price = Double.NaN;
+        final CopyOnWriteArrayList<Observer> subscribers = new CopyOnWriteArrayList<>();
+    }
+    
+    // Positions in a batch that one symbol subscriber is interested in
+    private static final class IndexBuffer {
+        int[] indices = new int[8];
+        int size;
+        
+        void add(int index) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            indices[size++] = index;
+        }
+    }
+    
     public StockMarket() {
-        this.observers = new ArrayList<>();
+        this.asynchronous = false;
+        this.mailboxCapacity = 0;
+        this.overflowPolicy = null;
+    }
+    
+    /**
+     * Creates a stock market that notifies every observer on its own virtual thread
+     * @param mailboxCapacity updates queued per observer before the overflow policy applies
+     * @param overflowPolicy what to do when an observer falls behind
+     */
+    public StockMarket(int mailboxCapacity, ObserverMailbox.OverflowPolicy overflowPolicy) {
+        if (mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive: " + mailboxCapacity);
+        }
+        this.asynchronous = true;
+        this.mailboxCapacity = mailboxCapacity;
+        this.overflowPolicy = overflowPolicy;
     }
     
     @Override
     public void registerObserver(Observer observer) {
-        observers.add(observer);
+        observers.add(target(observer));
         System.out.println("Observer registered successfully.");
     }
     
+    /**
+     * Registers an observer for the given symbols only
+     * @param observer the observer to notify
+     * @param stockSymbols the symbols it is interested in
+     */
+    public void subscribe(Observer observer, String... stockSymbols) {
+        Objects.requireNonNull(observer, "observer");
+        Observer target = target(observer);
+        for (String symbol : stockSymbols) {
+            symbolState(symbol).subscribers.addIfAbsent(target);
+        }
+    }
+    
+    /**
+     * Stops notifying the observer about one symbol
+     */
+    public void unsubscribe(Observer observer, String stockSymbol) {
+        SymbolState state = symbols.get(stockSymbol);
+        if (state != null) {
+            Observer target = asynchronous && observer != null ? mailboxes.get(observer) : observer;
+            state.subscribers.remove(target);
+        }
+    }
+    
+    // What gets notified on the observer's behalf: its mailbox in asynchronous mode, else the observer
+    private Observer target(Observer observer) {
+        if (!asynchronous || observer == null) {
+            return observer;
+        }
+        return mailboxes.computeIfAbsent(observer, o -> new ObserverMailbox(o, mailboxCapacity, overflowPolicy));
+    }
+    
+    private SymbolState symbolState(String symbol) {
+        Objects.requireNonNull(symbol, "stockSymbol");
+        return symbols.computeIfAbsent(symbol, s -> new SymbolState());
+    }
+    
     @Override
     public void deregisterObserver(Observer observer) {
-        observers.remove(observer);
+        ObserverMailbox mailbox = asynchronous && observer != null ? mailboxes.get(observer) : null;
+        Observer target = mailbox != null ? mailbox : observer;
+        observers.remove(target); // One registration; a duplicate stays registered
+        // Also drop every per-symbol subscription of this observer
+        for (SymbolState state : symbols.values()) {
+            state.subscribers.remove(target);
+        }
+        if (mailbox != null && !observers.contains(mailbox)) {
+            mailboxes.remove(observer, mailbox);
+            mailbox.close();
+        }
         System.out.println("Observer deregistered successfully.");
     }
     
     @Override
     public void notifyObservers() {
+        String symbol;
+        double price;
+        long stamp = priceLock.readLock();
+        try {
+            symbol = stockSymbol;
+            price = stockPrice;
+        } finally {
+            priceLock.unlockRead(stamp);
+        }
+        notifyObservers(symbol, price);
+    }
+    
+    // Takes the update as arguments: the fields may already hold another caller's price
+    private void notifyObservers(String symbol, double price) {
         for (Observer observer : observers) {
-            observer.update(stockSymbol, stockPrice);
+            observer.update(symbol, price);
+        }
+        SymbolState state = symbol == null ? null : symbols.get(symbol);
+        if (state != null) {
+            for (Observer subscriber : state.subscribers) {
+                subscriber.update(symbol, price);
+            }
         }
     }
     
     public void setStockPrice(String stockSymbol, double stockPrice) {
-        this.stockSymbol = stockSymbol;
-        this.stockPrice = stockPrice;
+        long stamp = priceLock.writeLock();
+        try {
+            this.stockSymbol = stockSymbol;
+            this.stockPrice = stockPrice;
+            if (stockSymbol != null) {
+                symbolState(stockSymbol).price = stockPrice;
+            }
+        } finally {
+            priceLock.unlockWrite(stamp);
+        }
         System.out.println("\nStock price updated: " + stockSymbol + " = $" + stockPrice);
-        notifyObservers();
+        notifyObservers(stockSymbol, stockPrice);
+        PriceEventPipeline target = pipeline;
+        if (target != null) {
+            target.publish(stockSymbol, stockPrice);
+        }
+    }
+    
+    /**
+     * Publishes every subsequent price change into the pipeline as well
+     *
+     * The pipeline has a single writer, so prices must then be set from one thread.
+     * @param pipeline a started pipeline, or null to stop publishing
+     */
+    public void attachPipeline(PriceEventPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+    
+    /**
+     * Tick path: publishes the price into the attached pipeline only, without
+     * notifying observers, printing, or updating the price table
+     */
+    public void publishTick(String stockSymbol, double stockPrice) {
+        PriceEventPipeline target = pipeline;
+        if (target == null) {
+            throw new IllegalStateException("No pipeline attached");
+        }
+        target.publish(stockSymbol, stockPrice);
+    }
+    
+    /**
+     * Applies a batch of price changes atomically and notifies each observer once
+     *
+     * Registered observers receive the whole batch; symbol subscribers receive only
+     * the entries for their symbols. Later entries for the same symbol win.
+     * @param stockSymbols the symbols, parallel to stockPrices
+     * @param stockPrices the new prices
+     */
+    public void setStockPrices(String[] stockSymbols, double[] stockPrices) {
+        if (stockSymbols.length != stockPrices.length) {
+            throw new IllegalArgumentException("Got " + stockSymbols.length + " symbols but "
+                    + stockPrices.length + " prices");
+        }
+        int size = stockSymbols.length;
+        if (size == 0) {
+            return;
+        }
+        // Copy once, so the batch cannot change under asynchronous observers
+        PriceBatch batch = new PriceBatch(stockSymbols.clone(), stockPrices.clone());
+        SymbolState[] states = new SymbolState[size];
+        long stamp = priceLock.writeLock();
+        try {
+            for (int i = 0; i < size; i++) {
+                String symbol = batch.getSymbol(i);
+                if (symbol != null) {
+                    states[i] = symbolState(symbol);
+                    states[i].price = batch.getPrice(i);
+                }
+            }
+            this.stockSymbol = batch.getSymbol(size - 1);
+            this.stockPrice = batch.getPrice(size - 1);
+        } finally {
+            priceLock.unlockWrite(stamp);
+        }
+        System.out.println("\nStock prices updated: " + size + " changes");
+        
+        for (Observer observer : observers) {
+            observer.updateBatch(batch);
+        }
+        Map<Observer, IndexBuffer> subscriberEntries = null;
+        for (int i = 0; i < size; i++) {
+            if (states[i] == null || states[i].subscribers.isEmpty()) {
+                continue;
+            }
+            if (subscriberEntries == null) {
+                subscriberEntries = new IdentityHashMap<>();
+            }
+            for (Observer subscriber : states[i].subscribers) {
+                subscriberEntries.computeIfAbsent(subscriber, o -> new IndexBuffer()).add(i);
+            }
+        }
+        if (subscriberEntries != null) {
+            for (Map.Entry<Observer, IndexBuffer> entry : subscriberEntries.entrySet()) {
+                IndexBuffer entries = entry.getValue();
+                entry.getKey().updateBatch(batch.restrict(entries.indices, entries.size));
+            }
+        }
+        PriceEventPipeline target = pipeline;
+        if (target != null) {
+            for (int i = 0; i < size; i++) {
+                target.publish(batch.getSymbol(i), batch.getPrice(i));
+            }
+        }
+    }
+    
+    /**
+     * Map form of setStockPrices; the iteration order of the map is the batch order
+     */
+    public void setStockPrices(Map<String, Double> stockPrices) {
+        String[] stockSymbols = new String[stockPrices.size()];
+        double[] prices = new double[stockPrices.size()];
+        int i = 0;
+        for (Map.Entry<String, Double> entry : stockPrices.entrySet()) {
+            stockSymbols[i] = entry.getKey();
+            prices[i++] = entry.getValue();
+        }
+        setStockPrices(stockSymbols, prices);
     }
     
     public double getStockPrice() {
@@ -43,5 +282,49 @@ public class StockMarket implements Stock {
     public String getStockSymbol() {
         return stockSymbol;
     }
+    
+    /**
+     * @return the latest price of the symbol, or NaN if it has never been priced
+     */
+    public double getStockPrice(String stockSymbol) {
+        SymbolState state = stockSymbol == null ? null : symbols.get(stockSymbol);
+        if (state == null) {
+            return Double.NaN;
+        }
+        long stamp = priceLock.tryOptimisticRead();
+        double price = state.price;
+        if (!priceLock.validate(stamp)) {
+            // A batch was being applied; wait for it to finish
+            stamp = priceLock.readLock();
+            try {
+                price = state.price;
+            } finally {
+                priceLock.unlockRead(stamp);
+            }
+        }
+        return price;
+    }
+    
+    public int getSymbolCount() {
+        return symbols.size();
+    }
+    
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+    
+    /**
+     * Stops every observer mailbox; only needed in asynchronous mode
+     */
+    public void close() {
+        for (ObserverMailbox mailbox : mailboxes.values()) {
+            mailbox.close();
+        }
+        observers.clear();
+        mailboxes.clear();
+        for (SymbolState state : symbols.values()) {
+            state.subscribers.clear();
+        }
+    }
 
 }
@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Symbol Subscription Test Suite
+ *
+ * Validates per-symbol subscriptions on StockMarket:
+ * - Routing: a subscriber only receives the symbols it subscribed to
+ * - Price Table: the latest price of every symbol is kept and can be queried
+ * - Unsubscribe: unsubscribe and deregisterObserver remove symbol subscriptions
+ * - Conflation: a slow observer with a CONFLATE mailbox only receives the latest price per symbol
+ */
+public class SymbolSubscriptionTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Symbol Subscription Test Suite ===\n");
+
+        testSubscriberReceivesOnlyItsSymbols();
+        testPriceTable();
+        testUnsubscribe();
+        testConflation();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Records "SYMBOL=price" for every update it receives
+    private static class RecordingObserver implements Observer {
+        final List<String> updates = new ArrayList<>();
+
+        @Override
+        public synchronized void update(String stockSymbol, double price) {
+            updates.add(stockSymbol + "=" + price);
+        }
+
+        synchronized List<String> snapshot() {
+            return new ArrayList<>(updates);
+        }
+    }
+
+    /**
+     * Test 1: Subscriber Receives Only Its Symbols
+     *
+     * One observer subscribes to AAPL and MSFT, another is registered for everything.
+     */
+    private static void testSubscriberReceivesOnlyItsSymbols() {
+        System.out.println("Test 1: Subscriber Receives Only Its Symbols");
+        StockMarket stockMarket = new StockMarket();
+        RecordingObserver subscriber = new RecordingObserver();
+        RecordingObserver everything = new RecordingObserver();
+        stockMarket.subscribe(subscriber, "AAPL", "MSFT");
+        stockMarket.registerObserver(everything);
+
+        stockMarket.setStockPrice("AAPL", 150.0);
+        stockMarket.setStockPrice("GOOGL", 2800.0);
+        stockMarket.setStockPrice("MSFT", 310.0);
+
+        System.out.println("  - Subscriber received: " + subscriber.snapshot());
+        System.out.println("  - Registered observer received: " + everything.snapshot());
+        check(subscriber.snapshot().equals(List.of("AAPL=150.0", "MSFT=310.0"))
+                && everything.snapshot().size() == 3, "Updates are routed by symbol");
+    }
+
+    /**
+     * Test 2: Price Table
+     *
+     * The market keeps the latest price of every symbol, not only the last one set.
+     */
+    private static void testPriceTable() {
+        System.out.println("Test 2: Price Table");
+        StockMarket stockMarket = new StockMarket();
+        stockMarket.setStockPrice("AAPL", 150.0);
+        stockMarket.setStockPrice("MSFT", 310.0);
+        stockMarket.setStockPrice("AAPL", 152.5);
+
+        System.out.println("  - AAPL: " + stockMarket.getStockPrice("AAPL") + ", MSFT: " + stockMarket.getStockPrice("MSFT")
+                + ", TSLA: " + stockMarket.getStockPrice("TSLA"));
+        check(stockMarket.getStockPrice("AAPL") == 152.5 && stockMarket.getStockPrice("MSFT") == 310.0
+                && Double.isNaN(stockMarket.getStockPrice("TSLA")) && stockMarket.getSymbolCount() == 2,
+                "Latest price is kept per symbol");
+    }
+
+    /**
+     * Test 3: Unsubscribe
+     *
+     * unsubscribe removes one symbol; deregisterObserver removes all of them.
+     */
+    private static void testUnsubscribe() {
+        System.out.println("Test 3: Unsubscribe");
+        StockMarket stockMarket = new StockMarket();
+        RecordingObserver subscriber = new RecordingObserver();
+        stockMarket.subscribe(subscriber, "AAPL", "MSFT", "TSLA");
+
+        stockMarket.unsubscribe(subscriber, "MSFT");
+        stockMarket.setStockPrice("AAPL", 150.0);
+        stockMarket.setStockPrice("MSFT", 310.0);
+        stockMarket.deregisterObserver(subscriber);
+        stockMarket.setStockPrice("TSLA", 250.0);
+
+        System.out.println("  - Received: " + subscriber.snapshot());
+        check(subscriber.snapshot().equals(List.of("AAPL=150.0")), "Unsubscribed symbols are no longer delivered");
+    }
+
+    /**
+     * Test 4: Conflation
+     *
+     * A stalled subscriber misses twenty ticks on each of two symbols. Once released
+     * it receives the tick it was stuck on and then only the latest price per symbol.
+     */
+    private static void testConflation() throws InterruptedException {
+        System.out.println("Test 4: Conflation");
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver received = new RecordingObserver() {
+            @Override
+            public void update(String stockSymbol, double price) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.update(stockSymbol, price);
+            }
+        };
+        StockMarket stockMarket = new StockMarket(1, ObserverMailbox.OverflowPolicy.CONFLATE);
+        stockMarket.subscribe(received, "AAPL", "MSFT");
+        stockMarket.setStockPrice("AAPL", 0);
+        Thread.sleep(100); // Let the observer pick up the first update and stall on it
+        for (int i = 1; i <= 20; i++) {
+            stockMarket.setStockPrice("AAPL", i);
+            stockMarket.setStockPrice("MSFT", 300 + i);
+        }
+        release.countDown();
+        Thread.sleep(200);
+
+        System.out.println("  - Received: " + received.snapshot());
+        check(received.snapshot().equals(List.of("AAPL=0.0", "AAPL=20.0", "MSFT=320.0")),
+                "Only the latest price per symbol is delivered");
+        stockMarket.close();
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a PriceEventPipeline consumer waits for the next tick
+ *
+ * busySpin gives the lowest latency but keeps a core fully busy per consumer;
+ * yielding spins briefly and then gives the core away; blocking parks the
+ * consumer until the publisher or an upstream consumer signals it.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until every dependency has reached the sequence
+     * @param sequence the sequence the consumer wants to read
+     * @param dependencies the publisher cursor, or the upstream consumers
+     * @param running becomes false when the consumer is halted
+     * @return the highest sequence available, which may be lower than requested if halted
+     */
+    long waitFor(long sequence, Sequence[] dependencies, BooleanSupplier running);
+
+    /**
+     * Called whenever a sequence advances; only the blocking strategy needs it
+     */
+    default void signalAllWhenBlocking() {
+    }
+
+    static WaitStrategy busySpin() {
+        return (sequence, dependencies, running) -> {
+            long available;
+            while ((available = Sequence.minimum(dependencies, Long.MAX_VALUE)) < sequence && running.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return available;
+        };
+    }
+
+    static WaitStrategy yielding() {
+        return (sequence, dependencies, running) -> {
+            long available;
+            int spins = 100;
+            while ((available = Sequence.minimum(dependencies, Long.MAX_VALUE)) < sequence && running.getAsBoolean()) {
+                if (spins > 0) {
+                    spins--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        };
+    }
+
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+
+    final class BlockingWaitStrategy implements WaitStrategy {
+        // Re-check periodically, so a halt is noticed without a signal
+        private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition advanced = lock.newCondition();
+        private volatile int waiters;
+
+        private BlockingWaitStrategy() {
+        }
+
+        @Override
+        public long waitFor(long sequence, Sequence[] dependencies, BooleanSupplier running) {
+            long available = Sequence.minimum(dependencies, Long.MAX_VALUE);
+            if (available >= sequence) {
+                return available;
+            }
+            lock.lock();
+            try {
+                waiters++;
+                while ((available = Sequence.minimum(dependencies, Long.MAX_VALUE)) < sequence
+                        && running.getAsBoolean()) {
+                    advanced.awaitNanos(MAX_PARK_NANOS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiters--;
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            // Skip the lock entirely while nobody is waiting
+            if (waiters > 0) {
+                lock.lock();
+                try {
+                    advanced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Second cache tier that keeps image data on local disk across restarts
+ *
+ * Each image is stored in its own file, named by the SHA-256 of its filename.
+ * An index file records the filename, size, store time and last access of
+ * every entry, so the tier is rebuilt on startup. The index is rewritten after
+ * every INDEX_WRITE_BATCH stored or removed images and on flush(), not on every
+ * put; startup drops index entries whose file is missing or has the wrong
+ * size and deletes files the index does not list. The total size is bounded;
+ * the least recently used files are deleted first. Entries older than the
+ * time-to-live are revalidated: the image is fetched again and the stored copy
+ * is kept if it is unchanged, or replaced otherwise. The simulated remote
+ * server has no conditional request, so revalidation always downloads the image.
+ *
+ * The lock only guards the in-memory index. Loads from the remote server and
+ * all file reads, writes and deletes run outside it; ImageCache, in front of
+ * this tier, already makes sure one image is not loaded twice at the same time.
+ * A file that changes underneath an entry is caught by the size check on read
+ * and the entry is dropped.
+ */
+class DiskImageCache {
+
+    private static final int INDEX_MAGIC = 0x494D4743; // "IMGC"
+    private static final String INDEX_FILE = "index.dat";
+    private static final String DATA_SUFFIX = ".img";
+    private static final int INDEX_WRITE_BATCH = 32;
+
+    private static final class Entry {
+        final String filename;
+        final long size;
+        long storedAt;
+        long lastAccess;
+
+        Entry(String filename, long size, long storedAt, long lastAccess) {
+            this.filename = filename;
+            this.size = size;
+            this.storedAt = storedAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Access order: the least recently used entry comes first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    // Access times are only written with the next index write; stored and removed entries count towards a batch
+    private boolean indexDirty;
+    private int unsavedChanges;
+    // Serialises index writes, so an older snapshot never replaces a newer one
+    private final Object indexLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    DiskImageCache(Path directory, long maxBytes, long ttlMillis) {
+        this(directory, maxBytes, ttlMillis, System::currentTimeMillis);
+    }
+
+    DiskImageCache(Path directory, long maxBytes, long ttlMillis, LongSupplier clock) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("ttlMillis must be positive: " + ttlMillis);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            loadIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open disk image cache in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the image from disk, or loads it from the origin and stores it
+     */
+    RealImage get(String filename, Function<String, RealImage> origin) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(filename);
+        }
+        byte[] cached = entry == null ? null : read(entry);
+        boolean stale = false;
+        if (cached != null) {
+            synchronized (this) {
+                entry.lastAccess = clock.getAsLong();
+                indexDirty = true;
+                stale = entry.lastAccess - entry.storedAt >= ttlMillis;
+            }
+        }
+        if (cached != null && !stale) {
+            hits.increment();
+            return new RealImage(filename, cached);
+        }
+
+        RealImage loaded = origin.apply(filename);
+        if (cached != null) {
+            revalidations.increment();
+        } else {
+            misses.increment();
+        }
+        byte[] data = loaded == null ? null : loaded.getData();
+        if (data == null) {
+            // Nothing to compare or store; a stale copy stays until the next revalidation
+            return loaded;
+        }
+        if (cached != null && Arrays.equals(cached, data)) {
+            touchStoredAt(entry);
+            return loaded;
+        }
+        put(filename, data);
+        return loaded;
+    }
+
+    private synchronized void touchStoredAt(Entry entry) {
+        entry.storedAt = clock.getAsLong();
+        indexDirty = true;
+    }
+
+    void put(String filename, byte[] data) {
+        if (data.length > maxBytes) {
+            return; // Would evict everything else and still not fit
+        }
+        Path file = dataPath(filename);
+        try {
+            Path temp = Files.createTempFile(directory, "image", ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The disk tier is only an optimisation; the image was still loaded
+            System.out.println("Disk cache write failed for " + filename + ": " + e.getMessage());
+            return;
+        }
+        List<Path> evicted;
+        boolean writeIndex;
+        synchronized (this) {
+            Entry previous = entries.remove(filename);
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            long now = clock.getAsLong();
+            entries.put(filename, new Entry(filename, data.length, now, now));
+            totalBytes += data.length;
+            evicted = evictToFit();
+            writeIndex = indexChanged();
+        }
+        deleteQuietly(evicted);
+        if (writeIndex) {
+            flush();
+        }
+    }
+
+    // Removes least recently used entries until the budget is met; the caller deletes the returned files
+    private List<Path> evictToFit() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Entry> leastRecentFirst = entries.values().iterator();
+        while (totalBytes > maxBytes && leastRecentFirst.hasNext()) {
+            Entry victim = leastRecentFirst.next();
+            leastRecentFirst.remove();
+            totalBytes -= victim.size;
+            evicted.add(dataPath(victim.filename));
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    // Counts a stored or removed entry; true once a batch of them is waiting for the index
+    private boolean indexChanged() {
+        indexDirty = true;
+        return ++unsavedChanges >= INDEX_WRITE_BATCH;
+    }
+
+    // Reads the stored copy; null if the file is gone or damaged
+    private byte[] read(Entry entry) {
+        Path file = dataPath(entry.filename);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (data.length != entry.size) {
+                throw new IOException("Expected " + entry.size + " bytes but found " + data.length);
+            }
+            return data;
+        } catch (IOException e) {
+            boolean removed;
+            synchronized (this) {
+                // Only if no newer copy was stored in the meantime
+                removed = entries.remove(entry.filename, entry);
+                if (removed) {
+                    totalBytes -= entry.size;
+                    indexChanged();
+                }
+            }
+            if (removed && !(e instanceof NoSuchFileException)) {
+                deleteQuietly(file);
+            }
+            return null;
+        }
+    }
+
+    void invalidate(String filename) {
+        Entry entry;
+        boolean writeIndex = false;
+        synchronized (this) {
+            entry = entries.remove(filename);
+            if (entry != null) {
+                totalBytes -= entry.size;
+                writeIndex = indexChanged();
+            }
+        }
+        if (entry != null) {
+            deleteQuietly(dataPath(entry.filename));
+        }
+        if (writeIndex) {
+            flush();
+        }
+    }
+
+    void clear() {
+        List<Path> files = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                files.add(dataPath(entry.filename));
+            }
+            entries.clear();
+            totalBytes = 0;
+            indexDirty = true;
+        }
+        deleteQuietly(files);
+        flush();
+    }
+
+    /**
+     * Writes the index if anything changed since it was last written
+     */
+    void flush() {
+        synchronized (indexLock) {
+            List<Entry> snapshot = new ArrayList<>();
+            synchronized (this) {
+                if (!indexDirty) {
+                    return;
+                }
+                for (Entry entry : entries.values()) {
+                    snapshot.add(new Entry(entry.filename, entry.size, entry.storedAt, entry.lastAccess));
+                }
+                indexDirty = false;
+                unsavedChanges = 0;
+            }
+            if (!writeIndex(snapshot)) {
+                synchronized (this) {
+                    indexDirty = true;
+                }
+            }
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        Path index = directory.resolve(INDEX_FILE);
+        Set<String> indexed = new HashSet<>();
+        if (Files.exists(index)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(index))) {
+                if (in.readInt() != INDEX_MAGIC) {
+                    throw new IOException("Not a disk image cache index: " + index);
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    Entry entry = new Entry(in.readUTF(), in.readLong(), in.readLong(), in.readLong());
+                    // Skip entries whose data file did not survive
+                    Path file = dataPath(entry.filename);
+                    if (Files.exists(file) && Files.size(file) == entry.size) {
+                        entries.put(entry.filename, entry);
+                        totalBytes += entry.size;
+                        indexed.add(file.getFileName().toString());
+                    }
+                }
+            } catch (IOException e) {
+                // A damaged index only costs the cached data, never correctness
+                entries.clear();
+                indexed.clear();
+                totalBytes = 0;
+            }
+        }
+        // Remove data files without an index entry, e.g. from a crash before the index was written
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if ((name.endsWith(DATA_SUFFIX) && !indexed.contains(name)) || name.endsWith(".tmp")) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+        deleteQuietly(evictToFit());
+    }
+
+    // Replaces the index atomically, so a crash leaves either the old or the new one
+    private boolean writeIndex(List<Entry> snapshot) {
+        try {
+            Path temp = Files.createTempFile(directory, "index", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(snapshot.size());
+                for (Entry entry : snapshot) {
+                    out.writeUTF(entry.filename);
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.storedAt);
+                    out.writeLong(entry.lastAccess);
+                }
+            }
+            Files.move(temp, directory.resolve(INDEX_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Disk cache index write failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    Path dataPath(String filename) {
+        return directory.resolve(hash(filename) + DATA_SUFFIX);
+    }
+
+    private static String hash(String filename) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(filename.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+        }
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Retried when the directory is scanned on the next startup
+        }
+    }
+
+    synchronized boolean contains(String filename) {
+        return entries.containsKey(filename);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    long getHitCount() { return hits.sum(); }
+    long getMissCount() { return misses.sum(); }
+    long getRevalidationCount() { return revalidations.sum(); }
+    long getEvictionCount() { return evictions.sum(); }
+
+    @Override
+    public String toString() {
+        return String.format("DiskImageCache{size=%d, bytes=%d/%d, hits=%d, misses=%d, revalidations=%d, evictions=%d}",
+                size(), getTotalBytes(), maxBytes, getHitCount(), getMissCount(), getRevalidationCount(),
+                getEvictionCount());
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Disk Image Cache Test Suite
+ *
+ * Validates the disk-backed second cache tier:
+ * - Disk Hits: a stored image is read back without contacting the remote server
+ * - Restart: a new cache instance on the same directory finds the stored images
+ * - Size Bound: least recently used files are deleted once the budget is exceeded
+ * - TTL Revalidation: stale entries are fetched again, kept if unchanged and replaced if changed
+ * - Recovery: orphaned and damaged files are cleaned up on startup
+ * - Tiering: the memory cache falls back to disk before the remote server
+ * - Missing Data: an origin that returns no image or no data is passed through, nothing is stored
+ * - Index Batching: the index is written per batch of changes and on flush, not on every put
+ */
+public class DiskImageCacheTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Disk Image Cache Test Suite ===\n");
+
+        testDiskHit();
+        testSurvivesRestart();
+        testSizeBound();
+        testTtlRevalidation();
+        testRecoveryOnStartup();
+        testMemoryFallsBackToDisk();
+        testOriginWithoutData();
+        testIndexWrittenInBatches();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Stand-in for the remote server: counts requests and serves the current version of each image
+    private static class FakeOrigin implements Function<String, RealImage> {
+        final AtomicInteger requests = new AtomicInteger();
+        volatile int version = 0;
+        private final int sizeInBytes;
+
+        FakeOrigin(int sizeInBytes) {
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        @Override
+        public RealImage apply(String filename) {
+            requests.incrementAndGet();
+            byte[] data = new byte[sizeInBytes];
+            Arrays.fill(data, (byte) (filename.hashCode() + version));
+            return new RealImage(filename, data);
+        }
+    }
+
+    private static Path newDirectory() throws IOException {
+        return Files.createTempDirectory("disk-image-cache-test");
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Test 1: Disk Hit
+     */
+    private static void testDiskHit() throws IOException {
+        System.out.println("Test 1: Disk Hit");
+        Path directory = newDirectory();
+        FakeOrigin origin = new FakeOrigin(10_000);
+        DiskImageCache disk = new DiskImageCache(directory, 1_000_000, 60_000);
+        RealImage first = disk.get("photo.jpg", origin);
+        RealImage second = disk.get("photo.jpg", origin);
+
+        System.out.println("  - Remote requests: " + origin.requests.get() + ", " + disk);
+        check(origin.requests.get() == 1 && Arrays.equals(first.getData(), second.getData())
+                && Files.exists(disk.dataPath("photo.jpg")), "Stored image is served from disk");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 2: Survives Restart
+     */
+    private static void testSurvivesRestart() throws IOException {
+        System.out.println("Test 2: Survives Restart");
+        Path directory = newDirectory();
+        FakeOrigin origin = new FakeOrigin(10_000);
+        DiskImageCache before = new DiskImageCache(directory, 1_000_000, 60_000);
+        for (int i = 0; i < 5; i++) {
+            before.get("photo_" + i + ".jpg", origin);
+        }
+        before.flush();
+
+        DiskImageCache after = new DiskImageCache(directory, 1_000_000, 60_000);
+        for (int i = 0; i < 5; i++) {
+            after.get("photo_" + i + ".jpg", origin);
+        }
+        System.out.println("  - Remote requests: " + origin.requests.get() + ", after restart: " + after);
+        check(origin.requests.get() == 5 && after.getHitCount() == 5, "Stored images are found after a restart");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 3: Size Bound
+     *
+     * Room for three 100 KB images. image_0 is read again before image_3 arrives,
+     * so image_1 is the least recently used one and gets deleted.
+     */
+    private static void testSizeBound() throws IOException {
+        System.out.println("Test 3: Size Bound");
+        Path directory = newDirectory();
+        FakeOrigin origin = new FakeOrigin(100_000);
+        DiskImageCache disk = new DiskImageCache(directory, 300_000, 60_000);
+        disk.get("image_0.jpg", origin);
+        disk.get("image_1.jpg", origin);
+        disk.get("image_2.jpg", origin);
+        disk.get("image_0.jpg", origin);
+        disk.get("image_3.jpg", origin);
+
+        System.out.println("  - " + disk);
+        check(disk.getTotalBytes() <= 300_000 && !disk.contains("image_1.jpg") && disk.contains("image_0.jpg")
+                && !Files.exists(disk.dataPath("image_1.jpg")), "Least recently used file is deleted");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 4: TTL Revalidation
+     *
+     * With a 1-second TTL and a controllable clock: an unchanged image is kept and
+     * fresh for another TTL; a changed image replaces the stored copy.
+     */
+    private static void testTtlRevalidation() throws IOException {
+        System.out.println("Test 4: TTL Revalidation");
+        Path directory = newDirectory();
+        FakeOrigin origin = new FakeOrigin(1_000);
+        AtomicLong now = new AtomicLong(1_000_000);
+        DiskImageCache disk = new DiskImageCache(directory, 1_000_000, 1_000, now::get);
+        disk.get("logo.png", origin);
+
+        now.addAndGet(1_500);
+        disk.get("logo.png", origin);  // Stale, unchanged
+        disk.get("logo.png", origin);  // Fresh again
+        int afterUnchanged = origin.requests.get();
+
+        now.addAndGet(1_500);
+        origin.version = 1;
+        RealImage changed = disk.get("logo.png", origin);  // Stale, changed
+        RealImage reread = disk.get("logo.png", origin);
+
+        System.out.println("  - Requests after unchanged revalidation: " + afterUnchanged + ", total: " + origin.requests.get()
+                + ", revalidations: " + disk.getRevalidationCount());
+        check(afterUnchanged == 2 && origin.requests.get() == 3 && disk.getRevalidationCount() == 2
+                && Arrays.equals(changed.getData(), reread.getData()), "Stale entries are revalidated");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 5: Recovery On Startup
+     *
+     * A data file without an index entry and a truncated data file are both discarded.
+     */
+    private static void testRecoveryOnStartup() throws IOException {
+        System.out.println("Test 5: Recovery On Startup");
+        Path directory = newDirectory();
+        FakeOrigin origin = new FakeOrigin(10_000);
+        DiskImageCache disk = new DiskImageCache(directory, 1_000_000, 60_000);
+        disk.get("intact.jpg", origin);
+        disk.get("damaged.jpg", origin);
+        disk.flush();
+        Files.write(disk.dataPath("damaged.jpg"), new byte[10]);
+        Path orphan = directory.resolve("0123456789abcdef.img");
+        Files.write(orphan, new byte[10]);
+
+        DiskImageCache restarted = new DiskImageCache(directory, 1_000_000, 60_000);
+        System.out.println("  - After restart: " + restarted + ", orphan present: " + Files.exists(orphan));
+        check(restarted.contains("intact.jpg") && !restarted.contains("damaged.jpg") && !Files.exists(orphan),
+                "Orphaned and damaged files are discarded");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 6: Memory Falls Back To Disk
+     *
+     * Clearing the memory tier does not send requests to the remote server again.
+     */
+    private static void testMemoryFallsBackToDisk() throws IOException {
+        System.out.println("Test 6: Memory Falls Back To Disk");
+        Path directory = newDirectory();
+        FakeOrigin origin = new FakeOrigin(10_000);
+        DiskImageCache disk = new DiskImageCache(directory, 1_000_000, 60_000);
+        ImageCache memory = ImageCache.boundedByCount(10, filename -> disk.get(filename, origin));
+        memory.get("banner.jpg");
+        memory.invalidateAll();
+        memory.get("banner.jpg");
+
+        System.out.println("  - Remote requests: " + origin.requests.get() + ", memory loads: " + memory.getLoadCount()
+                + ", disk hits: " + disk.getHitCount());
+        check(origin.requests.get() == 1 && memory.getLoadCount() == 2 && disk.getHitCount() == 1,
+                "Memory misses are served from disk");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 7: Origin Without Data
+     *
+     * An origin that returns null, or an image without data, is passed through
+     * without an exception and nothing is stored. A stale copy stays in place.
+     */
+    private static void testOriginWithoutData() throws IOException {
+        System.out.println("Test 7: Origin Without Data");
+        Path directory = newDirectory();
+        AtomicLong now = new AtomicLong(1_000_000);
+        DiskImageCache disk = new DiskImageCache(directory, 1_000_000, 1_000, now::get);
+        RealImage none = disk.get("missing.jpg", filename -> null);
+        RealImage empty = disk.get("empty.jpg", filename -> new RealImage(filename, null));
+
+        disk.get("stale.jpg", new FakeOrigin(1_000));
+        now.addAndGet(1_500);
+        disk.get("stale.jpg", filename -> null);
+
+        System.out.println("  - " + disk);
+        check(none == null && empty != null && empty.getData() == null && !disk.contains("missing.jpg")
+                && !disk.contains("empty.jpg") && disk.contains("stale.jpg"), "Images without data are not stored");
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Test 8: Index Written In Batches
+     *
+     * A few puts leave the index unwritten until flush(); a restart then finds
+     * them. Enough puts without flush() write the index on their own.
+     */
+    private static void testIndexWrittenInBatches() throws IOException {
+        System.out.println("Test 8: Index Written In Batches");
+        Path directory = newDirectory();
+        Path index = directory.resolve("index.dat");
+        FakeOrigin origin = new FakeOrigin(1_000);
+        DiskImageCache disk = new DiskImageCache(directory, 1_000_000, 60_000);
+        for (int i = 0; i < 3; i++) {
+            disk.get("small_" + i + ".jpg", origin);
+        }
+        boolean writtenBeforeFlush = Files.exists(index);
+        disk.flush();
+        boolean writtenOnFlush = Files.exists(index);
+        int afterFlush = new DiskImageCache(directory, 1_000_000, 60_000).size();
+
+        Path batchDirectory = newDirectory();
+        DiskImageCache batched = new DiskImageCache(batchDirectory, 1_000_000, 60_000);
+        for (int i = 0; i < 40; i++) {
+            batched.get("batch_" + i + ".jpg", origin);
+        }
+        int afterBatch = new DiskImageCache(batchDirectory, 1_000_000, 60_000).size();
+
+        System.out.println("  - Index before flush: " + writtenBeforeFlush + ", after flush: " + writtenOnFlush
+                + ", restored: " + afterFlush + "; restored from the batched index: " + afterBatch + " of 40");
+        check(!writtenBeforeFlush && writtenOnFlush && afterFlush == 3 && afterBatch >= 32 && afterBatch < 40,
+                "The index is written per batch and on flush");
+        deleteDirectory(directory);
+        deleteDirectory(batchDirectory);
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
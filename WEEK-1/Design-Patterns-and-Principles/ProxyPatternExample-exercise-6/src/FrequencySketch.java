@@ -0,0 +1,80 @@
+/**
+ * Approximate access counts for the TinyLFU admission policy of ImageCache
+ *
+ * A count-min sketch of 4-bit counters, sixteen to a long. Each key updates
+ * one counter in each of four rows and its frequency is the smallest of the
+ * four. Once the number of increments reaches ten times the table width every
+ * counter is halved, so old popularity fades. Not thread-safe; ImageCache only
+ * uses it under its eviction lock.
+ */
+class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private long[] table = new long[0];
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        ensureCapacity(expectedEntries);
+    }
+
+    // Grows the table so that it can tell apart at least expectedEntries keys; resets all counts
+    void ensureCapacity(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(16, Math.min(expectedEntries, 1 << 24)) - 1) << 1;
+        if (width <= table.length) {
+            return;
+        }
+        table = new long[width];
+        tableMask = width - 1;
+        sampleSize = 10 * width;
+        additions = 0;
+    }
+
+    int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < 4; row++) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            int index = (int) (h >>> 32) & tableMask;
+            int shift = ((int) h & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(String key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < 4; row++) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            int index = (int) (h >>> 32) & tableMask;
+            int shift = ((int) h & 15) << 2;
+            if (((table[index] >>> shift) & 0xfL) != 0xfL) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    // Halves every counter
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
@@ -0,0 +1,577 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent, bounded cache of loaded images
+ *
+ * Each filename is loaded at most once at a time: concurrent requests for an
+ * image that is still loading wait for the same load instead of starting their
+ * own. The cache is bounded by a total weight, either the number of images or
+ * their estimated size in bytes, and evicts with W-TinyLFU: new images enter a
+ * small LRU window, and an image leaving the window only displaces the least
+ * recently used image of the main area if it has been requested more often,
+ * according to a FrequencySketch.
+ *
+ * Cache hits never block. They are recorded in a small lossy buffer that is
+ * applied to the eviction order by whichever thread next gets the eviction lock.
+ *
+ * Optionally, images expire a fixed time after they were loaded. An image read
+ * within the refresh-ahead period before its expiry is reloaded in the
+ * background while readers keep getting the current copy, so popular images
+ * are replaced without anyone waiting. Images nobody reads are dropped when
+ * they expire. Expiry is tracked in a TimingWheel.
+ */
+class ImageCache {
+
+    private static final int WINDOW = 0;
+    private static final int MAIN = 1;
+    private static final int REMOVED = 2;
+    private static final int READ_BUFFER_SIZE = 128;
+    // Default for getAsync: loads mostly wait on the remote server, so each gets its own virtual thread
+    static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("image-loader").start(task);
+    private static final long WHEEL_TICK_MILLIS = 64;
+
+    // One cached or loading image; its timer fires when it expires
+    private static final class Node extends TimingWheel.Timer {
+        final String key;
+        // Replaced by a completed future when a refresh succeeds
+        volatile CompletableFuture<RealImage> future = new CompletableFuture<>();
+        volatile long writeTime;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        long weight;
+        int queue = -1; // WINDOW, MAIN or REMOVED once it has been added to the policy
+        Node prev;      // Neighbours in its queue, guarded by the eviction lock
+        Node next;
+
+        Node(String key) {
+            this.key = key;
+        }
+
+        boolean isLoaded() {
+            return future.isDone() && !future.isCompletedExceptionally();
+        }
+    }
+
+    // Access-ordered queue with a sentinel; the least recently used node is sentinel.next
+    private static final class AccessQueue {
+        final Node sentinel = new Node(null);
+        long weight;
+
+        AccessQueue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        void addLast(Node node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            weight += node.weight;
+        }
+
+        void remove(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node node) {
+            remove(node);
+            addLast(node);
+        }
+
+        Node leastRecentlyUsed() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Node> nodes = new ConcurrentHashMap<>();
+    private final Function<String, RealImage> loader;
+    private final ToLongFunction<RealImage> weigher;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long expireAfterWriteMillis; // 0 when images never expire
+    private final long refreshAheadMillis;
+    private final LongSupplier clock;
+
+    // Eviction policy, guarded by evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AccessQueue window = new AccessQueue();
+    private final AccessQueue main = new AccessQueue();
+    private final FrequencySketch sketch;
+    private final TimingWheel timerWheel;
+    private volatile long nextExpiryCheck;
+
+    // Lossy buffer of recent hits
+    private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readsWritten = new AtomicLong();
+    private volatile long readsApplied;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    ImageCache(long maximumWeight, ToLongFunction<RealImage> weigher, Function<String, RealImage> loader) {
+        this(maximumWeight, weigher, loader, 0, 0, System::currentTimeMillis);
+    }
+
+    /**
+     * @param expireAfterWriteMillis how long a loaded image stays cached, or 0 for ever
+     * @param refreshAheadMillis how long before expiry a read triggers a background reload, or 0 for never
+     * @param clock current time in milliseconds
+     */
+    ImageCache(long maximumWeight, ToLongFunction<RealImage> weigher, Function<String, RealImage> loader,
+               long expireAfterWriteMillis, long refreshAheadMillis, LongSupplier clock) {
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("maximumWeight must be positive: " + maximumWeight);
+        }
+        if (expireAfterWriteMillis < 0 || refreshAheadMillis < 0 || refreshAheadMillis > expireAfterWriteMillis) {
+            throw new IllegalArgumentException("Need 0 <= refreshAheadMillis <= expireAfterWriteMillis, got "
+                    + refreshAheadMillis + " and " + expireAfterWriteMillis);
+        }
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.weigher = weigher;
+        this.loader = loader;
+        this.sketch = new FrequencySketch((int) Math.min(maximumWeight, 1024));
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.clock = clock;
+        this.timerWheel = expireAfterWriteMillis > 0 ? new TimingWheel(WHEEL_TICK_MILLIS, clock.getAsLong()) : null;
+    }
+
+    // Holds at most maxImages images
+    static ImageCache boundedByCount(int maxImages, Function<String, RealImage> loader) {
+        return new ImageCache(maxImages, image -> 1, loader);
+    }
+
+    // Holds images up to a total estimated size
+    static ImageCache boundedByBytes(long maxBytes, Function<String, RealImage> loader) {
+        return new ImageCache(maxBytes, RealImage::getSizeInBytes, loader);
+    }
+
+    /**
+     * Returns the cached image, loading it if needed; concurrent callers share one load
+     */
+    RealImage get(String filename) {
+        Node node = loadedNode(filename);
+        if (node != null) {
+            hits.increment();
+            return read(node);
+        }
+        Node created = new Node(filename);
+        node = nodes.putIfAbsent(filename, created);
+        if (node != null) {
+            // Someone else is loading it; if that load fails, every waiter sees its failure
+            // instead of starting another load, as with getAsync
+            hits.increment();
+            try {
+                return node.future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+        misses.increment();
+        return load(created);
+    }
+
+    /**
+     * Asynchronous get: returns at once and loads on a virtual thread if needed.
+     * Shares the load with concurrent get and getAsync calls for the same image.
+     */
+    CompletableFuture<RealImage> getAsync(String filename) {
+        return getAsync(filename, VIRTUAL_THREADS);
+    }
+
+    CompletableFuture<RealImage> getAsync(String filename, Executor executor) {
+        Node node = loadedNode(filename);
+        if (node != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(read(node));
+        }
+        Node created = new Node(filename);
+        node = nodes.putIfAbsent(filename, created);
+        if (node != null) {
+            hits.increment();
+            // A copy, so callers cannot complete or cancel the shared load
+            return node.future.copy();
+        }
+        misses.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    load(created);
+                } catch (RuntimeException | Error e) {
+                    // Already reported through the future
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor rejected the task; nobody will load it
+            nodes.remove(filename, created);
+            created.future.completeExceptionally(e);
+        }
+        return created.future.copy();
+    }
+
+    private RealImage load(Node node) {
+        long start = System.nanoTime();
+        RealImage image;
+        try {
+            image = loader.apply(node.key);
+            if (image == null) {
+                throw new IllegalStateException("Loader returned no image for " + node.key);
+            }
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            nodes.remove(node.key, node);
+            node.future.completeExceptionally(e);
+            throw e;
+        }
+        loads.increment();
+        totalLoadNanos.add(System.nanoTime() - start);
+        node.weight = Math.max(0, weigher.applyAsLong(image));
+        node.writeTime = clock.getAsLong();
+        node.future.complete(image);
+        admit(node);
+        return image;
+    }
+
+    /**
+     * @return the cached image, or null if it is not cached or still loading
+     */
+    RealImage getIfPresent(String filename) {
+        Node node = loadedNode(filename);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return read(node);
+    }
+
+    // True if the image is cached; does not count as an access
+    boolean contains(String filename) {
+        return loadedNode(filename) != null;
+    }
+
+    // The loaded node for the filename, or null; drops it on the spot if it has expired
+    private Node loadedNode(String filename) {
+        Node node = nodes.get(filename);
+        if (node == null || !node.isLoaded()) {
+            return null;
+        }
+        // An expired image still being refreshed is served stale rather than making the reader wait
+        if (timerWheel != null && clock.getAsLong() - node.writeTime >= expireAfterWriteMillis
+                && !node.refreshing.get()) {
+            evictionLock.lock();
+            try {
+                expireNode(node);
+            } finally {
+                evictionLock.unlock();
+            }
+            return null;
+        }
+        return node;
+    }
+
+    private RealImage read(Node node) {
+        RealImage image = node.future.join();
+        recordRead(node);
+        if (timerWheel != null) {
+            long now = clock.getAsLong();
+            if (refreshAheadMillis > 0 && now - node.writeTime >= expireAfterWriteMillis - refreshAheadMillis
+                    && node.refreshing.compareAndSet(false, true)) {
+                VIRTUAL_THREADS.execute(() -> refresh(node));
+            }
+            if (now >= nextExpiryCheck && evictionLock.tryLock()) {
+                try {
+                    maintenance(now);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+        }
+        return image;
+    }
+
+    // Reloads an image that is about to expire; readers keep getting the old copy meanwhile
+    private void refresh(Node node) {
+        try {
+            long start = System.nanoTime();
+            RealImage image = loader.apply(node.key);
+            if (image == null) {
+                throw new IllegalStateException("Loader returned no image for " + node.key);
+            }
+            loads.increment();
+            totalLoadNanos.add(System.nanoTime() - start);
+            evictionLock.lock();
+            try {
+                if (nodes.get(node.key) != node || (node.queue != WINDOW && node.queue != MAIN)) {
+                    return; // Expired, evicted or invalidated meanwhile
+                }
+                long weight = Math.max(0, weigher.applyAsLong(image));
+                (node.queue == WINDOW ? window : main).weight += weight - node.weight;
+                node.weight = weight;
+                node.writeTime = clock.getAsLong();
+                node.future = CompletableFuture.completedFuture(image);
+                timerWheel.schedule(node, node.writeTime + expireAfterWriteMillis);
+                refreshes.increment();
+                evict();
+            } finally {
+                evictionLock.unlock();
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the current copy; the next read near expiry tries again
+            refreshFailures.increment();
+        } finally {
+            node.refreshing.set(false);
+        }
+    }
+
+    // Applies buffered reads and drops expired images; called with the eviction lock held
+    private void maintenance(long now) {
+        drainReadBuffer();
+        if (timerWheel != null) {
+            timerWheel.advance(now, timer -> {
+                Node node = (Node) timer;
+                if (node.refreshing.get()) {
+                    // Served stale until the refresh finishes, as in loadedNode; look again next tick
+                    timerWheel.schedule(node, now + WHEEL_TICK_MILLIS);
+                } else {
+                    expireNode(node);
+                }
+            });
+            nextExpiryCheck = now + WHEEL_TICK_MILLIS;
+        }
+    }
+
+    private void expireNode(Node node) {
+        removeFromPolicy(node);
+        if (nodes.remove(node.key, node)) {
+            expirations.increment();
+        }
+    }
+
+    /**
+     * Runs pending maintenance now, e.g. to drop expired images while the cache is idle
+     */
+    void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance(clock.getAsLong());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void recordRead(Node node) {
+        long written = readsWritten.get();
+        if (written - readsApplied < READ_BUFFER_SIZE
+                && readsWritten.compareAndSet(written, written + 1)) {
+            readBuffer.lazySet((int) (written & (READ_BUFFER_SIZE - 1)), node);
+        }
+        // Otherwise the read is dropped; the eviction order is only approximate
+        if (written - readsApplied >= READ_BUFFER_SIZE / 2 && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        long applied = readsApplied;
+        long written = readsWritten.get();
+        for (; applied < written; applied++) {
+            int index = (int) (applied & (READ_BUFFER_SIZE - 1));
+            Node node = readBuffer.getAndSet(index, null);
+            if (node == null) {
+                break; // Claimed but not stored yet; pick it up next time
+            }
+            sketch.increment(node.key);
+            if (node.queue == WINDOW) {
+                window.moveToLast(node);
+            } else if (node.queue == MAIN) {
+                main.moveToLast(node);
+            }
+        }
+        readsApplied = applied;
+    }
+
+    private void admit(Node node) {
+        evictionLock.lock();
+        try {
+            maintenance(clock.getAsLong());
+            if (nodes.get(node.key) != node) {
+                return; // Invalidated while loading
+            }
+            sketch.ensureCapacity(nodes.size());
+            sketch.increment(node.key);
+            node.queue = WINDOW;
+            window.addLast(node);
+            if (timerWheel != null) {
+                timerWheel.schedule(node, node.writeTime + expireAfterWriteMillis);
+            }
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Moves overflow from the window into the main area, then evicts until the cache fits
+    private void evict() {
+        Node candidate = null;
+        while (window.weight > windowMaximum) {
+            Node overflow = window.leastRecentlyUsed();
+            window.remove(overflow);
+            overflow.queue = MAIN;
+            main.addLast(overflow);
+            candidate = candidate == null ? overflow : candidate;
+        }
+        while (window.weight + main.weight > maximumWeight) {
+            Node victim = main.leastRecentlyUsed();
+            if (victim == null) {
+                evictNode(window.leastRecentlyUsed());
+                continue;
+            }
+            if (candidate == null || candidate == victim || candidate.queue != MAIN) {
+                evictNode(victim);
+                continue;
+            }
+            // TinyLFU admission: keep whichever has been requested more often
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evictNode(victim);
+            } else {
+                Node next = candidate.next == main.sentinel ? null : candidate.next;
+                evictNode(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void evictNode(Node node) {
+        removeFromPolicy(node);
+        if (nodes.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    private void removeFromPolicy(Node node) {
+        if (node.queue == WINDOW) {
+            window.remove(node);
+        } else if (node.queue == MAIN) {
+            main.remove(node);
+        }
+        node.queue = REMOVED;
+        if (timerWheel != null) {
+            timerWheel.cancel(node);
+        }
+    }
+
+    void invalidate(String filename) {
+        Node node = nodes.remove(filename);
+        if (node != null) {
+            evictionLock.lock();
+            try {
+                removeFromPolicy(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    void invalidateAll() {
+        evictionLock.lock();
+        try {
+            for (Node node : nodes.values()) {
+                removeFromPolicy(node);
+            }
+            nodes.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Filenames of the cached images, excluding images still loading
+    List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.isLoaded()) {
+                keys.add(node.key);
+            }
+        }
+        return keys;
+    }
+
+    int size() {
+        return keys().size();
+    }
+
+    long weightedSize() {
+        evictionLock.lock();
+        try {
+            return window.weight + main.weight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    long getMaximumWeight() { return maximumWeight; }
+    long getHitCount() { return hits.sum(); }
+    long getMissCount() { return misses.sum(); }
+    long getEvictionCount() { return evictions.sum(); }
+    long getLoadCount() { return loads.sum(); }
+    long getLoadFailureCount() { return loadFailures.sum(); }
+    long getExpirationCount() { return expirations.sum(); }
+    long getRefreshCount() { return refreshes.sum(); }
+    long getRefreshFailureCount() { return refreshFailures.sum(); }
+
+    double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    double getAverageLoadMillis() {
+        long count = loads.sum();
+        return count == 0 ? 0.0 : totalLoadNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImageCache{size=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d, expirations=%d, "
+                        + "loads=%d, loadFailures=%d, refreshes=%d, avgLoad=%.1fms, hitRate=%.2f%%}",
+                size(), weightedSize(), maximumWeight, getHitCount(), getMissCount(), getEvictionCount(),
+                getExpirationCount(), getLoadCount(), getLoadFailureCount(), getRefreshCount(),
+                getAverageLoadMillis(), getHitRate() * 100);
+    }
+}
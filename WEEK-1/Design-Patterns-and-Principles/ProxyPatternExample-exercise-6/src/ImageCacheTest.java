@@ -0,0 +1,250 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Image Cache Test Suite
+ *
+ * Validates the concurrent, bounded ImageCache behind ProxyImage:
+ * - Single-Flight Loading: concurrent requests for one image trigger a single load
+ * - Count and Byte Bounds: the cache never grows past its maximum weight
+ * - Scan Resistance: frequently used images survive a scan of one-off images (W-TinyLFU)
+ * - Failed Loads: a failing load is not cached and is retried on the next request
+ * - Shared Failures: callers waiting on a failing load get its exception instead of loading again
+ * - Metrics: hits, misses, evictions and load time are reported
+ *
+ * The tests use a fast in-memory loader instead of the 2-second remote load.
+ */
+public class ImageCacheTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Image Cache Test Suite ===\n");
+
+        testSingleFlightLoading();
+        testCountBound();
+        testByteBound();
+        testScanResistance();
+        testFailedLoadIsRetried();
+        testSharedFailure();
+        testMetrics();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Loader that counts its calls per filename and takes delayMillis per image
+    private static class CountingLoader implements Function<String, RealImage> {
+        final ConcurrentHashMap<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        final AtomicInteger total = new AtomicInteger();
+        private final long delayMillis;
+        private final int sizeInBytes;
+
+        CountingLoader(long delayMillis, int sizeInBytes) {
+            this.delayMillis = delayMillis;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        @Override
+        public RealImage apply(String filename) {
+            calls.computeIfAbsent(filename, f -> new AtomicInteger()).incrementAndGet();
+            total.incrementAndGet();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new RealImage(filename, new byte[sizeInBytes]);
+        }
+    }
+
+    /**
+     * Test 1: Single-Flight Loading
+     *
+     * Eight threads display the same uncached image at once; only one of them loads it.
+     */
+    private static void testSingleFlightLoading() throws InterruptedException {
+        System.out.println("Test 1: Single-Flight Loading");
+        CountingLoader loader = new CountingLoader(300, 1024);
+        ImageCache cache = ImageCache.boundedByCount(10, loader);
+        CountDownLatch start = new CountDownLatch(1);
+        RealImage[] results = new RealImage[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                results[index] = cache.get("shared.jpg");
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        boolean sameInstance = true;
+        for (RealImage result : results) {
+            sameInstance &= result == results[0];
+        }
+        System.out.println("  - Loads: " + loader.total.get() + ", all threads got the same image: " + sameInstance);
+        check(loader.total.get() == 1 && sameInstance && results[0] != null, "Concurrent requests share one load");
+    }
+
+    /**
+     * Test 2: Count Bound
+     */
+    private static void testCountBound() {
+        System.out.println("Test 2: Count Bound");
+        ImageCache cache = ImageCache.boundedByCount(10, new CountingLoader(0, 1024));
+        for (int i = 0; i < 100; i++) {
+            cache.get("image_" + i + ".jpg");
+        }
+        System.out.println("  - " + cache);
+        check(cache.size() == 10 && cache.getEvictionCount() == 90, "Cache holds at most 10 images");
+    }
+
+    /**
+     * Test 3: Byte Bound
+     *
+     * 100 KB images in a 1 MB cache: at most 10 fit.
+     */
+    private static void testByteBound() {
+        System.out.println("Test 3: Byte Bound");
+        ImageCache cache = ImageCache.boundedByBytes(1024 * 1024, new CountingLoader(0, 100 * 1024));
+        for (int i = 0; i < 50; i++) {
+            cache.get("image_" + i + ".jpg");
+        }
+        System.out.println("  - " + cache);
+        check(cache.weightedSize() <= 1024 * 1024 && cache.size() == 10, "Cache stays within its byte budget");
+    }
+
+    /**
+     * Test 4: Scan Resistance
+     *
+     * Five images are displayed many times, then 200 other images are each
+     * displayed once. Plain LRU would evict the popular images; W-TinyLFU keeps them.
+     */
+    private static void testScanResistance() {
+        System.out.println("Test 4: Scan Resistance");
+        CountingLoader loader = new CountingLoader(0, 1024);
+        ImageCache cache = ImageCache.boundedByCount(20, loader);
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 5; i++) {
+                cache.get("popular_" + i + ".jpg");
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            cache.get("scan_" + i + ".jpg");
+        }
+        int retained = 0;
+        for (int i = 0; i < 5; i++) {
+            retained += cache.contains("popular_" + i + ".jpg") ? 1 : 0;
+        }
+        System.out.println("  - Popular images still cached after the scan: " + retained + " of 5");
+        check(retained == 5, "Frequently used images survive a scan");
+    }
+
+    /**
+     * Test 5: Failed Load Is Retried
+     */
+    private static void testFailedLoadIsRetried() {
+        System.out.println("Test 5: Failed Load Is Retried");
+        AtomicInteger attempts = new AtomicInteger();
+        ImageCache cache = ImageCache.boundedByCount(10, filename -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Remote server unavailable");
+            }
+            return new RealImage(filename, new byte[16]);
+        });
+        boolean firstFailed = false;
+        try {
+            cache.get("flaky.jpg");
+        } catch (IllegalStateException e) {
+            firstFailed = true;
+        }
+        RealImage second = cache.get("flaky.jpg");
+        System.out.println("  - First attempt failed: " + firstFailed + ", second attempt loaded: " + (second != null)
+                + ", failures: " + cache.getLoadFailureCount());
+        check(firstFailed && second != null && attempts.get() == 2 && cache.getLoadFailureCount() == 1,
+                "Failures are not cached");
+    }
+
+    /**
+     * Test 6: Shared Failure
+     *
+     * Eight threads wait on one slow load that fails. Each of them gets the
+     * loader's exception, and the loader runs once rather than once per waiter.
+     */
+    private static void testSharedFailure() throws InterruptedException {
+        System.out.println("Test 6: Shared Failure");
+        AtomicInteger attempts = new AtomicInteger();
+        ImageCache cache = ImageCache.boundedByCount(10, filename -> {
+            attempts.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Remote server unavailable");
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    cache.get("down.jpg");
+                } catch (IllegalStateException e) {
+                    failures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.println("  - Load attempts: " + attempts.get() + ", callers that got the failure: " + failures.get());
+        check(failures.get() == threads.length && attempts.get() == 1, "Waiters share the failure of one load");
+    }
+
+    /**
+     * Test 7: Metrics
+     */
+    private static void testMetrics() {
+        System.out.println("Test 7: Metrics");
+        ImageCache cache = ImageCache.boundedByCount(10, new CountingLoader(20, 1024));
+        cache.get("a.jpg");
+        cache.get("a.jpg");
+        cache.get("a.jpg");
+        cache.get("b.jpg");
+        cache.getIfPresent("c.jpg");
+        System.out.println("  - " + cache);
+        check(cache.getHitCount() == 2 && cache.getMissCount() == 3 && cache.getLoadCount() == 2
+                && cache.getAverageLoadMillis() >= 20, "Hits, misses and load time are counted");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
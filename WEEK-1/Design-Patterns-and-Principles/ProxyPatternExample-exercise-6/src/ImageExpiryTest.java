@@ -0,0 +1,248 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Image Expiry Test Suite
+ *
+ * Validates time-based expiry and refresh-ahead in ImageCache, using a manual clock:
+ * - Expiry: an image nobody reads is dropped once its time-to-live has passed
+ * - Refresh-Ahead: a read near expiry returns the current copy at once and reloads in the background
+ * - Refresh Failure: a failed refresh keeps the current copy until it expires
+ * - Wheel Advance During Refresh: the timing wheel does not expire an image while it is being refreshed
+ * - Timing Wheel: a million timers spread over 30 days each fire once, in the right tick
+ */
+public class ImageExpiryTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Image Expiry Test Suite ===\n");
+
+        testUnreadImageExpires();
+        testRefreshAhead();
+        testRefreshFailureKeepsCurrentCopy();
+        testWheelAdvanceDuringRefresh();
+        testTimingWheelAtScale();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Serves version-stamped images; each load takes delayMillis of real time
+    private static class VersionedOrigin implements Function<String, RealImage> {
+        final AtomicInteger loads = new AtomicInteger();
+        volatile int version = 0;
+        volatile boolean failing = false;
+        private final long delayMillis;
+
+        VersionedOrigin(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public RealImage apply(String filename) {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                throw new IllegalStateException("Remote server unavailable");
+            }
+            return new RealImage(filename, new byte[] {(byte) version});
+        }
+    }
+
+    private static int versionOf(RealImage image) {
+        return image.getData()[0];
+    }
+
+    /**
+     * Test 1: Unread Image Expires
+     */
+    private static void testUnreadImageExpires() {
+        System.out.println("Test 1: Unread Image Expires");
+        AtomicLong now = new AtomicLong(0);
+        VersionedOrigin origin = new VersionedOrigin(0);
+        ImageCache cache = new ImageCache(10, image -> 1, origin, 1_000, 200, now::get);
+        cache.get("photo.jpg");
+
+        now.set(900);
+        cache.cleanUp();
+        boolean cachedBeforeExpiry = cache.contains("photo.jpg");
+        now.set(1_100);
+        cache.cleanUp();
+        boolean cachedAfterExpiry = cache.contains("photo.jpg");
+
+        System.out.println("  - Cached at 900 ms: " + cachedBeforeExpiry + ", at 1100 ms: " + cachedAfterExpiry
+                + ", expirations: " + cache.getExpirationCount());
+        check(cachedBeforeExpiry && !cachedAfterExpiry && cache.getExpirationCount() == 1,
+                "Images expire after their time-to-live");
+    }
+
+    /**
+     * Test 2: Refresh-Ahead
+     *
+     * TTL 1000 ms, refresh window 300 ms, 200 ms loads. A read at 800 ms returns
+     * version 0 immediately and starts a reload; once it finishes, reads return
+     * version 1 and the image no longer expires at 1000 ms.
+     */
+    private static void testRefreshAhead() throws InterruptedException {
+        System.out.println("Test 2: Refresh-Ahead");
+        AtomicLong now = new AtomicLong(0);
+        VersionedOrigin origin = new VersionedOrigin(200);
+        ImageCache cache = new ImageCache(10, image -> 1, origin, 1_000, 300, now::get);
+        cache.get("banner.jpg");
+
+        origin.version = 1;
+        now.set(800);
+        long start = System.nanoTime();
+        RealImage during = cache.get("banner.jpg");
+        long readMillis = (System.nanoTime() - start) / 1_000_000;
+        Thread.sleep(400);
+        now.set(1_200);
+        RealImage after = cache.get("banner.jpg");
+
+        System.out.println("  - Read near expiry took " + readMillis + " ms and returned version " + versionOf(during)
+                + ", later read returned version " + versionOf(after) + ", refreshes: " + cache.getRefreshCount());
+        check(readMillis < 100 && versionOf(during) == 0 && versionOf(after) == 1 && cache.getRefreshCount() == 1
+                && origin.loads.get() == 2, "Images near expiry are refreshed in the background");
+    }
+
+    /**
+     * Test 3: Refresh Failure Keeps Current Copy
+     */
+    private static void testRefreshFailureKeepsCurrentCopy() throws InterruptedException {
+        System.out.println("Test 3: Refresh Failure Keeps Current Copy");
+        AtomicLong now = new AtomicLong(0);
+        VersionedOrigin origin = new VersionedOrigin(20);
+        ImageCache cache = new ImageCache(10, image -> 1, origin, 1_000, 300, now::get);
+        cache.get("logo.png");
+
+        origin.failing = true;
+        now.set(800);
+        RealImage during = cache.get("logo.png");
+        Thread.sleep(200);
+        boolean stillCached = cache.contains("logo.png");
+        now.set(1_100);
+        cache.cleanUp();
+
+        System.out.println("  - Served version " + versionOf(during) + ", cached after failed refresh: " + stillCached
+                + ", cached after expiry: " + cache.contains("logo.png")
+                + ", refresh failures: " + cache.getRefreshFailureCount());
+        check(versionOf(during) == 0 && stillCached && !cache.contains("logo.png") && cache.getRefreshFailureCount() == 1,
+                "A failed refresh keeps the current copy until expiry");
+    }
+
+    /**
+     * Test 4: Wheel Advance During Refresh
+     *
+     * TTL 1000 ms, 300 ms loads. A read at 800 ms starts a refresh, and the
+     * clock passes the deadline while it runs. cleanUp() advances the timing
+     * wheel, which must keep the stale copy instead of expiring it. When the
+     * refresh finishes, readers get version 1 without another load.
+     */
+    private static void testWheelAdvanceDuringRefresh() throws InterruptedException {
+        System.out.println("Test 4: Wheel Advance During Refresh");
+        AtomicLong now = new AtomicLong(0);
+        VersionedOrigin origin = new VersionedOrigin(300);
+        ImageCache cache = new ImageCache(10, image -> 1, origin, 1_000, 300, now::get);
+        cache.get("header.jpg");
+
+        origin.version = 1;
+        now.set(800);
+        cache.get("header.jpg");
+        now.set(1_100);
+        cache.cleanUp();
+        now.set(1_300);
+        cache.cleanUp();
+        boolean cachedDuringRefresh = cache.contains("header.jpg");
+        Thread.sleep(500);
+        RealImage after = cache.get("header.jpg");
+
+        System.out.println("  - Cached while refreshing past the deadline: " + cachedDuringRefresh
+                + ", later read returned version " + versionOf(after) + ", loads: " + origin.loads.get()
+                + ", expirations: " + cache.getExpirationCount() + ", refreshes: " + cache.getRefreshCount());
+        check(cachedDuringRefresh && versionOf(after) == 1 && origin.loads.get() == 2
+                && cache.getExpirationCount() == 0 && cache.getRefreshCount() == 1,
+                "The timing wheel keeps an image that is being refreshed");
+    }
+
+    // Records the time at which it fired
+    private static class TestTimer extends TimingWheel.Timer {
+        long expectedDeadline;
+        long firedAt = -1;
+    }
+
+    /**
+     * Test 5: Timing Wheel At Scale
+     *
+     * One million timers with deadlines up to 30 days out, past the range of the top
+     * wheel. The clock advances in random steps of up to 10 minutes. Every timer
+     * must fire exactly once, not before the tick of its deadline and no later than
+     * the advance that passes it. Rescheduling a live timer leaves size() unchanged.
+     */
+    private static void testTimingWheelAtScale() {
+        System.out.println("Test 5: Timing Wheel At Scale");
+        long tick = 64;
+        long horizon = 30L * 24 * 60 * 60 * 1000;
+        TimingWheel wheel = new TimingWheel(tick, 0);
+        SplittableRandom random = new SplittableRandom(7);
+        List<TestTimer> timers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000_000; i++) {
+            TestTimer timer = new TestTimer();
+            timer.expectedDeadline = random.nextLong(horizon);
+            wheel.schedule(timer, timer.expectedDeadline);
+            timers.add(timer);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            TestTimer timer = timers.get(i); // Rescheduling a live timer must not count it twice
+            wheel.schedule(timer, timer.expectedDeadline);
+        }
+        int scheduled = wheel.size();
+        long scheduledMillis = (System.nanoTime() - start) / 1_000_000;
+
+        AtomicInteger fired = new AtomicInteger();
+        AtomicInteger wrong = new AtomicInteger();
+        long[] now = {0};
+        start = System.nanoTime();
+        while (now[0] <= horizon + tick) {
+            long previous = now[0];
+            now[0] += 1 + random.nextLong(10 * 60 * 1000);
+            wheel.advance(now[0], t -> {
+                TestTimer timer = (TestTimer) t;
+                fired.incrementAndGet();
+                boolean early = timer.expectedDeadline / tick > now[0] / tick;
+                boolean late = timer.expectedDeadline / tick < previous / tick;
+                if (timer.firedAt >= 0 || early || late) {
+                    wrong.incrementAndGet();
+                }
+                timer.firedAt = now[0];
+            });
+        }
+        long advancedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("  - Scheduled 1,000,000 timers in " + scheduledMillis + " ms, advanced 30 days in "
+                + advancedMillis + " ms; size after rescheduling " + scheduled + ", fired " + fired.get() + ", wrong " + wrong.get() + ", left " + wheel.size());
+        check(scheduled == 1_000_000 && fired.get() == 1_000_000 && wrong.get() == 0 && wheel.size() == 0, "Every timer fires once, on time");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Image Prefetch Test Suite
+ *
+ * Validates asynchronous loading and prefetching:
+ * - Gallery Page: prefetching 50 images costs about one load latency, not 50
+ * - Bounded Concurrency: no more loads run at once than the prefetcher allows
+ * - Shared Loads: getAsync and a blocking get for the same image share one load
+ * - Failures: a failed prefetch is counted and does not fail the rest of the page
+ * - ProxyImage API: loadAsync and prefetch warm the shared cache
+ */
+public class ImagePrefetchTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Image Prefetch Test Suite ===\n");
+
+        testGalleryPagePrefetch();
+        testBoundedConcurrency();
+        testAsyncAndBlockingShareLoad();
+        testFailedPrefetch();
+        testProxyImageAsyncApi();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Loader that takes delayMillis per image and tracks how many loads run at once
+    private static class TrackingLoader implements Function<String, RealImage> {
+        final AtomicInteger loads = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        private final long delayMillis;
+
+        TrackingLoader(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public RealImage apply(String filename) {
+            loads.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            if (filename.startsWith("broken")) {
+                throw new IllegalStateException("Remote server returned 404 for " + filename);
+            }
+            return new RealImage(filename, new byte[1024]);
+        }
+    }
+
+    private static List<String> page(String prefix, int size) {
+        List<String> filenames = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            filenames.add(prefix + "_" + i + ".jpg");
+        }
+        return filenames;
+    }
+
+    /**
+     * Test 1: Gallery Page Prefetch
+     *
+     * 50 images with a 200 ms load each: sequentially 10 seconds, prefetched in parallel
+     * well under a second. Displaying them afterwards is all cache hits.
+     */
+    private static void testGalleryPagePrefetch() throws Exception {
+        System.out.println("Test 1: Gallery Page Prefetch");
+        TrackingLoader loader = new TrackingLoader(200);
+        ImageCache cache = ImageCache.boundedByCount(100, loader);
+        ImagePrefetcher prefetcher = new ImagePrefetcher(cache, 64);
+        List<String> filenames = page("gallery", 50);
+
+        long start = System.nanoTime();
+        prefetcher.prefetch(filenames).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long missesBefore = cache.getMissCount();
+        for (String filename : filenames) {
+            cache.get(filename);
+        }
+
+        System.out.println("  - 50 images prefetched in " + elapsedMillis + " ms (sequential: 10000 ms)");
+        check(elapsedMillis < 1000 && loader.loads.get() == 50 && cache.getMissCount() == missesBefore,
+                "A page of 50 images costs about one load latency");
+    }
+
+    /**
+     * Test 2: Bounded Concurrency
+     */
+    private static void testBoundedConcurrency() throws Exception {
+        System.out.println("Test 2: Bounded Concurrency");
+        TrackingLoader loader = new TrackingLoader(50);
+        ImageCache cache = ImageCache.boundedByCount(100, loader);
+        ImagePrefetcher prefetcher = new ImagePrefetcher(cache, 4);
+        prefetcher.prefetch(page("bounded", 20)).get(5, TimeUnit.SECONDS);
+
+        System.out.println("  - Most loads running at once: " + loader.maxRunning.get() + " (limit 4)");
+        check(loader.maxRunning.get() <= 4 && loader.loads.get() == 20 && prefetcher.getPrefetchedCount() == 20,
+                "Concurrent loads stay within the limit");
+    }
+
+    /**
+     * Test 3: Async And Blocking Share Load
+     */
+    private static void testAsyncAndBlockingShareLoad() throws Exception {
+        System.out.println("Test 3: Async And Blocking Share Load");
+        TrackingLoader loader = new TrackingLoader(200);
+        ImageCache cache = ImageCache.boundedByCount(10, loader);
+        CompletableFuture<RealImage> async = cache.getAsync("shared.jpg");
+        RealImage blocking = cache.get("shared.jpg");
+        RealImage asyncResult = async.get(1, TimeUnit.SECONDS);
+
+        System.out.println("  - Loads: " + loader.loads.get() + ", same image: " + (blocking == asyncResult));
+        check(loader.loads.get() == 1 && blocking == asyncResult, "Async and blocking requests share one load");
+    }
+
+    /**
+     * Test 4: Failed Prefetch
+     */
+    private static void testFailedPrefetch() throws Exception {
+        System.out.println("Test 4: Failed Prefetch");
+        TrackingLoader loader = new TrackingLoader(20);
+        ImageCache cache = ImageCache.boundedByCount(10, loader);
+        ImagePrefetcher prefetcher = new ImagePrefetcher(cache, 8);
+        List<String> filenames = page("ok", 4);
+        filenames.add("broken.jpg");
+        prefetcher.prefetch(filenames).get(5, TimeUnit.SECONDS);
+
+        System.out.println("  - Prefetched: " + prefetcher.getPrefetchedCount() + ", failed: " + prefetcher.getFailedCount()
+                + ", broken.jpg cached: " + cache.contains("broken.jpg"));
+        check(prefetcher.getPrefetchedCount() == 4 && prefetcher.getFailedCount() == 1 && !cache.contains("broken.jpg"),
+                "One failure does not fail the page");
+    }
+
+    /**
+     * Test 5: ProxyImage Async API
+     *
+     * Uses the real 2-second loader: three images loaded in parallel take about 2 seconds.
+     */
+    private static void testProxyImageAsyncApi() throws Exception {
+        System.out.println("Test 5: ProxyImage Async API");
+        ProxyImage.clearCache();
+        long start = System.nanoTime();
+        CompletableFuture<Image> first = new ProxyImage("async_1.jpg").loadAsync();
+        CompletableFuture<Void> rest = ProxyImage.prefetch(List.of("async_2.jpg", "async_3.jpg"));
+        CompletableFuture.allOf(first, rest).get(10, TimeUnit.SECONDS);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        ProxyImage.printCacheStatus();
+
+        System.out.println("  - 3 images loaded in " + elapsedMillis + " ms (sequential: 6000 ms)");
+        check(elapsedMillis < 4000, "ProxyImage loads and prefetches in parallel");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}
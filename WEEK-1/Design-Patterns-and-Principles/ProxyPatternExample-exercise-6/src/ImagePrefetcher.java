@@ -0,0 +1,80 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Warms an ImageCache with images that are about to be displayed
+ *
+ * Every image is loaded on its own virtual thread, and a semaphore bounds how
+ * many remote loads run at the same time. Images that are already cached or
+ * already loading are not loaded again. A failed prefetch is only counted; the
+ * image is simply loaded again when it is displayed.
+ */
+class ImagePrefetcher {
+
+    private final ImageCache cache;
+    private final Semaphore permits;
+    private final int maxConcurrentLoads;
+    private final LongAdder prefetched = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    ImagePrefetcher(ImageCache cache, int maxConcurrentLoads) {
+        if (maxConcurrentLoads < 1) {
+            throw new IllegalArgumentException("maxConcurrentLoads must be positive: " + maxConcurrentLoads);
+        }
+        this.cache = cache;
+        this.maxConcurrentLoads = maxConcurrentLoads;
+        this.permits = new Semaphore(maxConcurrentLoads);
+    }
+
+    /**
+     * Starts loading every image that is not cached yet
+     * @return completes when every requested image is cached or has failed to load
+     */
+    CompletableFuture<Void> prefetch(List<String> filenames) {
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[filenames.size()];
+        for (int i = 0; i < loads.length; i++) {
+            String filename = filenames.get(i);
+            if (cache.contains(filename)) {
+                loads[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+            loads[i] = cache.getAsync(filename, this::runWithPermit)
+                    .handle((image, failure) -> {
+                        if (failure != null) {
+                            failed.increment();
+                        } else {
+                            prefetched.increment();
+                        }
+                        return null;
+                    });
+        }
+        return CompletableFuture.allOf(loads);
+    }
+
+    // Runs the load on a virtual thread once a permit is free
+    private void runWithPermit(Runnable load) {
+        ImageCache.VIRTUAL_THREADS.execute(() -> {
+            // Uninterruptible: the load must run, or its future would never complete
+            permits.acquireUninterruptibly();
+            try {
+                load.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    int getMaxConcurrentLoads() {
+        return maxConcurrentLoads;
+    }
+
+    long getPrefetchedCount() {
+        return prefetched.sum();
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+}
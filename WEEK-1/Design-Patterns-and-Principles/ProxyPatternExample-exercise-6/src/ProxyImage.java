@@ -1,9 +1,21 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 class ProxyImage implements Image {
+    private static final long CACHE_MAX_BYTES = 64L * 1024 * 1024;
+    // Images are reloaded after 10 minutes; popular ones in the background during the last minute
+    private static final long CACHE_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final long CACHE_REFRESH_AHEAD_MILLIS = 60 * 1000L;
+    
     private String filename;
-    private static Map<String, RealImage> imageCache = new HashMap<>(); // Static cache shared across all proxy instances
+    // Static cache shared across all proxy instances; thread-safe, bounded, one load per image at a time
+    private static final ImageCache imageCache = new ImageCache(CACHE_MAX_BYTES, RealImage::getSizeInBytes,
+            ProxyImage::loadImage, CACHE_TTL_MILLIS, CACHE_REFRESH_AHEAD_MILLIS, System::currentTimeMillis);
+    // Optional second tier on local disk, consulted before the remote server
+    private static volatile DiskImageCache diskCache;
+    // Enough parallel loads to warm a whole gallery page in about one load latency
+    private static final ImagePrefetcher prefetcher = new ImagePrefetcher(imageCache, 64);
     
     public ProxyImage(String filename) {
         this.filename = filename;
@@ -16,16 +28,16 @@ class ProxyImage implements Image {
         System.out.println("display() called for: " + filename);
         
         // Check if image is already in cache
-        RealImage cachedImage = imageCache.get(filename);
+        RealImage cachedImage;
         
-        if (cachedImage == null) {
+        if (!imageCache.contains(filename)) {
             // LAZY LOADING: First time this image is being displayed
             System.out.println("LAZY INITIALIZATION: Image not in cache - loading from remote server...");
-            // Create new RealImage and add to cache
-            cachedImage = new RealImage(filename);
-            imageCache.put(filename, cachedImage);
+            // Load through the cache, so concurrent displays of the same image share one load
+            cachedImage = imageCache.get(filename);
             System.out.println("Image loaded and added to cache: " + filename);
         } else {
+            cachedImage = imageCache.get(filename);
             System.out.println("CACHE HIT: Image found in cache - no loading required: " + filename);
         }
         
@@ -33,17 +45,72 @@ class ProxyImage implements Image {
         cachedImage.display();
     }
     
+    /**
+     * Starts loading the image in the background without displaying it
+     * @return completes with the loaded image; display() afterwards is a cache hit
+     */
+    public CompletableFuture<Image> loadAsync() {
+        return imageCache.getAsync(filename).thenApply(image -> image);
+    }
+    
+    /**
+     * Warms the cache for images that will be displayed soon, e.g. the next gallery page
+     * @return completes when every image is cached or has failed to load
+     */
+    public static CompletableFuture<Void> prefetch(List<String> filenames) {
+        System.out.println("Prefetching " + filenames.size() + " images in the background");
+        return prefetcher.prefetch(filenames);
+    }
+    
+    // Loads an image that is not in memory: from the disk tier if enabled, otherwise from the remote server
+    private static RealImage loadImage(String filename) {
+        DiskImageCache disk = diskCache;
+        return disk == null ? new RealImage(filename) : disk.get(filename, RealImage::new);
+    }
+    
+    /**
+     * Keeps loaded images on local disk, so they survive a restart
+     * @param directory where image files and the index are stored
+     * @param maxBytes total size of the stored images
+     * @param ttlMillis age after which a stored image is revalidated against the remote server
+     */
+    public static synchronized void enableDiskCache(Path directory, long maxBytes, long ttlMillis) {
+        // Write out the tier being replaced first; it may use the same directory
+        disableDiskCache();
+        diskCache = new DiskImageCache(directory, maxBytes, ttlMillis);
+        System.out.println("Disk cache enabled in " + directory);
+    }
+    
+    public static synchronized void disableDiskCache() {
+        DiskImageCache disk = diskCache;
+        diskCache = null;
+        if (disk != null) {
+            disk.flush();
+        }
+    }
+    
     // Utility method to check cache status
     public static void printCacheStatus() {
-        System.out.println("Cache Status: " + imageCache.size() + " images cached");
-        for (String key : imageCache.keySet()) {
+        imageCache.cleanUp();
+        List<String> keys = imageCache.keys();
+        System.out.println("Cache Status: " + keys.size() + " images cached");
+        for (String key : keys) {
             System.out.println("  - " + key);
         }
     }
     
-    // Utility method to clear cache if needed
+    // Hit, miss, eviction and load-time metrics of the shared cache
+    public static void printCacheStatistics() {
+        System.out.println("Cache Statistics: " + imageCache);
+        DiskImageCache disk = diskCache;
+        if (disk != null) {
+            System.out.println("Disk Cache Statistics: " + disk);
+        }
+    }
+    
+    // Utility method to clear cache if needed; only the memory tier, the disk tier survives on purpose
     public static void clearCache() {
-        imageCache.clear();
+        imageCache.invalidateAll();
         System.out.println("Cache cleared");
     }
 }
@@ -1,11 +1,29 @@
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
 class RealImage implements Image {
+    private static final int MIN_SIZE_BYTES = 64 * 1024;
+    private static final int SIZE_RANGE_BYTES = 192 * 1024;
+
     private String filename;
+    private byte[] data;
     
     public RealImage(String filename) {
         this.filename = filename;
         loadImageFromRemoteServer();
     }
     
+    // Runs the blocking remote load on a virtual thread
+    public static CompletableFuture<RealImage> loadAsync(String filename) {
+        return CompletableFuture.supplyAsync(() -> new RealImage(filename), ImageCache.VIRTUAL_THREADS);
+    }
+    
+    // Wraps image data that is already available, e.g. read back from a local cache
+    RealImage(String filename, byte[] data) {
+        this.filename = filename;
+        this.data = data;
+    }
+    
     private void loadImageFromRemoteServer() {
         System.out.println("Loading image from remote server: " + filename);
         // Simulate time-consuming operation
@@ -14,11 +32,31 @@ class RealImage implements Image {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        this.data = simulatedContent(filename);
         System.out.println("Image loaded successfully: " + filename);
     }
     
+    // Deterministic stand-in for the downloaded pixels, between 64 KB and 256 KB
+    static byte[] simulatedContent(String filename) {
+        byte[] content = new byte[MIN_SIZE_BYTES + Math.floorMod(filename.hashCode(), SIZE_RANGE_BYTES)];
+        new Random(filename.hashCode()).nextBytes(content);
+        return content;
+    }
+    
     @Override
     public void display() {
         System.out.println("Displaying image: " + filename);
     }
-}
\ No newline at end of file
+    
+    public String getFilename() {
+        return filename;
+    }
+    
+    byte[] getData() {
+        return data;
+    }
+    
+    public long getSizeInBytes() {
+        return data.length;
+    }
+}
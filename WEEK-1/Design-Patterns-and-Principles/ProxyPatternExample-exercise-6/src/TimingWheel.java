@@ -0,0 +1,161 @@
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel that tells ImageCache which entries have expired
+ *
+ * Four wheels of 64 buckets each. A bucket of the lowest wheel covers one tick,
+ * a bucket of each higher wheel covers a whole revolution of the wheel below.
+ * A timer is placed in the lowest wheel whose range reaches its deadline; when
+ * time reaches its bucket in a higher wheel it drops down into a finer one.
+ * Scheduling and cancelling are O(1), and advancing the clock only touches the
+ * buckets that have elapsed, so millions of timers cost little more than their
+ * links. Deadlines beyond the top wheel are parked in its furthest bucket and
+ * rescheduled when it is reached. Expiry is accurate to one tick.
+ *
+ * Not thread-safe; ImageCache only uses it under its eviction lock.
+ */
+class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int BUCKETS = 64;
+    private static final int BUCKET_SHIFT = 6;
+
+    /**
+     * Something with a deadline; subclasses are linked into the wheel directly, without wrappers
+     */
+    abstract static class Timer {
+        long deadline;
+        Timer timerPrev;
+        Timer timerNext;
+        boolean scheduled;
+    }
+
+    private final long tickMillis;
+    private final Timer[][] wheels = new Timer[LEVELS][BUCKETS]; // Bucket sentinels
+    private long currentTime;
+    private int size;
+
+    TimingWheel(long tickMillis, long startTime) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTime = startTime;
+        for (Timer[] wheel : wheels) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Timer sentinel = new Timer() { };
+                sentinel.timerPrev = sentinel;
+                sentinel.timerNext = sentinel;
+                wheel[i] = sentinel;
+            }
+        }
+    }
+
+    // Length of one bucket of the given wheel, in milliseconds
+    private long resolution(int level) {
+        return tickMillis << (BUCKET_SHIFT * level);
+    }
+
+    void schedule(Timer timer, long deadline) {
+        if (timer.scheduled) {
+            unlink(timer); // Moving a live timer; it is already counted
+        } else {
+            size++;
+        }
+        timer.deadline = deadline;
+        link(timer);
+    }
+
+    void cancel(Timer timer) {
+        if (timer.scheduled) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    private void link(Timer timer) {
+        long currentTick = currentTime / tickMillis;
+        long deadline = timer.deadline;
+        Timer sentinel;
+        if (deadline / tickMillis <= currentTick) {
+            // Already due: the next tick picks it up
+            sentinel = wheels[0][(int) ((currentTick + 1) & (BUCKETS - 1))];
+        } else {
+            int level = 0;
+            while (level < LEVELS - 1 && deadline - currentTime >= resolution(level + 1)) {
+                level++;
+            }
+            long top = resolution(LEVELS - 1);
+            if (level == LEVELS - 1 && deadline - currentTime >= top * (BUCKETS - 1)) {
+                // Beyond the top wheel: park in its furthest bucket and reschedule from there
+                deadline = (currentTime / top + BUCKETS - 1) * top;
+            }
+            sentinel = wheels[level][(int) ((deadline / resolution(level)) & (BUCKETS - 1))];
+        }
+        timer.timerNext = sentinel;
+        timer.timerPrev = sentinel.timerPrev;
+        sentinel.timerPrev.timerNext = timer;
+        sentinel.timerPrev = timer;
+        timer.scheduled = true;
+    }
+
+    private void unlink(Timer timer) {
+        timer.timerPrev.timerNext = timer.timerNext;
+        timer.timerNext.timerPrev = timer.timerPrev;
+        timer.timerPrev = null;
+        timer.timerNext = null;
+        timer.scheduled = false;
+    }
+
+    /**
+     * Moves the clock forward and hands every timer that is due to onExpired
+     */
+    void advance(long now, Consumer<Timer> onExpired) {
+        long previous = currentTime;
+        if (now <= previous) {
+            return;
+        }
+        currentTime = now;
+        for (int level = 0; level < LEVELS; level++) {
+            long previousTicks = previous / resolution(level);
+            long nowTicks = now / resolution(level);
+            if (previousTicks == nowTicks) {
+                break; // Higher wheels have not moved either
+            }
+            long buckets = Math.min(nowTicks - previousTicks, BUCKETS);
+            for (long t = nowTicks - buckets + 1; t <= nowTicks; t++) {
+                expireBucket(wheels[level][(int) (t & (BUCKETS - 1))], onExpired);
+            }
+        }
+    }
+
+    private void expireBucket(Timer sentinel, Consumer<Timer> onExpired) {
+        // Detach the whole bucket first, so rescheduled timers never land in the list being walked
+        Timer timer = sentinel.timerNext;
+        sentinel.timerPrev.timerNext = null;
+        sentinel.timerNext = sentinel;
+        sentinel.timerPrev = sentinel;
+        long nowTick = currentTime / tickMillis;
+        while (timer != null && timer != sentinel) {
+            Timer next = timer.timerNext;
+            timer.timerPrev = null;
+            timer.timerNext = null;
+            timer.scheduled = false;
+            if (timer.deadline / tickMillis <= nowTick) {
+                size--;
+                onExpired.accept(timer);
+            } else {
+                link(timer);
+            }
+            timer = next;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+}
@@ -0,0 +1,264 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Background writer used by the Logger in asynchronous mode
+ *
+ * Callers claim a slot in a pre-allocated ring buffer with a single CAS, fill in
+ * the level, timestamp and message, and publish it. One consumer thread formats
+ * everything that has been published since its last pass and writes it as a
+ * single batch, so request threads never touch the console or a lock.
+ *
+ * shutdown() closes the buffer with one CAS on the claim counter, so the last
+ * claimed sequence is fixed and the consumer writes every entry up to it before it
+ * stops. A JVM shutdown hook does the same at exit, so entries still queued when
+ * main returns are written rather than lost with the daemon consumer thread.
+ */
+public final class AsyncLogWriter {
+
+    /**
+     * What a caller does when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        BLOCK, // Wait for the consumer to free a slot; nothing is lost
+        DROP   // Discard the entry and count it; callers never wait
+    }
+
+    // Mutable event, one per slot, reused for the lifetime of the writer
+    private static final class LogEvent {
+        LogLevel level;
+        long timestamp;
+        String pattern;
+        int argCount;
+        Object arg1;
+        Object arg2;
+        Object[] args;
+    }
+
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final long BLOCKED_PARK_NANOS = 50_000L;
+    private static final long CLOSED = Long.MIN_VALUE; // Set in claimed once no more slots may be claimed
+
+    private final LogEvent[] slots;
+    private final AtomicLongArray published; // Sequence stored in each slot once it is readable
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final Supplier<LogSink> sink;
+
+    private final AtomicLong claimed = new AtomicLong();   // Next sequence a producer will claim, plus CLOSED
+    private volatile long consumed;                        // Every sequence below this has been written
+    private volatile boolean consumerParked;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Thread consumer;
+    private final Thread shutdownHook;
+
+    public AsyncLogWriter(int capacity, OverflowPolicy policy, Supplier<LogSink> sink) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new LogEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+            published.set(i, -1L);
+        }
+        this.mask = capacity - 1;
+        this.policy = policy;
+        this.sink = sink;
+        this.consumer = new Thread(this::drainLoop, "async-logger");
+        this.consumer.setDaemon(true);
+        this.shutdownHook = new Thread(this::shutdown, "async-logger-shutdown");
+        this.consumer.start();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Enqueues one entry
+     * @return false if the entry was dropped because the buffer was full or the writer is shut down
+     */
+    public boolean publish(LogLevel level, long timestamp, String message) {
+        return publish(level, timestamp, message, 0, null, null, null);
+    }
+
+    /**
+     * Enqueues one parameterised entry; the placeholders are filled in on the writer thread
+     * @return false if the entry was dropped because the buffer was full or the writer is shut down
+     */
+    public boolean publish(LogLevel level, long timestamp, String pattern,
+                           int argCount, Object arg1, Object arg2, Object[] args) {
+        long sequence;
+        int waits = 0;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence < 0) {
+                // Closed: the consumer may already have written its last entry
+                rejected.increment();
+                return false;
+            }
+            if (sequence - consumed >= slots.length) {
+                if (policy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return false;
+                }
+                wakeConsumer();
+                backOff(waits++);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        int index = (int) (sequence & mask);
+        LogEvent event = slots[index];
+        event.level = level;
+        event.timestamp = timestamp;
+        event.pattern = pattern;
+        event.argCount = argCount;
+        event.arg1 = arg1;
+        event.arg2 = arg2;
+        event.args = args;
+        published.lazySet(index, sequence);
+
+        if (consumerParked) {
+            wakeConsumer();
+        }
+        return true;
+    }
+
+    // Spin briefly, then yield, then sleep, so blocked producers leave the CPU to the consumer
+    private static void backOff(int waits) {
+        if (waits < 64) {
+            Thread.onSpinWait();
+        } else if (waits < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+    }
+
+    private void wakeConsumer() {
+        LockSupport.unpark(consumer);
+    }
+
+    private void drainLoop() {
+        StringBuilder lines = new StringBuilder(8192);
+        long next = 0;
+        while (true) {
+            long available = next;
+            while (available - next < MAX_BATCH && published.get((int) (available & mask)) == available) {
+                available++;
+            }
+
+            if (available == next) {
+                long last = claimed.get();
+                if (last < 0 && (last & ~CLOSED) == next) {
+                    return; // Closed, and every claimed entry has been written
+                }
+                consumerParked = true;
+                if (published.get((int) (next & mask)) != next) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerParked = false;
+                continue;
+            }
+
+            // Consecutive entries of the same kind go out in one append; the text is handed
+            // over whenever the kind changes, so sinks see the entries in publication order
+            LogSink target = sink.get();
+            boolean error = false;
+            for (long sequence = next; sequence < available; sequence++) {
+                LogEvent event = slots[(int) (sequence & mask)];
+                boolean entryError = event.level == LogLevel.ERROR;
+                if (entryError != error) {
+                    append(target, lines, error);
+                    error = entryError;
+                }
+                Logger.appendEntry(lines, event.level, event.timestamp,
+                        event.pattern, event.argCount, event.arg1, event.arg2, event.args);
+                lines.append(System.lineSeparator());
+                // Let the message and arguments be collected while the slot waits for reuse
+                event.pattern = null;
+                event.arg1 = null;
+                event.arg2 = null;
+                event.args = null;
+            }
+            append(target, lines, error);
+            try {
+                target.endBatch();
+            } catch (RuntimeException e) {
+                System.err.println("[ERROR] Log sink failed to end a batch: " + e);
+            }
+
+            consumed = available;
+            next = available;
+        }
+    }
+
+    private static void append(LogSink target, StringBuilder lines, boolean error) {
+        if (lines.length() == 0) {
+            return;
+        }
+        try {
+            target.append(lines, error);
+        } catch (RuntimeException e) {
+            // Keep draining: a dead consumer would block every producer under the BLOCK policy
+            System.err.println("[ERROR] Log sink failed, " + lines.length() + " characters lost: " + e);
+        }
+        lines.setLength(0);
+    }
+
+    /**
+     * Stops accepting new entries, writes everything already queued and stops the consumer
+     */
+    public void shutdown() {
+        long last;
+        do {
+            last = claimed.get();
+        } while (last >= 0 && !claimed.compareAndSet(last, last | CLOSED));
+        wakeConsumer();
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already exiting and the hook is running or has run
+            }
+        }
+    }
+
+    public boolean isShutdown() {
+        return claimed.get() < 0;
+    }
+
+    /**
+     * @return entries discarded under the DROP policy because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return entries refused because they were published after shutdown()
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+}
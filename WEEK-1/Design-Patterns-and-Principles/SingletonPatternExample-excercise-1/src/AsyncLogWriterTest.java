@@ -0,0 +1,286 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Async Log Writer Test Suite
+ *
+ * Validates the ring buffer behind the Logger's asynchronous mode:
+ * - Ordering: one producer's entries are written in the order they were published
+ * - DROP Policy: a full buffer discards and counts entries instead of blocking
+ * - BLOCK Policy: a full buffer makes producers wait and nothing is lost
+ * - Shutdown Race: every entry accepted before or during shutdown() is written
+ * - Disabling the Logger: entries logged while disableAsync() runs are not lost
+ * - JVM Exit: entries still queued when main returns are written by the shutdown hook
+ */
+public class AsyncLogWriterTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--exit-child")) {
+            exitChild(Path.of(args[1]));
+            return;
+        }
+        System.out.println("=== Async Log Writer Test Suite ===\n");
+
+        testOrdering();
+        testDropPolicy();
+        testBlockPolicy();
+        testShutdownRace();
+        testDisableAsyncWhileLogging();
+        testQueuedEntriesWrittenAtExit();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Sink that keeps every line and can slow each batch down
+    private static final class RecordingSink implements LogSink {
+        private final List<String> lines = new ArrayList<>();
+        private final long batchDelayMillis;
+
+        RecordingSink(long batchDelayMillis) {
+            this.batchDelayMillis = batchDelayMillis;
+        }
+
+        @Override
+        public synchronized void append(CharSequence entries, boolean error) {
+            for (String line : entries.toString().split(System.lineSeparator())) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        }
+
+        @Override
+        public void endBatch() {
+            if (batchDelayMillis > 0) {
+                try {
+                    Thread.sleep(batchDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        synchronized List<String> lines() {
+            return new ArrayList<>(lines);
+        }
+    }
+
+    private static String message(String line) {
+        return line.substring(line.lastIndexOf(" - ") + 3);
+    }
+
+    /**
+     * Test 1: Ordering
+     *
+     * 10,000 entries from one thread come out complete and in order.
+     */
+    private static void testOrdering() {
+        System.out.println("Test 1: Ordering");
+        RecordingSink sink = new RecordingSink(0);
+        AsyncLogWriter writer = new AsyncLogWriter(1024, AsyncLogWriter.OverflowPolicy.BLOCK, () -> sink);
+        for (int i = 0; i < 10_000; i++) {
+            writer.publish(LogLevel.INFO, System.currentTimeMillis(), "entry {}", 1, i, null, null);
+        }
+        writer.shutdown();
+        List<String> lines = sink.lines();
+        boolean inOrder = lines.size() == 10_000;
+        for (int i = 0; inOrder && i < lines.size(); i++) {
+            inOrder = message(lines.get(i)).equals("entry " + i);
+        }
+        check(inOrder, "10,000 entries written in order (" + lines.size() + " written)");
+        System.out.println();
+    }
+
+    /**
+     * Test 2: DROP Policy
+     *
+     * With a small buffer and a slow sink, publish returns false for some
+     * entries; each of those is counted, and every accepted entry is written.
+     */
+    private static void testDropPolicy() {
+        System.out.println("Test 2: DROP Policy");
+        RecordingSink sink = new RecordingSink(5);
+        AsyncLogWriter writer = new AsyncLogWriter(16, AsyncLogWriter.OverflowPolicy.DROP, () -> sink);
+        int accepted = 0;
+        for (int i = 0; i < 5_000; i++) {
+            if (writer.publish(LogLevel.INFO, System.currentTimeMillis(), "entry " + i)) {
+                accepted++;
+            }
+        }
+        writer.shutdown();
+        check(writer.getDroppedCount() > 0, "entries were dropped (" + writer.getDroppedCount() + ")");
+        check(accepted + writer.getDroppedCount() == 5_000, "every entry was either accepted or counted as dropped");
+        check(sink.lines().size() == accepted, "every accepted entry was written (" + sink.lines().size() + ")");
+        System.out.println();
+    }
+
+    /**
+     * Test 3: BLOCK Policy
+     *
+     * Four producers overfill a 16-slot buffer in front of a slow sink; they
+     * wait for space and every entry is written.
+     */
+    private static void testBlockPolicy() throws InterruptedException {
+        System.out.println("Test 3: BLOCK Policy");
+        RecordingSink sink = new RecordingSink(1);
+        AsyncLogWriter writer = new AsyncLogWriter(16, AsyncLogWriter.OverflowPolicy.BLOCK, () -> sink);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    writer.publish(LogLevel.INFO, System.currentTimeMillis(), "blocked entry");
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        writer.shutdown();
+        check(writer.getDroppedCount() == 0, "nothing was dropped");
+        check(sink.lines().size() == 2_000, "all 2,000 entries were written (" + sink.lines().size() + ")");
+        System.out.println();
+    }
+
+    /**
+     * Test 4: Shutdown Race
+     *
+     * Eight producers publish as fast as they can while shutdown() is called.
+     * Every publish that returned true must be written, and every other one
+     * is counted as rejected.
+     */
+    private static void testShutdownRace() throws InterruptedException {
+        System.out.println("Test 4: Shutdown Race");
+        boolean allWritten = true;
+        long totalRejected = 0;
+        for (int round = 0; round < 20; round++) {
+            RecordingSink sink = new RecordingSink(0);
+            AsyncLogWriter writer = new AsyncLogWriter(256, AsyncLogWriter.OverflowPolicy.BLOCK, () -> sink);
+            AtomicLong accepted = new AtomicLong();
+            AtomicLong attempted = new AtomicLong();
+            CountDownLatch started = new CountDownLatch(8);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                producers.add(Thread.ofPlatform().start(() -> {
+                    started.countDown();
+                    while (!writer.isShutdown()) {
+                        attempted.incrementAndGet();
+                        if (writer.publish(LogLevel.INFO, System.currentTimeMillis(), "racing entry")) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            started.await();
+            Thread.sleep(2);
+            writer.shutdown();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            allWritten &= sink.lines().size() == accepted.get()
+                    && accepted.get() + writer.getRejectedCount() == attempted.get();
+            totalRejected += writer.getRejectedCount();
+        }
+        check(allWritten, "in 20 rounds every accepted entry was written and every other one counted");
+        System.out.println("  (" + totalRejected + " publishes arrived after shutdown)");
+        System.out.println();
+    }
+
+    /**
+     * Test 5: Disabling the Logger While Logging
+     *
+     * Threads keep logging while disableAsync() runs. An entry that reaches the
+     * old writer after it closed is written synchronously, so the sink sees
+     * every entry.
+     */
+    private static void testDisableAsyncWhileLogging() throws InterruptedException {
+        System.out.println("Test 5: Disabling the Logger While Logging");
+        Logger logger = Logger.getInstance();
+        RecordingSink sink = new RecordingSink(0);
+        LogSink previous = logger.setSink(sink);
+        logger.enableAsync(64, AsyncLogWriter.OverflowPolicy.BLOCK);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong logged = new AtomicLong();
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                while (!stop.get()) {
+                    logger.logInfo("entry");
+                    logged.incrementAndGet();
+                }
+            }));
+        }
+        Thread.sleep(20);
+        logger.disableAsync();
+        Thread.sleep(5);
+        stop.set(true);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        logger.setSink(previous);
+        check(!logger.isAsync(), "the logger is synchronous again");
+        check(sink.lines().size() == logged.get(),
+                "all " + logged.get() + " entries were written (" + sink.lines().size() + ")");
+        check(logger.getDroppedCount() == 0, "no drops were reported");
+        System.out.println();
+    }
+
+    /**
+     * Test 6: Queued Entries Written at Exit
+     *
+     * A child JVM logs 50,000 entries to a file sink and returns from
+     * main without calling disableAsync(). The shutdown hook drains the buffer,
+     * so the file holds every entry.
+     */
+    private static void testQueuedEntriesWrittenAtExit() throws IOException, InterruptedException {
+        System.out.println("Test 6: Queued Entries Written at Exit");
+        Path file = Files.createTempFile("async-exit", ".log");
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process child = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                "AsyncLogWriterTest", "--exit-child", file.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        boolean exited = child.waitFor(60, TimeUnit.SECONDS);
+        long lines;
+        try (var stream = Files.lines(file)) {
+            lines = stream.count();
+        }
+        Files.deleteIfExists(file);
+        check(exited && child.exitValue() == 0, "the child JVM exited normally");
+        check(lines == 50_000, "all 50,000 entries reached the file (" + lines + ")");
+        System.out.println();
+    }
+
+    // Runs in the child JVM of test 6: log, then return from main with entries still queued
+    private static void exitChild(Path file) {
+        Logger logger = Logger.getInstance();
+        logger.setSink(new BufferedWriterSink(file, LogSink.FsyncPolicy.NEVER, 0));
+        logger.enableAsync(1 << 16, AsyncLogWriter.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 50_000; i++) {
+            logger.logInfo("entry {}", i);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        testCount++;
+        if (condition) {
+            passCount++;
+            System.out.println("  PASS: " + description);
+        } else {
+            System.out.println("  FAIL: " + description);
+        }
+    }
+}
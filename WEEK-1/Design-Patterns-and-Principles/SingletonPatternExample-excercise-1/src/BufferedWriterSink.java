@@ -0,0 +1,71 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * File sink using a plain BufferedWriter, kept as the baseline for MappedFileSink
+ */
+public class BufferedWriterSink implements LogSink {
+
+    private final FileOutputStream file;
+    private final BufferedWriter writer;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private boolean dirty;
+    private long lastFsync = System.nanoTime();
+
+    public BufferedWriterSink(Path path, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            this.file = new FileOutputStream(path.toFile(), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open log file " + path, e);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), 64 * 1024);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncIntervalMillis * 1_000_000L;
+    }
+
+    @Override
+    public synchronized void append(CharSequence entries, boolean error) {
+        try {
+            writer.append(entries);
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write log file", e);
+        }
+    }
+
+    @Override
+    public synchronized void endBatch() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            writer.flush();
+            if (fsyncPolicy == FsyncPolicy.EVERY_BATCH
+                    || (fsyncPolicy == FsyncPolicy.PERIODIC && System.nanoTime() - lastFsync >= fsyncIntervalNanos)) {
+                file.getFD().sync();
+                lastFsync = System.nanoTime();
+            }
+            dirty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot flush log file", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            endBatch();
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close log file", e);
+        }
+    }
+}
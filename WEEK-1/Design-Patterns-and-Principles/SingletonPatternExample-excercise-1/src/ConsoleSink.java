@@ -0,0 +1,102 @@
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Default sink: errors go to System.err, everything else to System.out
+ *
+ * PrintStream.append(CharSequence) copies the whole batch into a new String
+ * before encoding it. Instead, each stream has reused char and byte buffers:
+ * the entries are copied into the char buffer, encoded with the stream's
+ * charset into the byte buffer and written as raw bytes, so a written entry
+ * allocates nothing here. System.out and System.err are looked up on every
+ * call, so System.setOut() still takes effect.
+ */
+public class ConsoleSink implements LogSink {
+
+    public static final ConsoleSink INSTANCE = new ConsoleSink();
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final StreamWriter out = new StreamWriter();
+    private final StreamWriter err = new StreamWriter();
+
+    private ConsoleSink() {
+    }
+
+    @Override
+    public void append(CharSequence entries, boolean error) {
+        if (error) {
+            err.write(System.err, entries);
+        } else {
+            out.write(System.out, entries);
+        }
+    }
+
+    @Override
+    public void endBatch() {
+        System.out.flush();
+        System.err.flush();
+    }
+
+    // Encoder and buffers for one of the two console streams
+    private static final class StreamWriter {
+        private final char[] chars = new char[BUFFER_SIZE];
+        private final CharBuffer charBuffer = CharBuffer.wrap(chars);
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private PrintStream stream;
+        private CharsetEncoder encoder;
+
+        synchronized void write(PrintStream target, CharSequence entries) {
+            if (target != stream) {
+                stream = target;
+                encoder = target.charset().newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            int length = entries.length();
+            int from = 0;
+            charBuffer.clear();
+            while (true) {
+                // Top up the char buffer; a surrogate left over from the last chunk stays at its start
+                int count = Math.min(charBuffer.remaining(), length - from);
+                copy(entries, from, from + count, charBuffer.position());
+                charBuffer.position(charBuffer.position() + count);
+                from += count;
+                charBuffer.flip();
+                boolean last = from == length;
+                while (encoder.encode(charBuffer, bytes, last).isOverflow()) {
+                    drain(target);
+                }
+                charBuffer.compact();
+                if (last) {
+                    break;
+                }
+            }
+            while (encoder.flush(bytes).isOverflow()) {
+                drain(target);
+            }
+            drain(target);
+            encoder.reset();
+        }
+
+        private void copy(CharSequence entries, int from, int to, int offset) {
+            if (entries instanceof StringBuilder builder) {
+                builder.getChars(from, to, chars, offset);
+            } else if (entries instanceof String string) {
+                string.getChars(from, to, chars, offset);
+            } else {
+                for (int i = from; i < to; i++) {
+                    chars[offset++] = entries.charAt(i);
+                }
+            }
+        }
+
+        private void drain(PrintStream target) {
+            target.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
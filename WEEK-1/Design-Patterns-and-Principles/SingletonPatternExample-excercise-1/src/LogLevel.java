@@ -0,0 +1,19 @@
+/**
+ * Severity levels supported by the Logger, from least to most severe
+ */
+public enum LogLevel {
+    DEBUG("[DEBUG] "),
+    INFO("[INFO] "),
+    WARNING("[WARNING] "),
+    ERROR("[ERROR] ");
+
+    private final String prefix;
+
+    LogLevel(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
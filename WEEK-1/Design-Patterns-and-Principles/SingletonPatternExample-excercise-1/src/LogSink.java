@@ -0,0 +1,36 @@
+/**
+ * Destination for formatted log entries
+ *
+ * The Logger calls append() with one or more complete lines and then
+ * endBatch(); in asynchronous mode a batch holds every entry the writer
+ * thread drained in one pass, otherwise it holds a single entry.
+ */
+public interface LogSink {
+
+    /**
+     * When file sinks force written data to the storage device
+     */
+    enum FsyncPolicy {
+        NEVER,       // Leave it to the operating system
+        EVERY_BATCH, // After every batch; most durable, slowest
+        PERIODIC     // At most once per configured interval
+    }
+
+    /**
+     * @param entries one or more formatted lines, each ending with a line separator
+     * @param error true if the entries are errors (the console sink sends these to System.err)
+     */
+    void append(CharSequence entries, boolean error);
+
+    /**
+     * Called after each batch of appends; sinks flush according to their policy here
+     */
+    default void endBatch() {
+    }
+
+    /**
+     * Flushes and releases the sink's resources
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Compares MappedFileSink with BufferedWriterSink behind the asynchronous Logger
+ */
+public class LogSinkBenchmark {
+
+    private static final int THREADS = 4;
+    private static final int MESSAGES_PER_THREAD = 250_000;
+
+    public static void main(String[] args) throws Exception {
+        Logger logger = Logger.getInstance();
+        Path root = Files.createTempDirectory("logger-benchmark");
+        System.out.println("=== Log Sink Benchmark (" + THREADS + " threads x " + MESSAGES_PER_THREAD
+                + " messages, files in " + root + ") ===");
+        try {
+            for (int round = 1; round <= 3; round++) {
+                System.out.println("\n--- Round " + round + " ---");
+                for (LogSink.FsyncPolicy policy : new LogSink.FsyncPolicy[] {
+                        LogSink.FsyncPolicy.NEVER, LogSink.FsyncPolicy.PERIODIC }) {
+                    Path dir = root.resolve("round" + round + "-" + policy);
+                    run(logger, "BufferedWriterSink " + String.format("%-8s", policy),
+                            new BufferedWriterSink(dir.resolve("buffered.log"), policy, 100));
+                    run(logger, "MappedFileSink     " + String.format("%-8s", policy),
+                            new MappedFileSink(dir, "mapped", 64 * 1024 * 1024, 4, policy, 100));
+                }
+            }
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    private static void run(Logger logger, String label, LogSink sink) throws InterruptedException {
+        LogSink previous = logger.setSink(sink);
+        logger.enableAsync(1 << 16, AsyncLogWriter.OverflowPolicy.BLOCK);
+
+        Thread[] threads = new Thread[THREADS];
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < MESSAGES_PER_THREAD; i++) {
+                    logger.logInfo("Thread {} handled request {}", id, i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logger.disableAsync(); // Waits until every queued entry reached the sink
+        long elapsed = System.nanoTime() - start;
+
+        logger.setSink(previous);
+        sink.close();
+        long messages = (long) THREADS * MESSAGES_PER_THREAD;
+        System.out.printf("%s: %,12.0f messages/s | %,6d ms%n", label, messages * 1e9 / elapsed, elapsed / 1_000_000);
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Log Sink Test Suite
+ *
+ * Validates MappedFileSink, alone and behind the asynchronous writer:
+ * - Entry Order: alternating info and error entries reach the file in the order they were logged
+ * - Rotation: full segments are closed, trimmed to their written length and followed by the next
+ * - Large Batches: a batch bigger than a segment is spread over several segments intact
+ * - Retention: only the newest maxSegments files are kept
+ * - Restart Numbering: a new sink continues after the newest segment instead of overwriting it
+ * - Crash Recovery: a segment left at full mapped size has its zero-filled tail cut off
+ */
+public class LogSinkTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Log Sink Test Suite ===\n");
+
+        testEntryOrderThroughAsyncWriter();
+        testRotation();
+        testBatchLargerThanSegment();
+        testRetention();
+        testRestartNumbering();
+        testCrashLeftZeroTail();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    private static MappedFileSink sink(Path directory, int maxSegments) {
+        return new MappedFileSink(directory, "app", SEGMENT_SIZE, maxSegments, LogSink.FsyncPolicy.NEVER, 0);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .toList();
+        }
+    }
+
+    private static List<String> names(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            names.add(segment.getFileName().toString());
+        }
+        return names;
+    }
+
+    // Every line in every segment, oldest segment first
+    private static List<String> lines(Path directory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            lines.addAll(Files.readAllLines(segment, StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    private static boolean noZeroBytes(Path directory) throws IOException {
+        for (Path segment : segments(directory)) {
+            for (byte b : Files.readAllBytes(segment)) {
+                if (b == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        for (Path segment : segments(directory)) {
+            Files.deleteIfExists(segment);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Test 1: Entry Order Through the Async Writer
+     *
+     * Info and error entries alternate. The writer hands them to the sink in
+     * the order they were published, so the file shows 0, 1, 2, ... rather than
+     * all infos followed by all errors.
+     */
+    private static void testEntryOrderThroughAsyncWriter() throws IOException {
+        System.out.println("Test 1: Entry Order Through the Async Writer");
+        Path directory = Files.createTempDirectory("log-sink-order");
+        MappedFileSink sink = sink(directory, 100);
+        AsyncLogWriter writer = new AsyncLogWriter(1024, AsyncLogWriter.OverflowPolicy.BLOCK, () -> sink);
+        for (int i = 0; i < 1000; i++) {
+            writer.publish(i % 2 == 0 ? LogLevel.INFO : LogLevel.ERROR, System.currentTimeMillis(), "entry {}",
+                    1, i, null, null);
+        }
+        writer.shutdown();
+        sink.close();
+        List<String> lines = lines(directory);
+        boolean inOrder = lines.size() == 1000;
+        for (int i = 0; inOrder && i < lines.size(); i++) {
+            inOrder = lines.get(i).endsWith(" - entry " + i)
+                    && lines.get(i).startsWith(i % 2 == 0 ? "[INFO]" : "[ERROR]");
+        }
+        check(inOrder, "1,000 alternating info/error entries are in logged order (" + lines.size() + " lines)");
+        delete(directory);
+        System.out.println();
+    }
+
+    /**
+     * Test 2: Rotation
+     *
+     * Writing 16 KB through 4 KB segments rotates several times. Every
+     * closed segment is trimmed, so no file contains zero bytes, and reading the
+     * segments in order gives back every line.
+     */
+    private static void testRotation() throws IOException {
+        System.out.println("Test 2: Rotation");
+        Path directory = Files.createTempDirectory("log-sink-rotation");
+        MappedFileSink sink = sink(directory, 100);
+        for (int i = 0; i < 500; i++) {
+            sink.append(String.format("line %05d of the rotation test%n", i), false);
+            sink.endBatch();
+        }
+        sink.close();
+        List<Path> segments = segments(directory);
+        List<String> lines = lines(directory);
+        boolean complete = lines.size() == 500;
+        for (int i = 0; complete && i < 500; i++) {
+            complete = lines.get(i).equals(String.format("line %05d of the rotation test", i));
+        }
+        check(segments.size() > 3, "the log rotated into " + segments.size() + " segments");
+        check(noZeroBytes(directory), "every segment is trimmed to its written length");
+        check(complete, "all 500 lines read back in order");
+        check(sink.getUntrimmedSegments() == 0, "no trim is pending");
+        delete(directory);
+        System.out.println();
+    }
+
+    /**
+     * Test 3: Batch Larger Than a Segment
+     *
+     * One 6 KB append is split across two 4 KB segments and reads back intact.
+     */
+    private static void testBatchLargerThanSegment() throws IOException {
+        System.out.println("Test 3: Batch Larger Than a Segment");
+        Path directory = Files.createTempDirectory("log-sink-large");
+        MappedFileSink sink = sink(directory, 100);
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            batch.append(String.format("large batch line %05d%n", i));
+        }
+        sink.append(batch, false);
+        sink.close();
+        StringBuilder readBack = new StringBuilder();
+        for (Path segment : segments(directory)) {
+            readBack.append(Files.readString(segment, StandardCharsets.UTF_8));
+        }
+        check(segments(directory).size() >= 2, "the batch spans " + segments(directory).size() + " segments");
+        check(readBack.toString().equals(batch.toString()), "the batch reads back byte for byte");
+        delete(directory);
+        System.out.println();
+    }
+
+    /**
+     * Test 4: Retention
+     *
+     * With maxSegments = 3, only the three newest segments remain after many
+     * rotations.
+     */
+    private static void testRetention() throws IOException {
+        System.out.println("Test 4: Retention");
+        Path directory = Files.createTempDirectory("log-sink-retention");
+        MappedFileSink sink = sink(directory, 3);
+        String line = "x".repeat(1000) + System.lineSeparator();
+        for (int i = 0; i < 40; i++) {
+            sink.append(line, false);
+        }
+        sink.close();
+        List<String> names = names(directory);
+        check(names.size() == 3, "three segments are kept (" + names + ")");
+        check(names.get(2).equals("app-00009.log") && names.get(0).equals("app-00007.log"),
+                "the kept segments are the newest ones");
+        delete(directory);
+        System.out.println();
+    }
+
+    /**
+     * Test 5: Restart Numbering
+     *
+     * A second sink over the same directory starts after the newest segment,
+     * so the first run's entries are kept.
+     */
+    private static void testRestartNumbering() throws IOException {
+        System.out.println("Test 5: Restart Numbering");
+        Path directory = Files.createTempDirectory("log-sink-restart");
+        MappedFileSink first = sink(directory, 100);
+        first.append("first run" + System.lineSeparator(), false);
+        first.close();
+        MappedFileSink second = sink(directory, 100);
+        second.append("second run" + System.lineSeparator(), false);
+        second.close();
+        check(names(directory).equals(List.of("app-00000.log", "app-00001.log")),
+                "the second run writes app-00001.log (" + names(directory) + ")");
+        check(lines(directory).equals(List.of("first run", "second run")), "both runs' entries are kept");
+        delete(directory);
+        System.out.println();
+    }
+
+    /**
+     * Test 6: Crash-left Zero Tail
+     *
+     * A segment that was never closed still has its full mapped size, with the
+     * unused part zero-filled. A new sink cuts the tail off before continuing
+     * with the next segment number.
+     */
+    private static void testCrashLeftZeroTail() throws IOException {
+        System.out.println("Test 6: Crash-left Zero Tail");
+        Path directory = Files.createTempDirectory("log-sink-crash");
+        Path crashed = directory.resolve("app-00003.log");
+        byte[] text = ("before the crash" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        byte[] mapped = new byte[SEGMENT_SIZE];
+        System.arraycopy(text, 0, mapped, 0, text.length);
+        Files.write(crashed, mapped);
+
+        MappedFileSink sink = sink(directory, 100);
+        sink.append("after the restart" + System.lineSeparator(), false);
+        sink.close();
+        check(Files.size(crashed) == text.length, "the zero tail was cut off (" + Files.size(crashed) + " bytes)");
+        check(names(directory).equals(List.of("app-00003.log", "app-00004.log")), "numbering continues at 4");
+        check(lines(directory).equals(List.of("before the crash", "after the restart")), "no zero bytes between runs");
+        delete(directory);
+        System.out.println();
+    }
+
+    private static void check(boolean condition, String description) {
+        testCount++;
+        if (condition) {
+            passCount++;
+            System.out.println("  PASS: " + description);
+        } else {
+            System.out.println("  FAIL: " + description);
+        }
+    }
+}
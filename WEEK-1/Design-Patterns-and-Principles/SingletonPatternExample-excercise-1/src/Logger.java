@@ -1,5 +1,8 @@
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Logger class implementing the Singleton design pattern
@@ -7,11 +10,33 @@ import java.time.format.DateTimeFormatter;
  */
 public class Logger {
     // Private static instance of the Logger class (lazy initialization)
-    private static Logger instance;
+    // volatile so that double-checked locking in getInstance() publishes it safely
+    private static volatile Logger instance;
     
     // Date formatter for log timestamps
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    
+    // Timestamp text is only re-formatted when the second changes
+    private static volatile CachedTimestamp timestampCache = new CachedTimestamp(0);
+    
+    // Reused per thread so that formatting a synchronous entry does not allocate a new builder
+    private static final ThreadLocal<StringBuilder> LINE_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final int MAX_RETAINED_BUFFER = 8192;
+    
+    // Background writer, non-null only while asynchronous mode is enabled
+    private volatile AsyncLogWriter asyncWriter;
+    
+    // Entries dropped by writers that have since been shut down
+    private final LongAdder retiredDrops = new LongAdder();
+    
+    // Where formatted entries are written; the console unless setSink() installed another sink
+    private volatile LogSink sink = ConsoleSink.INSTANCE;
+    
+    // Entries below this level are discarded before any formatting happens
+    private volatile LogLevel level = LogLevel.INFO;
+    
     // Private constructor to prevent instantiation from outside
     private Logger() {
         // Reflection protection: Check if instance already exists
@@ -26,17 +51,128 @@ public class Logger {
     /**
      * Public static method to get the single instance of Logger
      * This is the KEY METHOD that implements the Singleton pattern!
-     * Uses lazy initialization with thread safety
+     * Uses lazy initialization with double-checked locking, so callers only
+     * synchronize while the instance is being created
      * @return the single Logger instance
      */
-    public static synchronized Logger getInstance() {
+    public static Logger getInstance() {
+        Logger result = instance;
         // Check if instance is null (first time being called)
-        if (instance == null) {
-            // Create the instance only once
-            instance = new Logger();
+        if (result == null) {
+            synchronized (Logger.class) {
+                result = instance;
+                if (result == null) {
+                    // Create the instance only once
+                    instance = result = new Logger();
+                }
+            }
         }
         // Always return the same instance
-        return instance;
+        return result;
+    }
+    
+    /**
+     * Switches the logger to asynchronous mode: log calls only enqueue the entry
+     * and a background thread formats and writes entries in batches
+     * @param capacity ring buffer size, must be a power of two
+     * @param policy what callers do when the buffer is full
+     */
+    public synchronized void enableAsync(int capacity, AsyncLogWriter.OverflowPolicy policy) {
+        disableAsync();
+        asyncWriter = new AsyncLogWriter(capacity, policy, this::getSink);
+    }
+    
+    /**
+     * Returns to synchronous logging after writing every entry already queued.
+     * Threads that still publish to the old writer while it shuts down have their
+     * entry refused and write it synchronously instead, so nothing is lost.
+     */
+    public synchronized void disableAsync() {
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            asyncWriter = null;
+            writer.shutdown();
+            retiredDrops.add(writer.getDroppedCount());
+        }
+    }
+    
+    public boolean isAsync() {
+        return asyncWriter != null;
+    }
+    
+    /**
+     * @return entries discarded under the DROP policy since the logger was created
+     */
+    public synchronized long getDroppedCount() {
+        AsyncLogWriter writer = asyncWriter;
+        return retiredDrops.sum() + (writer == null ? 0 : writer.getDroppedCount());
+    }
+    
+    /**
+     * Replaces the destination of log entries, e.g. with a MappedFileSink
+     * @param newSink the sink to write to from now on
+     * @return the previous sink, which the caller may close
+     */
+    public LogSink setSink(LogSink newSink) {
+        if (newSink == null) {
+            throw new IllegalArgumentException("Sink must not be null");
+        }
+        LogSink previous = sink;
+        sink = newSink;
+        return previous;
+    }
+    
+    public LogSink getSink() {
+        return sink;
+    }
+    
+    /**
+     * Sets the minimum level that is written; calls below it return before doing any work
+     * @param level the new minimum level
+     */
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+    
+    public LogLevel getLevel() {
+        return level;
+    }
+    
+    /**
+     * Checks the level filter
+     * @param candidate the level of a prospective log call
+     * @return true if entries at this level are written
+     */
+    public boolean isEnabled(LogLevel candidate) {
+        return candidate.ordinal() >= level.ordinal();
+    }
+    
+    /**
+     * Method to log debug messages (suppressed unless the level is DEBUG)
+     * @param message the message to log
+     */
+    public void logDebug(String message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, message, 0, null, null, null);
+        }
+    }
+    
+    public void logDebug(String pattern, Object arg) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, pattern, 1, arg, null, null);
+        }
+    }
+    
+    public void logDebug(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, pattern, 2, arg1, arg2, null);
+        }
+    }
+    
+    public void logDebug(String pattern, Object... args) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, pattern, args.length, null, null, args);
+        }
     }
     
     /**
@@ -44,8 +180,32 @@ public class Logger {
      * @param message the message to log
      */
     public void logInfo(String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        System.out.println("[INFO] " + timestamp + " - " + message);
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, message, 0, null, null, null);
+        }
+    }
+    
+    /**
+     * Method to log info messages with "{}" placeholders, formatted only if the entry is written
+     * @param pattern the message pattern
+     * @param arg the value substituted for the first placeholder
+     */
+    public void logInfo(String pattern, Object arg) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, pattern, 1, arg, null, null);
+        }
+    }
+    
+    public void logInfo(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, pattern, 2, arg1, arg2, null);
+        }
+    }
+    
+    public void logInfo(String pattern, Object... args) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, pattern, args.length, null, null, args);
+        }
     }
     
     /**
@@ -53,8 +213,27 @@ public class Logger {
      * @param message the error message to log
      */
     public void logError(String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        System.err.println("[ERROR] " + timestamp + " - " + message);
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, message, 0, null, null, null);
+        }
+    }
+    
+    public void logError(String pattern, Object arg) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, pattern, 1, arg, null, null);
+        }
+    }
+    
+    public void logError(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, pattern, 2, arg1, arg2, null);
+        }
+    }
+    
+    public void logError(String pattern, Object... args) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, pattern, args.length, null, null, args);
+        }
     }
     
     /**
@@ -62,7 +241,114 @@ public class Logger {
      * @param message the warning message to log
      */
     public void logWarning(String message) {
-        System.out.println("[WARNING] " + LocalDateTime.now().format(formatter) + " - " + message);
+        if (isEnabled(LogLevel.WARNING)) {
+            log(LogLevel.WARNING, message, 0, null, null, null);
+        }
+    }
+    
+    public void logWarning(String pattern, Object arg) {
+        if (isEnabled(LogLevel.WARNING)) {
+            log(LogLevel.WARNING, pattern, 1, arg, null, null);
+        }
+    }
+    
+    public void logWarning(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.WARNING)) {
+            log(LogLevel.WARNING, pattern, 2, arg1, arg2, null);
+        }
+    }
+    
+    public void logWarning(String pattern, Object... args) {
+        if (isEnabled(LogLevel.WARNING)) {
+            log(LogLevel.WARNING, pattern, args.length, null, null, args);
+        }
+    }
+    
+    // Common path for entries that passed the level filter
+    private void log(LogLevel entryLevel, String pattern, int argCount, Object arg1, Object arg2, Object[] args) {
+        long timestamp = System.currentTimeMillis();
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            // Formatting happens on the writer thread, so arguments must not be mutated after the call
+            if (writer.publish(entryLevel, timestamp, pattern, argCount, arg1, arg2, args) || !writer.isShutdown()) {
+                return;
+            }
+            // disableAsync() shut the writer down after this thread read it: write synchronously
+        }
+        StringBuilder line = LINE_BUFFER.get();
+        line.setLength(0);
+        appendEntry(line, entryLevel, timestamp, pattern, argCount, arg1, arg2, args);
+        line.append(System.lineSeparator());
+        LogSink target = sink;
+        target.append(line, entryLevel == LogLevel.ERROR);
+        target.endBatch();
+        if (line.capacity() > MAX_RETAINED_BUFFER) {
+            LINE_BUFFER.remove(); // Don't keep one huge message's buffer alive per thread
+        }
+    }
+    
+    // Formats one entry as "[LEVEL] yyyy-MM-dd HH:mm:ss - message", substituting "{}" placeholders.
+    // Placeholders without an argument stay as "{}" and extra arguments are ignored. "\\{}" writes a
+    // literal "{}" without using an argument, and "\\\\{}" writes a backslash followed by the argument.
+    static void appendEntry(StringBuilder target, LogLevel entryLevel, long timestamp,
+                            String pattern, int argCount, Object arg1, Object arg2, Object[] args) {
+        target.append(entryLevel.getPrefix());
+        appendTimestamp(target, timestamp);
+        target.append(" - ");
+        if (pattern == null) {
+            target.append("null");
+            return;
+        }
+        int from = 0;
+        int i = 0;
+        while (i < argCount) {
+            int placeholder = pattern.indexOf("{}", from);
+            if (placeholder < 0) {
+                break;
+            }
+            boolean escaped = placeholder > 0 && pattern.charAt(placeholder - 1) == '\\';
+            if (escaped && !(placeholder > 1 && pattern.charAt(placeholder - 2) == '\\')) {
+                target.append(pattern, from, placeholder - 1).append("{}");
+            } else {
+                target.append(pattern, from, escaped ? placeholder - 1 : placeholder);
+                appendArgument(target, args != null ? args[i] : (i == 0 ? arg1 : arg2));
+                i++;
+            }
+            from = placeholder + 2;
+        }
+        target.append(pattern, from, pattern.length());
+    }
+    
+    // Appends boxed integers digit by digit; append(Object) would allocate a String for them
+    private static void appendArgument(StringBuilder target, Object argument) {
+        if (argument instanceof Long value) {
+            target.append(value.longValue());
+        } else if (argument instanceof Integer value) {
+            target.append(value.intValue());
+        } else {
+            target.append(argument);
+        }
+    }
+    
+    // Formatted text of the current second, shared by all threads and replaced once per second
+    private static final class CachedTimestamp {
+        final long epochSecond;
+        final String text;
+        
+        CachedTimestamp(long epochSecond) {
+            this.epochSecond = epochSecond;
+            this.text = formatter.format(LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZONE));
+        }
+    }
+    
+    private static void appendTimestamp(StringBuilder target, long timestamp) {
+        long epochSecond = Math.floorDiv(timestamp, 1000L);
+        CachedTimestamp cached = timestampCache;
+        if (cached.epochSecond != epochSecond) {
+            cached = new CachedTimestamp(epochSecond);
+            timestampCache = cached;
+        }
+        target.append(cached.text);
     }
     
     /**
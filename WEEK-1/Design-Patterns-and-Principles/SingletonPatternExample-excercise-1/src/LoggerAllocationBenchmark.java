@@ -0,0 +1,69 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures bytes allocated per log call with the HotSpot per-thread allocation counter
+ *
+ * Suppressed calls (DEBUG while the level is INFO) should allocate nothing when
+ * the parameterised methods are used, while building the message eagerly with
+ * string concatenation pays for the String even though it is discarded.
+ */
+public class LoggerAllocationBenchmark {
+
+    private static final int CALLS = 1_000_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        Logger logger = Logger.getInstance();
+        logger.setLevel(LogLevel.INFO);
+
+        // Pre-boxed arguments, as a caller passing existing objects would
+        Object requestId = "req-42";
+        Object elapsed = Long.valueOf(1234L);
+        Object status = "OK";
+
+        PrintStream console = System.out;
+        System.out.println("=== Bytes allocated per log call (" + CALLS + " calls each) ===");
+        for (int round = 1; round <= 3; round++) {
+            console.println("\n--- Round " + round + " ---");
+
+            long before = allocated();
+            for (int i = 0; i < CALLS; i++) {
+                logger.logDebug("Request " + requestId + " took " + i + " ms");
+            }
+            report(console, "Suppressed, concatenated message ", before);
+
+            before = allocated();
+            for (int i = 0; i < CALLS; i++) {
+                logger.logDebug("Request {} took {} ms", requestId, elapsed);
+            }
+            report(console, "Suppressed, parameterised (2 args)", before);
+
+            before = allocated();
+            for (int i = 0; i < CALLS; i++) {
+                logger.logDebug("Request {} took {} ms with {}", requestId, elapsed, status);
+            }
+            report(console, "Suppressed, parameterised (varargs)", before);
+
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            before = allocated();
+            for (int i = 0; i < CALLS; i++) {
+                logger.logInfo("Request {} took {} ms", requestId, elapsed);
+            }
+            System.setOut(console);
+            report(console, "Written, parameterised (2 args)   ", before);
+        }
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static void report(PrintStream out, String label, long before) {
+        long bytes = allocated() - before;
+        out.printf("%s: %8.2f bytes/call%n", label, (double) bytes / CALLS);
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures logging throughput from 16 threads in synchronous and asynchronous mode
+ *
+ * Console output is redirected to a discarding stream while measuring, so the
+ * numbers show the cost paid by the calling threads rather than terminal speed.
+ */
+public class LoggerBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int MESSAGES_PER_THREAD = 100_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Logger logger = Logger.getInstance();
+        PrintStream console = System.out;
+        PrintStream errors = System.err;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+        console.println("=== Logger Throughput (" + THREADS + " threads x " + MESSAGES_PER_THREAD + " messages) ===");
+        for (int round = 1; round <= 3; round++) {
+            console.println("\n--- Round " + round + " ---");
+
+            System.setOut(discard);
+            System.setErr(discard);
+            long sync = run(logger);
+            System.setOut(console);
+            System.setErr(errors);
+            report(console, "Synchronous        ", sync, 0);
+
+            for (AsyncLogWriter.OverflowPolicy policy : AsyncLogWriter.OverflowPolicy.values()) {
+                System.setOut(discard);
+                System.setErr(discard);
+                long droppedBefore = logger.getDroppedCount();
+                logger.enableAsync(1 << 16, policy);
+                long async = run(logger);
+                long dropped = logger.getDroppedCount() - droppedBefore;
+                logger.disableAsync();
+                System.setOut(console);
+                System.setErr(errors);
+                report(console, "Asynchronous " + String.format("%-6s", policy), async, dropped);
+            }
+        }
+    }
+
+    // Returns the time the calling threads spent logging, in nanoseconds
+    private static long run(Logger logger) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < MESSAGES_PER_THREAD; i++) {
+                    if ((i & 15) == 0) {
+                        logger.logWarning("Thread " + id + " slow request " + i);
+                    } else {
+                        logger.logInfo("Thread " + id + " handled request " + i);
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    private static void report(PrintStream out, String label, long nanos, long dropped) {
+        long messages = (long) THREADS * MESSAGES_PER_THREAD;
+        out.printf("%s: %,12.0f messages/s | %,6d ms | dropped %d%n",
+                label, messages * 1e9 / nanos, nanos / 1_000_000, dropped);
+    }
+}
@@ -0,0 +1,223 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Logger Formatting Test Suite
+ *
+ * Validates level filtering and "{}" formatting of the Logger in synchronous mode:
+ * - Level Filtering: entries below the minimum level are not written
+ * - Lazy Arguments: suppressed calls never call toString() on their arguments
+ * - Substitution: one, two and many arguments, nulls and boxed numbers
+ * - Argument Count Mismatch: too few arguments leave "{}", too many are ignored
+ * - Escaping: "\{}" is a literal placeholder and "\\{}" a backslash plus an argument
+ * - Console Output: ConsoleSink encodes large batches and non-ASCII text correctly
+ */
+public class LoggerFormattingTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Logger Formatting Test Suite ===\n");
+        Logger logger = Logger.getInstance();
+        logger.disableAsync();
+
+        testLevelFiltering(logger);
+        testLazyArguments(logger);
+        testSubstitution(logger);
+        testArgumentCountMismatch(logger);
+        testEscaping(logger);
+        testConsoleOutput(logger);
+
+        logger.setLevel(LogLevel.INFO);
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Sink that keeps the message part of every line
+    private static final class RecordingSink implements LogSink {
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void append(CharSequence entries, boolean error) {
+            for (String line : entries.toString().split(System.lineSeparator())) {
+                messages.add(line.substring(line.indexOf(" - ") + 3));
+            }
+        }
+    }
+
+    // Logs through a recording sink and returns the messages written
+    private static List<String> record(Logger logger, Runnable calls) {
+        RecordingSink sink = new RecordingSink();
+        LogSink previous = logger.setSink(sink);
+        try {
+            calls.run();
+        } finally {
+            logger.setSink(previous);
+        }
+        return sink.messages;
+    }
+
+    private static String single(Logger logger, Runnable call) {
+        List<String> messages = record(logger, call);
+        return messages.size() == 1 ? messages.get(0) : messages.toString();
+    }
+
+    /**
+     * Test 1: Level Filtering
+     *
+     * At INFO, debug entries are dropped; at DEBUG everything is written; at
+     * ERROR only errors are.
+     */
+    private static void testLevelFiltering(Logger logger) {
+        System.out.println("Test 1: Level Filtering");
+        Runnable allLevels = () -> {
+            logger.logDebug("debug");
+            logger.logInfo("info");
+            logger.logWarning("warning");
+            logger.logError("error");
+        };
+        logger.setLevel(LogLevel.INFO);
+        check(record(logger, allLevels).equals(List.of("info", "warning", "error")), "INFO drops debug entries");
+        logger.setLevel(LogLevel.DEBUG);
+        check(record(logger, allLevels).equals(List.of("debug", "info", "warning", "error")), "DEBUG writes every entry");
+        logger.setLevel(LogLevel.ERROR);
+        check(record(logger, allLevels).equals(List.of("error")), "ERROR writes only errors");
+        check(!logger.isEnabled(LogLevel.WARNING) && logger.isEnabled(LogLevel.ERROR), "isEnabled follows the level");
+        logger.setLevel(LogLevel.INFO);
+        System.out.println();
+    }
+
+    /**
+     * Test 2: Lazy Arguments
+     *
+     * A suppressed parameterised call does not format its arguments; a written
+     * one formats each exactly once.
+     */
+    private static void testLazyArguments(Logger logger) {
+        System.out.println("Test 2: Lazy Arguments");
+        int[] calls = new int[1];
+        Object expensive = new Object() {
+            @Override
+            public String toString() {
+                calls[0]++;
+                return "expensive";
+            }
+        };
+        logger.setLevel(LogLevel.INFO);
+        record(logger, () -> {
+            logger.logDebug("value {}", expensive);
+            logger.logDebug("values {} {}", expensive, expensive);
+            logger.logDebug("values {} {} {}", expensive, expensive, expensive);
+        });
+        check(calls[0] == 0, "suppressed calls never call toString()");
+        String written = single(logger, () -> logger.logInfo("value {}", expensive));
+        check(calls[0] == 1 && written.equals("value expensive"), "a written call formats the argument once");
+        System.out.println();
+    }
+
+    /**
+     * Test 3: Substitution
+     *
+     * Placeholders are filled in order for one, two and variable arguments,
+     * including null values, boxed numbers and a null pattern.
+     */
+    private static void testSubstitution(Logger logger) {
+        System.out.println("Test 3: Substitution");
+        check(single(logger, () -> logger.logInfo("Order {} shipped", "A-1")).equals("Order A-1 shipped"), "one argument");
+        check(single(logger, () -> logger.logInfo("{} took {} ms", "req-7", 1234L)).equals("req-7 took 1234 ms"),
+                "two arguments, one a boxed Long");
+        check(single(logger, () -> logger.logWarning("{}-{}-{}-{}", 1, 2.5, 'c', true)).equals("1-2.5-c-true"),
+                "varargs of mixed types");
+        check(single(logger, () -> logger.logInfo("value {}", (Object) null)).equals("value null"), "null argument");
+        check(single(logger, () -> logger.logInfo(null)).equals("null"), "null pattern");
+        check(single(logger, () -> logger.logInfo("{}{}", "a", "b")).equals("ab"), "adjacent placeholders");
+        System.out.println();
+    }
+
+    /**
+     * Test 4: Argument Count Mismatch
+     *
+     * Placeholders without an argument are written as "{}", and arguments
+     * without a placeholder are ignored.
+     */
+    private static void testArgumentCountMismatch(Logger logger) {
+        System.out.println("Test 4: Argument Count Mismatch");
+        check(single(logger, () -> logger.logInfo("a {} b {}", "x")).equals("a x b {}"), "too few arguments leave {}");
+        check(single(logger, () -> logger.logInfo("a {} c {} {}", "x", "y")).equals("a x c y {}"),
+                "two arguments for three placeholders");
+        check(single(logger, () -> logger.logInfo("only {}", "x", "y", "z")).equals("only x"), "extra arguments are ignored");
+        check(single(logger, () -> logger.logInfo("no placeholders", "x")).equals("no placeholders"),
+                "arguments without placeholders are ignored");
+        System.out.println();
+    }
+
+    /**
+     * Test 5: Escaping
+     *
+     * "\{}" is written as a literal "{}" and does not use up an argument;
+     * "\\{}" is written as one backslash followed by the argument.
+     */
+    private static void testEscaping(Logger logger) {
+        System.out.println("Test 5: Escaping");
+        check(single(logger, () -> logger.logInfo("literal \\{} then {}", "x")).equals("literal {} then x"),
+                "\\{} is a literal placeholder");
+        check(single(logger, () -> logger.logInfo("path C:\\\\{}", "dir")).equals("path C:\\dir"),
+                "\\\\{} is a backslash and the argument");
+        check(single(logger, () -> logger.logInfo("\\{}", "x")).equals("{}"), "escape at the start of the pattern");
+        System.out.println();
+    }
+
+    /**
+     * Test 6: Console Output
+     *
+     * ConsoleSink writes through reused buffers. A message larger than the
+     * buffers, with non-ASCII text and a surrogate pair across a buffer
+     * boundary, comes out intact, and errors go to System.err.
+     */
+    private static void testConsoleOutput(Logger logger) {
+        System.out.println("Test 6: Console Output");
+        StringBuilder text = new StringBuilder();
+        text.append("x".repeat(8191)).append("\uD83D\uDE00"); // Emoji split at the 8 KB boundary
+        for (int i = 0; i < 2000; i++) {
+            text.append(" Bront\u00eb Mis\u00e9rables ").append(i);
+        }
+        String message = text.toString();
+
+        PrintStream console = System.out;
+        PrintStream errors = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            logger.logInfo("{}", message);
+            logger.logError("failed: {}", "\u03a9mega");
+        } finally {
+            System.setOut(console);
+            System.setErr(errors);
+        }
+        String written = out.toString(StandardCharsets.UTF_8);
+        String writtenErrors = err.toString(StandardCharsets.UTF_8);
+        check(written.endsWith(" - " + message + System.lineSeparator()),
+                "a " + message.length() + "-character entry is written intact");
+        check(writtenErrors.endsWith(" - failed: \u03a9mega" + System.lineSeparator()) && !written.contains("\u03a9mega"),
+                "errors go to System.err only");
+        System.out.println();
+    }
+
+    private static void check(boolean condition, String description) {
+        testCount++;
+        if (condition) {
+            passCount++;
+            System.out.println("  PASS: " + description);
+        } else {
+            System.out.println("  FAIL: " + description);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * File sink that writes through a memory-mapped segment file
+ *
+ * Entries are UTF-8 encoded into a reusable buffer and copied into the mapped
+ * segment, so a write is a memory copy rather than a system call. When a
+ * segment is full it is trimmed to its written length and the next one,
+ * baseName-00001.log, baseName-00002.log and so on, is mapped. Only the newest
+ * maxSegments files are kept. Durability is controlled by the FsyncPolicy.
+ *
+ * A mapped segment is only trimmed after the sink has let go of its buffer. If
+ * the platform still refuses to truncate it, the trim is retried at the next
+ * rotation and on close(). Segments left untrimmed by a crash or a refused
+ * trim end in zero bytes; a new sink over the directory cuts those tails off
+ * before it continues the numbering after the newest segment.
+ */
+public final class MappedFileSink implements LogSink {
+
+    private final Path directory;
+    private final String baseName;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer scratch = ByteBuffer.allocate(64 * 1024);
+
+    private int segmentIndex = -1;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+    private long lastFsync = System.nanoTime();
+    private final Map<Path, Integer> untrimmed = new LinkedHashMap<>(); // Segment -> written length
+
+    public MappedFileSink(Path directory, String baseName, int segmentSize, int maxSegments,
+                          FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096 bytes: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        this.directory = directory;
+        this.baseName = baseName;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncIntervalMillis * 1_000_000L;
+        try {
+            Files.createDirectories(directory);
+            segmentIndex = trimExistingSegments();
+            openNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open log segment in " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void append(CharSequence entries, boolean error) {
+        if (segment == null) {
+            throw new IllegalStateException("Log sink is closed");
+        }
+        if (entries.length() == 0) {
+            return;
+        }
+        encode(entries);
+        try {
+            if (scratch.remaining() > segment.remaining() && segment.position() > 0) {
+                openNextSegment();
+            }
+            // A batch larger than a whole segment is spread over several segments
+            while (scratch.remaining() > segment.remaining()) {
+                int limit = scratch.limit();
+                scratch.limit(scratch.position() + segment.remaining());
+                segment.put(scratch);
+                scratch.limit(limit);
+                openNextSegment();
+            }
+            segment.put(scratch);
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate log segment in " + directory, e);
+        }
+    }
+
+    private void encode(CharSequence entries) {
+        CharBuffer chars = CharBuffer.wrap(entries);
+        scratch.clear();
+        encoder.reset();
+        while (encoder.encode(chars, scratch, true).isOverflow()) {
+            growScratch();
+        }
+        while (encoder.flush(scratch).isOverflow()) {
+            growScratch();
+        }
+        scratch.flip();
+    }
+
+    private void growScratch() {
+        ByteBuffer bigger = ByteBuffer.allocate(scratch.capacity() * 2);
+        scratch.flip();
+        bigger.put(scratch);
+        scratch = bigger;
+    }
+
+    @Override
+    public synchronized void endBatch() {
+        if (!dirty) {
+            return;
+        }
+        switch (fsyncPolicy) {
+            case EVERY_BATCH:
+                fsync();
+                break;
+            case PERIODIC:
+                if (System.nanoTime() - lastFsync >= fsyncIntervalNanos) {
+                    fsync();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void fsync() {
+        segment.force();
+        dirty = false;
+        lastFsync = System.nanoTime();
+    }
+
+    private void openNextSegment() throws IOException {
+        closeSegment();
+        segmentIndex++;
+        Path file = segmentPath(segmentIndex);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        if (segmentIndex >= maxSegments) {
+            Path expired = segmentPath(segmentIndex - maxSegments);
+            untrimmed.remove(expired);
+            Files.deleteIfExists(expired);
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (dirty && fsyncPolicy != FsyncPolicy.NEVER) {
+            fsync();
+        }
+        int written = segment.position();
+        segment = null; // Never touched again, so cutting the mapped range off below is safe
+        channel.close();
+        channel = null;
+        dirty = false;
+        // Drop the unused, zero-filled tail of the segment
+        untrimmed.put(segmentPath(segmentIndex), written);
+        retryTrims();
+    }
+
+    // Trims every closed segment still waiting for it; a refused trim stays queued for the next try
+    private void retryTrims() {
+        Iterator<Map.Entry<Path, Integer>> pending = untrimmed.entrySet().iterator();
+        while (pending.hasNext()) {
+            Map.Entry<Path, Integer> entry = pending.next();
+            try (FileChannel file = FileChannel.open(entry.getKey(), StandardOpenOption.WRITE)) {
+                file.truncate(entry.getValue());
+                pending.remove();
+            } catch (NoSuchFileException e) {
+                pending.remove();
+            } catch (IOException e) {
+                // Some platforms refuse to truncate a file that is still mapped; retried later
+            }
+        }
+    }
+
+    /**
+     * Cuts the zero-filled tails off segments left by a previous run
+     * @return the index of the newest segment, or -1 if there is none
+     */
+    private int trimExistingSegments() throws IOException {
+        int last = -1;
+        String prefix = baseName + "-";
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(".log")) {
+                    try {
+                        last = Math.max(last, Integer.parseInt(name.substring(prefix.length(), name.length() - 4)));
+                        segments.add(file);
+                    } catch (NumberFormatException e) {
+                        // Not one of our segments
+                    }
+                }
+            }
+        }
+        for (Path segment : segments) {
+            trimZeroTail(segment);
+        }
+        return last;
+    }
+
+    // Scans back from the end for the last non-zero byte; a trimmed segment ends in a line separator
+    private static void trimZeroTail(Path segment) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+            long end = file.size();
+            while (end > 0) {
+                long start = Math.max(0, end - chunk.capacity());
+                chunk.clear().limit((int) (end - start));
+                while (chunk.hasRemaining()) {
+                    if (file.read(chunk, start + chunk.position()) < 0) {
+                        break;
+                    }
+                }
+                int i = chunk.position() - 1;
+                while (i >= 0 && chunk.get(i) == 0) {
+                    i--;
+                }
+                if (i >= 0) {
+                    end = start + i + 1;
+                    break;
+                }
+                end = start;
+            }
+            if (end < file.size()) {
+                file.truncate(end);
+            }
+        }
+    }
+
+    /**
+     * @return closed segments whose zero-filled tail could not be cut off yet
+     */
+    public synchronized int getUntrimmedSegments() {
+        return untrimmed.size();
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s-%05d.log", baseName, index));
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close log segment in " + directory, e);
+        }
+    }
+}
@@ -13,15 +13,36 @@ private String cardNumber;
         this.cvv = cvv;
     }
     
+    /**
+     * Creates a shared, stateless strategy that takes the card from each PaymentRequest
+     */
+    public CreditCardPayment() {
+    }
+    
     @Override
     public void pay(double amount) {
-        System.out.println("Processing Credit Card Payment:");
-        System.out.println("Card Number: **** **** **** " + cardNumber.substring(cardNumber.length() - 4));
-        System.out.println("Cardholder: " + cardHolderName);
-        System.out.println("Amount: $" + amount);
-        System.out.println("Credit Card payment of $" + amount + " completed successfully!");
-        System.out.println("Transaction ID: CC" + System.currentTimeMillis());
-        System.out.println("----------------------------------------");
+        if (cardNumber == null) {
+            throw new IllegalStateException("No card bound to this strategy; use pay(PaymentRequest)");
+        }
+        charge(cardNumber, cardHolderName, amount);
+    }
+    
+    @Override
+    public void pay(PaymentRequest request) {
+        charge(request.getAccount(), request.getAccountHolder(), request.getAmount());
+    }
+    
+    // The receipt is printed in one call so receipts from concurrent payments do not interleave
+    private static void charge(String cardNumber, String cardHolderName, double amount) {
+        String separator = System.lineSeparator();
+        StringBuilder receipt = new StringBuilder(256)
+                .append("Processing Credit Card Payment:").append(separator)
+                .append("Card Number: **** **** **** ").append(cardNumber, cardNumber.length() - 4, cardNumber.length()).append(separator)
+                .append("Cardholder: ").append(cardHolderName).append(separator)
+                .append("Amount: $").append(amount).append(separator)
+                .append("Credit Card payment of $").append(amount).append(" completed successfully!").append(separator)
+                .append("Transaction ID: CC").append(System.currentTimeMillis()).append(separator)
+                .append("----------------------------------------").append(separator);
+        System.out.print(receipt);
     }
 }
-
@@ -8,14 +8,35 @@ private String email;
         this.password = password;
     }
     
+    /**
+     * Creates a shared, stateless strategy that takes the account from each PaymentRequest
+     */
+    public PayPalPayment() {
+    }
+    
     @Override
     public void pay(double amount) {
-        System.out.println("Processing PayPal Payment:");
-        System.out.println("PayPal Email: " + email);
-        System.out.println("Amount: $" + amount);
-        System.out.println("PayPal payment of $" + amount + " completed successfully!");
-        System.out.println("Transaction ID: PP" + System.currentTimeMillis());
-        System.out.println("----------------------------------------");
+        if (email == null) {
+            throw new IllegalStateException("No PayPal account bound to this strategy; use pay(PaymentRequest)");
+        }
+        charge(email, amount);
+    }
+    
+    @Override
+    public void pay(PaymentRequest request) {
+        charge(request.getAccount(), request.getAmount());
+    }
+    
+    // The receipt is printed in one call so receipts from concurrent payments do not interleave
+    private static void charge(String email, double amount) {
+        String separator = System.lineSeparator();
+        StringBuilder receipt = new StringBuilder(256)
+                .append("Processing PayPal Payment:").append(separator)
+                .append("PayPal Email: ").append(email).append(separator)
+                .append("Amount: $").append(amount).append(separator)
+                .append("PayPal payment of $").append(amount).append(" completed successfully!").append(separator)
+                .append("Transaction ID: PP").append(System.currentTimeMillis()).append(separator)
+                .append("----------------------------------------").append(separator);
+        System.out.print(receipt);
     }
 }
-
@@ -1,8 +1,29 @@
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
 public class PaymentContext {
 private PaymentStrategy paymentStrategy;
+    private final PaymentStrategyRegistry registry;
+    
+    // Partitions larger than this are split so one busy payment method can use several threads
+    private static final int SLICE_SIZE = 1024;
     
     public PaymentContext(PaymentStrategy paymentStrategy) {
+        this(paymentStrategy, PaymentStrategyRegistry.shared());
+    }
+    
+    /**
+     * Creates a context that executes PaymentRequests through the given shared registry
+     */
+    public PaymentContext(PaymentStrategy paymentStrategy, PaymentStrategyRegistry registry) {
         this.paymentStrategy = paymentStrategy;
+        this.registry = registry;
     }
     
     public void setPaymentStrategy(PaymentStrategy paymentStrategy) {
@@ -16,4 +37,55 @@ private PaymentStrategy paymentStrategy;
         }
         paymentStrategy.pay(amount);
     }
+    
+    /**
+     * Pays the request with the registry's strategy for its payment method
+     */
+    public void executePayment(PaymentRequest request) {
+        registry.execute(request);
+    }
+    
+    public int executePayments(List<PaymentRequest> requests) {
+        return executePayments(requests, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Executes a batch in parallel. The batch is partitioned by payment method, and each
+     * partition is processed in slices of up to 1024 requests on the executor. A failing
+     * payment does not stop the rest; failures are counted by the registry.
+     * @return the number of payments that succeeded
+     */
+    public int executePayments(List<PaymentRequest> requests, Executor executor) {
+        Map<PaymentMethod, List<PaymentRequest>> partitions = new EnumMap<>(PaymentMethod.class);
+        for (PaymentRequest request : requests) {
+            if (!registry.isRegistered(request.getMethod())) {
+                throw new IllegalArgumentException("No strategy registered for " + request.getMethod());
+            }
+            partitions.computeIfAbsent(request.getMethod(), method -> new ArrayList<>()).add(request);
+        }
+        
+        LongAdder succeeded = new LongAdder();
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for (List<PaymentRequest> partition : partitions.values()) {
+            for (int from = 0; from < partition.size(); from += SLICE_SIZE) {
+                List<PaymentRequest> slice = partition.subList(from, Math.min(from + SLICE_SIZE, partition.size()));
+                slices.add(CompletableFuture.runAsync(() -> {
+                    for (PaymentRequest request : slice) {
+                        try {
+                            registry.execute(request);
+                            succeeded.increment();
+                        } catch (RuntimeException e) {
+                            // Counted by the registry; carry on with the rest of the slice
+                        }
+                    }
+                }, executor));
+            }
+        }
+        CompletableFuture.allOf(slices.toArray(new CompletableFuture<?>[0])).join();
+        return succeeded.intValue();
+    }
+    
+    public PaymentStrategyRegistry getRegistry() {
+        return registry;
+    }
 }
@@ -0,0 +1,7 @@
+/**
+ * The payment methods a PaymentStrategyRegistry can hold a strategy for
+ */
+public enum PaymentMethod {
+    CREDIT_CARD,
+    PAYPAL
+}
@@ -0,0 +1,49 @@
+/**
+ * One payment to be executed through a shared strategy
+ *
+ * Carries the per-customer details that CreditCardPayment and PayPalPayment would
+ * otherwise hold, so a single strategy instance can serve every request.
+ */
+public final class PaymentRequest {
+    private final PaymentMethod method;
+    private final double amount;
+    private final String account;
+    private final String accountHolder;
+
+    public PaymentRequest(PaymentMethod method, double amount, String account, String accountHolder) {
+        if (method == null) {
+            throw new IllegalArgumentException("Payment method is required");
+        }
+        this.method = method;
+        this.amount = amount;
+        this.account = account;
+        this.accountHolder = accountHolder;
+    }
+
+    public static PaymentRequest creditCard(String cardNumber, String cardHolderName, double amount) {
+        return new PaymentRequest(PaymentMethod.CREDIT_CARD, amount, cardNumber, cardHolderName);
+    }
+
+    public static PaymentRequest payPal(String email, double amount) {
+        return new PaymentRequest(PaymentMethod.PAYPAL, amount, email, null);
+    }
+
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Card number for CREDIT_CARD, email address for PAYPAL
+     */
+    public String getAccount() {
+        return account;
+    }
+
+    public String getAccountHolder() {
+        return accountHolder;
+    }
+}
@@ -1,3 +1,11 @@
 public interface PaymentStrategy {
     void pay(double amount);
+
+    /**
+     * Pays with the details carried by the request. Strategies bound to one account
+     * ignore the details and pay the amount; shared strategies override this.
+     */
+    default void pay(PaymentRequest request) {
+        pay(request.getAmount());
+    }
 }
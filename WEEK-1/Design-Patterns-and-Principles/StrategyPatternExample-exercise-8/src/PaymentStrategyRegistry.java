@@ -0,0 +1,170 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared payment strategies keyed by PaymentMethod, with per-strategy metrics
+ *
+ * Each method maps to one strategy instance that is reused for every request, so
+ * callers no longer build a CreditCardPayment or PayPalPayment per payment. Every
+ * execution is counted and timed in LongAdder-based counters: recording a payment
+ * allocates nothing and does not contend with other threads, so the registry can be
+ * shared by every PaymentContext in the application.
+ */
+public class PaymentStrategyRegistry {
+
+    // Strategy and counters for one payment method
+    private static final class Entry {
+        final PaymentStrategy strategy;
+        final LongAdder payments = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final DoubleAdder amount = new DoubleAdder();
+
+        Entry(PaymentStrategy strategy) {
+            this.strategy = strategy;
+        }
+    }
+
+    // Created on first use, when a PaymentContext is built without a registry
+    private static final class Shared {
+        static final PaymentStrategyRegistry INSTANCE = withDefaultStrategies();
+    }
+
+    private final Map<PaymentMethod, Entry> entries = new EnumMap<>(PaymentMethod.class);
+    private volatile long statsSince = System.nanoTime();
+
+    /**
+     * The application-wide registry with the default strategies
+     */
+    public static PaymentStrategyRegistry shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * A registry holding stateless CreditCardPayment and PayPalPayment strategies
+     */
+    public static PaymentStrategyRegistry withDefaultStrategies() {
+        PaymentStrategyRegistry registry = new PaymentStrategyRegistry();
+        registry.register(PaymentMethod.CREDIT_CARD, new CreditCardPayment());
+        registry.register(PaymentMethod.PAYPAL, new PayPalPayment());
+        return registry;
+    }
+
+    /**
+     * Registers or replaces the strategy for a method. Register every strategy before
+     * the registry is shared between threads.
+     */
+    public void register(PaymentMethod method, PaymentStrategy strategy) {
+        if (method == null || strategy == null) {
+            throw new IllegalArgumentException("Method and strategy are required");
+        }
+        entries.put(method, new Entry(strategy));
+    }
+
+    public boolean isRegistered(PaymentMethod method) {
+        return entries.containsKey(method);
+    }
+
+    public PaymentStrategy getStrategy(PaymentMethod method) {
+        return entry(method).strategy;
+    }
+
+    /**
+     * Pays the request with the strategy registered for its method and records the
+     * outcome and latency. A failing strategy is counted and its exception rethrown.
+     */
+    public void execute(PaymentRequest request) {
+        Entry entry = entry(request.getMethod());
+        long start = System.nanoTime();
+        try {
+            entry.strategy.pay(request);
+        } catch (RuntimeException e) {
+            entry.failures.increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            entry.payments.increment();
+            entry.totalNanos.add(elapsed);
+            entry.maxNanos.accumulate(elapsed);
+        }
+        entry.amount.add(request.getAmount());
+    }
+
+    private Entry entry(PaymentMethod method) {
+        Entry entry = entries.get(method);
+        if (entry == null) {
+            throw new IllegalArgumentException("No strategy registered for " + method);
+        }
+        return entry;
+    }
+
+    /**
+     * Payments executed, including failed ones
+     */
+    public long getPaymentCount(PaymentMethod method) {
+        return entry(method).payments.sum();
+    }
+
+    public long getFailureCount(PaymentMethod method) {
+        return entry(method).failures.sum();
+    }
+
+    /**
+     * Total amount of the successful payments
+     */
+    public double getTotalAmount(PaymentMethod method) {
+        return entry(method).amount.sum();
+    }
+
+    public double getAverageLatencyMicros(PaymentMethod method) {
+        Entry entry = entry(method);
+        long payments = entry.payments.sum();
+        return payments == 0 ? 0.0 : entry.totalNanos.sum() / 1e3 / payments;
+    }
+
+    public double getMaxLatencyMicros(PaymentMethod method) {
+        return entry(method).maxNanos.get() / 1e3;
+    }
+
+    /**
+     * Payments per second since the registry was created or last reset
+     */
+    public double getThroughputPerSecond(PaymentMethod method) {
+        long elapsed = System.nanoTime() - statsSince;
+        return elapsed <= 0 ? 0.0 : getPaymentCount(method) * 1e9 / elapsed;
+    }
+
+    /**
+     * Clears every counter and restarts the throughput clock
+     */
+    public void resetStatistics() {
+        for (Entry entry : entries.values()) {
+            entry.payments.reset();
+            entry.failures.reset();
+            entry.totalNanos.reset();
+            entry.maxNanos.reset();
+            entry.amount.reset();
+        }
+        statsSince = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PaymentStrategyRegistry{");
+        String separator = "";
+        for (Map.Entry<PaymentMethod, Entry> e : entries.entrySet()) {
+            PaymentMethod method = e.getKey();
+            sb.append(separator).append(String.format(
+                    "%s: %s, payments=%d, failures=%d, amount=%.2f, avg=%.1f us, max=%.1f us, throughput=%.0f/s",
+                    method, e.getValue().strategy.getClass().getSimpleName(), getPaymentCount(method),
+                    getFailureCount(method), getTotalAmount(method), getAverageLatencyMicros(method),
+                    getMaxLatencyMicros(method), getThroughputPerSecond(method)));
+            separator = "; ";
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,65 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures payment throughput for a mixed batch of card and PayPal payments
+ *
+ * The baseline creates a new strategy and a new PaymentContext for every payment,
+ * as StrategyPatternExampleTest does. The registry runs reuse one shared strategy per
+ * payment method, first one payment at a time, then through executePayments, which
+ * processes the batch in parallel on the common pool.
+ */
+public class StrategyBenchmark {
+
+    private static final int PAYMENTS = 200_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        List<PaymentRequest> batch = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            batch.add(i % 3 == 0 ? PaymentRequest.payPal("customer" + i + "@example.com", 10.0 + i % 100)
+                    : PaymentRequest.creditCard(String.format("4000%012d", i), "Customer " + i, 10.0 + i % 100));
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Strategies print every receipt
+        try {
+            console.println("=== Strategy Benchmark ===");
+            console.println(PAYMENTS + " payments, " + Runtime.getRuntime().availableProcessors() + " CPU(s)\n");
+            PaymentStrategyRegistry registry = PaymentStrategyRegistry.withDefaultStrategies();
+            PaymentContext context = new PaymentContext(null, registry);
+            for (int round = 1; round <= ROUNDS; round++) {
+                console.println("Round " + round + ":");
+                report(console, "New strategy per payment", time(() -> payWithNewStrategies(batch)));
+                report(console, "Registry, sequential    ", time(() -> batch.forEach(context::executePayment)));
+                report(console, "Registry, parallel      ", time(() -> context.executePayments(batch)));
+                console.println();
+            }
+            console.println(registry);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void payWithNewStrategies(List<PaymentRequest> batch) {
+        for (PaymentRequest request : batch) {
+            PaymentStrategy strategy = request.getMethod() == PaymentMethod.CREDIT_CARD
+                    ? new CreditCardPayment(request.getAccount(), request.getAccountHolder(), "12/25", "123")
+                    : new PayPalPayment(request.getAccount(), "password");
+            new PaymentContext(strategy).executePayment(request.getAmount());
+        }
+    }
+
+    private static long time(Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(PrintStream console, String label, long nanos) {
+        double seconds = nanos / 1e9;
+        console.printf("  %s %,8.0f ms -> %,10.0f payments/s%n", label, nanos / 1e6, PAYMENTS / seconds);
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strategy Registry Test Suite
+ *
+ * Validates PaymentStrategyRegistry and the PaymentContext bulk path:
+ * - Shared Strategies: one stateless instance per payment method pays with each request's details
+ * - Metrics: payment counts, amounts, failures and latency are recorded per strategy
+ * - Bulk Execution: executePayments partitions by method and processes partitions in parallel
+ * - Failures: a failing payment is counted and does not stop the batch
+ * - Compatibility: strategies bound to an account still work as before
+ */
+public class StrategyRegistryTest {
+
+    private static int testCount = 0;
+    private static int passCount = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=== Strategy Registry Test Suite ===\n");
+
+        testSharedStrategies();
+        testPerStrategyMetrics();
+        testParallelBulkExecution();
+        testFailuresDoNotStopBatch();
+        testBoundStrategiesStillWork();
+
+        System.out.println("=== Test Summary ===");
+        System.out.println("Total Tests: " + testCount);
+        System.out.println("Passed: " + passCount);
+        System.out.println("Failed: " + (testCount - passCount));
+    }
+
+    // Runs the action and returns what it printed
+    private static String capture(Runnable action) {
+        PrintStream console = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            action.run();
+        } finally {
+            System.setOut(console);
+        }
+        return out.toString();
+    }
+
+    private static void quietly(Runnable action) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Test 1: Shared Strategies
+     *
+     * The registry returns the same strategy instance for every lookup, and that
+     * instance prints each request's own card or account on the receipt.
+     */
+    private static void testSharedStrategies() {
+        System.out.println("Test 1: Shared Strategies");
+        PaymentStrategyRegistry registry = PaymentStrategyRegistry.withDefaultStrategies();
+        boolean sameInstance = registry.getStrategy(PaymentMethod.CREDIT_CARD) == registry.getStrategy(PaymentMethod.CREDIT_CARD);
+        PaymentContext context = new PaymentContext(null, registry);
+        String receipts = capture(() -> {
+            context.executePayment(PaymentRequest.creditCard("1234567890123456", "John Doe", 100.0));
+            context.executePayment(PaymentRequest.creditCard("9999888877776543", "Jane Roe", 50.0));
+            context.executePayment(PaymentRequest.payPal("john@example.com", 25.0));
+        });
+        System.out.print(receipts.replaceAll("(?m)^", "    "));
+        check(sameInstance && receipts.contains("**** **** **** 3456") && receipts.contains("Cardholder: Jane Roe")
+                        && receipts.contains("**** **** **** 6543") && receipts.contains("PayPal Email: john@example.com"),
+                "One strategy instance serves every request with its own details");
+    }
+
+    /**
+     * Test 2: Per-Strategy Metrics
+     *
+     * Counts, total amounts and latencies are tracked separately for each method.
+     */
+    private static void testPerStrategyMetrics() {
+        System.out.println("Test 2: Per-Strategy Metrics");
+        PaymentStrategyRegistry registry = PaymentStrategyRegistry.withDefaultStrategies();
+        quietly(() -> {
+            for (int i = 0; i < 30; i++) {
+                registry.execute(PaymentRequest.creditCard("1234567890123456", "John Doe", 10.0));
+            }
+            for (int i = 0; i < 20; i++) {
+                registry.execute(PaymentRequest.payPal("john@example.com", 5.0));
+            }
+        });
+        System.out.println("  - " + registry);
+        check(registry.getPaymentCount(PaymentMethod.CREDIT_CARD) == 30
+                        && registry.getPaymentCount(PaymentMethod.PAYPAL) == 20
+                        && registry.getTotalAmount(PaymentMethod.CREDIT_CARD) == 300.0
+                        && registry.getTotalAmount(PaymentMethod.PAYPAL) == 100.0
+                        && registry.getAverageLatencyMicros(PaymentMethod.PAYPAL) > 0
+                        && registry.getMaxLatencyMicros(PaymentMethod.CREDIT_CARD)
+                                >= registry.getAverageLatencyMicros(PaymentMethod.CREDIT_CARD),
+                "Metrics are recorded per payment method");
+    }
+
+    /**
+     * Test 3: Parallel Bulk Execution
+     *
+     * 5,000 mixed requests are executed through executePayments on a 4-thread pool.
+     * Every request is paid exactly once, and both methods' partitions run on
+     * pool threads rather than the caller.
+     */
+    private static void testParallelBulkExecution() {
+        System.out.println("Test 3: Parallel Bulk Execution");
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger cardPayments = new AtomicInteger();
+        AtomicInteger walletPayments = new AtomicInteger();
+        PaymentStrategyRegistry registry = new PaymentStrategyRegistry();
+        registry.register(PaymentMethod.CREDIT_CARD, new PaymentStrategy() {
+            public void pay(double amount) {
+                threads.add(Thread.currentThread().getName());
+                cardPayments.incrementAndGet();
+            }
+        });
+        registry.register(PaymentMethod.PAYPAL, new PaymentStrategy() {
+            public void pay(double amount) {
+                threads.add(Thread.currentThread().getName());
+                walletPayments.incrementAndGet();
+            }
+        });
+        List<PaymentRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            batch.add(i % 5 == 0 ? PaymentRequest.payPal("user" + i + "@example.com", i)
+                    : PaymentRequest.creditCard("4000000000000000", "Customer " + i, i));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        int succeeded;
+        try {
+            succeeded = new PaymentContext(null, registry).executePayments(batch, pool);
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("  - Succeeded: " + succeeded + ", card: " + cardPayments + ", PayPal: " + walletPayments
+                + ", threads used: " + threads.size());
+        check(succeeded == 5000 && cardPayments.get() == 4000 && walletPayments.get() == 1000
+                        && !threads.contains(Thread.currentThread().getName()) && threads.size() > 1,
+                "Bulk payments are partitioned by method and processed in parallel");
+    }
+
+    /**
+     * Test 4: Failures Do Not Stop The Batch
+     *
+     * A strategy that rejects amounts over 1,000 fails those payments only; the
+     * registry counts them and the batch reports the rest as succeeded.
+     */
+    private static void testFailuresDoNotStopBatch() {
+        System.out.println("Test 4: Failures Do Not Stop The Batch");
+        PaymentStrategyRegistry registry = PaymentStrategyRegistry.withDefaultStrategies();
+        registry.register(PaymentMethod.PAYPAL, amount -> {
+            if (amount > 1000) {
+                throw new IllegalArgumentException("Limit exceeded");
+            }
+        });
+        List<PaymentRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(PaymentRequest.payPal("user@example.com", i % 10 == 0 ? 5000 : 10));
+        }
+        int succeeded = new PaymentContext(null, registry).executePayments(batch);
+        boolean rejectedUnknown = false;
+        PaymentStrategyRegistry empty = new PaymentStrategyRegistry();
+        try {
+            new PaymentContext(null, empty).executePayments(List.of(PaymentRequest.payPal("a@example.com", 1)));
+        } catch (IllegalArgumentException e) {
+            rejectedUnknown = true;
+        }
+        System.out.println("  - Succeeded: " + succeeded + ", failures: " + registry.getFailureCount(PaymentMethod.PAYPAL)
+                + ", amount: " + registry.getTotalAmount(PaymentMethod.PAYPAL));
+        check(succeeded == 90 && registry.getFailureCount(PaymentMethod.PAYPAL) == 10
+                        && registry.getTotalAmount(PaymentMethod.PAYPAL) == 900.0 && rejectedUnknown,
+                "Failed payments are counted without stopping the batch");
+    }
+
+    /**
+     * Test 5: Bound Strategies Still Work
+     *
+     * A CreditCardPayment created with card details pays as before, also through
+     * pay(PaymentRequest); a shared strategy refuses pay(double) since it has no card.
+     */
+    private static void testBoundStrategiesStillWork() {
+        System.out.println("Test 5: Bound Strategies Still Work");
+        PaymentContext context = new PaymentContext(new CreditCardPayment("1234567890123456", "John Doe", "12/25", "123"));
+        String receipt = capture(() -> context.executePayment(75.0));
+        boolean refused = false;
+        try {
+            new CreditCardPayment().pay(10.0);
+        } catch (IllegalStateException e) {
+            refused = true;
+        }
+        System.out.print(receipt.replaceAll("(?m)^", "    "));
+        check(receipt.contains("**** **** **** 3456") && receipt.contains("Amount: $75.0") && refused,
+                "Strategies bound to an account keep their behaviour");
+    }
+
+    private static void check(boolean passed, String description) {
+        testCount++;
+        if (passed) {
+            passCount++;
+            System.out.println("  PASS: " + description + "\n");
+        } else {
+            System.out.println("  FAIL: " + description + "\n");
+        }
+    }
+}